@@ -1,55 +1,42 @@
 // Main.java
 // Entry point for the RealmWar game.
 // Initializes the database, prompts for the number of players, and starts the game UI.
+// The game's images are decoded in the background meanwhile; the setup dialog shows how far that has come.
 
 package com.realmwar;
 
 import com.realmwar.data.DatabaseManager;
 import com.realmwar.engine.GameManager;
 import com.realmwar.util.Constants;
+import com.realmwar.view.AssetManager;
+import com.realmwar.view.EdtWatchdog;
 import com.realmwar.view.GameFrame;
 import javax.swing.*;
+import java.awt.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.IntConsumer;
 
 // Main class to start the game
 public class Main {
     public static void main(String[] args) {
+        // Start decoding the images while the database starts and the setup dialog is open
+        AssetManager.preload();
+        // Log event handlers that keep the UI from responding
+        EdtWatchdog.install();
+
         // Initialize the database
         DatabaseManager.initializeDatabase();
 
         // Run UI creation on the Event Dispatch Thread
         SwingUtilities.invokeLater(() -> {
-            // Prompt for number of players
-            Object[] options = {2, 3, 4};
-            Integer numPlayers = (Integer) JOptionPane.showInputDialog(
-                    null,
-                    "Select number of players:",
-                    "Realm War Setup",
-                    JOptionPane.PLAIN_MESSAGE,
-                    null,
-                    options,
-                    2);
-
-            // Exit if the user closes the dialog
-            if (numPlayers == null) {
+            // Exit if the user closes the setup dialog
+            GameManager gameManager = createGame(null);
+            if (gameManager == null) {
                 System.exit(0);
                 return;
             }
 
-            // Create player names
-            List<String> playerNames = new ArrayList<>();
-            for (int i = 1; i <= numPlayers; i++) {
-                playerNames.add("Player " + i);
-            }
-
-            // Initialize game manager
-            GameManager gameManager = new GameManager(
-                    playerNames,
-                    Constants.DEFAULT_BOARD_WIDTH,
-                    Constants.DEFAULT_BOARD_HEIGHT
-            );
-
             // Create and display the game window
             GameFrame gameFrame = new GameFrame(gameManager);
             gameFrame.setVisible(true);
@@ -57,4 +44,45 @@ public class Main {
             gameFrame.resetAndStartTurnTimer();
         });
     }
-}
\ No newline at end of file
+
+    // Prompts for the number of players and creates a new game for them; returns null if the dialog was closed
+    // Also used by the game window to start another game in place
+    public static GameManager createGame(Component parent) {
+        // Progress of the image decoding, shown below the prompt
+        JProgressBar assetProgress = new JProgressBar(0, AssetManager.getAssetCount());
+        assetProgress.setStringPainted(true);
+        IntConsumer progressListener = loaded -> {
+            assetProgress.setValue(loaded);
+            assetProgress.setString(loaded < AssetManager.getAssetCount()
+                    ? "Loading images " + loaded + "/" + AssetManager.getAssetCount() : "Images loaded");
+        };
+        progressListener.accept(AssetManager.getLoadedCount());
+        AssetManager.addProgressListener(progressListener);
+
+        // Prompt for number of players
+        Object[] options = {2, 3, 4};
+        Integer numPlayers = (Integer) JOptionPane.showInputDialog(
+                parent,
+                new Object[]{"Select number of players:", assetProgress},
+                "Realm War Setup",
+                JOptionPane.PLAIN_MESSAGE,
+                null,
+                options,
+                2);
+        AssetManager.removeProgressListener(progressListener);
+        if (numPlayers == null) return null;
+
+        // Create player names
+        List<String> playerNames = new ArrayList<>();
+        for (int i = 1; i <= numPlayers; i++) {
+            playerNames.add("Player " + i);
+        }
+
+        // Initialize game manager
+        return new GameManager(
+                playerNames,
+                Constants.DEFAULT_BOARD_WIDTH,
+                Constants.DEFAULT_BOARD_HEIGHT
+        );
+    }
+}
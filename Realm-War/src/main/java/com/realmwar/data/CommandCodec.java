@@ -0,0 +1,99 @@
+// CommandCodec.java
+// Binary encoding of GameCommands inside command log records, using the RecordEncoder varint formats.
+// Record codes are part of the file format and must never be reused or changed.
+
+package com.realmwar.data;
+
+import com.realmwar.engine.command.GameCommand;
+
+import java.io.IOException;
+
+// Final utility class for encoding and decoding commands, preventing instantiation
+final class CommandCodec {
+
+    // Record codes; STATE records hold a full GameStateCodec state instead of a command,
+    // CHECKSUM records the turn number and state checksum after an EndTurn
+    static final int STATE = 0;
+    static final int MOVE = 1;
+    static final int STEP = 2;
+    static final int ATTACK = 3;
+    static final int BUILD = 4;
+    static final int TRAIN = 5;
+    static final int UPGRADE = 6;
+    static final int MERGE = 7;
+    static final int END_TURN = 8;
+    static final int RESOURCE_TICK = 9;
+    static final int UNDO = 10;
+    static final int REDO = 11;
+    static final int CHECKSUM = 12;
+
+    // Private constructor to prevent instantiation
+    private CommandCodec() {}
+
+    // Appends a command's code and fields
+    static void encode(GameCommand command, RecordEncoder out) {
+        if (command instanceof GameCommand.Move move) {
+            out.writeVarLong(MOVE);
+            writeCoordinates(out, move.fromX(), move.fromY(), move.toX(), move.toY());
+        } else if (command instanceof GameCommand.Step step) {
+            out.writeVarLong(STEP);
+            writeCoordinates(out, step.fromX(), step.fromY(), step.toX(), step.toY());
+        } else if (command instanceof GameCommand.Attack attack) {
+            out.writeVarLong(ATTACK);
+            writeCoordinates(out, attack.fromX(), attack.fromY(), attack.targetX(), attack.targetY());
+        } else if (command instanceof GameCommand.Build build) {
+            out.writeVarLong(BUILD);
+            out.writeString(build.structureType());
+            writeCoordinates(out, build.x(), build.y());
+        } else if (command instanceof GameCommand.Train train) {
+            out.writeVarLong(TRAIN);
+            out.writeString(train.unitType());
+            writeCoordinates(out, train.x(), train.y());
+        } else if (command instanceof GameCommand.Upgrade upgrade) {
+            out.writeVarLong(UPGRADE);
+            writeCoordinates(out, upgrade.x(), upgrade.y());
+        } else if (command instanceof GameCommand.Merge merge) {
+            out.writeVarLong(MERGE);
+            writeCoordinates(out, merge.x1(), merge.y1(), merge.x2(), merge.y2());
+        } else if (command instanceof GameCommand.EndTurn) {
+            out.writeVarLong(END_TURN);
+        } else if (command instanceof GameCommand.ResourceTick) {
+            out.writeVarLong(RESOURCE_TICK);
+        } else if (command instanceof GameCommand.Undo) {
+            out.writeVarLong(UNDO);
+        } else if (command instanceof GameCommand.Redo) {
+            out.writeVarLong(REDO);
+        }
+    }
+
+    // Reads the fields of a command with the given code; returns null for codes from newer versions
+    static GameCommand decode(int code, RecordDecoder in) throws IOException {
+        return switch (code) {
+            case MOVE -> new GameCommand.Move(in.readInt(), in.readInt(), in.readInt(), in.readInt());
+            case STEP -> new GameCommand.Step(in.readInt(), in.readInt(), in.readInt(), in.readInt());
+            case ATTACK -> new GameCommand.Attack(in.readInt(), in.readInt(), in.readInt(), in.readInt());
+            case BUILD -> new GameCommand.Build(typeName(in.readString()), in.readInt(), in.readInt());
+            case TRAIN -> new GameCommand.Train(typeName(in.readString()), in.readInt(), in.readInt());
+            case UPGRADE -> new GameCommand.Upgrade(in.readInt(), in.readInt());
+            case MERGE -> new GameCommand.Merge(in.readInt(), in.readInt(), in.readInt(), in.readInt());
+            case END_TURN -> GameCommand.END_TURN;
+            case RESOURCE_TICK -> GameCommand.RESOURCE_TICK;
+            case UNDO -> GameCommand.UNDO;
+            case REDO -> GameCommand.REDO;
+            default -> null;
+        };
+    }
+
+    // Writes a sequence of coordinates
+    private static void writeCoordinates(RecordEncoder out, int... values) {
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    // Shares the string instances of known type names across decoded commands
+    private static String typeName(String name) throws IOException {
+        if (name == null) throw new IOException("Missing type name");
+        return name.intern();
+    }
+}
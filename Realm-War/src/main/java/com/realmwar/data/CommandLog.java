@@ -0,0 +1,198 @@
+// CommandLog.java
+// Persists the command stream of the RealmWar game being played, one file per game session.
+// Each file starts with the full game state taken just before the session's first player action, followed by every
+// command that was applied successfully, so GameRecording can rebuild the session by deterministic replay.
+// Only the newest realmwar.commands.keepFiles files (default 20) are kept.
+//
+// File format: "RWCM", version byte, then records of
+//   varint body length | varint record code | fields (see CommandCodec)
+// The first record is a STATE record: varlong epoch millis and a length-prefixed GameStateCodec state.
+// Further STATE records are keyframes written every few turns, holding the state after the commands before them.
+// Every EndTurn is followed by a CHECKSUM record: varint turn number and the zigzag-varint StateChecksum value.
+
+package com.realmwar.data;
+
+import com.realmwar.engine.GameManager;
+import com.realmwar.engine.command.GameCommand;
+import com.realmwar.util.Config;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Static facade for recording the commands of the current game
+public final class CommandLog {
+
+    // File signature, format version and file name suffix
+    static final byte[] MAGIC = {'R', 'W', 'C', 'M'};
+    static final int VERSION = 1;
+    public static final String SUFFIX = ".rwcmd";
+
+    // Configuration: realmwar.commands.enabled, dir, keyframeTurns and keepFiles
+    private static final boolean ENABLED = Config.getBoolean("realmwar.commands.enabled", true);
+    private static final Path DIRECTORY = Path.of(Config.get("realmwar.commands.dir", "commands"));
+    private static final int KEYFRAME_TURNS = Math.max(1, Config.getInt("realmwar.commands.keyframeTurns", 10));
+    private static final int KEEP_FILES = Math.max(1, Config.getInt("realmwar.commands.keepFiles", 20));
+
+    // Encoders for the record body and its length prefix; guarded by the class lock like all state below
+    private static final RecordEncoder body = new RecordEncoder();
+    private static final RecordEncoder prefix = new RecordEncoder();
+    // Game whose session is being recorded, its file and the open stream (null after a failure)
+    private static GameManager game;
+    private static Path file;
+    private static OutputStream out;
+    // Turns ended since the last STATE record
+    private static int turnsSinceKeyframe;
+    // Whether the shutdown hook that closes the file is registered
+    private static boolean hookInstalled;
+
+    // Private constructor to prevent instantiation
+    private CommandLog() {}
+
+    // Starts a new session file for a game, unless its session is already open
+    public static synchronized void begin(GameManager gameManager) {
+        if (!ENABLED || game == gameManager) return;
+        close();
+        game = gameManager;
+        try {
+            Files.createDirectories(DIRECTORY);
+            String stamp = new SimpleDateFormat("yyyyMMdd-HHmmss-SSS").format(new Date());
+            file = DIRECTORY.resolve(gameManager.getGameId() + "-" + stamp + SUFFIX);
+            out = new BufferedOutputStream(Files.newOutputStream(file), 64 * 1024);
+            out.write(MAGIC);
+            out.write(VERSION);
+            writeState(gameManager);
+            if (!hookInstalled) {
+                hookInstalled = true;
+                Runtime.getRuntime().addShutdownHook(new Thread(CommandLog::close, "command-log-shutdown"));
+            }
+        } catch (IOException e) {
+            fail(e);
+            return;
+        }
+        try {
+            pruneOldFiles();
+        } catch (IOException e) {
+            // Recording goes on; the next session tries again
+            GameLogger.log(LogLevel.WARN, LogCategory.PERSISTENCE, "Could not delete old command logs: {}", e.getMessage());
+        }
+    }
+
+    // Appends a command that was applied to the game; every turn end is followed by the state checksum and a flush,
+    // and every few turns by a keyframe so that replays can seek without starting over
+    public static synchronized void record(GameManager gameManager, GameCommand command) {
+        if (out == null || game != gameManager) return;
+        body.reset();
+        CommandCodec.encode(command, body);
+        writeRecord();
+        if (command instanceof GameCommand.EndTurn) {
+            body.reset();
+            body.writeVarLong(CommandCodec.CHECKSUM);
+            body.writeVarLong(gameManager.getTurnNumber());
+            body.writeLong(gameManager.getChecksum());
+            writeRecord();
+            if (++turnsSinceKeyframe >= KEYFRAME_TURNS) {
+                writeState(gameManager);
+            }
+            flush();
+        }
+    }
+
+    // Writes buffered commands to disk
+    public static synchronized void flush() {
+        if (out == null) return;
+        try {
+            out.flush();
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    // Closes the current session file
+    public static synchronized void close() {
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                System.err.println("CRITICAL: Could not close command log: " + e.getMessage());
+            }
+        }
+        out = null;
+        game = null;
+    }
+
+    // Returns the file of the current session, or null if none is being written
+    public static synchronized Path getCurrentFile() {
+        return out != null ? file : null;
+    }
+
+    // Writes a STATE record holding the game's full current state
+    private static void writeState(GameManager gameManager) {
+        body.reset();
+        body.writeVarLong(CommandCodec.STATE);
+        body.writeVarLong(System.currentTimeMillis());
+        body.writeBytes(GameStateCodec.encode(gameManager));
+        writeRecord();
+        turnsSinceKeyframe = 0;
+    }
+
+    // Deletes the oldest session files beyond the configured count; the current one is the newest and always stays
+    private static void pruneOldFiles() throws IOException {
+        List<Path> sessions = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(DIRECTORY, "*" + SUFFIX)) {
+            files.forEach(sessions::add);
+        }
+        sessions.remove(file);
+        // Names start with the game id, so they are ordered by modification time instead
+        Map<Path, FileTime> modified = new HashMap<>();
+        for (Path session : sessions) {
+            modified.put(session, Files.getLastModifiedTime(session));
+        }
+        sessions.sort(Comparator.comparing(modified::get));
+        for (int i = 0; i < sessions.size() - (KEEP_FILES - 1); i++) {
+            Files.deleteIfExists(sessions.get(i));
+        }
+    }
+
+    // Returns the directory command logs are written to
+    public static Path getDirectory() {
+        return DIRECTORY;
+    }
+
+    // Writes the encoded body behind its length prefix
+    private static void writeRecord() {
+        if (out == null) return;
+        prefix.reset();
+        prefix.writeVarLong(body.size());
+        try {
+            prefix.writeTo(out);
+            body.writeTo(out);
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    // Stops recording the current session after an I/O error; the next game tries again
+    private static void fail(IOException e) {
+        GameLogger.log(LogLevel.ERROR, LogCategory.PERSISTENCE, "CRITICAL: Command log disabled for this game: {}", e.getMessage());
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException ignored) {
+                // Already failing
+            }
+        }
+        out = null;
+    }
+}
@@ -0,0 +1,380 @@
+// GameEventLog.java
+// Structured, machine-readable event stream of the RealmWar game, written next to the free-text gamelog.txt.
+// Records are length-prefixed and varint-encoded following the GameEventType schemas.
+// The active file is rotated by size and age, and rotated files are gzip-compressed in the background.
+//
+// File format: "RWEV", version byte, then records of
+//   varint body length | varint type code | varlong epoch millis | varint turn | fields...
+// Ints and longs are zigzag varints, booleans one byte, strings a varint (byte length + 1, 0 for null) and UTF-8 bytes.
+
+package com.realmwar.data;
+
+import com.realmwar.util.Config;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// Static facade for appending typed game events
+public final class GameEventLog {
+
+    // File signature and format version
+    static final byte[] MAGIC = {'R', 'W', 'E', 'V'};
+    static final int VERSION = 1;
+    // Name of the file currently being written, and the prefix and suffix of rotated files
+    static final String ACTIVE_FILE = "game-events.rwev";
+    static final String ROTATED_PREFIX = "game-events-";
+    static final String ROTATED_SUFFIX = ".rwev.gz";
+
+    // Configuration: realmwar.events.enabled, dir, maxMegabytes, rotateMinutes and keepFiles
+    private static final boolean ENABLED = Config.getBoolean("realmwar.events.enabled", true);
+    private static final Path DIRECTORY = Path.of(Config.get("realmwar.events.dir", "events"));
+    private static final long MAX_FILE_BYTES = Config.getLong("realmwar.events.maxMegabytes", 16) * 1024 * 1024;
+    private static final long MAX_FILE_AGE_MILLIS = TimeUnit.MINUTES.toMillis(Config.getLong("realmwar.events.rotateMinutes", 60));
+    private static final int KEEP_FILES = Config.getInt("realmwar.events.keepFiles", 20);
+    // Buffered records are flushed to disk at least this often
+    private static final long FLUSH_INTERVAL_MILLIS = 1000;
+
+    // Encoder reused for every record body; guarded by the class lock like all mutable state below
+    private static final RecordEncoder body = new RecordEncoder();
+    // Encoder for the length prefix
+    private static final RecordEncoder prefix = new RecordEncoder();
+    // Active file stream, its size and the time it was opened
+    private static OutputStream out;
+    private static long fileBytes;
+    private static long fileOpenedAt;
+    // Set once opening the log has been attempted; a failure disables the log for the session
+    private static boolean started;
+    // Background thread for periodic flushes and compression of rotated files
+    private static ScheduledExecutorService background;
+
+    // Private constructor to prevent instantiation
+    private GameEventLog() {}
+
+    // Records the start of a new or loaded game
+    public static void gameStart(int turn, String gameId, List<String> players, int width, int height, boolean resumed) {
+        if (!ENABLED || GameLogger.isMuted()) return;
+        synchronized (GameEventLog.class) {
+            if (!begin(GameEventType.GAME_START, turn)) return;
+            body.writeString(gameId);
+            body.writeString(String.join(",", players));
+            body.writeInt(width);
+            body.writeInt(height);
+            body.writeBoolean(resumed);
+            end();
+        }
+    }
+
+    // Records a unit move
+    public static void move(int turn, String player, String unit, int fromX, int fromY, int toX, int toY) {
+        if (!ENABLED || GameLogger.isMuted()) return;
+        synchronized (GameEventLog.class) {
+            if (!begin(GameEventType.MOVE, turn)) return;
+            body.writeString(player);
+            body.writeString(unit);
+            body.writeInt(fromX);
+            body.writeInt(fromY);
+            body.writeInt(toX);
+            body.writeInt(toY);
+            end();
+        }
+    }
+
+    // Records an attack by a unit or tower
+    public static void attack(int turn, String player, String attacker, String targetPlayer, String target,
+                              int x, int y, int damage, boolean destroyed) {
+        if (!ENABLED || GameLogger.isMuted()) return;
+        synchronized (GameEventLog.class) {
+            if (!begin(GameEventType.ATTACK, turn)) return;
+            body.writeString(player);
+            body.writeString(attacker);
+            body.writeString(targetPlayer);
+            body.writeString(target);
+            body.writeInt(x);
+            body.writeInt(y);
+            body.writeInt(damage);
+            body.writeBoolean(destroyed);
+            end();
+        }
+    }
+
+    // Records a structure being built
+    public static void build(int turn, String player, String structure, int x, int y, int gold) {
+        if (!ENABLED || GameLogger.isMuted()) return;
+        synchronized (GameEventLog.class) {
+            if (!begin(GameEventType.BUILD, turn)) return;
+            body.writeString(player);
+            body.writeString(structure);
+            body.writeInt(x);
+            body.writeInt(y);
+            body.writeInt(gold);
+            end();
+        }
+    }
+
+    // Records a unit being trained
+    public static void train(int turn, String player, String unit, int x, int y, int gold, int food) {
+        if (!ENABLED || GameLogger.isMuted()) return;
+        synchronized (GameEventLog.class) {
+            if (!begin(GameEventType.TRAIN, turn)) return;
+            body.writeString(player);
+            body.writeString(unit);
+            body.writeInt(x);
+            body.writeInt(y);
+            body.writeInt(gold);
+            body.writeInt(food);
+            end();
+        }
+    }
+
+    // Records two units merging into the given unit
+    public static void merge(int turn, String player, String unit, int x, int y) {
+        if (!ENABLED || GameLogger.isMuted()) return;
+        synchronized (GameEventLog.class) {
+            if (!begin(GameEventType.MERGE, turn)) return;
+            body.writeString(player);
+            body.writeString(unit);
+            body.writeInt(x);
+            body.writeInt(y);
+            end();
+        }
+    }
+
+    // Records the end of a player's turn with the maintenance paid and the resources left
+    public static void turnEnd(int turn, String player, String nextPlayer, int maintenance, int gold, int food) {
+        if (!ENABLED || GameLogger.isMuted()) return;
+        synchronized (GameEventLog.class) {
+            if (!begin(GameEventType.TURN_END, turn)) return;
+            body.writeString(player);
+            body.writeString(nextPlayer);
+            body.writeInt(maintenance);
+            body.writeInt(gold);
+            body.writeInt(food);
+            end();
+        }
+    }
+
+    // Records a periodic resource gain
+    public static void resourceTick(int turn, String player, int goldIncome, int foodIncome, int gold, int food) {
+        if (!ENABLED || GameLogger.isMuted()) return;
+        synchronized (GameEventLog.class) {
+            if (!begin(GameEventType.RESOURCE_TICK, turn)) return;
+            body.writeString(player);
+            body.writeInt(goldIncome);
+            body.writeInt(foodIncome);
+            body.writeInt(gold);
+            body.writeInt(food);
+            end();
+        }
+    }
+
+    // Records a save attempt and how long it took
+    public static void save(int turn, String saveName, String store, long millis, boolean success) {
+        if (!ENABLED || GameLogger.isMuted()) return;
+        synchronized (GameEventLog.class) {
+            if (!begin(GameEventType.SAVE, turn)) return;
+            body.writeString(saveName);
+            body.writeString(store);
+            body.writeLong(millis);
+            body.writeBoolean(success);
+            end();
+        }
+    }
+
+    // Records the end of a game; winner is null for a draw
+    public static void gameOver(int turn, String winner) {
+        if (!ENABLED || GameLogger.isMuted()) return;
+        synchronized (GameEventLog.class) {
+            if (!begin(GameEventType.GAME_OVER, turn)) return;
+            body.writeString(winner);
+            end();
+        }
+    }
+
+    // Records the state checksum taken at a turn end
+    public static void checksum(int turn, long checksum) {
+        if (!ENABLED || GameLogger.isMuted()) return;
+        synchronized (GameEventLog.class) {
+            if (!begin(GameEventType.CHECKSUM, turn)) return;
+            body.writeLong(checksum);
+            end();
+        }
+    }
+
+    // Whether events are being written, so callers can skip work that only feeds the log
+    public static boolean isRecording() {
+        return ENABLED && !GameLogger.isMuted();
+    }
+
+    // Writes buffered records to disk
+    public static synchronized void flush() {
+        if (out == null) return;
+        try {
+            out.flush();
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    // Starts a record; returns false if the log is unavailable
+    private static boolean begin(GameEventType type, int turn) {
+        if (!started) start();
+        if (out == null) return false;
+        body.reset();
+        body.writeVarLong(type.code);
+        body.writeVarLong(System.currentTimeMillis());
+        body.writeInt(turn);
+        return true;
+    }
+
+    // Completes the record begun last, writing it behind its length prefix, and rotates if the file is full
+    private static void end() {
+        prefix.reset();
+        prefix.writeVarLong(body.size());
+        try {
+            prefix.writeTo(out);
+            body.writeTo(out);
+            fileBytes += prefix.size() + body.size();
+            if (fileBytes >= MAX_FILE_BYTES || System.currentTimeMillis() - fileOpenedAt >= MAX_FILE_AGE_MILLIS) {
+                rotate();
+            }
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    // Opens the log on first use; a file left by a previous session is rotated first
+    private static void start() {
+        started = true;
+        try {
+            Files.createDirectories(DIRECTORY);
+            background = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "game-events");
+                thread.setDaemon(true);
+                return thread;
+            });
+            Path active = DIRECTORY.resolve(ACTIVE_FILE);
+            if (Files.exists(active) && Files.size(active) > 0) {
+                compressLater(moveAside(active));
+            }
+            openActive();
+            background.scheduleWithFixedDelay(GameEventLog::tick, FLUSH_INTERVAL_MILLIS, FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+            Runtime.getRuntime().addShutdownHook(new Thread(GameEventLog::close, "game-events-shutdown"));
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    // Creates a fresh active file and writes the header
+    private static void openActive() throws IOException {
+        out = new BufferedOutputStream(Files.newOutputStream(DIRECTORY.resolve(ACTIVE_FILE)), 64 * 1024);
+        out.write(MAGIC);
+        out.write(VERSION);
+        fileBytes = MAGIC.length + 1;
+        fileOpenedAt = System.currentTimeMillis();
+    }
+
+    // Closes the active file, queues it for compression and starts a new one
+    private static void rotate() throws IOException {
+        out.close();
+        out = null;
+        compressLater(moveAside(DIRECTORY.resolve(ACTIVE_FILE)));
+        openActive();
+    }
+
+    // Renames a finished file to its timestamped rotated name (without the .gz suffix yet)
+    private static Path moveAside(Path file) throws IOException {
+        String stamp = new SimpleDateFormat("yyyyMMdd-HHmmss-SSS").format(new Date(Files.getLastModifiedTime(file).toMillis()));
+        Path target = DIRECTORY.resolve(ROTATED_PREFIX + stamp + ".rwev");
+        // Rotations within the same millisecond get a sequence suffix instead of overwriting each other
+        for (int sequence = 1; Files.exists(target) || Files.exists(target.resolveSibling(target.getFileName() + ".gz")); sequence++) {
+            target = DIRECTORY.resolve(ROTATED_PREFIX + stamp + "-" + sequence + ".rwev");
+        }
+        return Files.move(file, target);
+    }
+
+    // Compresses a rotated file off the game thread and prunes old files
+    private static void compressLater(Path file) {
+        background.execute(() -> {
+            Path gzip = file.resolveSibling(file.getFileName() + ".gz");
+            Path partial = file.resolveSibling(file.getFileName() + ".gz.tmp");
+            try (InputStream in = Files.newInputStream(file);
+                 OutputStream gz = new GZIPOutputStream(Files.newOutputStream(partial), 64 * 1024)) {
+                in.transferTo(gz);
+            } catch (IOException e) {
+                GameLogger.log(LogLevel.WARN, LogCategory.PERSISTENCE, "Could not compress event log {}: {}", file, e.getMessage());
+                return;
+            }
+            try {
+                Files.move(partial, gzip, StandardCopyOption.REPLACE_EXISTING);
+                Files.delete(file);
+                pruneRotated();
+            } catch (IOException e) {
+                GameLogger.log(LogLevel.WARN, LogCategory.PERSISTENCE, "Could not finish rotating event log {}: {}", file, e.getMessage());
+            }
+        });
+    }
+
+    // Deletes the oldest compressed files beyond the configured count
+    private static void pruneRotated() throws IOException {
+        List<Path> rotated = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(DIRECTORY, ROTATED_PREFIX + "*" + ROTATED_SUFFIX)) {
+            files.forEach(rotated::add);
+        }
+        // Timestamped names sort chronologically
+        rotated.sort(null);
+        for (int i = 0; i < rotated.size() - KEEP_FILES; i++) {
+            Files.deleteIfExists(rotated.get(i));
+        }
+    }
+
+    // Periodic flush, which also rotates a file that has aged out while the game was idle
+    private static synchronized void tick() {
+        if (out == null) return;
+        try {
+            out.flush();
+            if (fileBytes > MAGIC.length + 1 && System.currentTimeMillis() - fileOpenedAt >= MAX_FILE_AGE_MILLIS) {
+                rotate();
+            }
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    // Flushes and closes the active file on exit; the next session rotates it
+    private static synchronized void close() {
+        if (out == null) return;
+        try {
+            out.close();
+        } catch (IOException e) {
+            System.err.println("CRITICAL: Could not close event log: " + e.getMessage());
+        }
+        out = null;
+    }
+
+    // Disables the log for the rest of the session after an I/O error
+    private static void fail(IOException e) {
+        GameLogger.log(LogLevel.ERROR, LogCategory.PERSISTENCE, "CRITICAL: Event log disabled: {}", e.getMessage());
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException ignored) {
+                // Already failing
+            }
+        }
+        out = null;
+    }
+}
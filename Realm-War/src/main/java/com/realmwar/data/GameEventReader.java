@@ -0,0 +1,121 @@
+// GameEventReader.java
+// Reads RealmWar event log files written by GameEventLog, plain or gzip-compressed.
+// Records of types this version does not know are skipped using their length prefix.
+
+package com.realmwar.data;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+// Sequential decoder for one event log file
+public final class GameEventReader implements Closeable {
+
+    // One decoded record; values follow type.fields and hold String, Integer, Long or Boolean
+    public record Event(GameEventType type, long timeMillis, int turn, Object[] values) {
+        // Gets a field value by name, or null if the type has no such field
+        public Object get(String fieldName) {
+            for (int i = 0; i < type.fields.size(); i++) {
+                if (type.fields.get(i).name().equals(fieldName)) return values[i];
+            }
+            return null;
+        }
+    }
+
+    // Underlying stream
+    private final DataInputStream in;
+    // Current record body and its decoder
+    private byte[] body = new byte[256];
+    private final RecordDecoder decoder = new RecordDecoder();
+
+    // Opens a file, detecting gzip compression by its extension, and checks the header
+    public GameEventReader(Path file) throws IOException {
+        this(open(file), file.toString());
+    }
+
+    // Reads an uncompressed event log from any stream, e.g. a memory-mapped file; checks the header
+    public GameEventReader(InputStream stream, String name) throws IOException {
+        this.in = new DataInputStream(stream instanceof BufferedInputStream ? stream : new BufferedInputStream(stream, 64 * 1024));
+        byte[] magic = new byte[GameEventLog.MAGIC.length];
+        try {
+            in.readFully(magic);
+            int version = in.readUnsignedByte();
+            if (!Arrays.equals(magic, GameEventLog.MAGIC) || version > GameEventLog.VERSION) {
+                throw new IOException("Not a supported RealmWar event log: " + name);
+            }
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    // Opens a file stream, decompressing .gz files
+    private static InputStream open(Path file) throws IOException {
+        InputStream stream = Files.newInputStream(file);
+        if (file.getFileName().toString().endsWith(".gz")) {
+            stream = new GZIPInputStream(stream, 64 * 1024);
+        }
+        return new BufferedInputStream(stream, 64 * 1024);
+    }
+
+    // Reads a record body into the buffer, growing it only as the bytes arrive, so a corrupt length cannot allocate
+    // more than the file holds; throws EOFException if the file ends first
+    private void readBody(int bodyLength) throws IOException {
+        int read = 0;
+        while (read < bodyLength) {
+            if (read == body.length) body = Arrays.copyOf(body, (int) Math.min(bodyLength, body.length * 2L));
+            int chunk = Math.min(bodyLength, body.length) - read;
+            in.readFully(body, read, chunk);
+            read += chunk;
+        }
+    }
+
+    // Reads the next known record; returns null at the end of the file
+    // A record cut short by a crash ends the file rather than raising an error
+    public Event next() throws IOException {
+        while (true) {
+            long length;
+            try {
+                length = RecordDecoder.readVarLong(in);
+            } catch (EOFException e) {
+                return null;
+            }
+            // Varints above Long.MAX_VALUE come back negative
+            if (length < 0 || length > Integer.MAX_VALUE - 8) throw new IOException("Corrupt record length " + length);
+            int bodyLength = (int) length;
+            try {
+                readBody(bodyLength);
+            } catch (EOFException e) {
+                return null;
+            }
+            decoder.reset(body, bodyLength);
+
+            GameEventType type = GameEventType.fromCode((int) decoder.readVarLong());
+            if (type == null) continue;
+            long time = decoder.readVarLong();
+            int turn = decoder.readInt();
+            Object[] values = new Object[type.fields.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = switch (type.fields.get(i).kind()) {
+                    case STRING -> decoder.readString();
+                    case INT -> decoder.readInt();
+                    case LONG -> decoder.readLong();
+                    case BOOLEAN -> decoder.readBoolean();
+                };
+            }
+            return new Event(type, time, turn, values);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
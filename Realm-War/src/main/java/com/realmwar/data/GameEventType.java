@@ -0,0 +1,58 @@
+// GameEventType.java
+// Record types of the structured RealmWar event log, each with a fixed field schema.
+// The schema drives both the binary encoding in GameEventLog and the decoding in GameEventReader.
+
+package com.realmwar.data;
+
+import java.util.List;
+
+// Enum of event types; codes are part of the file format and must never be reused or changed
+public enum GameEventType {
+    GAME_START(1, "game_id:S", "players:S", "width:I", "height:I", "resumed:B"),
+    MOVE(2, "player:S", "unit:S", "from_x:I", "from_y:I", "to_x:I", "to_y:I"),
+    ATTACK(3, "player:S", "attacker:S", "target_player:S", "target:S", "x:I", "y:I", "damage:I", "destroyed:B"),
+    BUILD(4, "player:S", "structure:S", "x:I", "y:I", "gold:I"),
+    TRAIN(5, "player:S", "unit:S", "x:I", "y:I", "gold:I", "food:I"),
+    MERGE(6, "player:S", "unit:S", "x:I", "y:I"),
+    TURN_END(7, "player:S", "next_player:S", "maintenance:I", "gold:I", "food:I"),
+    RESOURCE_TICK(8, "player:S", "gold_income:I", "food_income:I", "gold:I", "food:I"),
+    SAVE(9, "save_name:S", "store:S", "millis:L", "success:B"),
+    GAME_OVER(10, "winner:S"),
+    CHECKSUM(11, "checksum:L");
+
+    // Encoded kinds of a field
+    public enum FieldKind { STRING, INT, LONG, BOOLEAN }
+
+    // One field of a record: its CSV/text name and encoded kind
+    public record Field(String name, FieldKind kind) {}
+
+    // Code written to the file
+    public final int code;
+    // Ordered fields following the common record header
+    public final List<Field> fields;
+
+    // Constructor parsing "name:K" field specs (S string, I int, L long, B boolean)
+    GameEventType(int code, String... specs) {
+        this.code = code;
+        Field[] parsed = new Field[specs.length];
+        for (int i = 0; i < specs.length; i++) {
+            String[] parts = specs[i].split(":");
+            FieldKind kind = switch (parts[1]) {
+                case "S" -> FieldKind.STRING;
+                case "I" -> FieldKind.INT;
+                case "L" -> FieldKind.LONG;
+                default -> FieldKind.BOOLEAN;
+            };
+            parsed[i] = new Field(parts[0], kind);
+        }
+        this.fields = List.of(parsed);
+    }
+
+    // Looks up a type by its file code, or returns null for codes from newer versions
+    public static GameEventType fromCode(int code) {
+        for (GameEventType type : values()) {
+            if (type.code == code) return type;
+        }
+        return null;
+    }
+}
@@ -1,45 +1,297 @@
 // GameLogger.java
 // A utility class for logging game events to both a file and the console, with timestamped messages.
-// Designed as a singleton with static methods for easy access across the application.
+// Callers only enqueue into a lock-free ring buffer; a background thread formats and writes the messages in batches
+// through one long-lived file channel, so logging never does file I/O on the game or UI thread.
+// Messages carry a LogLevel and LogCategory; disabled ones are rejected by a single array lookup before any formatting.
 
 package com.realmwar.data;
 
-import java.io.FileWriter;
+import com.realmwar.util.Config;
+
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
 
 // Utility class for logging game events
 public final class GameLogger {
 
     // Name of the log file where messages are saved
-    private static final String LOG_FILE = "gamelog.txt";
+    private static final String LOG_FILE = Config.get("realmwar.log.file", "gamelog.txt");
     // Formatter for creating timestamp strings in the format "yyyy/MM/dd HH:mm:ss"
     private static final DateTimeFormatter dtf = DateTimeFormatter.ofPattern("yyyy/MM/dd HH:mm:ss");
+    // Whether messages are echoed to the console
+    private static final boolean CONSOLE = Config.getBoolean("realmwar.log.console", true);
+    // Behaviour when the queue is full
+    private static final LogOverflowPolicy OVERFLOW =
+            LogOverflowPolicy.fromString(Config.get("realmwar.log.overflow", "drop"));
+    // Most messages written per batch
+    private static final int MAX_BATCH = 1024;
+    // Longest the writer sleeps while idle before checking the queue again
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    // Lowest enabled level of each category, indexed by ordinal; realmwar.log.level sets the default
+    private static final int[] thresholds = loadThresholds();
+
+    // Queue between the logging threads and the writer
+    private static final LogRingBuffer<LogEvent> queue = new LogRingBuffer<>(Config.getInt("realmwar.log.capacity", 8192));
+    // Messages discarded under the DROP policy and not yet reported
+    private static final AtomicLong dropped = new AtomicLong();
+    // Number of queued messages the writer has fully written
+    private static volatile long written;
+    // Set while the writer is parked, so producers know to wake it
+    private static volatile boolean writerIdle;
+    // Set once the JVM is shutting down
+    private static volatile boolean closing;
+    // The background writer thread
+    private static final Thread writer = startWriter();
+
+    // Set on threads that replay recorded games, whose messages would only repeat the original session's
+    private static final ThreadLocal<Boolean> muted = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    // One queued message with the time it was logged
+    private record LogEvent(long timeMillis, LogLevel level, LogCategory category, String message) {}
 
     // Private constructor to prevent instantiation
     private GameLogger() {}
 
-    // Logs a message to both the console and the log file with a timestamp
+    // Logs a general informational message
     public static void log(String message) {
-        // Format the message with the current timestamp
-        String formattedMessage = dtf.format(LocalDateTime.now()) + " - " + message;
+        log(LogLevel.INFO, LogCategory.GAME, message);
+    }
+
+    // Checks if messages of a level are written for a category; use it to guard expensive message building
+    public static boolean isEnabled(LogLevel level, LogCategory category) {
+        return level.ordinal() >= thresholds[category.ordinal()] && !muted.get();
+    }
 
-        // Output to console
-        System.out.println("LOG: " + formattedMessage);
+    // Mutes or unmutes logging on the calling thread; GameEventLog follows the same switch
+    public static void setMuted(boolean value) {
+        muted.set(value);
+    }
+
+    // Checks if logging is muted on the calling thread
+    public static boolean isMuted() {
+        return muted.get();
+    }
 
-        // Write to log file using try-with-resources for safe resource management
-        try (FileWriter fw = new FileWriter(LOG_FILE, true);
-             PrintWriter pw = new PrintWriter(fw)) {
+    // Logs a ready-made message
+    public static void log(LogLevel level, LogCategory category, String message) {
+        if (isEnabled(level, category)) {
+            enqueue(level, category, message);
+        }
+    }
 
-            // Append the formatted message to the log file
-            pw.println(formattedMessage);
+    // Logs a message that is only built if the level is enabled
+    public static void log(LogLevel level, LogCategory category, Supplier<String> message) {
+        if (isEnabled(level, category)) {
+            enqueue(level, category, message.get());
+        }
+    }
 
+    // Logs a message with "{}" placeholders; the fixed-arity overloads avoid an argument array when disabled
+    public static void log(LogLevel level, LogCategory category, String pattern, Object arg) {
+        if (isEnabled(level, category)) {
+            enqueue(level, category, format(pattern, arg));
+        }
+    }
+
+    // Logs a message with two "{}" placeholders
+    public static void log(LogLevel level, LogCategory category, String pattern, Object arg1, Object arg2) {
+        if (isEnabled(level, category)) {
+            enqueue(level, category, format(pattern, arg1, arg2));
+        }
+    }
+
+    // Logs a message with three "{}" placeholders
+    public static void log(LogLevel level, LogCategory category, String pattern, Object arg1, Object arg2, Object arg3) {
+        if (isEnabled(level, category)) {
+            enqueue(level, category, format(pattern, arg1, arg2, arg3));
+        }
+    }
+
+    // Logs a message with any number of "{}" placeholders
+    public static void log(LogLevel level, LogCategory category, String pattern, Object... args) {
+        if (isEnabled(level, category)) {
+            enqueue(level, category, format(pattern, args));
+        }
+    }
+
+    // Replaces each "{}" in the pattern with the next argument
+    private static String format(String pattern, Object... args) {
+        StringBuilder sb = new StringBuilder(pattern.length() + 16 * args.length);
+        int from = 0;
+        for (Object arg : args) {
+            int at = pattern.indexOf("{}", from);
+            if (at < 0) break;
+            sb.append(pattern, from, at).append(arg);
+            from = at + 2;
+        }
+        return sb.append(pattern, from, pattern.length()).toString();
+    }
+
+    // Hands a message to the writer thread, applying the overflow policy if the queue is full
+    private static void enqueue(LogLevel level, LogCategory category, String message) {
+        LogEvent event = new LogEvent(System.currentTimeMillis(), level, category, message);
+        if (!queue.offer(event)) {
+            if (OVERFLOW == LogOverflowPolicy.DROP || closing || !writer.isAlive() || Thread.currentThread() == writer) {
+                dropped.incrementAndGet();
+                return;
+            }
+            // BLOCK: let the writer drain, then retry
+            do {
+                LockSupport.unpark(writer);
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(50));
+            } while (!queue.offer(event));
+        }
+        if (writerIdle) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    // Reads the default level and the per-category overrides from configuration
+    private static int[] loadThresholds() {
+        LogLevel defaultLevel = LogLevel.parse(Config.get("realmwar.log.level", "info"), LogLevel.INFO);
+        LogCategory[] categories = LogCategory.values();
+        int[] result = new int[categories.length];
+        for (LogCategory category : categories) {
+            result[category.ordinal()] = LogLevel.parse(Config.get("realmwar.log." + category.key(), null), defaultLevel).ordinal();
+        }
+        return result;
+    }
+
+    // Blocks until every message logged before this call has been written, or the timeout passes
+    public static void flush(long timeoutMillis) {
+        long target = queue.claimed();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (written < target && System.nanoTime() < deadline && writer.isAlive()) {
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+
+    // Starts the writer thread and registers a shutdown hook that drains the queue on exit
+    private static Thread startWriter() {
+        Thread thread = new Thread(GameLogger::runWriter, "game-logger");
+        thread.setDaemon(true);
+        thread.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            flush(2000);
+            closing = true;
+            LockSupport.unpark(thread);
+        }, "game-logger-shutdown"));
+        return thread;
+    }
+
+    // Writer loop: drains the queue in batches and writes each batch with a single channel write
+    private static void runWriter() {
+        FileChannel channel = openChannel();
+        StringBuilder fileBatch = new StringBuilder(64 * 1024);
+        StringBuilder consoleBatch = new StringBuilder(64 * 1024);
+        TimestampCache timestamps = new TimestampCache();
+
+        while (true) {
+            int count = 0;
+            LogEvent event;
+            while (count < MAX_BATCH && (event = queue.poll()) != null) {
+                String formattedMessage = timestamps.format(event.timeMillis()) + " " + event.level() +
+                        " [" + event.category().key() + "] - " + event.message();
+                fileBatch.append(formattedMessage).append(System.lineSeparator());
+                if (CONSOLE) consoleBatch.append("LOG: ").append(formattedMessage).append(System.lineSeparator());
+                count++;
+            }
+            long lost = dropped.getAndSet(0);
+            if (lost > 0) {
+                String formattedMessage = timestamps.format(System.currentTimeMillis()) + " " + LogLevel.WARN + " [log] - " + lost +
+                        " log messages dropped because the log queue was full.";
+                fileBatch.append(formattedMessage).append(System.lineSeparator());
+                if (CONSOLE) consoleBatch.append("LOG: ").append(formattedMessage).append(System.lineSeparator());
+            }
+
+            if (fileBatch.length() > 0) {
+                channel = write(channel, fileBatch);
+                if (CONSOLE) System.out.print(consoleBatch);
+                fileBatch.setLength(0);
+                consoleBatch.setLength(0);
+            }
+            written += count;
+
+            if (count == 0) {
+                if (closing) break;
+                // Recheck after announcing idleness so a message offered in between is not missed
+                writerIdle = true;
+                if (queue.consumed() == queue.claimed()) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+                writerIdle = false;
+            }
+        }
+        close(channel);
+    }
+
+    // Opens the log file for appending; returns null if it cannot be opened
+    private static FileChannel openChannel() {
+        try {
+            return FileChannel.open(Path.of(LOG_FILE),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
         } catch (IOException e) {
-            // Log error to console if file writing fails
             System.err.println("CRITICAL: Could not write to log file: " + e.getMessage());
             e.printStackTrace();
+            return null;
+        }
+    }
+
+    // Writes a batch to the file; after a failure the file is reopened for the next batch
+    private static FileChannel write(FileChannel channel, CharSequence batch) {
+        if (channel == null) channel = openChannel();
+        if (channel == null) return null;
+        ByteBuffer buffer = ByteBuffer.wrap(batch.toString().getBytes(StandardCharsets.UTF_8));
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            return channel;
+        } catch (IOException e) {
+            System.err.println("CRITICAL: Could not write to log file: " + e.getMessage());
+            close(channel);
+            return null;
+        }
+    }
+
+    // Closes the log file
+    private static void close(FileChannel channel) {
+        if (channel == null) return;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("CRITICAL: Could not close log file: " + e.getMessage());
+        }
+    }
+
+    // Formats timestamps, reusing the text while consecutive messages fall in the same second
+    private static final class TimestampCache {
+        // Second of the cached text, in epoch seconds
+        private long cachedSecond = Long.MIN_VALUE;
+        private String cachedText;
+
+        // Returns the "yyyy/MM/dd HH:mm:ss" text for an epoch-millisecond time
+        String format(long timeMillis) {
+            long second = Math.floorDiv(timeMillis, 1000);
+            if (second != cachedSecond) {
+                cachedSecond = second;
+                cachedText = dtf.format(LocalDateTime.ofInstant(Instant.ofEpochMilli(timeMillis), ZoneId.systemDefault()));
+            }
+            return cachedText;
         }
     }
-}
\ No newline at end of file
+}
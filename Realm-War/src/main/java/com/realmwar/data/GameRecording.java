@@ -0,0 +1,236 @@
+// GameRecording.java
+// A recorded RealmWar game: the starting state and the commands applied to it, read from a command log file.
+// Replay decodes the state and runs the commands through GameReducer with logging muted, so it is deterministic
+// and fast enough to rebuild long games headless. Keyframes (full states taken every few turns) let seek jump to
+// any point by replaying only the commands after the nearest keyframe.
+
+package com.realmwar.data;
+
+import com.realmwar.engine.GameManager;
+import com.realmwar.engine.command.GameCommand;
+import com.realmwar.engine.command.GameReducer;
+import com.realmwar.util.CustomExceptions.GameRuleException;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Recording of one game session; the commands are immutable, keyframes can be added
+public final class GameRecording {
+
+    // State checksum recorded after a turn end: the number of commands applied before it, the new turn and the value
+    public record TurnChecksum(int commandCount, int turn, long checksum) {}
+
+    // First recorded checksum a replay does not reproduce, and the turn and checksum the replay reached instead
+    public record Divergence(TurnChecksum recorded, int replayedTurn, long replayed) {}
+
+    // Encoded state the commands start from
+    private final byte[] initialState;
+    // Commands in the order they were applied
+    private final List<GameCommand> commands;
+    // Encoded states keyed by the number of commands applied before them; key 0 is the starting state
+    private final TreeMap<Integer, byte[]> keyframes = new TreeMap<>();
+    // Checksums recorded at turn ends, in command order
+    private final List<TurnChecksum> checksums;
+
+    // Constructor for a recording built in memory, e.g. by a benchmark
+    public GameRecording(byte[] initialState, List<GameCommand> commands) {
+        this(initialState, commands, Map.of(), List.of());
+    }
+
+    // Constructor for a recording read from a file, with the keyframes and checksums stored in it
+    private GameRecording(byte[] initialState, List<GameCommand> commands, Map<Integer, byte[]> storedKeyframes,
+                          List<TurnChecksum> checksums) {
+        this.initialState = initialState;
+        this.commands = Collections.unmodifiableList(new ArrayList<>(commands));
+        this.checksums = List.copyOf(checksums);
+        keyframes.putAll(storedKeyframes);
+        keyframes.put(0, initialState);
+    }
+
+    // Reads a command log file; a record cut short by a crash ends the recording
+    public static GameRecording read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 64 * 1024))) {
+            byte[] magic = new byte[CommandLog.MAGIC.length];
+            in.readFully(magic);
+            int version = in.readUnsignedByte();
+            if (!Arrays.equals(magic, CommandLog.MAGIC) || version > CommandLog.VERSION) {
+                throw new IOException("Not a supported RealmWar command log: " + file);
+            }
+
+            byte[] state = null;
+            List<GameCommand> commands = new ArrayList<>();
+            Map<Integer, byte[]> storedKeyframes = new TreeMap<>();
+            List<TurnChecksum> checksums = new ArrayList<>();
+            RecordDecoder decoder = new RecordDecoder();
+            byte[] body = new byte[64];
+            while (true) {
+                int length;
+                try {
+                    length = (int) RecordDecoder.readVarLong(in);
+                    if (length < 0) throw new IOException("Corrupt record length " + length);
+                    if (body.length < length) body = new byte[Math.max(length, body.length * 2)];
+                    in.readFully(body, 0, length);
+                } catch (EOFException e) {
+                    break;
+                }
+                decoder.reset(body, length);
+                int code = (int) decoder.readVarLong();
+                if (code == CommandCodec.STATE) {
+                    decoder.readVarLong();
+                    byte[] recordState = decoder.readBytes();
+                    // Later STATE records are keyframes of the state after the commands read so far
+                    if (state == null) {
+                        state = recordState;
+                    } else {
+                        storedKeyframes.put(commands.size(), recordState);
+                    }
+                } else if (code == CommandCodec.CHECKSUM) {
+                    checksums.add(new TurnChecksum(commands.size(), (int) decoder.readVarLong(), decoder.readLong()));
+                } else {
+                    GameCommand command = CommandCodec.decode(code, decoder);
+                    if (command != null) commands.add(command);
+                }
+            }
+            if (state == null) throw new IOException("Command log has no starting state: " + file);
+            return new GameRecording(state, commands, storedKeyframes, checksums);
+        }
+    }
+
+    // Number of recorded commands
+    public int size() {
+        return commands.size();
+    }
+
+    // Recorded commands in order
+    public List<GameCommand> getCommands() {
+        return commands;
+    }
+
+    // Encoded starting state
+    public byte[] getInitialState() {
+        return initialState.clone();
+    }
+
+    // Checksums recorded at turn ends, in command order; empty for recordings that predate them
+    public List<TurnChecksum> getChecksums() {
+        return checksums;
+    }
+
+    // Replays the recording once, comparing the state after every recorded turn end with its checksum
+    // Returns the first checksum the replay does not reproduce, or null if the replay matches all of them
+    public Divergence verifyChecksums() throws IOException {
+        boolean wasMuted = GameLogger.isMuted();
+        GameLogger.setMuted(true);
+        try {
+            GameManager game = GameStateCodec.decode(initialState);
+            game.setRecording(false);
+            int applied = 0;
+            for (TurnChecksum recorded : checksums) {
+                apply(game, applied, recorded.commandCount());
+                applied = recorded.commandCount();
+                long replayed = game.getChecksum();
+                if (replayed != recorded.checksum() || game.getTurnNumber() != recorded.turn()) {
+                    return new Divergence(recorded, game.getTurnNumber(), replayed);
+                }
+            }
+            return null;
+        } finally {
+            GameLogger.setMuted(wasMuted);
+        }
+    }
+
+    // Number of keyframes, including the starting state
+    public synchronized int getKeyframeCount() {
+        return keyframes.size();
+    }
+
+    // Adds keyframes in one replay pass so that no stretch of more than turnInterval turns lacks one
+    // Recordings from files usually carry keyframes already; this covers in-memory ones and older files
+    public synchronized void buildKeyframes(int turnInterval) throws IOException {
+        boolean wasMuted = GameLogger.isMuted();
+        GameLogger.setMuted(true);
+        try {
+            GameManager game = GameStateCodec.decode(initialState);
+            game.setRecording(false);
+            int turnsSinceKeyframe = 0;
+            for (int i = 0; i < commands.size(); i++) {
+                apply(game, i, i + 1);
+                if (keyframes.containsKey(i + 1)) {
+                    turnsSinceKeyframe = 0;
+                } else if (commands.get(i) instanceof GameCommand.EndTurn && ++turnsSinceKeyframe >= turnInterval) {
+                    keyframes.put(i + 1, GameStateCodec.encode(game));
+                    turnsSinceKeyframe = 0;
+                }
+            }
+        } finally {
+            GameLogger.setMuted(wasMuted);
+        }
+    }
+
+    // Rebuilds the game after the first count commands, starting from the nearest keyframe at or before that point
+    public GameManager seek(int count) throws IOException {
+        int target = Math.max(0, Math.min(count, commands.size()));
+        Map.Entry<Integer, byte[]> keyframe;
+        synchronized (this) {
+            keyframe = keyframes.floorEntry(target);
+        }
+        boolean wasMuted = GameLogger.isMuted();
+        GameLogger.setMuted(true);
+        try {
+            GameManager game = GameStateCodec.decode(keyframe.getValue());
+            game.setRecording(false);
+            apply(game, keyframe.getKey(), target);
+            return game;
+        } finally {
+            GameLogger.setMuted(wasMuted);
+        }
+    }
+
+    // Rebuilds the game after all recorded commands
+    public GameManager replay() throws IOException {
+        return replay(commands.size());
+    }
+
+    // Rebuilds the game after the first count commands by replaying from the start, ignoring keyframes
+    // The result does not record its own commands
+    public GameManager replay(int count) throws IOException {
+        boolean wasMuted = GameLogger.isMuted();
+        GameLogger.setMuted(true);
+        try {
+            GameManager game = GameStateCodec.decode(initialState);
+            game.setRecording(false);
+            apply(game, 0, count);
+            return game;
+        } finally {
+            GameLogger.setMuted(wasMuted);
+        }
+    }
+
+    // Applies commands [from, to) to a game rebuilt from this recording, with logging muted; throws if the replay diverges
+    public void apply(GameManager game, int from, int to) {
+        boolean wasMuted = GameLogger.isMuted();
+        GameLogger.setMuted(true);
+        try {
+            for (int i = from; i < to; i++) {
+                GameCommand command = commands.get(i);
+                try {
+                    GameReducer.apply(game, command);
+                } catch (GameRuleException e) {
+                    throw new IllegalStateException("Replay diverged at command " + i + " (" + command + "): " + e.getMessage(), e);
+                }
+            }
+        } finally {
+            GameLogger.setMuted(wasMuted);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+// GameStateBuilder.java
+// Assembles a GameManager directly from stored save rows in the RealmWar game.
+// Tiles and entities are written straight into a preallocated board and owners are resolved through a hash map,
+// so loading never generates random terrain or scans the player list per row. Save rows are summed into a
+// checksum as they arrive, so a save that lost or changed rows is caught whatever order the rows come in.
+
+package com.realmwar.data;
+
+import com.realmwar.engine.GameBoard;
+import com.realmwar.engine.GameManager;
+import com.realmwar.engine.GameTile;
+import com.realmwar.model.GameEntity;
+import com.realmwar.model.Player;
+import com.realmwar.model.structures.Structure;
+import com.realmwar.model.units.Unit;
+import com.realmwar.util.Constants;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Incremental builder fed row by row, either from a result set or from a SaveSnapshot
+public final class GameStateBuilder {
+
+    // Board dimensions from the save metadata
+    private final int width;
+    private final int height;
+    // Tiles are collected here and handed to the GameBoard without copying
+    private final GameTile[][] tiles;
+    // Entities are placed after all tiles exist
+    private final List<GameEntity> entities = new ArrayList<>();
+    // Players in turn order, plus a name index for owner lookups
+    private final List<Player> players = new ArrayList<>();
+    private final Map<String, Player> playersByName = new HashMap<>();
+    // Id of the game the save belongs to, if recorded
+    private String gameId;
+    // Turn number the save was taken on
+    private int turnNumber = 1;
+    // Seed the game was generated from; 0 for saves that predate seeds
+    private long seed;
+    // Sum of the row hashes of every save row fed in, and the sum the save recorded (0 if it predates checksums)
+    private long rowChecksum;
+    private long expectedChecksum;
+
+    // Constructor to prepare an empty board of the saved dimensions
+    public GameStateBuilder(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.tiles = new GameTile[width][height];
+    }
+
+    // Adds a player with their saved resources; players must be added in turn order
+    public void addPlayer(String name, int gold, int food) {
+        rowChecksum += SaveSnapshot.resourceRowHash(name, gold, food);
+        addPlayerIfAbsent(name, gold, food);
+    }
+
+    // Adds a player known only from their pieces, for saves without resource rows
+    public void ensurePlayer(String name) {
+        addPlayerIfAbsent(name, Constants.STARTING_GOLD, Constants.STARTING_FOOD);
+    }
+
+    // Adds a player unless one of that name exists
+    private void addPlayerIfAbsent(String name, int gold, int food) {
+        if (playersByName.containsKey(name)) return;
+        Player player = new Player(name, gold, food);
+        players.add(player);
+        playersByName.put(name, player);
+    }
+
+    // Returns true once at least one player is known
+    public boolean hasPlayers() {
+        return !players.isEmpty();
+    }
+
+    // Sets the id of the game the save belongs to
+    public void setGameId(String gameId) {
+        this.gameId = gameId;
+    }
+
+    // Sets the turn number the save was taken on
+    public void setTurnNumber(int turnNumber) {
+        this.turnNumber = Math.max(1, turnNumber);
+    }
+
+    // Sets the seed the game was generated from
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    // Sets the checksum the save recorded over its rows; build() rejects the save if the rows fed in do not match
+    public void setExpectedChecksum(long expectedChecksum) {
+        this.expectedChecksum = expectedChecksum;
+    }
+
+    // Sets the terrain and territory owner of one tile
+    public void addTile(int x, int y, String blockClassName, String territoryOwnerName) {
+        rowChecksum += SaveSnapshot.tileRowHash(x, y, blockClassName, territoryOwnerName);
+        if (x < 0 || x >= width || y < 0 || y >= height) return;
+        GameTile tile = new GameTile(SaveSnapshot.createBlockFromString(blockClassName), x, y);
+        if (territoryOwnerName != null) {
+            tile.setTerritoryOwner(playersByName.get(territoryOwnerName));
+        }
+        tiles[x][y] = tile;
+    }
+
+    // Creates an entity with its saved health; entities whose owner is unknown are skipped
+    public void addEntity(String entityClassName, String ownerName, int x, int y, int health) {
+        rowChecksum += SaveSnapshot.entityRowHash(entityClassName, ownerName, x, y, health);
+        addEntity(entityClassName, ownerName, x, y, health, 1);
+    }
+
+    // Creates an entity with its saved health and, for structures, its upgrade level
+    public void addEntity(String entityClassName, String ownerName, int x, int y, int health, int level) {
+        Player owner = playersByName.get(ownerName);
+        if (owner == null) return;
+        GameEntity entity = SaveSnapshot.createEntityFromString(entityClassName, owner, x, y);
+        if (entity == null) return;
+        if (entity instanceof Unit unit) unit.health = health;
+        if (entity instanceof Structure structure) {
+            // Levels are applied first so the durability is clamped against the upgraded maximum
+            for (int i = 1; i < level; i++) {
+                structure.levelUp();
+            }
+            structure.setDurability(health);
+        }
+        entities.add(entity);
+    }
+
+    // Sets a player's saved count for one unit type
+    public void setUnitCount(String playerName, String unitType, int count) {
+        rowChecksum += SaveSnapshot.unitCountRowHash(playerName, unitType, count);
+        Player player = playersByName.get(playerName);
+        if (player != null) {
+            player.setUnitCount(unitType, count);
+        }
+    }
+
+    // Builds the GameManager; throws IllegalStateException if the save has no players or fails its checksum
+    public GameManager build(int currentPlayerIndex) {
+        if (players.isEmpty()) {
+            throw new IllegalStateException("No players found in save file");
+        }
+        if (expectedChecksum != 0 && expectedChecksum != rowChecksum) {
+            throw new IllegalStateException("Save file is incomplete or corrupt (checksum "
+                    + Long.toHexString(rowChecksum) + ", expected " + Long.toHexString(expectedChecksum) + ")");
+        }
+        GameBoard board = new GameBoard(width, height, tiles);
+        for (GameEntity entity : entities) {
+            board.placeEntity(entity, entity.getX(), entity.getY());
+        }
+        GameManager gm = new GameManager(players, board, currentPlayerIndex);
+        if (gameId != null) {
+            gm.setGameId(gameId);
+        }
+        gm.setTurnNumber(turnNumber);
+        gm.setSeed(seed);
+        return gm;
+    }
+}
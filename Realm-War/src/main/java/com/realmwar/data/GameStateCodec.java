@@ -0,0 +1,171 @@
+// GameStateCodec.java
+// Compact binary encoding of a complete RealmWar game state, used as the starting point of command logs.
+// Unlike SaveSnapshot it keeps everything replay depends on (structure levels, which units have acted, players
+// that were knocked out but still own pieces), so replaying commands on a decoded state gives identical results.
+
+package com.realmwar.data;
+
+import com.realmwar.engine.GameBoard;
+import com.realmwar.engine.GameManager;
+import com.realmwar.engine.GameTile;
+import com.realmwar.engine.blocks.ForestBlock;
+import com.realmwar.engine.blocks.VoidBlock;
+import com.realmwar.model.GameEntity;
+import com.realmwar.model.Player;
+import com.realmwar.model.structures.Structure;
+import com.realmwar.model.units.Unit;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Final utility class for encoding and decoding game states, preventing instantiation
+public final class GameStateCodec {
+
+    // Version of the state encoding, written first; version 2 added the seed
+    private static final int FORMAT_VERSION = 2;
+    // Block class names by their encoded code
+    private static final String[] BLOCK_NAMES = {"EmptyBlock", "ForestBlock", "VoidBlock"};
+
+    // Private constructor to prevent instantiation
+    private GameStateCodec() {}
+
+    // Encodes the full state of a game
+    public static byte[] encode(GameManager game) {
+        GameBoard board = game.getGameBoard();
+        // Owner table: active players in turn order, then knocked-out players that still own tiles or entities
+        Map<Player, Integer> owners = new LinkedHashMap<>();
+        for (Player player : game.getPlayers()) {
+            owners.putIfAbsent(player, owners.size());
+        }
+        List<GameEntity> entities = new ArrayList<>();
+        for (int x = 0; x < board.width; x++) {
+            for (int y = 0; y < board.height; y++) {
+                GameTile tile = board.getTile(x, y);
+                if (tile.getTerritoryOwner() != null) owners.putIfAbsent(tile.getTerritoryOwner(), owners.size());
+                if (tile.getEntity() != null) {
+                    entities.add(tile.getEntity());
+                    owners.putIfAbsent(tile.getEntity().getOwner(), owners.size());
+                }
+            }
+        }
+
+        RecordEncoder out = new RecordEncoder();
+        out.writeVarLong(FORMAT_VERSION);
+        out.writeString(game.getGameId());
+        out.writeLong(game.getSeed());
+        out.writeInt(game.getTurnNumber());
+        out.writeInt(game.getCurrentPlayerIndex());
+        out.writeInt(board.width);
+        out.writeInt(board.height);
+
+        out.writeVarLong(game.getPlayers().size());
+        out.writeVarLong(owners.size());
+        for (Player player : owners.keySet()) {
+            out.writeString(player.getName());
+            out.writeInt(player.getResourceHandler().getGold());
+            out.writeInt(player.getResourceHandler().getFood());
+            Map<String, Integer> counts = new TreeMap<>(player.getUnitCounts());
+            out.writeVarLong(counts.size());
+            for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+                out.writeString(entry.getKey());
+                out.writeInt(entry.getValue());
+            }
+        }
+
+        for (int x = 0; x < board.width; x++) {
+            for (int y = 0; y < board.height; y++) {
+                GameTile tile = board.getTile(x, y);
+                out.writeVarLong(tile.block instanceof ForestBlock ? 1 : tile.block instanceof VoidBlock ? 2 : 0);
+                Player territoryOwner = tile.getTerritoryOwner();
+                out.writeVarLong(territoryOwner != null ? owners.get(territoryOwner) + 1 : 0);
+            }
+        }
+
+        out.writeVarLong(entities.size());
+        for (GameEntity entity : entities) {
+            out.writeString(entity.getClass().getSimpleName());
+            out.writeVarLong(owners.get(entity.getOwner()));
+            out.writeInt(entity.getX());
+            out.writeInt(entity.getY());
+            if (entity instanceof Unit unit) {
+                out.writeInt(unit.getHealth());
+                out.writeInt(1);
+                out.writeBoolean(unit.hasActedThisTurn());
+            } else {
+                Structure structure = (Structure) entity;
+                out.writeInt(structure.getDurability());
+                out.writeInt(structure.getLevel());
+                out.writeBoolean(false);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    // Decodes a state into a new GameManager; throws IOException if the bytes are not a valid state
+    public static GameManager decode(byte[] state) throws IOException {
+        RecordDecoder in = new RecordDecoder();
+        in.reset(state, state.length);
+        long version = in.readVarLong();
+        if (version > FORMAT_VERSION) throw new IOException("Unsupported game state version " + version);
+        String gameId = in.readString();
+        long seed = version >= 2 ? in.readLong() : 0;
+        int turnNumber = in.readInt();
+        int currentPlayerIndex = in.readInt();
+        int width = in.readInt();
+        int height = in.readInt();
+        if (width <= 0 || height <= 0) throw new IOException("Invalid board size " + width + "x" + height);
+        GameStateBuilder builder = new GameStateBuilder(width, height);
+
+        int activePlayers = (int) in.readVarLong();
+        String[] names = new String[(int) in.readVarLong()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = in.readString();
+            builder.addPlayer(names[i], in.readInt(), in.readInt());
+            long countTypes = in.readVarLong();
+            for (long c = 0; c < countTypes; c++) {
+                builder.setUnitCount(names[i], in.readString(), in.readInt());
+            }
+        }
+
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                int block = (int) in.readVarLong();
+                int owner = (int) in.readVarLong();
+                builder.addTile(x, y, BLOCK_NAMES[block < BLOCK_NAMES.length ? block : 0], owner > 0 ? names[owner - 1] : null);
+            }
+        }
+
+        long entityCount = in.readVarLong();
+        List<int[]> actedUnits = new ArrayList<>();
+        for (long i = 0; i < entityCount; i++) {
+            String type = in.readString();
+            String owner = names[(int) in.readVarLong()];
+            int x = in.readInt();
+            int y = in.readInt();
+            int health = in.readInt();
+            int level = in.readInt();
+            if (in.readBoolean()) actedUnits.add(new int[]{x, y});
+            builder.addEntity(type, owner, x, y, health, level);
+        }
+
+        builder.setGameId(gameId);
+        builder.setTurnNumber(turnNumber);
+        builder.setSeed(seed);
+        GameManager game = builder.build(currentPlayerIndex);
+        // Knocked-out owners were only added so their pieces could be placed; they take no more turns
+        List<Player> players = game.getPlayers();
+        if (players.size() > activePlayers) {
+            players.subList(activePlayers, players.size()).clear();
+        }
+        for (int[] position : actedUnits) {
+            if (game.getGameBoard().getTile(position[0], position[1]).getEntity() instanceof Unit unit) {
+                unit.setHasActedThisTurn(true);
+            }
+        }
+        return game;
+    }
+}
@@ -0,0 +1,131 @@
+// InMemorySaveStore.java
+// Volatile SaveStore for the RealmWar game that keeps saves in memory for the lifetime of the process.
+// Used for tests and tools, and as a fallback when the configured database cannot be reached.
+
+package com.realmwar.data;
+
+import com.realmwar.engine.GameManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// SaveStore implementation holding snapshots in a map keyed by save name
+public final class InMemorySaveStore implements SaveStore {
+
+    // Saves in insertion (and therefore timestamp) order
+    private final Map<String, SaveSnapshot> saves = new LinkedHashMap<>();
+    // Browser summaries by save name, and the id given to the next save
+    private final Map<String, SaveSummary> summaries = new HashMap<>();
+    private long nextSaveId = 1;
+
+    @Override
+    public String getName() {
+        return "In-memory";
+    }
+
+    @Override
+    public boolean initialize() {
+        GameLogger.log(LogLevel.INFO, LogCategory.PERSISTENCE, "In-memory save store initialized. Saves will not persist after exit.");
+        return true;
+    }
+
+    // Saves a snapshot of the game; save names are unique, as in the database backends
+    @Override
+    public synchronized boolean saveGame(GameManager gameManager, String saveName) {
+        if (saves.containsKey(saveName)) {
+            GameLogger.log(LogLevel.ERROR, LogCategory.PERSISTENCE, "CRITICAL: Error saving game: a save named {} already exists.", saveName);
+            return false;
+        }
+        SaveSnapshot snapshot = SaveSnapshot.capture(gameManager, saveName);
+        saves.put(saveName, snapshot);
+        summaries.put(saveName, SaveSummary.of(snapshot, nextSaveId++));
+        GameLogger.log(LogLevel.INFO, LogCategory.PERSISTENCE, "Game saved successfully: {}", saveName);
+        return true;
+    }
+
+    // Restores a fresh GameManager from the stored snapshot
+    @Override
+    public synchronized GameManager loadGame(String saveName) {
+        SaveSnapshot snapshot = saves.get(saveName);
+        if (snapshot == null) {
+            GameLogger.log(LogLevel.ERROR, LogCategory.PERSISTENCE, "CRITICAL: Error loading game: Save file not found");
+            return null;
+        }
+        try {
+            GameManager gm = snapshot.restore();
+            GameLogger.log(LogLevel.INFO, LogCategory.PERSISTENCE, "Game loaded successfully: {}", saveName);
+            return gm;
+        } catch (IllegalStateException e) {
+            GameLogger.log(LogLevel.ERROR, LogCategory.PERSISTENCE, "CRITICAL: Error loading game: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    // Returns the save names, newest first
+    @Override
+    public synchronized String[] getSaveGames() {
+        List<String> names = new ArrayList<>(saves.keySet());
+        Collections.reverse(names);
+        return names.toArray(new String[0]);
+    }
+
+    // Removes a save by name
+    @Override
+    public synchronized boolean deleteSave(String saveName) {
+        summaries.remove(saveName);
+        return saves.remove(saveName) != null;
+    }
+
+    // Returns one page of summaries, newest first, after the cursor
+    @Override
+    public synchronized List<SaveSummary> getSaveSummaries(SaveSummary after, int limit) {
+        List<String> names = new ArrayList<>(saves.keySet());
+        Collections.reverse(names);
+        List<SaveSummary> page = new ArrayList<>(limit);
+        for (String name : names) {
+            if (page.size() == limit) break;
+            SaveSummary summary = summaries.get(name);
+            if (after == null || summary.isOlderThan(after)) {
+                page.add(summary);
+            }
+        }
+        return page;
+    }
+
+    // Deletes expired saves using the same ranking as the database backends
+    @Override
+    public synchronized int purgeExpired(RetentionPolicy policy, int batchSize) {
+        if (!policy.isEnabled() || batchSize <= 0) return 0;
+        long cutoff = policy.getCutoffMillis(System.currentTimeMillis());
+        long rankLimit = policy.getRankLimit();
+        // Saves per game, newest first; the map iterates oldest first, so each list is filled in reverse
+        Map<String, List<SaveSnapshot>> byGame = new HashMap<>();
+        for (SaveSnapshot snapshot : saves.values()) {
+            String key = snapshot.gameId != null ? snapshot.gameId : snapshot.saveName;
+            byGame.computeIfAbsent(key, k -> new ArrayList<>()).add(0, snapshot);
+        }
+        List<SaveSnapshot> expired = new ArrayList<>();
+        for (List<SaveSnapshot> gameSaves : byGame.values()) {
+            for (int rank = 1; rank <= gameSaves.size(); rank++) {
+                SaveSnapshot snapshot = gameSaves.get(rank - 1);
+                if (rank > rankLimit || snapshot.timestamp < cutoff) {
+                    expired.add(snapshot);
+                }
+            }
+        }
+        expired.sort(Comparator.comparingLong(snapshot -> snapshot.timestamp));
+        int deleted = 0;
+        for (SaveSnapshot snapshot : expired) {
+            if (deleted == batchSize) break;
+            saves.remove(snapshot.saveName);
+            summaries.remove(snapshot.saveName);
+            deleted++;
+        }
+        return deleted;
+    }
+}
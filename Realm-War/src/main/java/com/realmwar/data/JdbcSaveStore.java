@@ -0,0 +1,618 @@
+// JdbcSaveStore.java
+// Shared JDBC implementation of SaveStore for the RealmWar game.
+// Holds the schema and the SQL for saving and loading; subclasses supply the connection and dialect details.
+
+package com.realmwar.data;
+
+import com.realmwar.data.SaveSnapshot.EntityRecord;
+import com.realmwar.data.SaveSnapshot.ResourceRecord;
+import com.realmwar.data.SaveSnapshot.TileRecord;
+import com.realmwar.data.SaveSnapshot.UnitCountRecord;
+import com.realmwar.engine.GameManager;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+// Abstract base class for the PostgreSQL and SQLite backends
+public abstract class JdbcSaveStore implements SaveStore {
+
+    // Rows fetched per round trip when streaming a save back in
+    private static final int LOAD_FETCH_SIZE = 2048;
+    // Rows sent per executeBatch call when inserting tiles
+    private static final int INSERT_BATCH_SIZE = 4096;
+    // Tables holding per-save rows, all keyed by save_id
+    protected static final String[] CHILD_TABLES = {
+            "game_board_tiles", "game_entities", "player_unit_counts", "player_resources"
+    };
+
+    // Fully qualified name of the JDBC driver class for this backend
+    protected abstract String getDriverClassName();
+
+    // Opens a new connection to the database
+    protected abstract Connection openConnection() throws SQLException;
+
+    // Column definition for an auto-incrementing integer primary key named "id"
+    protected abstract String getIdColumnDefinition();
+
+    // SQL expression converting a TIMESTAMP column to epoch milliseconds, used to backfill saved_at
+    protected abstract String getEpochMillisExpression(String column);
+
+    // Column type for binary data such as thumbnails
+    protected String getBinaryColumnType() {
+        return "BLOB";
+    }
+
+    // Applies per-connection settings; called once for every connection this store opens
+    protected void configureConnection(Connection conn) throws SQLException {}
+
+    // Column definition for the id column of the per-save child tables
+    protected String getChildIdColumnDefinition() {
+        return getIdColumnDefinition();
+    }
+
+    // Extra table constraints appended inside each child table definition
+    protected String getChildTableConstraints() {
+        return "";
+    }
+
+    // Storage options appended after each child table definition (e.g. partitioning)
+    protected String getChildTableOptions() {
+        return "";
+    }
+
+    // Called once the schema exists, for backend-specific setup
+    protected void afterSchemaCreated(Connection conn) throws SQLException {}
+
+    // Removes one save and all of its rows inside the caller's transaction
+    protected void deleteSaveRows(Connection conn, int saveId) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("DELETE FROM game_saves WHERE id = ?")) {
+            ps.setInt(1, saveId);
+            ps.executeUpdate();
+        }
+    }
+
+    // Opens and configures a connection
+    protected final Connection getConnection() throws SQLException {
+        Connection conn = openConnection();
+        try {
+            configureConnection(conn);
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
+        }
+        return conn;
+    }
+
+    // Loads the JDBC driver and creates the required tables
+    @Override
+    public boolean initialize() {
+        // Attempt to load the JDBC driver
+        try {
+            Class.forName(getDriverClassName());
+        } catch (ClassNotFoundException e) {
+            GameLogger.log(LogLevel.ERROR, LogCategory.PERSISTENCE, "CRITICAL: {} JDBC Driver not found.", getName());
+            e.printStackTrace();
+            return false;
+        }
+
+        // SQL statements for creating database tables
+        String[] createTables = {
+                // Stores game save metadata
+                "CREATE TABLE IF NOT EXISTS game_saves (" +
+                        getIdColumnDefinition() + "," +
+                        "save_name TEXT NOT NULL UNIQUE," +
+                        "current_player_index INTEGER NOT NULL," +
+                        "board_width INTEGER NOT NULL," +
+                        "board_height INTEGER NOT NULL," +
+                        "winner_name TEXT," +
+                        "game_id TEXT," +
+                        "saved_at BIGINT NOT NULL DEFAULT 0," +
+                        "turn_number INTEGER NOT NULL DEFAULT 1," +
+                        "seed BIGINT NOT NULL DEFAULT 0," +
+                        "checksum BIGINT NOT NULL DEFAULT 0," +
+                        "timestamp TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
+                        ")",
+
+                // Stores game board tile data
+                "CREATE TABLE IF NOT EXISTS game_board_tiles (" +
+                        getChildIdColumnDefinition() + "," +
+                        "save_id INTEGER NOT NULL," +
+                        "x_coord INTEGER NOT NULL," +
+                        "y_coord INTEGER NOT NULL," +
+                        "block_class_name TEXT NOT NULL," +
+                        "territory_owner_name TEXT," +
+                        "FOREIGN KEY (save_id) REFERENCES game_saves(id) ON DELETE CASCADE" +
+                        getChildTableConstraints() + ")" + getChildTableOptions(),
+
+                // Stores game entity data
+                "CREATE TABLE IF NOT EXISTS game_entities (" +
+                        getChildIdColumnDefinition() + "," +
+                        "save_id INTEGER NOT NULL," +
+                        "entity_class_name TEXT NOT NULL," +
+                        "owner_name TEXT NOT NULL," +
+                        "x_coord INTEGER NOT NULL," +
+                        "y_coord INTEGER NOT NULL," +
+                        "health INTEGER," +
+                        "FOREIGN KEY (save_id) REFERENCES game_saves(id) ON DELETE CASCADE" +
+                        getChildTableConstraints() + ")" + getChildTableOptions(),
+
+                // Stores player unit counts
+                "CREATE TABLE IF NOT EXISTS player_unit_counts (" +
+                        getChildIdColumnDefinition() + "," +
+                        "save_id INTEGER NOT NULL," +
+                        "player_name TEXT NOT NULL," +
+                        "unit_type TEXT NOT NULL," +
+                        "count INTEGER NOT NULL," +
+                        "FOREIGN KEY (save_id) REFERENCES game_saves(id) ON DELETE CASCADE" +
+                        getChildTableConstraints() + ")" + getChildTableOptions(),
+
+                // Stores player resource data
+                "CREATE TABLE IF NOT EXISTS player_resources (" +
+                        getChildIdColumnDefinition() + "," +
+                        "save_id INTEGER NOT NULL," +
+                        "player_name TEXT NOT NULL," +
+                        "gold INTEGER NOT NULL," +
+                        "food INTEGER NOT NULL," +
+                        "FOREIGN KEY (save_id) REFERENCES game_saves(id) ON DELETE CASCADE" +
+                        getChildTableConstraints() + ")" + getChildTableOptions(),
+
+                // Stores the metadata and thumbnail shown in the save browser, one row per save
+                "CREATE TABLE IF NOT EXISTS save_summaries (" +
+                        "save_id INTEGER PRIMARY KEY," +
+                        "save_name TEXT NOT NULL," +
+                        "game_id TEXT," +
+                        "saved_at BIGINT NOT NULL," +
+                        "turn_number INTEGER NOT NULL," +
+                        "player_names TEXT," +
+                        "current_player_name TEXT," +
+                        "winner_name TEXT," +
+                        "board_width INTEGER NOT NULL," +
+                        "board_height INTEGER NOT NULL," +
+                        "thumbnail " + getBinaryColumnType() + "," +
+                        "FOREIGN KEY (save_id) REFERENCES game_saves(id) ON DELETE CASCADE" +
+                        ")"
+        };
+
+        // Execute table creation statements using try-with-resources
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement()) {
+            for (String table : createTables) {
+                stmt.execute(table);
+            }
+            // Older databases (such as the bundled realmwar.db) predate some columns
+            ensureColumn(conn, "game_saves", "board_width", "INTEGER NOT NULL DEFAULT 0");
+            ensureColumn(conn, "game_saves", "board_height", "INTEGER NOT NULL DEFAULT 0");
+            ensureColumn(conn, "game_board_tiles", "territory_owner_name", "TEXT");
+            ensureColumn(conn, "game_saves", "game_id", "TEXT");
+            ensureColumn(conn, "game_saves", "turn_number", "INTEGER NOT NULL DEFAULT 1");
+            ensureColumn(conn, "game_saves", "seed", "BIGINT NOT NULL DEFAULT 0");
+            ensureColumn(conn, "game_saves", "checksum", "BIGINT NOT NULL DEFAULT 0");
+            if (ensureColumn(conn, "game_saves", "saved_at", "BIGINT NOT NULL DEFAULT 0")) {
+                stmt.execute("UPDATE game_saves SET saved_at = " + getEpochMillisExpression("timestamp") +
+                        " WHERE timestamp IS NOT NULL");
+            }
+            // The save list and the retention purge both walk game_saves newest first
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_game_saves_saved_at ON game_saves(saved_at, id)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_game_saves_game_id ON game_saves(game_id, saved_at)");
+            // Every child table is read and deleted by save_id
+            for (String table : CHILD_TABLES) {
+                stmt.execute("CREATE INDEX IF NOT EXISTS idx_" + table + "_save_id ON " + table + "(save_id)");
+            }
+            // The save browser pages through summaries newest first
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_save_summaries_saved_at ON save_summaries(saved_at, save_id)");
+            // Saves made before summaries existed get one without players or thumbnail
+            int backfilled = stmt.executeUpdate(
+                    "INSERT INTO save_summaries(save_id, save_name, game_id, saved_at, turn_number, winner_name, board_width, board_height) " +
+                            "SELECT id, save_name, game_id, saved_at, turn_number, winner_name, board_width, board_height FROM game_saves g " +
+                            "WHERE NOT EXISTS (SELECT 1 FROM save_summaries s WHERE s.save_id = g.id)");
+            if (backfilled > 0) {
+                GameLogger.log(LogLevel.INFO, LogCategory.PERSISTENCE, "Created summaries for {} older saves.", backfilled);
+            }
+            afterSchemaCreated(conn);
+            GameLogger.log(LogLevel.INFO, LogCategory.PERSISTENCE, "{} database initialized successfully.", getName());
+            return true;
+        } catch (SQLException e) {
+            GameLogger.log(LogLevel.ERROR, LogCategory.PERSISTENCE, "CRITICAL: Error initializing {} database: {}", getName(), e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    // Adds a column to an existing table if it is missing; returns true if it was added
+    protected static boolean ensureColumn(Connection conn, String table, String column, String definition) throws SQLException {
+        try (ResultSet rs = conn.getMetaData().getColumns(null, null, table, column)) {
+            if (rs.next()) return false;
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition);
+            GameLogger.log(LogLevel.INFO, LogCategory.PERSISTENCE, "Added missing column {}.{}.", table, column);
+            return true;
+        }
+    }
+
+    // Saves the current game state to the database
+    @Override
+    public boolean saveGame(GameManager gameManager, String saveName) {
+        return saveSnapshot(SaveSnapshot.capture(gameManager, saveName));
+    }
+
+    // Writes a captured snapshot in a single transaction
+    protected boolean saveSnapshot(SaveSnapshot snapshot) {
+        // Use transaction to ensure data consistency
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                int saveId;
+
+                // Save game metadata and retrieve generated save ID
+                try (PreparedStatement ps = conn.prepareStatement(
+                        "INSERT INTO game_saves(save_name, current_player_index, board_width, board_height, winner_name, game_id, saved_at, turn_number, seed, checksum) " +
+                                "VALUES(?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                        Statement.RETURN_GENERATED_KEYS)) {
+                    ps.setString(1, snapshot.saveName);
+                    ps.setInt(2, snapshot.currentPlayerIndex);
+                    ps.setInt(3, snapshot.boardWidth);
+                    ps.setInt(4, snapshot.boardHeight);
+                    ps.setString(5, snapshot.winnerName);
+                    ps.setString(6, snapshot.gameId);
+                    ps.setLong(7, snapshot.timestamp);
+                    ps.setInt(8, snapshot.turnNumber);
+                    ps.setLong(9, snapshot.seed);
+                    ps.setLong(10, snapshot.checksum);
+                    ps.executeUpdate();
+
+                    try (ResultSet rs = ps.getGeneratedKeys()) {
+                        if (!rs.next()) {
+                            throw new SQLException("Failed to retrieve save_id");
+                        }
+                        saveId = rs.getInt(1);
+                    }
+                }
+
+                // Bulk data: one row per tile and one per entity
+                writeTiles(conn, saveId, snapshot);
+                writeEntities(conn, saveId, snapshot);
+
+                // Save player unit counts using batch processing
+                try (PreparedStatement ps = conn.prepareStatement(
+                        "INSERT INTO player_unit_counts(save_id, player_name, unit_type, count) VALUES(?, ?, ?, ?)")) {
+                    for (UnitCountRecord count : snapshot.unitCounts) {
+                        ps.setInt(1, saveId);
+                        ps.setString(2, count.playerName());
+                        ps.setString(3, count.unitType());
+                        ps.setInt(4, count.count());
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+
+                // Save player resources using batch processing
+                try (PreparedStatement ps = conn.prepareStatement(
+                        "INSERT INTO player_resources(save_id, player_name, gold, food) VALUES(?, ?, ?, ?)")) {
+                    for (ResourceRecord resource : snapshot.resources) {
+                        ps.setInt(1, saveId);
+                        ps.setString(2, resource.playerName());
+                        ps.setInt(3, resource.gold());
+                        ps.setInt(4, resource.food());
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+
+                writeSummary(conn, SaveSummary.of(snapshot, saveId));
+
+                // Commit transaction
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+            GameLogger.log(LogLevel.INFO, LogCategory.PERSISTENCE, "Game saved successfully: {}", snapshot.saveName);
+            return true;
+        } catch (SQLException e) {
+            GameLogger.log(LogLevel.ERROR, LogCategory.PERSISTENCE, "CRITICAL: Error saving game: {}", e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    // Saves game board tiles using batch processing; backends with a faster bulk path override this
+    protected void writeTiles(Connection conn, int saveId, SaveSnapshot snapshot) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT INTO game_board_tiles(save_id, x_coord, y_coord, block_class_name, territory_owner_name) VALUES(?, ?, ?, ?, ?)")) {
+            int pending = 0;
+            for (TileRecord tile : snapshot.tiles) {
+                ps.setInt(1, saveId);
+                ps.setInt(2, tile.x());
+                ps.setInt(3, tile.y());
+                ps.setString(4, tile.blockClassName());
+                ps.setString(5, tile.territoryOwnerName());
+                ps.addBatch();
+                // Bound the driver-side batch so large boards do not buffer every row at once
+                if (++pending == INSERT_BATCH_SIZE) {
+                    ps.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                ps.executeBatch();
+            }
+        }
+    }
+
+    // Saves game entities using batch processing; backends with a faster bulk path override this
+    protected void writeEntities(Connection conn, int saveId, SaveSnapshot snapshot) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT INTO game_entities(save_id, entity_class_name, owner_name, x_coord, y_coord, health) VALUES(?, ?, ?, ?, ?, ?)")) {
+            for (EntityRecord entity : snapshot.entities) {
+                ps.setInt(1, saveId);
+                ps.setString(2, entity.entityClassName());
+                ps.setString(3, entity.ownerName());
+                ps.setInt(4, entity.x());
+                ps.setInt(5, entity.y());
+                ps.setInt(6, entity.health());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    // Saves the browser summary of a save
+    private static void writeSummary(Connection conn, SaveSummary summary) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT INTO save_summaries(save_id, save_name, game_id, saved_at, turn_number, player_names, " +
+                        "current_player_name, winner_name, board_width, board_height, thumbnail) VALUES(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            ps.setLong(1, summary.saveId);
+            ps.setString(2, summary.saveName);
+            ps.setString(3, summary.gameId);
+            ps.setLong(4, summary.savedAt);
+            ps.setInt(5, summary.turnNumber);
+            ps.setString(6, summary.joinPlayerNames());
+            ps.setString(7, summary.currentPlayerName);
+            ps.setString(8, summary.winnerName);
+            ps.setInt(9, summary.boardWidth);
+            ps.setInt(10, summary.boardHeight);
+            ps.setBytes(11, summary.thumbnailPng);
+            ps.executeUpdate();
+        }
+    }
+
+    // Deletes a save and all of its rows
+    @Override
+    public boolean deleteSave(String saveName) {
+        try (Connection conn = getConnection()) {
+            Integer saveId = null;
+            try (PreparedStatement ps = conn.prepareStatement("SELECT id FROM game_saves WHERE save_name = ?")) {
+                ps.setString(1, saveName);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rs.next()) saveId = rs.getInt(1);
+                }
+            }
+            if (saveId == null) return false;
+            deleteInTransaction(conn, saveId);
+            return true;
+        } catch (SQLException e) {
+            GameLogger.log(LogLevel.ERROR, LogCategory.PERSISTENCE, "CRITICAL: Error deleting save {}: {}", saveName, e.getMessage());
+            return false;
+        }
+    }
+
+    // Deletes up to batchSize expired saves, oldest first, each in its own transaction
+    @Override
+    public int purgeExpired(RetentionPolicy policy, int batchSize) {
+        if (!policy.isEnabled()) return 0;
+        // Saves are ranked newest first within their game; saves without a game id form their own group
+        String sql = "SELECT id FROM (" +
+                "SELECT id, saved_at, ROW_NUMBER() OVER (" +
+                "PARTITION BY COALESCE(game_id, save_name) ORDER BY saved_at DESC, id DESC) AS save_rank " +
+                "FROM game_saves) ranked " +
+                "WHERE save_rank > ? OR saved_at < ? ORDER BY saved_at, id LIMIT ?";
+        try (Connection conn = getConnection()) {
+            List<Integer> expired = new ArrayList<>();
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setLong(1, policy.getRankLimit());
+                ps.setLong(2, policy.getCutoffMillis(System.currentTimeMillis()));
+                ps.setInt(3, batchSize);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) expired.add(rs.getInt(1));
+                }
+            }
+
+            int deleted = 0;
+            for (int saveId : expired) {
+                try {
+                    deleteInTransaction(conn, saveId);
+                    deleted++;
+                } catch (SQLException e) {
+                    // Typically a lock that a live save holds; the save is retried on the next run
+                    GameLogger.log(LogLevel.WARN, LogCategory.PERSISTENCE, "Purge skipped save {}: {}", saveId, e.getMessage());
+                }
+            }
+            return deleted;
+        } catch (SQLException e) {
+            GameLogger.log(LogLevel.ERROR, LogCategory.PERSISTENCE, "CRITICAL: Error purging expired saves: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    // Runs deleteSaveRows for one save in a short transaction of its own
+    private void deleteInTransaction(Connection conn, int saveId) throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            deleteSaveRows(conn, saveId);
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    // Loads a game state from the database by save name
+    // The save id is resolved once; each child table is then streamed by save_id straight into a GameStateBuilder
+    @Override
+    public GameManager loadGame(String saveName) {
+        try (Connection conn = getConnection()) {
+            // Cursor-based fetching (PostgreSQL) only streams inside a transaction
+            conn.setAutoCommit(false);
+            try {
+                GameManager gm = loadGame(conn, saveName);
+                conn.commit();
+                GameLogger.log(LogLevel.INFO, LogCategory.PERSISTENCE, "Game loaded successfully: {}", saveName);
+                return gm;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException | RuntimeException e) {
+            // A malformed save can fail to decode in many ways (bad numbers, unknown names, missing rows); all of them
+            // mean the save cannot be loaded, and none should reach the load dialog as an uncaught exception
+            GameLogger.log(LogLevel.ERROR, LogCategory.PERSISTENCE, "CRITICAL: Error loading game: {}", e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    // Reads all rows of a save on an open connection and assembles the game
+    private GameManager loadGame(Connection conn, String saveName) throws SQLException {
+        // Load game metadata and resolve the save id
+        int saveId, boardWidth, boardHeight, currentPlayerIndex, turnNumber;
+        long seed, checksum;
+        String gameId;
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT id, current_player_index, board_width, board_height, game_id, turn_number, seed, checksum FROM game_saves WHERE save_name = ?")) {
+            ps.setString(1, saveName);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) throw new SQLException("Save file not found");
+                saveId = rs.getInt(1);
+                currentPlayerIndex = rs.getInt(2);
+                boardWidth = rs.getInt(3);
+                boardHeight = rs.getInt(4);
+                gameId = rs.getString(5);
+                turnNumber = rs.getInt(6);
+                seed = rs.getLong(7);
+                checksum = rs.getLong(8);
+            }
+        }
+
+        GameStateBuilder builder = new GameStateBuilder(boardWidth, boardHeight);
+        builder.setGameId(gameId);
+        builder.setTurnNumber(turnNumber);
+        builder.setSeed(seed);
+        builder.setExpectedChecksum(checksum);
+
+        // Load players with their resources, in the order they were saved (turn order)
+        try (PreparedStatement ps = prepareStreaming(conn,
+                "SELECT player_name, gold, food FROM player_resources WHERE save_id = ? ORDER BY id", saveId);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                builder.addPlayer(rs.getString(1), rs.getInt(2), rs.getInt(3));
+            }
+        }
+
+        // Older saves have no resource rows; recover the players from their entities and unit counts
+        if (!builder.hasPlayers()) {
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "SELECT owner_name FROM game_entities WHERE save_id = ? " +
+                            "UNION SELECT player_name FROM player_unit_counts WHERE save_id = ?")) {
+                ps.setInt(1, saveId);
+                ps.setInt(2, saveId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        builder.ensurePlayer(rs.getString(1));
+                    }
+                }
+            }
+        }
+
+        // Stream board tiles
+        try (PreparedStatement ps = prepareStreaming(conn,
+                "SELECT x_coord, y_coord, block_class_name, territory_owner_name FROM game_board_tiles WHERE save_id = ?", saveId);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                builder.addTile(rs.getInt(1), rs.getInt(2), rs.getString(3), rs.getString(4));
+            }
+        }
+
+        // Stream entities
+        try (PreparedStatement ps = prepareStreaming(conn,
+                "SELECT entity_class_name, owner_name, x_coord, y_coord, health FROM game_entities WHERE save_id = ?", saveId);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                builder.addEntity(rs.getString(1), rs.getString(2), rs.getInt(3), rs.getInt(4), rs.getInt(5));
+            }
+        }
+
+        // Stream unit counts
+        try (PreparedStatement ps = prepareStreaming(conn,
+                "SELECT player_name, unit_type, count FROM player_unit_counts WHERE save_id = ?", saveId);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                builder.setUnitCount(rs.getString(1), rs.getString(2), rs.getInt(3));
+            }
+        }
+
+        return builder.build(currentPlayerIndex);
+    }
+
+    // Prepares a forward-only query bound to a save id, fetching rows in chunks rather than all at once
+    private static PreparedStatement prepareStreaming(Connection conn, String sql, int saveId) throws SQLException {
+        PreparedStatement ps = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        ps.setFetchSize(LOAD_FETCH_SIZE);
+        ps.setInt(1, saveId);
+        return ps;
+    }
+
+    // Retrieves an array of all save game names, ordered by timestamp (newest first)
+    @Override
+    public String[] getSaveGames() {
+        String sql = "SELECT save_name FROM game_saves ORDER BY saved_at DESC, id DESC";
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            List<String> saves = new ArrayList<>();
+            while (rs.next()) {
+                saves.add(rs.getString("save_name"));
+            }
+            return saves.toArray(new String[0]);
+        } catch (SQLException e) {
+            GameLogger.log(LogLevel.ERROR, LogCategory.PERSISTENCE, "CRITICAL: Error fetching save games: {}", e.getMessage());
+            return new String[0];
+        }
+    }
+
+    // Retrieves one page of save summaries using a (saved_at, save_id) keyset on the summary index
+    @Override
+    public List<SaveSummary> getSaveSummaries(SaveSummary after, int limit) {
+        String sql = "SELECT save_id, save_name, game_id, saved_at, turn_number, player_names, current_player_name, " +
+                "winner_name, board_width, board_height, thumbnail FROM save_summaries " +
+                (after != null ? "WHERE (saved_at, save_id) < (?, ?) " : "") +
+                "ORDER BY saved_at DESC, save_id DESC LIMIT ?";
+        try (Connection conn = getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            int index = 1;
+            if (after != null) {
+                ps.setLong(index++, after.savedAt);
+                ps.setLong(index++, after.saveId);
+            }
+            ps.setInt(index, limit);
+
+            List<SaveSummary> page = new ArrayList<>(limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    page.add(new SaveSummary(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getLong(4), rs.getInt(5),
+                            SaveSummary.splitPlayerNames(rs.getString(6)), rs.getString(7), rs.getString(8),
+                            rs.getInt(9), rs.getInt(10), rs.getBytes(11)));
+                }
+            }
+            return page;
+        } catch (SQLException e) {
+            GameLogger.log(LogLevel.ERROR, LogCategory.PERSISTENCE, "CRITICAL: Error fetching save summaries: {}", e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+}
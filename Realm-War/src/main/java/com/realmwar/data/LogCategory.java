@@ -0,0 +1,26 @@
+// LogCategory.java
+// Subsystems that GameLogger messages belong to in the RealmWar game.
+// Each category has its own level threshold, set with realmwar.log.<category> (e.g. realmwar.log.territory=trace).
+
+package com.realmwar.data;
+
+// Enum of log categories
+public enum LogCategory {
+    // Game lifecycle, turns and player actions
+    GAME,
+    // Territory claims
+    TERRITORY,
+    // Attacks and destroyed entities
+    COMBAT,
+    // Income, costs and maintenance
+    ECONOMY,
+    // Saving, loading and the save stores
+    PERSISTENCE,
+    // Responsiveness of the Swing UI, e.g. stalls of the event dispatch thread
+    UI;
+
+    // Lower-case name used in configuration keys and log lines
+    public String key() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,22 @@
+// LogLevel.java
+// Severity levels for GameLogger messages in the RealmWar game.
+// A message is written when its level is at or above the threshold configured for its category.
+
+package com.realmwar.data;
+
+// Enum of log levels, ordered from most to least verbose
+public enum LogLevel {
+    TRACE, DEBUG, INFO, WARN, ERROR,
+    // Threshold only: disables a category entirely
+    OFF;
+
+    // Parses a configuration value such as "debug" or "off"; returns the fallback for unknown values
+    static LogLevel parse(String value, LogLevel fallback) {
+        if (value == null) return fallback;
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return fallback;
+        }
+    }
+}
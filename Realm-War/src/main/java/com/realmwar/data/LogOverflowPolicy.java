@@ -0,0 +1,18 @@
+// LogOverflowPolicy.java
+// What GameLogger does with a message when its queue is full.
+// Chosen with realmwar.log.overflow; DROP is the default so logging never stalls the game.
+
+package com.realmwar.data;
+
+// Enum of the queue-full behaviours
+public enum LogOverflowPolicy {
+    // Discard the new message; the writer later records how many were lost
+    DROP,
+    // Wait until the writer has made room, so no message is ever lost
+    BLOCK;
+
+    // Parses a configuration value, defaulting to DROP
+    static LogOverflowPolicy fromString(String value) {
+        return "block".equalsIgnoreCase(value) ? BLOCK : DROP;
+    }
+}
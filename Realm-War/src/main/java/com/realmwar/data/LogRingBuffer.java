@@ -0,0 +1,86 @@
+// LogRingBuffer.java
+// Bounded lock-free queue carrying log events from game threads to the GameLogger writer thread.
+// Any number of threads may offer; exactly one thread polls.
+
+package com.realmwar.data;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Array-based ring buffer where every slot carries a sequence number telling producers and the consumer whose turn it is
+final class LogRingBuffer<E> {
+
+    // Slot storage; capacity is a power of two so positions map to slots with a mask
+    private final Object[] slots;
+    // Per-slot sequence: equal to the position when the slot is free for that position, position + 1 once filled
+    private final AtomicLongArray sequences;
+    private final int mask;
+    // Next position producers claim
+    private final AtomicLong tail = new AtomicLong();
+    // Next position the consumer reads; only advanced by the consumer thread
+    private volatile long head;
+
+    // Constructor rounding the capacity up to a power of two
+    LogRingBuffer(int requestedCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(2, requestedCapacity) - 1) << 1;
+        this.slots = new Object[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    // Adds an event; returns false without waiting if the buffer is full
+    boolean offer(E event) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                // The slot is free for this position; claim the position, then fill and publish the slot
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots[index] = event;
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                // The consumer has not yet freed this slot from the previous lap
+                return false;
+            } else {
+                // Another producer claimed this position first
+                position = tail.get();
+            }
+        }
+    }
+
+    // Removes the oldest event, or returns null if none is ready; consumer thread only
+    @SuppressWarnings("unchecked")
+    E poll() {
+        long position = head;
+        int index = (int) position & mask;
+        if (sequences.get(index) != position + 1) return null;
+        E event = (E) slots[index];
+        slots[index] = null;
+        // Hands the slot to the producer that will claim it one lap later
+        sequences.lazySet(index, position + slots.length);
+        head = position + 1;
+        return event;
+    }
+
+    // Number of positions claimed so far, i.e. events offered successfully
+    long claimed() {
+        return tail.get();
+    }
+
+    // Number of events consumed so far
+    long consumed() {
+        return head;
+    }
+
+    // Slot count
+    int capacity() {
+        return slots.length;
+    }
+}
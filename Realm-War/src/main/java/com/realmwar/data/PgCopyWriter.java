@@ -0,0 +1,133 @@
+// PgCopyWriter.java
+// Streams rows into a PostgreSQL COPY ... FROM STDIN WITH (FORMAT csv) operation for the RealmWar game.
+// Rows are encoded straight into a reusable byte buffer and handed to the driver in large chunks.
+
+package com.realmwar.data;
+
+import org.postgresql.copy.CopyIn;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+
+// Minimal CSV encoder on top of the driver's CopyIn handle
+final class PgCopyWriter {
+
+    // Bytes buffered before each write to the server
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // The active COPY operation
+    private final CopyIn copyIn;
+    // Output buffer and its fill level
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    // True until the first field of the current row has been written
+    private boolean rowStart = true;
+    // Number of completed rows
+    private long rows;
+
+    // Constructor wrapping a CopyIn started by CopyManager.copyIn
+    PgCopyWriter(CopyIn copyIn) {
+        this.copyIn = copyIn;
+    }
+
+    // Appends an integer field
+    PgCopyWriter writeInt(int value) throws SQLException {
+        separator();
+        if (value == Integer.MIN_VALUE) {
+            writeAscii(String.valueOf(value));
+            return this;
+        }
+        if (value < 0) {
+            put((byte) '-');
+            value = -value;
+        }
+        // Digits are produced in reverse and then flipped in place
+        ensureCapacity(10);
+        int start = position;
+        do {
+            buffer[position++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        for (int i = start, j = position - 1; i < j; i++, j--) {
+            byte tmp = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = tmp;
+        }
+        return this;
+    }
+
+    // Appends a text field; null becomes an unquoted empty field, which COPY reads as NULL
+    PgCopyWriter writeText(String value) throws SQLException {
+        separator();
+        if (value == null) return this;
+        put((byte) '"');
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        for (byte b : bytes) {
+            // Quotes inside a quoted CSV field are doubled
+            if (b == '"') put((byte) '"');
+            put(b);
+        }
+        put((byte) '"');
+        return this;
+    }
+
+    // Terminates the current row
+    void endRow() throws SQLException {
+        put((byte) '\n');
+        rowStart = true;
+        rows++;
+    }
+
+    // Flushes the remaining bytes and completes the COPY; returns the number of rows sent
+    long finish() throws SQLException {
+        flush();
+        copyIn.endCopy();
+        return rows;
+    }
+
+    // Aborts the COPY so the connection can be rolled back
+    void cancel() {
+        try {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        } catch (SQLException e) {
+            GameLogger.log(LogLevel.WARN, LogCategory.PERSISTENCE, "Could not cancel COPY: {}", e.getMessage());
+        }
+    }
+
+    // Writes a field separator unless this is the first field of the row
+    private void separator() throws SQLException {
+        if (rowStart) {
+            rowStart = false;
+        } else {
+            put((byte) ',');
+        }
+    }
+
+    // Appends a plain ASCII string
+    private void writeAscii(String s) throws SQLException {
+        for (int i = 0; i < s.length(); i++) {
+            put((byte) s.charAt(i));
+        }
+    }
+
+    // Appends one byte, flushing first if the buffer is full
+    private void put(byte b) throws SQLException {
+        if (position == buffer.length) flush();
+        buffer[position++] = b;
+    }
+
+    // Makes room for a number of contiguous bytes
+    private void ensureCapacity(int bytes) throws SQLException {
+        if (position + bytes > buffer.length) flush();
+    }
+
+    // Hands the buffered bytes to the driver
+    private void flush() throws SQLException {
+        if (position > 0) {
+            copyIn.writeToCopy(buffer, 0, position);
+            position = 0;
+        }
+    }
+}
@@ -0,0 +1,346 @@
+// PostgresSaveStore.java
+// PostgreSQL backend for RealmWar saves, intended for shared or server-hosted installs.
+// Connection settings come from realmwar.db.url, realmwar.db.user and realmwar.db.password.
+// Tiles and entities are bulk-written with COPY unless realmwar.db.copy is set to false.
+// Child tables are range-partitioned by save_id in buckets of realmwar.db.savesPerPartition saves (default 1000).
+// Saves never run DDL: the purger thread attaches the partitions for upcoming saves ahead of time, and once every save
+// of an old bucket has been purged row by row, it detaches and drops that bucket's partitions.
+
+package com.realmwar.data;
+
+import com.realmwar.data.SaveSnapshot.EntityRecord;
+import com.realmwar.data.SaveSnapshot.TileRecord;
+import com.realmwar.util.Config;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.TreeSet;
+
+// SaveStore implementation backed by a PostgreSQL server
+public final class PostgresSaveStore extends JdbcSaveStore {
+
+    // Default connection configuration, matching the original hard-wired settings
+    private static final String DEFAULT_URL = "jdbc:postgresql://localhost:5432/realmwar_db";
+    private static final String DEFAULT_USER = "postgres";
+    private static final String DEFAULT_PASS = "0000";
+    // Longest time partition maintenance waits for a table lock before giving up until the next run
+    private static final int MAINTENANCE_LOCK_TIMEOUT_MS = 200;
+    // SQLState PostgreSQL reports when the lock timeout expires (lock_not_available)
+    private static final String LOCK_NOT_AVAILABLE = "55P03";
+    // Consecutive save ids sharing one partition, and the partitions kept ready beyond the one receiving saves
+    private static final int SAVES_PER_PARTITION = Math.max(1, Config.getInt("realmwar.db.savesPerPartition", 1000));
+    private static final int PARTITIONS_AHEAD = 1;
+
+    // Connection configuration for this store
+    private final String url;
+    private final String user;
+    private final String password;
+    // Whether bulk rows are streamed with COPY instead of batched INSERTs
+    private boolean useCopy = Config.getBoolean("realmwar.db.copy", true);
+    // Whether the child tables are range-partitioned; databases created by older versions keep their tables as they are
+    private volatile boolean partitioned;
+
+    // Constructor reading the connection settings from configuration
+    public PostgresSaveStore() {
+        this(Config.get("realmwar.db.url", DEFAULT_URL),
+                Config.get("realmwar.db.user", DEFAULT_USER),
+                Config.get("realmwar.db.password", DEFAULT_PASS));
+    }
+
+    // Constructor with explicit connection settings
+    public PostgresSaveStore(String url, String user, String password) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+    }
+
+    @Override
+    public String getName() {
+        return "PostgreSQL";
+    }
+
+    @Override
+    protected String getDriverClassName() {
+        return "org.postgresql.Driver";
+    }
+
+    @Override
+    protected Connection openConnection() throws SQLException {
+        return DriverManager.getConnection(url, user, password);
+    }
+
+    @Override
+    protected String getIdColumnDefinition() {
+        return "id SERIAL PRIMARY KEY";
+    }
+
+    @Override
+    protected String getEpochMillisExpression(String column) {
+        return "CAST(EXTRACT(EPOCH FROM " + column + ") * 1000 AS BIGINT)";
+    }
+
+    @Override
+    protected String getBinaryColumnType() {
+        return "BYTEA";
+    }
+
+    // A partitioned table's primary key must include the partition key
+    @Override
+    protected String getChildIdColumnDefinition() {
+        return "id SERIAL";
+    }
+
+    @Override
+    protected String getChildTableConstraints() {
+        return ", PRIMARY KEY (save_id, id)";
+    }
+
+    @Override
+    protected String getChildTableOptions() {
+        return " PARTITION BY RANGE (save_id)";
+    }
+
+    // Detects whether the child tables are range-partitioned and prepares their first partitions
+    @Override
+    protected void afterSchemaCreated(Connection conn) throws SQLException {
+        boolean allPartitioned = true;
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT pt.partstrat FROM pg_partitioned_table pt JOIN pg_class c ON c.oid = pt.partrelid WHERE c.relname = ?")) {
+            for (String table : CHILD_TABLES) {
+                ps.setString(1, table);
+                try (ResultSet rs = ps.executeQuery()) {
+                    allPartitioned &= rs.next() && "r".equals(rs.getString(1));
+                }
+            }
+        }
+        partitioned = allPartitioned;
+        if (!partitioned) {
+            GameLogger.log(LogLevel.INFO, LogCategory.PERSISTENCE, "Save tables are not range-partitioned (created by an older version); old saves are purged row by row.");
+            return;
+        }
+        // The partition DDL waits no longer for table locks than maintenance does, so a long transaction on the save
+        // tables cannot hold up start-up; whatever is skipped here is done by the purger's next maintenance run
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("SET lock_timeout = '" + MAINTENANCE_LOCK_TIMEOUT_MS + "ms'");
+            try {
+                createDefaultPartitions(conn);
+                createPartitionsAhead(conn);
+            } catch (SQLException e) {
+                if (!LOCK_NOT_AVAILABLE.equals(e.getSQLState())) throw e;
+                GameLogger.log(LogLevel.WARN, LogCategory.PERSISTENCE, "Save partition setup skipped, the save tables are locked; the purger retries it: {}", e.getMessage());
+            } finally {
+                stmt.execute("RESET lock_timeout");
+            }
+        }
+    }
+
+    // Creates the partitions for upcoming saves and drops emptied old ones; runs on the purger thread between saves
+    @Override
+    public void maintain() {
+        if (!partitioned) return;
+        try (Connection conn = getConnection()) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("SET lock_timeout = '" + MAINTENANCE_LOCK_TIMEOUT_MS + "ms'");
+            }
+            createDefaultPartitions(conn);
+            createPartitionsAhead(conn);
+            dropEmptyPartitions(conn);
+        } catch (SQLException e) {
+            // Retried on the next run; until then saves past the last partition go to the default one
+            GameLogger.log(LogLevel.WARN, LogCategory.PERSISTENCE, "Save partition maintenance failed: {}", e.getMessage());
+        }
+    }
+
+    // Makes sure every child table has its default partition, which catches rows for saves beyond the partitions made
+    // so far, so a save never fails for want of one
+    private static void createDefaultPartitions(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            for (String table : CHILD_TABLES) {
+                stmt.execute("CREATE TABLE IF NOT EXISTS " + table + "_default PARTITION OF " + table + " DEFAULT");
+            }
+        }
+    }
+
+    // Makes sure the partition receiving new saves and the next PARTITIONS_AHEAD ones exist
+    private void createPartitionsAhead(Connection conn) throws SQLException {
+        int current = bucketOf(nextSaveId(conn));
+        for (String table : CHILD_TABLES) {
+            Set<Integer> buckets = partitionBuckets(conn, table);
+            for (int bucket = current; bucket <= current + PARTITIONS_AHEAD; bucket++) {
+                if (buckets.contains(bucket)) continue;
+                try {
+                    attachPartition(conn, table, bucket);
+                } catch (SQLException e) {
+                    // E.g. the lock timeout, or rows for this range already in the default partition, where they stay
+                    GameLogger.log(LogLevel.WARN, LogCategory.PERSISTENCE, "Could not create save partition {}: {}", partitionName(table, bucket), e.getMessage());
+                }
+            }
+        }
+    }
+
+    // Creates one bucket's partition as a plain table and attaches it, which only takes a SHARE UPDATE EXCLUSIVE
+    // lock on the parent (PostgreSQL 12 and later), so concurrent saves and loads carry on; the default partition,
+    // normally empty, is checked for rows in the new range under the lock timeout
+    private static void attachPartition(Connection conn, String table, int bucket) throws SQLException {
+        String name = partitionName(table, bucket);
+        long from = (long) bucket * SAVES_PER_PARTITION;
+        long to = from + SAVES_PER_PARTITION;
+        try (Statement stmt = conn.createStatement()) {
+            // Left over from an attach that failed; it was never part of the table
+            stmt.execute("DROP TABLE IF EXISTS " + name);
+            stmt.execute("CREATE TABLE " + name + " (LIKE " + table + " INCLUDING DEFAULTS)");
+            // A constraint matching the range lets the attach skip scanning the new table
+            stmt.execute("ALTER TABLE " + name + " ADD CONSTRAINT " + name + "_range CHECK (save_id >= " + from + " AND save_id < " + to + ")");
+            stmt.execute("ALTER TABLE " + table + " ATTACH PARTITION " + name + " FOR VALUES FROM (" + from + ") TO (" + to + ")");
+        }
+        GameLogger.log(LogLevel.DEBUG, LogCategory.PERSISTENCE, "Created save partition {}.", name);
+    }
+
+    // Drops the partitions of old buckets whose saves have all been purged
+    // Only buckets a full bucket behind the newest save are considered, so no save still in progress can write to them.
+    // The detach takes an exclusive lock on the parent for a moment, capped by the lock timeout; a concurrent detach
+    // would avoid it, but PostgreSQL refuses one while the table has a default partition.
+    private void dropEmptyPartitions(Connection conn) throws SQLException {
+        int current = bucketOf(nextSaveId(conn));
+        for (String table : CHILD_TABLES) {
+            for (int bucket : partitionBuckets(conn, table)) {
+                if (bucket >= current - 1) break;
+                String name = partitionName(table, bucket);
+                if (hasSaves(conn, bucket) || hasRows(conn, name)) continue;
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("ALTER TABLE " + table + " DETACH PARTITION " + name);
+                    stmt.execute("DROP TABLE " + name);
+                    GameLogger.log(LogLevel.DEBUG, LogCategory.PERSISTENCE, "Dropped emptied save partition {}.", name);
+                } catch (SQLException e) {
+                    GameLogger.log(LogLevel.WARN, LogCategory.PERSISTENCE, "Could not drop save partition {}, retrying on the next run: {}", name, e.getMessage());
+                }
+            }
+        }
+    }
+
+    // Lists the buckets with a partition of a child table, lowest first
+    private static TreeSet<Integer> partitionBuckets(Connection conn, String table) throws SQLException {
+        TreeSet<Integer> buckets = new TreeSet<>();
+        String prefix = table + "_b";
+        try (PreparedStatement ps = conn.prepareStatement("SELECT c.relname FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent WHERE p.relname = ?")) {
+            ps.setString(1, table);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String name = rs.getString(1);
+                    if (name.startsWith(prefix)) buckets.add(Integer.parseInt(name.substring(prefix.length())));
+                }
+            }
+        }
+        return buckets;
+    }
+
+    // Returns the id the next save will get, as far as the id sequence tells
+    private static long nextSaveId(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT CASE WHEN is_called THEN last_value + 1 ELSE last_value END " +
+                     "FROM " + serialSequence(conn))) {
+            return rs.next() ? rs.getLong(1) : 1;
+        }
+    }
+
+    // Name of the sequence behind game_saves.id
+    private static String serialSequence(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT pg_get_serial_sequence('game_saves', 'id')")) {
+            if (!rs.next() || rs.getString(1) == null) throw new SQLException("game_saves.id has no sequence");
+            return rs.getString(1);
+        }
+    }
+
+    // Whether any save with an id in a bucket remains
+    private static boolean hasSaves(Connection conn, int bucket) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT 1 FROM game_saves WHERE id >= ? AND id < ? LIMIT 1")) {
+            ps.setLong(1, (long) bucket * SAVES_PER_PARTITION);
+            ps.setLong(2, (long) (bucket + 1) * SAVES_PER_PARTITION);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    // Whether a partition still holds rows, e.g. written by an external tool
+    private static boolean hasRows(Connection conn, String partition) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT 1 FROM " + partition + " LIMIT 1")) {
+            return rs.next();
+        }
+    }
+
+    // Bucket holding a save id
+    private static int bucketOf(long saveId) {
+        return (int) (saveId / SAVES_PER_PARTITION);
+    }
+
+    // Name of the partition holding one bucket's rows of a child table
+    private static String partitionName(String table, int bucket) {
+        return table + "_b" + bucket;
+    }
+
+    // Enables or disables the COPY path, e.g. to compare it against batching
+    public void setUseCopy(boolean useCopy) {
+        this.useCopy = useCopy;
+    }
+
+    // Streams board tiles through COPY on the save transaction's connection
+    @Override
+    protected void writeTiles(Connection conn, int saveId, SaveSnapshot snapshot) throws SQLException {
+        if (!useCopy) {
+            super.writeTiles(conn, saveId, snapshot);
+            return;
+        }
+        PgCopyWriter out = startCopy(conn,
+                "COPY game_board_tiles(save_id, x_coord, y_coord, block_class_name, territory_owner_name) FROM STDIN WITH (FORMAT csv)");
+        try {
+            for (TileRecord tile : snapshot.tiles) {
+                out.writeInt(saveId).writeInt(tile.x()).writeInt(tile.y())
+                        .writeText(tile.blockClassName()).writeText(tile.territoryOwnerName());
+                out.endRow();
+            }
+            out.finish();
+        } catch (SQLException | RuntimeException e) {
+            out.cancel();
+            throw e;
+        }
+    }
+
+    // Streams game entities through COPY on the save transaction's connection
+    @Override
+    protected void writeEntities(Connection conn, int saveId, SaveSnapshot snapshot) throws SQLException {
+        if (!useCopy) {
+            super.writeEntities(conn, saveId, snapshot);
+            return;
+        }
+        PgCopyWriter out = startCopy(conn,
+                "COPY game_entities(save_id, entity_class_name, owner_name, x_coord, y_coord, health) FROM STDIN WITH (FORMAT csv)");
+        try {
+            for (EntityRecord entity : snapshot.entities) {
+                out.writeInt(saveId).writeText(entity.entityClassName()).writeText(entity.ownerName())
+                        .writeInt(entity.x()).writeInt(entity.y()).writeInt(entity.health());
+                out.endRow();
+            }
+            out.finish();
+        } catch (SQLException | RuntimeException e) {
+            out.cancel();
+            throw e;
+        }
+    }
+
+    // Starts a COPY FROM STDIN; it joins the connection's open transaction, so a failed save still rolls back fully
+    private static PgCopyWriter startCopy(Connection conn, String sql) throws SQLException {
+        CopyManager copyManager = conn.unwrap(PGConnection.class).getCopyAPI();
+        return new PgCopyWriter(copyManager.copyIn(sql));
+    }
+}
@@ -0,0 +1,93 @@
+// RecordDecoder.java
+// Reads the varint encodings written by RecordEncoder from one record body held in memory.
+// Every read is bounds-checked against the body length, so a corrupt record fails with an IOException.
+
+package com.realmwar.data;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Reusable decoder over a byte array; not thread-safe
+final class RecordDecoder {
+    // Record bytes, their length and the read position
+    private byte[] bytes;
+    private int length;
+    private int position;
+
+    // Starts decoding the first length bytes of an array
+    void reset(byte[] bytes, int length) {
+        this.bytes = bytes;
+        this.length = length;
+        this.position = 0;
+    }
+
+    // Bytes left in the record
+    int remaining() {
+        return length - position;
+    }
+
+    // Reads an unsigned varint
+    long readVarLong() throws IOException {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (position >= length) throw new IOException("Record ends inside a field");
+            int b = bytes[position++] & 0xFF;
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return result;
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    // Reads a zigzag-encoded int
+    int readInt() throws IOException {
+        int raw = (int) readVarLong();
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    // Reads a zigzag-encoded long
+    long readLong() throws IOException {
+        long raw = readVarLong();
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    // Reads a one-byte boolean
+    boolean readBoolean() throws IOException {
+        if (position >= length) throw new IOException("Record ends inside a field");
+        return bytes[position++] != 0;
+    }
+
+    // Reads a nullable string
+    String readString() throws IOException {
+        long lengthPlusOne = readVarLong();
+        if (lengthPlusOne == 0) return null;
+        // Checked before narrowing, as a corrupt length may be negative or wrap around in an int
+        if (lengthPlusOne < 0 || lengthPlusOne - 1 > remaining()) throw new IOException("Record ends inside a string");
+        int size = (int) (lengthPlusOne - 1);
+        String value = new String(bytes, position, size, StandardCharsets.UTF_8);
+        position += size;
+        return value;
+    }
+
+    // Reads a length-prefixed byte array
+    byte[] readBytes() throws IOException {
+        long length = readVarLong();
+        if (length < 0 || length > remaining()) throw new IOException("Record ends inside a byte array");
+        int size = (int) length;
+        byte[] value = Arrays.copyOfRange(bytes, position, position + size);
+        position += size;
+        return value;
+    }
+
+    // Reads an unsigned varint directly from a stream, such as a record length prefix
+    static long readVarLong(DataInputStream in) throws IOException {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return result;
+        }
+        throw new IOException("Malformed varint");
+    }
+}
@@ -0,0 +1,91 @@
+// RecordEncoder.java
+// Growable byte buffer with the varint encodings shared by the RealmWar binary log formats
+// (the structured event log and the command log). RecordDecoder reads the same encodings back.
+
+package com.realmwar.data;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Reusable encoder; not thread-safe
+final class RecordEncoder {
+    // Encoded bytes and fill level
+    private byte[] bytes = new byte[256];
+    private int size;
+
+    // Empties the buffer for the next record
+    void reset() {
+        size = 0;
+    }
+
+    // Number of bytes encoded
+    int size() {
+        return size;
+    }
+
+    // Appends a signed int as a zigzag varint
+    void writeInt(int value) {
+        writeVarLong(((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL);
+    }
+
+    // Appends a signed long as a zigzag varint
+    void writeLong(long value) {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    // Appends a boolean as one byte
+    void writeBoolean(boolean value) {
+        ensure(1);
+        bytes[size++] = (byte) (value ? 1 : 0);
+    }
+
+    // Appends a nullable string as its length + 1 followed by its UTF-8 bytes
+    void writeString(String value) {
+        if (value == null) {
+            writeVarLong(0);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(utf8.length + 1L);
+        ensure(utf8.length);
+        System.arraycopy(utf8, 0, bytes, size, utf8.length);
+        size += utf8.length;
+    }
+
+    // Appends a byte array as its length followed by the bytes
+    void writeBytes(byte[] value) {
+        writeVarLong(value.length);
+        ensure(value.length);
+        System.arraycopy(value, 0, bytes, size, value.length);
+        size += value.length;
+    }
+
+    // Appends an unsigned varint, seven bits per byte with the high bit marking continuation
+    void writeVarLong(long value) {
+        ensure(10);
+        while ((value & ~0x7FL) != 0) {
+            bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[size++] = (byte) value;
+    }
+
+    // Copies the encoded bytes into a new array
+    byte[] toByteArray() {
+        return Arrays.copyOf(bytes, size);
+    }
+
+    // Writes the encoded bytes to a stream
+    void writeTo(OutputStream stream) throws IOException {
+        stream.write(bytes, 0, size);
+    }
+
+    // Grows the buffer to fit more bytes
+    private void ensure(int extra) {
+        if (size + extra > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+        }
+    }
+}
@@ -0,0 +1,59 @@
+// RetentionPolicy.java
+// Describes which old saves the RealmWar game may delete.
+// A save expires if its game has more than keepLastPerGame newer saves, or if it is older than maxAgeMillis.
+
+package com.realmwar.data;
+
+import com.realmwar.util.Config;
+
+// Value class for the save retention rules; a limit of 0 disables that rule
+public final class RetentionPolicy {
+    // Number of most recent saves kept for each game (0 keeps all)
+    private final int keepLastPerGame;
+    // Maximum age of a save in milliseconds (0 keeps saves forever)
+    private final long maxAgeMillis;
+
+    // Constructor with explicit limits
+    public RetentionPolicy(int keepLastPerGame, long maxAgeMillis) {
+        this.keepLastPerGame = Math.max(0, keepLastPerGame);
+        this.maxAgeMillis = Math.max(0, maxAgeMillis);
+    }
+
+    // Reads the policy from realmwar.retention.keepLast and realmwar.retention.maxAgeDays; both default to off
+    public static RetentionPolicy fromConfig() {
+        int keepLast = Config.getInt("realmwar.retention.keepLast", 0);
+        long maxAgeDays = Config.getLong("realmwar.retention.maxAgeDays", 0);
+        return new RetentionPolicy(keepLast, maxAgeDays * 24L * 60 * 60 * 1000);
+    }
+
+    // Checks if any rule is active
+    public boolean isEnabled() {
+        return keepLastPerGame > 0 || maxAgeMillis > 0;
+    }
+
+    // Gets the per-game save limit, or 0 if unlimited
+    public int getKeepLastPerGame() {
+        return keepLastPerGame;
+    }
+
+    // Gets the maximum age in milliseconds, or 0 if unlimited
+    public long getMaxAgeMillis() {
+        return maxAgeMillis;
+    }
+
+    // Rank above which a save expires (saves are ranked newest first within their game)
+    public long getRankLimit() {
+        return keepLastPerGame > 0 ? keepLastPerGame : Long.MAX_VALUE;
+    }
+
+    // Saves taken before this epoch-millisecond time expire
+    public long getCutoffMillis(long now) {
+        return maxAgeMillis > 0 ? now - maxAgeMillis : Long.MIN_VALUE;
+    }
+
+    @Override
+    public String toString() {
+        return "keep last " + (keepLastPerGame > 0 ? keepLastPerGame : "all") + " per game, max age "
+                + (maxAgeMillis > 0 ? maxAgeMillis / (24L * 60 * 60 * 1000) + " days" : "unlimited");
+    }
+}
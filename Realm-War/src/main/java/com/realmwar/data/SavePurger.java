@@ -0,0 +1,96 @@
+// SavePurger.java
+// Background job that deletes expired saves for the RealmWar game and runs the save store's housekeeping.
+// Runs every realmwar.retention.intervalMinutes on a daemon thread and deletes saves in small batches,
+// so purging never competes with the game for long database locks. Housekeeping (SaveStore.maintain) runs after
+// every purge, and also when no retention policy is configured.
+
+package com.realmwar.data;
+
+import com.realmwar.util.Config;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Schedules SaveStore.purgeExpired for the configured RetentionPolicy
+public final class SavePurger {
+
+    // Default minutes between purge runs
+    private static final int DEFAULT_INTERVAL_MINUTES = 10;
+    // Default number of saves deleted per batch
+    private static final int DEFAULT_BATCH_SIZE = 20;
+    // Pause between consecutive batches of one run, leaving gaps for game saves
+    private static final long BATCH_PAUSE_MS = 50;
+
+    // Store purged by this job
+    private final SaveStore store;
+    // Rules deciding which saves expire
+    private final RetentionPolicy policy;
+    // Saves deleted per batch
+    private final int batchSize;
+    // Minutes between runs
+    private final int intervalMinutes;
+    // Scheduler thread, created on start
+    private ScheduledExecutorService scheduler;
+
+    // Constructor reading the batch size and interval from configuration
+    public SavePurger(SaveStore store, RetentionPolicy policy) {
+        this.store = store;
+        this.policy = policy;
+        this.batchSize = Math.max(1, Config.getInt("realmwar.retention.batchSize", DEFAULT_BATCH_SIZE));
+        this.intervalMinutes = Math.max(1, Config.getInt("realmwar.retention.intervalMinutes", DEFAULT_INTERVAL_MINUTES));
+    }
+
+    // Starts periodic purging and housekeeping; the first run happens shortly after startup
+    public synchronized void start() {
+        if (scheduler != null) return;
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "save-purger");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::runOnce, 1, intervalMinutes * 60L, TimeUnit.SECONDS);
+        if (policy.isEnabled()) {
+            GameLogger.log(LogLevel.INFO, LogCategory.PERSISTENCE, "Save retention enabled ({}), purging every {} minutes.", policy, intervalMinutes);
+        }
+    }
+
+    // Stops purging; a batch in progress is allowed to finish
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            scheduler = null;
+        }
+    }
+
+    // Purges batch after batch until a batch comes back short, then runs the store's housekeeping
+    // Returns the number of deleted saves
+    public int runOnce() {
+        int total = 0;
+        try {
+            while (true) {
+                int deleted = store.purgeExpired(policy, batchSize);
+                total += deleted;
+                if (deleted < batchSize) break;
+                Thread.sleep(BATCH_PAUSE_MS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            // An exception would cancel the schedule, so it is logged and the next run retries
+            GameLogger.log(LogLevel.ERROR, LogCategory.PERSISTENCE, "CRITICAL: Error purging old saves: {}", e.getMessage());
+            e.printStackTrace();
+        }
+        if (total > 0) {
+            GameLogger.log(LogLevel.INFO, LogCategory.PERSISTENCE, "Purged {} expired saves from {}.", total, store.getName());
+        }
+        try {
+            store.maintain();
+        } catch (RuntimeException e) {
+            GameLogger.log(LogLevel.ERROR, LogCategory.PERSISTENCE, "CRITICAL: Error maintaining {} save store: {}", store.getName(), e.getMessage());
+            e.printStackTrace();
+        }
+        return total;
+    }
+}
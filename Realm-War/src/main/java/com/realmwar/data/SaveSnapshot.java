@@ -0,0 +1,212 @@
+// SaveSnapshot.java
+// A storage-independent copy of everything a RealmWar save contains.
+// Captured from a live GameManager when saving and turned back into a GameManager when loading.
+
+package com.realmwar.data;
+
+import com.realmwar.engine.GameBoard;
+import com.realmwar.engine.GameManager;
+import com.realmwar.engine.GameRandom;
+import com.realmwar.engine.GameTile;
+import com.realmwar.engine.blocks.Block;
+import com.realmwar.engine.blocks.EmptyBlock;
+import com.realmwar.engine.blocks.ForestBlock;
+import com.realmwar.engine.blocks.VoidBlock;
+import com.realmwar.model.GameEntity;
+import com.realmwar.model.Player;
+import com.realmwar.model.structures.*;
+import com.realmwar.model.units.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// Immutable-by-convention value object holding the rows of a single save
+public final class SaveSnapshot {
+
+    // One row of game_board_tiles
+    public record TileRecord(int x, int y, String blockClassName, String territoryOwnerName) {}
+    // One row of game_entities
+    public record EntityRecord(String entityClassName, String ownerName, int x, int y, int health) {}
+    // One row of player_unit_counts
+    public record UnitCountRecord(String playerName, String unitType, int count) {}
+    // One row of player_resources
+    public record ResourceRecord(String playerName, int gold, int food) {}
+
+    // Save metadata
+    public final String saveName;
+    public final String gameId;
+    public final int currentPlayerIndex;
+    public final int boardWidth;
+    public final int boardHeight;
+    public final String winnerName;
+    public final int turnNumber;
+    // Seed the game was generated from
+    public final long seed;
+    // Sum of the hashes of all rows below, checked when the save is loaded
+    public final long checksum;
+    // Time the snapshot was taken, in epoch milliseconds
+    public final long timestamp;
+    // Save contents
+    public final List<TileRecord> tiles;
+    public final List<EntityRecord> entities;
+    public final List<UnitCountRecord> unitCounts;
+    public final List<ResourceRecord> resources;
+    // PNG board preview rendered at capture time, or null
+    public final byte[] thumbnailPng;
+
+    // Constructor used by the storage backends when reading a save back
+    public SaveSnapshot(String saveName, String gameId, int currentPlayerIndex, int boardWidth, int boardHeight, String winnerName,
+                        int turnNumber, long seed, long checksum, long timestamp, List<TileRecord> tiles, List<EntityRecord> entities,
+                        List<UnitCountRecord> unitCounts, List<ResourceRecord> resources, byte[] thumbnailPng) {
+        this.saveName = saveName;
+        this.gameId = gameId;
+        this.currentPlayerIndex = currentPlayerIndex;
+        this.boardWidth = boardWidth;
+        this.boardHeight = boardHeight;
+        this.winnerName = winnerName;
+        this.turnNumber = turnNumber;
+        this.seed = seed;
+        this.checksum = checksum;
+        this.timestamp = timestamp;
+        this.tiles = tiles;
+        this.entities = entities;
+        this.unitCounts = unitCounts;
+        this.resources = resources;
+        this.thumbnailPng = thumbnailPng;
+    }
+
+    // Copies the current state of a game into a new snapshot
+    public static SaveSnapshot capture(GameManager gameManager, String saveName) {
+        GameBoard board = gameManager.getGameBoard();
+        List<TileRecord> tiles = new ArrayList<>(board.width * board.height);
+        List<EntityRecord> entities = new ArrayList<>();
+        for (int x = 0; x < board.width; x++) {
+            for (int y = 0; y < board.height; y++) {
+                GameTile tile = board.getTile(x, y);
+                Player owner = tile.getTerritoryOwner();
+                tiles.add(new TileRecord(x, y, tile.block.getClass().getSimpleName(), owner != null ? owner.getName() : null));
+
+                GameEntity entity = tile.getEntity();
+                if (entity != null) {
+                    int health = entity instanceof Unit unit ? unit.getHealth() :
+                            entity instanceof Structure structure ? structure.getDurability() : 0;
+                    entities.add(new EntityRecord(entity.getClass().getSimpleName(), entity.getOwner().getName(),
+                            entity.getX(), entity.getY(), health));
+                }
+            }
+        }
+
+        List<UnitCountRecord> unitCounts = new ArrayList<>();
+        List<ResourceRecord> resources = new ArrayList<>();
+        for (Player player : gameManager.getPlayers()) {
+            for (Map.Entry<String, Integer> entry : player.getUnitCounts().entrySet()) {
+                unitCounts.add(new UnitCountRecord(player.getName(), entry.getKey(), entry.getValue()));
+            }
+            resources.add(new ResourceRecord(player.getName(),
+                    player.getResourceHandler().getGold(), player.getResourceHandler().getFood()));
+        }
+
+        return new SaveSnapshot(saveName, gameManager.getGameId(), gameManager.getCurrentPlayerIndex(), board.width, board.height,
+                gameManager.winner != null ? gameManager.winner.getName() : null, gameManager.getTurnNumber(),
+                gameManager.getSeed(), rowChecksum(tiles, entities, unitCounts, resources), System.currentTimeMillis(),
+                tiles, entities, unitCounts, resources, SaveThumbnail.render(board));
+    }
+
+    // Rebuilds a GameManager from this snapshot
+    public GameManager restore() {
+        GameStateBuilder builder = new GameStateBuilder(boardWidth, boardHeight);
+        // Player order follows the resource rows, which are written in turn order
+        for (ResourceRecord record : resources) {
+            builder.addPlayer(record.playerName(), record.gold(), record.food());
+        }
+        // Saves without resource rows fall back to the owners seen elsewhere, with starting resources
+        for (UnitCountRecord record : unitCounts) {
+            builder.ensurePlayer(record.playerName());
+        }
+        for (EntityRecord record : entities) {
+            builder.ensurePlayer(record.ownerName());
+        }
+
+        for (TileRecord record : tiles) {
+            builder.addTile(record.x(), record.y(), record.blockClassName(), record.territoryOwnerName());
+        }
+        for (EntityRecord record : entities) {
+            builder.addEntity(record.entityClassName(), record.ownerName(), record.x(), record.y(), record.health());
+        }
+        for (UnitCountRecord record : unitCounts) {
+            builder.setUnitCount(record.playerName(), record.unitType(), record.count());
+        }
+        builder.setGameId(gameId);
+        builder.setTurnNumber(turnNumber);
+        builder.setSeed(seed);
+        builder.setExpectedChecksum(checksum);
+        return builder.build(currentPlayerIndex);
+    }
+
+    // Sum of the hashes of every row; the sum does not depend on the order rows are stored or read in
+    static long rowChecksum(List<TileRecord> tiles, List<EntityRecord> entities, List<UnitCountRecord> unitCounts,
+                            List<ResourceRecord> resources) {
+        long sum = 0;
+        for (TileRecord r : tiles) sum += tileRowHash(r.x(), r.y(), r.blockClassName(), r.territoryOwnerName());
+        for (EntityRecord r : entities) sum += entityRowHash(r.entityClassName(), r.ownerName(), r.x(), r.y(), r.health());
+        for (UnitCountRecord r : unitCounts) sum += unitCountRowHash(r.playerName(), r.unitType(), r.count());
+        for (ResourceRecord r : resources) sum += resourceRowHash(r.playerName(), r.gold(), r.food());
+        return sum;
+    }
+
+    // Hash of one game_board_tiles row
+    static long tileRowHash(int x, int y, String blockClassName, String territoryOwnerName) {
+        long hash = GameRandom.mix(1L << 56 ^ (long) x << 28 ^ y);
+        hash = GameRandom.mix(hash ^ Objects.hashCode(blockClassName));
+        return GameRandom.mix(hash ^ Objects.hashCode(territoryOwnerName));
+    }
+
+    // Hash of one game_entities row
+    static long entityRowHash(String entityClassName, String ownerName, int x, int y, int health) {
+        long hash = GameRandom.mix(2L << 56 ^ (long) x << 28 ^ y);
+        hash = GameRandom.mix(hash ^ Objects.hashCode(entityClassName));
+        hash = GameRandom.mix(hash ^ Objects.hashCode(ownerName));
+        return GameRandom.mix(hash ^ health);
+    }
+
+    // Hash of one player_unit_counts row
+    static long unitCountRowHash(String playerName, String unitType, int count) {
+        long hash = GameRandom.mix(3L << 56 ^ Objects.hashCode(playerName));
+        hash = GameRandom.mix(hash ^ Objects.hashCode(unitType));
+        return GameRandom.mix(hash ^ count);
+    }
+
+    // Hash of one player_resources row
+    static long resourceRowHash(String playerName, int gold, int food) {
+        long hash = GameRandom.mix(4L << 56 ^ Objects.hashCode(playerName));
+        hash = GameRandom.mix(hash ^ gold);
+        return GameRandom.mix(hash ^ food);
+    }
+
+    // Creates a Block instance based on the provided class name
+    static Block createBlockFromString(String className) {
+        return switch (className) {
+            case "ForestBlock" -> new ForestBlock();
+            case "VoidBlock" -> new VoidBlock();
+            default -> new EmptyBlock();
+        };
+    }
+
+    // Creates a GameEntity instance based on the provided type, owner, and coordinates
+    static GameEntity createEntityFromString(String type, Player owner, int x, int y) {
+        return switch (type) {
+            case "Peasant" -> new Peasant(owner, x, y);
+            case "Spearman" -> new Spearman(owner, x, y);
+            case "Swordsman" -> new Swordsman(owner, x, y);
+            case "Knight" -> new Knight(owner, x, y);
+            case "TownHall" -> new TownHall(owner, x, y);
+            case "Farm" -> new Farm(owner, x, y);
+            case "Barrack" -> new Barrack(owner, x, y);
+            case "Market" -> new Market(owner, x, y);
+            case "Tower" -> new Tower(owner, x, y);
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,41 @@
+// SaveStore.java
+// Storage backend abstraction for saved games in the RealmWar game.
+// Implementations persist SaveSnapshots in PostgreSQL, an embedded SQLite file, or plain memory.
+
+package com.realmwar.data;
+
+import com.realmwar.engine.GameManager;
+
+import java.util.List;
+
+// Interface implemented by every save backend; DatabaseManager picks one from configuration
+public interface SaveStore {
+    // Short name of the backend, used in log messages
+    String getName();
+
+    // Prepares the backend (drivers, connections, schema); returns false if it is unusable
+    boolean initialize();
+
+    // Saves the current game state under the given name; returns true on success
+    boolean saveGame(GameManager gameManager, String saveName);
+
+    // Loads a game state by save name, or returns null if it cannot be loaded
+    GameManager loadGame(String saveName);
+
+    // Retrieves all save names, newest first
+    String[] getSaveGames();
+
+    // Retrieves one page of save summaries, newest first, starting after the given cursor (null for the first page)
+    // Pages are found by keyset on (saved_at, id), so any page costs the same regardless of how far back it is
+    List<SaveSummary> getSaveSummaries(SaveSummary after, int limit);
+
+    // Deletes a save by name; returns true if it existed
+    boolean deleteSave(String saveName);
+
+    // Deletes at most batchSize saves that the policy no longer keeps, oldest first; returns how many were deleted
+    // Each save is removed in its own short transaction so live saves are never held up behind a purge
+    int purgeExpired(RetentionPolicy policy, int batchSize);
+
+    // Backend housekeeping run periodically by the SavePurger outside any save, e.g. preparing storage for new saves
+    default void maintain() {}
+}
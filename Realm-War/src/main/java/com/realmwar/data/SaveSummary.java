@@ -0,0 +1,73 @@
+// SaveSummary.java
+// Lightweight description of one RealmWar save, as shown in the save browser.
+// Holds only metadata and the thumbnail, so listing saves never touches board rows.
+
+package com.realmwar.data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Immutable-by-convention value object for one row of save_summaries
+public final class SaveSummary {
+
+    // Identity of the save; (savedAt, saveId) is also the keyset pagination cursor
+    public final long saveId;
+    public final String saveName;
+    public final String gameId;
+    // Time the save was taken, in epoch milliseconds
+    public final long savedAt;
+    // Game progress at the time of the save
+    public final int turnNumber;
+    public final List<String> playerNames;
+    public final String currentPlayerName;
+    public final String winnerName;
+    // Board size
+    public final int boardWidth;
+    public final int boardHeight;
+    // PNG-encoded board preview, or null for saves made before thumbnails existed
+    public final byte[] thumbnailPng;
+
+    // Constructor used by the storage backends
+    public SaveSummary(long saveId, String saveName, String gameId, long savedAt, int turnNumber,
+                       List<String> playerNames, String currentPlayerName, String winnerName,
+                       int boardWidth, int boardHeight, byte[] thumbnailPng) {
+        this.saveId = saveId;
+        this.saveName = saveName;
+        this.gameId = gameId;
+        this.savedAt = savedAt;
+        this.turnNumber = turnNumber;
+        this.playerNames = playerNames;
+        this.currentPlayerName = currentPlayerName;
+        this.winnerName = winnerName;
+        this.boardWidth = boardWidth;
+        this.boardHeight = boardHeight;
+        this.thumbnailPng = thumbnailPng;
+    }
+
+    // Builds the summary of a snapshot that is being saved under the given id
+    public static SaveSummary of(SaveSnapshot snapshot, long saveId) {
+        List<String> players = new ArrayList<>(snapshot.resources.size());
+        for (SaveSnapshot.ResourceRecord resource : snapshot.resources) {
+            players.add(resource.playerName());
+        }
+        String currentPlayer = snapshot.currentPlayerIndex >= 0 && snapshot.currentPlayerIndex < players.size()
+                ? players.get(snapshot.currentPlayerIndex) : null;
+        return new SaveSummary(saveId, snapshot.saveName, snapshot.gameId, snapshot.timestamp, snapshot.turnNumber,
+                players, currentPlayer, snapshot.winnerName, snapshot.boardWidth, snapshot.boardHeight, snapshot.thumbnailPng);
+    }
+
+    // Checks if this save sorts after the cursor in the newest-first listing
+    public boolean isOlderThan(SaveSummary cursor) {
+        return savedAt < cursor.savedAt || (savedAt == cursor.savedAt && saveId < cursor.saveId);
+    }
+
+    // Player names joined for storage in a single text column
+    String joinPlayerNames() {
+        return playerNames.isEmpty() ? null : String.join(",", playerNames);
+    }
+
+    // Splits a stored player-name column back into a list
+    static List<String> splitPlayerNames(String joined) {
+        return joined == null || joined.isEmpty() ? List.of() : List.of(joined.split(","));
+    }
+}
@@ -0,0 +1,86 @@
+// SaveThumbnail.java
+// Renders the small board preview stored with every RealmWar save.
+// The thumbnail is drawn once when the game is saved, so the save browser never has to load a board to show it.
+
+package com.realmwar.data;
+
+import com.realmwar.engine.GameBoard;
+import com.realmwar.engine.GameTile;
+import com.realmwar.model.GameEntity;
+import com.realmwar.model.Player;
+import com.realmwar.util.PlayerColors;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+// Utility class producing PNG-encoded board thumbnails
+public final class SaveThumbnail {
+
+    // Longest side of a thumbnail in pixels
+    public static final int MAX_SIZE = 96;
+    // Share of the player color mixed into owned territory
+    private static final float TERRITORY_BLEND = 0.5f;
+    // Pixel colors (0xRRGGBB) by player palette index: entities in the darker player color, territory tints plain
+    private static final int[] ENTITY_RGB = new int[PlayerColors.COUNT];
+    private static final int[] TERRITORY_RGB = new int[PlayerColors.COUNT];
+
+    static {
+        for (int i = 0; i < PlayerColors.COUNT; i++) {
+            ENTITY_RGB[i] = PlayerColors.get(i).darker().getRGB() & 0xFFFFFF;
+            TERRITORY_RGB[i] = PlayerColors.get(i).getRGB() & 0xFFFFFF;
+        }
+    }
+
+    // Private constructor to prevent instantiation
+    private SaveThumbnail() {}
+
+    // Renders the board to a PNG thumbnail; returns null if encoding fails
+    public static byte[] render(GameBoard board) {
+        if (board.width <= 0 || board.height <= 0) return null;
+        // Whole pixels per tile for small boards; large boards are sampled down to MAX_SIZE
+        int scale = Math.max(1, MAX_SIZE / Math.max(board.width, board.height));
+        int imageWidth = Math.min(MAX_SIZE, board.width * scale);
+        int imageHeight = Math.min(MAX_SIZE, board.height * scale);
+        int[] pixels = new int[imageWidth * imageHeight];
+
+        for (int py = 0; py < imageHeight; py++) {
+            int y = py * board.height / imageHeight;
+            for (int px = 0; px < imageWidth; px++) {
+                int x = px * board.width / imageWidth;
+                pixels[py * imageWidth + px] = tileColor(board.getTile(x, y));
+            }
+        }
+
+        BufferedImage image = new BufferedImage(imageWidth, imageHeight, BufferedImage.TYPE_INT_RGB);
+        image.setRGB(0, 0, imageWidth, imageHeight, pixels, 0, imageWidth);
+        try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            ImageIO.write(image, "png", out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            GameLogger.log(LogLevel.WARN, LogCategory.PERSISTENCE, "Could not render save thumbnail: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    // Color of one tile: entities in their owner's color, otherwise terrain tinted by territory
+    private static int tileColor(GameTile tile) {
+        GameEntity entity = tile.getEntity();
+        if (entity != null) {
+            return ENTITY_RGB[PlayerColors.indexOf(entity.getOwner().getName())];
+        }
+        int base = tile.block.getColor().getRGB() & 0xFFFFFF;
+        Player owner = tile.getTerritoryOwner();
+        if (owner == null) return base;
+        int territory = TERRITORY_RGB[PlayerColors.indexOf(owner.getName())];
+        return blend(base >> 16 & 0xFF, territory >> 16 & 0xFF) << 16
+                | blend(base >> 8 & 0xFF, territory >> 8 & 0xFF) << 8
+                | blend(base & 0xFF, territory & 0xFF);
+    }
+
+    // Mixes one color channel towards the territory color
+    private static int blend(int base, int tint) {
+        return Math.round(base + (tint - base) * TERRITORY_BLEND);
+    }
+}
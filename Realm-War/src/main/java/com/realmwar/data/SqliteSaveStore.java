@@ -0,0 +1,82 @@
+// SqliteSaveStore.java
+// Embedded SQLite backend for RealmWar saves, the default for single-player installs.
+// Stores everything in a local file (realmwar.sqlite.path, default realmwar.db) with WAL journaling and tuned pragmas.
+
+package com.realmwar.data;
+
+import com.realmwar.util.Config;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// SaveStore implementation backed by an embedded SQLite database file
+public final class SqliteSaveStore extends JdbcSaveStore {
+
+    // Default database file, the one shipped with the game
+    private static final String DEFAULT_PATH = "realmwar.db";
+
+    // Per-connection pragmas:
+    // - WAL lets the UI read the save list while a save is being written and turns commits into sequential appends
+    // - synchronous=NORMAL is durable across application crashes in WAL mode and avoids an fsync per commit
+    // - foreign_keys enables the ON DELETE CASCADE clauses, which SQLite ignores by default
+    // - busy_timeout waits for a concurrent writer instead of failing immediately
+    // - temp_store and cache_size keep sort/temporary data and an 8 MB page cache in memory
+    private static final String[] PRAGMAS = {
+            "PRAGMA journal_mode=WAL",
+            "PRAGMA synchronous=NORMAL",
+            "PRAGMA foreign_keys=ON",
+            "PRAGMA busy_timeout=5000",
+            "PRAGMA temp_store=MEMORY",
+            "PRAGMA cache_size=-8192"
+    };
+
+    // JDBC URL of the database file
+    private final String url;
+
+    // Constructor reading the database path from configuration
+    public SqliteSaveStore() {
+        this(Config.get("realmwar.sqlite.path", DEFAULT_PATH));
+    }
+
+    // Constructor with an explicit database file path
+    public SqliteSaveStore(String path) {
+        this.url = "jdbc:sqlite:" + path;
+    }
+
+    @Override
+    public String getName() {
+        return "SQLite";
+    }
+
+    @Override
+    protected String getDriverClassName() {
+        return "org.sqlite.JDBC";
+    }
+
+    @Override
+    protected Connection openConnection() throws SQLException {
+        return DriverManager.getConnection(url);
+    }
+
+    @Override
+    protected String getIdColumnDefinition() {
+        return "id INTEGER PRIMARY KEY AUTOINCREMENT";
+    }
+
+    @Override
+    protected String getEpochMillisExpression(String column) {
+        return "CAST(strftime('%s', " + column + ") AS INTEGER) * 1000";
+    }
+
+    // Applies the pragmas to every new connection
+    @Override
+    protected void configureConnection(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            for (String pragma : PRAGMAS) {
+                stmt.execute(pragma);
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+// StateChecksum.java
+// Incrementally maintained StateHash of a running RealmWar game, cheap enough to take at every turn end.
+// The sum of all tile hashes is computed once; after that a tile announced through TileChangeListener has its
+// old hash taken out of the sum and its new hash added back the next time the checksum is read. Players and the
+// turn header are few and are hashed on every read. The value always equals StateHash.of for the same game.
+
+package com.realmwar.data;
+
+import com.realmwar.engine.GameBoard;
+import com.realmwar.engine.GameManager;
+import com.realmwar.engine.GameTile;
+import com.realmwar.engine.TileChangeListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Checksum attached to one game's board for the game's whole life; not thread-safe
+public final class StateChecksum implements TileChangeListener {
+
+    // Game being checksummed
+    private final GameManager game;
+    // Sum of the hashes of all tiles, except that tiles changed since the last read are still missing
+    private long tileSum;
+    // Flag per tile (column-major index) for tiles taken out of the sum, and those tiles in order
+    private final boolean[] pending;
+    private final List<GameTile> pendingTiles = new ArrayList<>();
+
+    // Constructor hashing the game's current board once and listening to it from then on
+    public StateChecksum(GameManager game) {
+        this.game = game;
+        GameBoard board = game.getGameBoard();
+        this.pending = new boolean[board.width * board.height];
+        this.tileSum = StateHash.columns(board, 0, board.width);
+        board.addTileChangeListener(this);
+    }
+
+    // Takes a tile's hash out of the sum before its first change since the last read
+    @Override
+    public void tileChanging(GameTile tile) {
+        int index = tile.getX() * game.getGameBoard().height + tile.getY();
+        if (!pending[index]) {
+            pending[index] = true;
+            pendingTiles.add(tile);
+            tileSum -= StateHash.tileHash(tile);
+        }
+    }
+
+    // Returns the checksum of the game's current state
+    public long value() {
+        int height = game.getGameBoard().height;
+        for (GameTile tile : pendingTiles) {
+            tileSum += StateHash.tileHash(tile);
+            pending[tile.getX() * height + tile.getY()] = false;
+        }
+        pendingTiles.clear();
+        return StateHash.combine(game, tileSum);
+    }
+}
@@ -0,0 +1,315 @@
+// StateDiff.java
+// Serializable change set between two states of the same RealmWar game.
+// Holds the new state of every tile that changed, the new resources of every player that changed and the turn
+// header, all by value (players and entity types by name), so a diff taken on one GameManager can be encoded,
+// sent or stored, and applied to another copy of the game. StateDiffTracker produces diffs.
+
+package com.realmwar.data;
+
+import com.realmwar.engine.GameBoard;
+import com.realmwar.engine.GameManager;
+import com.realmwar.engine.GameTile;
+import com.realmwar.engine.history.TileImage;
+import com.realmwar.model.GameEntity;
+import com.realmwar.model.Player;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Immutable change set; build one with StateDiffTracker or decode one from bytes
+public final class StateDiff {
+
+    // Version of the diff encoding, written first
+    private static final int FORMAT_VERSION = 1;
+
+    // New state of one changed tile; entityType and entityOwner are null for an empty tile
+    // health holds a unit's health or a structure's durability; level is 0 for units
+    // This is a TileImage by value: the players and the entity are named instead of referenced
+    public record TileChange(int x, int y, String territoryOwner, String entityType, String entityOwner,
+                             int health, int level, boolean acted) {
+        // Names the players and the entity of a tile image
+        static TileChange of(TileImage image) {
+            String territoryOwner = image.territoryOwner() != null ? image.territoryOwner().getName() : null;
+            GameEntity entity = image.entity();
+            if (entity == null) return new TileChange(image.x(), image.y(), territoryOwner, null, null, 0, 0, false);
+            return new TileChange(image.x(), image.y(), territoryOwner, entity.getClass().getSimpleName(),
+                    entity.getOwner().getName(), image.health(), image.level(), image.acted());
+        }
+    }
+
+    // New gold and food of a changed player, and only those unit counts that changed
+    public record PlayerChange(String name, int gold, int food, Map<String, Integer> unitCounts) {}
+
+    // Turn number and current player index after the change, or -1 where they did not change
+    private final int turnNumber;
+    private final int currentPlayerIndex;
+    // Players still taking turns, in turn order, when someone was knocked out; null otherwise
+    private final List<String> activePlayers;
+    // Changed tiles in column-major order, and changed players
+    private final List<TileChange> tiles;
+    private final List<PlayerChange> players;
+
+    // Constructor used by StateDiffTracker and the decoder; tiles must be in column-major order
+    StateDiff(int turnNumber, int currentPlayerIndex, List<String> activePlayers, List<TileChange> tiles, List<PlayerChange> players) {
+        this.turnNumber = turnNumber;
+        this.currentPlayerIndex = currentPlayerIndex;
+        this.activePlayers = activePlayers != null ? List.copyOf(activePlayers) : null;
+        this.tiles = List.copyOf(tiles);
+        this.players = List.copyOf(players);
+    }
+
+    // New turn number, or -1 if unchanged
+    public int getTurnNumber() { return turnNumber; }
+
+    // New current player index, or -1 if unchanged
+    public int getCurrentPlayerIndex() { return currentPlayerIndex; }
+
+    // Remaining players in turn order, or null if nobody was knocked out
+    public List<String> getActivePlayers() { return activePlayers; }
+
+    // Changed tiles in column-major order
+    public List<TileChange> getTileChanges() { return tiles; }
+
+    // Changed players
+    public List<PlayerChange> getPlayerChanges() { return players; }
+
+    // Returns true if the two states were identical
+    public boolean isEmpty() {
+        return turnNumber < 0 && currentPlayerIndex < 0 && activePlayers == null && tiles.isEmpty() && players.isEmpty();
+    }
+
+    // Encodes the diff; names are written once in a string table and tile positions as deltas
+    public byte[] encode() {
+        Map<String, Integer> strings = new LinkedHashMap<>();
+        if (activePlayers != null) activePlayers.forEach(name -> intern(strings, name));
+        for (PlayerChange player : players) {
+            intern(strings, player.name());
+            player.unitCounts().keySet().forEach(type -> intern(strings, type));
+        }
+        for (TileChange tile : tiles) {
+            intern(strings, tile.territoryOwner());
+            intern(strings, tile.entityType());
+            intern(strings, tile.entityOwner());
+        }
+
+        RecordEncoder out = new RecordEncoder();
+        out.writeVarLong(FORMAT_VERSION);
+        out.writeInt(turnNumber);
+        out.writeInt(currentPlayerIndex);
+        out.writeVarLong(strings.size());
+        strings.keySet().forEach(out::writeString);
+
+        out.writeVarLong(activePlayers != null ? activePlayers.size() + 1 : 0);
+        if (activePlayers != null) activePlayers.forEach(name -> out.writeVarLong(strings.get(name)));
+
+        out.writeVarLong(players.size());
+        for (PlayerChange player : players) {
+            out.writeVarLong(strings.get(player.name()));
+            out.writeInt(player.gold());
+            out.writeInt(player.food());
+            out.writeVarLong(player.unitCounts().size());
+            for (Map.Entry<String, Integer> entry : player.unitCounts().entrySet()) {
+                out.writeVarLong(strings.get(entry.getKey()));
+                out.writeInt(entry.getValue());
+            }
+        }
+
+        // Positions: column delta, then the row itself on a new column or the gap since the previous row
+        out.writeVarLong(tiles.size());
+        int lastX = 0;
+        int lastY = -1;
+        for (TileChange tile : tiles) {
+            out.writeVarLong(tile.x() - lastX);
+            out.writeVarLong(tile.x() != lastX ? tile.y() : tile.y() - lastY - 1);
+            lastX = tile.x();
+            lastY = tile.y();
+            out.writeVarLong(tile.territoryOwner() != null ? strings.get(tile.territoryOwner()) + 1 : 0);
+            out.writeVarLong(tile.entityType() != null ? strings.get(tile.entityType()) + 1 : 0);
+            if (tile.entityType() != null) {
+                out.writeVarLong(strings.get(tile.entityOwner()));
+                out.writeInt(tile.health());
+                out.writeVarLong((long) tile.level() << 1 | (tile.acted() ? 1 : 0));
+            }
+        }
+        return out.toByteArray();
+    }
+
+    // Decodes a diff; throws IOException if the bytes are not a valid diff
+    public static StateDiff decode(byte[] bytes) throws IOException {
+        RecordDecoder in = new RecordDecoder();
+        in.reset(bytes, bytes.length);
+        long version = in.readVarLong();
+        if (version > FORMAT_VERSION) throw new IOException("Unsupported state diff version " + version);
+        int turnNumber = in.readInt();
+        int currentPlayerIndex = in.readInt();
+        String[] strings = new String[count(in)];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = in.readString();
+        }
+
+        List<String> activePlayers = null;
+        int activeCount = count(in);
+        if (activeCount > 0) {
+            activePlayers = new ArrayList<>(activeCount - 1);
+            for (int i = 1; i < activeCount; i++) {
+                activePlayers.add(lookup(strings, in.readVarLong()));
+            }
+        }
+
+        int playerCount = count(in);
+        List<PlayerChange> players = new ArrayList<>(playerCount);
+        for (int i = 0; i < playerCount; i++) {
+            String name = lookup(strings, in.readVarLong());
+            int gold = in.readInt();
+            int food = in.readInt();
+            int countTypes = count(in);
+            Map<String, Integer> counts = new LinkedHashMap<>();
+            for (int c = 0; c < countTypes; c++) {
+                counts.put(lookup(strings, in.readVarLong()), in.readInt());
+            }
+            players.add(new PlayerChange(name, gold, food, counts));
+        }
+
+        int tileCount = count(in);
+        List<TileChange> tiles = new ArrayList<>(tileCount);
+        int x = 0;
+        int y = -1;
+        for (int i = 0; i < tileCount; i++) {
+            int dx = (int) in.readVarLong();
+            int row = (int) in.readVarLong();
+            y = dx != 0 ? row : y + row + 1;
+            x += dx;
+            long territory = in.readVarLong();
+            long type = in.readVarLong();
+            String territoryOwner = territory > 0 ? lookup(strings, territory - 1) : null;
+            if (type == 0) {
+                tiles.add(new TileChange(x, y, territoryOwner, null, null, 0, 0, false));
+                continue;
+            }
+            String entityType = lookup(strings, type - 1);
+            String entityOwner = lookup(strings, in.readVarLong());
+            int health = in.readInt();
+            long levelAndActed = in.readVarLong();
+            tiles.add(new TileChange(x, y, territoryOwner, entityType, entityOwner, health,
+                    (int) (levelAndActed >>> 1), (levelAndActed & 1) != 0));
+        }
+        return new StateDiff(turnNumber, currentPlayerIndex, activePlayers, tiles, players);
+    }
+
+    // Applies the diff to a game that is in the diff's starting state
+    // The changes are turned back into tile images and restored the way undo restores them. Entities on a changed
+    // tile are reused where the same piece reappears, so moved units keep their identity. Throws
+    // IllegalArgumentException, before changing anything, if a player name or entity type is unknown.
+    // The game's undo history is cleared, since its images no longer describe the board.
+    public void applyTo(GameManager game) {
+        GameBoard board = game.getGameBoard();
+        Map<String, Player> owners = resolveOwners(game);
+
+        // Entities on the changed tiles, by type and owner, to be reused before any new one is made
+        Map<String, Deque<GameEntity>> lifted = new HashMap<>();
+        for (TileChange change : tiles) {
+            GameEntity entity = board.getTile(change.x(), change.y()).getEntity();
+            if (entity != null) {
+                lifted.computeIfAbsent(key(entity.getClass().getSimpleName(), entity.getOwner().getName()), k -> new ArrayDeque<>())
+                        .add(entity);
+            }
+        }
+        List<TileImage> images = new ArrayList<>(tiles.size());
+        for (TileChange change : tiles) {
+            Player territoryOwner = change.territoryOwner() != null ? owners.get(change.territoryOwner()) : null;
+            GameEntity entity = null;
+            if (change.entityType() != null) {
+                Deque<GameEntity> reusable = lifted.get(key(change.entityType(), change.entityOwner()));
+                entity = reusable != null && !reusable.isEmpty()
+                        ? reusable.poll()
+                        : SaveSnapshot.createEntityFromString(change.entityType(), owners.get(change.entityOwner()), change.x(), change.y());
+            }
+            images.add(new TileImage(change.x(), change.y(), territoryOwner, entity, change.health(), change.level(), change.acted()));
+        }
+        TileImage.restore(board, images);
+
+        for (PlayerChange change : players) {
+            Player player = owners.get(change.name());
+            player.getResourceHandler().addResources(change.gold() - player.getResourceHandler().getGold(),
+                    change.food() - player.getResourceHandler().getFood());
+            change.unitCounts().forEach(player::setUnitCount);
+        }
+        if (activePlayers != null) {
+            game.getPlayers().removeIf(player -> !activePlayers.contains(player.getName()));
+        }
+        if (turnNumber >= 0) game.setTurnNumber(turnNumber);
+        if (currentPlayerIndex >= 0) game.setCurrentPlayerIndex(currentPlayerIndex);
+        game.getUndoHistory().clear();
+    }
+
+    // Finds the players the diff names, checking every name and entity type before anything is changed
+    // Knocked-out players are no longer in the turn order, so the board is searched only when a name is missing
+    private Map<String, Player> resolveOwners(GameManager game) {
+        Map<String, Player> owners = new HashMap<>();
+        for (Player player : game.getPlayers()) {
+            owners.put(player.getName(), player);
+        }
+        Set<String> names = new HashSet<>();
+        Set<String> types = new HashSet<>();
+        for (TileChange tile : tiles) {
+            if (tile.territoryOwner() != null) names.add(tile.territoryOwner());
+            if (tile.entityType() != null) {
+                names.add(tile.entityOwner());
+                types.add(tile.entityType());
+            }
+        }
+        players.forEach(player -> names.add(player.name()));
+        if (activePlayers != null) names.addAll(activePlayers);
+
+        if (!owners.keySet().containsAll(names)) {
+            GameBoard board = game.getGameBoard();
+            for (int x = 0; x < board.width; x++) {
+                for (int y = 0; y < board.height; y++) {
+                    GameTile tile = board.getTile(x, y);
+                    if (tile.getTerritoryOwner() != null) owners.putIfAbsent(tile.getTerritoryOwner().getName(), tile.getTerritoryOwner());
+                    if (tile.getEntity() != null) owners.putIfAbsent(tile.getEntity().getOwner().getName(), tile.getEntity().getOwner());
+                }
+            }
+        }
+        for (String name : names) {
+            if (!owners.containsKey(name)) throw new IllegalArgumentException("Unknown player in state diff: " + name);
+        }
+        for (String type : types) {
+            if (SaveSnapshot.createEntityFromString(type, null, 0, 0) == null) {
+                throw new IllegalArgumentException("Unknown entity type in state diff: " + type);
+            }
+        }
+        return owners;
+    }
+
+    // Key grouping lifted entities by type and owner
+    private static String key(String type, String owner) {
+        return type + '\u0000' + owner;
+    }
+
+    // Adds a string to the string table if it is not already there
+    private static void intern(Map<String, Integer> strings, String value) {
+        if (value != null) strings.putIfAbsent(value, strings.size());
+    }
+
+    // Reads an element count, rejecting counts larger than any valid diff could hold
+    private static int count(RecordDecoder in) throws IOException {
+        long count = in.readVarLong();
+        if (count < 0 || count > in.remaining() + 1L) throw new IOException("Invalid count " + count + " in state diff");
+        return (int) count;
+    }
+
+    // Resolves a string table index
+    private static String lookup(String[] strings, long index) throws IOException {
+        if (index < 0 || index >= strings.length) throw new IOException("Invalid string index " + index + " in state diff");
+        return strings[(int) index];
+    }
+}
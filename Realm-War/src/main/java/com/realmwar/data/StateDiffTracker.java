@@ -0,0 +1,202 @@
+// StateDiffTracker.java
+// Produces StateDiffs for a running RealmWar game.
+// Tiles are dirty-tracked: the tracker listens to the board through TileChangeListener and only looks at tiles
+// that announced a change since the baseline, so a diff costs time in proportion to what changed, not to the
+// board. Players are few and are compared field by field. between() compares two separate games without
+// tracking, for states that were not produced on the same board (e.g. a decoded keyframe).
+
+package com.realmwar.data;
+
+import com.realmwar.engine.GameBoard;
+import com.realmwar.engine.GameManager;
+import com.realmwar.engine.GameTile;
+import com.realmwar.engine.TileChangeListener;
+import com.realmwar.engine.history.TileImage;
+import com.realmwar.model.GameEntity;
+import com.realmwar.model.Player;
+import com.realmwar.model.structures.Structure;
+import com.realmwar.model.units.Unit;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// Tracker attached to one game's board until detach() is called; not thread-safe
+public final class StateDiffTracker implements TileChangeListener {
+
+    // Gold, food and unit counts of one player at the baseline
+    private record PlayerImage(Player player, int gold, int food, Map<String, Integer> unitCounts) {
+        // Captures a player as they are now
+        static PlayerImage of(Player player) {
+            return new PlayerImage(player, player.getResourceHandler().getGold(), player.getResourceHandler().getFood(),
+                    new HashMap<>(player.getUnitCounts()));
+        }
+    }
+
+    // Game being tracked
+    private final GameManager game;
+    // Dirty flag per tile (column-major index), and the baseline image of each dirty tile in the order it was dirtied
+    private final boolean[] dirty;
+    private final List<TileImage> dirtyImages = new ArrayList<>();
+    // Players and turn header at the baseline
+    private final List<PlayerImage> baselinePlayers = new ArrayList<>();
+    private List<String> baselineActive;
+    private int baselineTurn;
+    private int baselineCurrent;
+
+    // Constructor attaching the tracker to a game; the game's current state is the first baseline
+    public StateDiffTracker(GameManager game) {
+        this.game = game;
+        GameBoard board = game.getGameBoard();
+        this.dirty = new boolean[board.width * board.height];
+        board.addTileChangeListener(this);
+        reset();
+    }
+
+    // Keeps the baseline image of each tile the first time it changes
+    @Override
+    public void tileChanging(GameTile tile) {
+        int index = tile.getX() * game.getGameBoard().height + tile.getY();
+        if (!dirty[index]) {
+            dirty[index] = true;
+            dirtyImages.add(TileImage.of(tile));
+        }
+    }
+
+    // Returns the changes since the baseline; the baseline stays where it is
+    public StateDiff diff() {
+        GameBoard board = game.getGameBoard();
+        List<StateDiff.TileChange> tiles = new ArrayList<>();
+        for (TileImage before : dirtyImages) {
+            GameTile tile = board.getTile(before.x(), before.y());
+            if (before.matches(tile)) continue;
+            // A different entity of the same type, owner and state is no change by value
+            StateDiff.TileChange now = StateDiff.TileChange.of(TileImage.of(tile));
+            if (!now.equals(StateDiff.TileChange.of(before))) tiles.add(now);
+        }
+        tiles.sort((a, b) -> a.x() != b.x() ? Integer.compare(a.x(), b.x()) : Integer.compare(a.y(), b.y()));
+
+        List<StateDiff.PlayerChange> players = new ArrayList<>();
+        for (PlayerImage before : baselinePlayers) {
+            StateDiff.PlayerChange change = compare(before.gold(), before.food(), before.unitCounts(), before.player());
+            if (change != null) players.add(change);
+        }
+        List<String> active = names(game.getPlayers());
+        return new StateDiff(
+                game.getTurnNumber() != baselineTurn ? game.getTurnNumber() : -1,
+                game.getCurrentPlayerIndex() != baselineCurrent || !active.equals(baselineActive) ? game.getCurrentPlayerIndex() : -1,
+                active.equals(baselineActive) ? null : active,
+                tiles, players);
+    }
+
+    // Returns the changes since the baseline and moves the baseline to the current state
+    public StateDiff diffAndReset() {
+        StateDiff diff = diff();
+        reset();
+        return diff;
+    }
+
+    // Moves the baseline to the current state without computing a diff
+    public void reset() {
+        // Only the flags that were set are cleared, keeping the reset independent of the board size
+        int height = game.getGameBoard().height;
+        for (TileImage image : dirtyImages) {
+            dirty[image.x() * height + image.y()] = false;
+        }
+        dirtyImages.clear();
+        // Knocked-out players stay in the baseline; their pieces can still change
+        for (Player player : game.getPlayers()) {
+            if (baselinePlayers.stream().noneMatch(image -> image.player() == player)) {
+                baselinePlayers.add(PlayerImage.of(player));
+            }
+        }
+        baselinePlayers.replaceAll(image -> PlayerImage.of(image.player()));
+        baselineActive = names(game.getPlayers());
+        baselineTurn = game.getTurnNumber();
+        baselineCurrent = game.getCurrentPlayerIndex();
+    }
+
+    // Stops listening to the game's board
+    public void detach() {
+        game.getGameBoard().removeTileChangeListener(this);
+    }
+
+    // Compares two games of the same board size tile by tile; the diff turns the first into the second
+    // Players are matched by name. Tiles are compared field by field and only changed tiles are captured.
+    public static StateDiff between(GameManager from, GameManager to) {
+        GameBoard a = from.getGameBoard();
+        GameBoard b = to.getGameBoard();
+        if (a.width != b.width || a.height != b.height) {
+            throw new IllegalArgumentException("Board sizes differ: " + a.width + "x" + a.height + " and " + b.width + "x" + b.height);
+        }
+        List<StateDiff.TileChange> tiles = new ArrayList<>();
+        for (int x = 0; x < a.width; x++) {
+            for (int y = 0; y < a.height; y++) {
+                GameTile before = a.getTile(x, y);
+                GameTile after = b.getTile(x, y);
+                if (!sameOwner(before.getTerritoryOwner(), after.getTerritoryOwner()) || !sameEntity(before.getEntity(), after.getEntity())) {
+                    tiles.add(StateDiff.TileChange.of(TileImage.of(after)));
+                }
+            }
+        }
+
+        Map<String, Player> fromPlayers = new LinkedHashMap<>();
+        from.getPlayers().forEach(player -> fromPlayers.put(player.getName(), player));
+        List<StateDiff.PlayerChange> players = new ArrayList<>();
+        for (Player player : to.getPlayers()) {
+            Player old = fromPlayers.get(player.getName());
+            StateDiff.PlayerChange change = old == null
+                    ? compare(Integer.MIN_VALUE, Integer.MIN_VALUE, Map.of(), player)
+                    : compare(old.getResourceHandler().getGold(), old.getResourceHandler().getFood(), old.getUnitCounts(), player);
+            if (change != null) players.add(change);
+        }
+        List<String> fromActive = names(from.getPlayers());
+        List<String> toActive = names(to.getPlayers());
+        return new StateDiff(
+                from.getTurnNumber() != to.getTurnNumber() ? to.getTurnNumber() : -1,
+                from.getCurrentPlayerIndex() != to.getCurrentPlayerIndex() || !fromActive.equals(toActive) ? to.getCurrentPlayerIndex() : -1,
+                fromActive.equals(toActive) ? null : toActive,
+                tiles, players);
+    }
+
+    // Builds the change of a player against earlier values, or null if nothing changed
+    private static StateDiff.PlayerChange compare(int gold, int food, Map<String, Integer> unitCounts, Player now) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> entry : now.getUnitCounts().entrySet()) {
+            if (!entry.getValue().equals(unitCounts.get(entry.getKey()))) counts.put(entry.getKey(), entry.getValue());
+        }
+        int newGold = now.getResourceHandler().getGold();
+        int newFood = now.getResourceHandler().getFood();
+        if (newGold == gold && newFood == food && counts.isEmpty()) return null;
+        return new StateDiff.PlayerChange(now.getName(), newGold, newFood, counts);
+    }
+
+    // Whether two territory owners are the same player by name
+    private static boolean sameOwner(Player a, Player b) {
+        if (a == b) return true;
+        return a != null && b != null && a.getName().equals(b.getName());
+    }
+
+    // Whether two entities have the same type, owner and state, without capturing either
+    private static boolean sameEntity(GameEntity a, GameEntity b) {
+        if (a == null || b == null) return a == b;
+        if (a.getClass() != b.getClass() || !sameOwner(a.getOwner(), b.getOwner())) return false;
+        if (a instanceof Unit unitA && b instanceof Unit unitB) {
+            return unitA.getHealth() == unitB.getHealth() && unitA.hasActedThisTurn() == unitB.hasActedThisTurn();
+        }
+        if (a instanceof Structure structureA && b instanceof Structure structureB) {
+            return structureA.getDurability() == structureB.getDurability() && structureA.getLevel() == structureB.getLevel();
+        }
+        return Objects.equals(a, b);
+    }
+
+    // Names of the given players in order
+    private static List<String> names(List<Player> players) {
+        List<String> names = new ArrayList<>(players.size());
+        players.forEach(player -> names.add(player.getName()));
+        return names;
+    }
+}
@@ -0,0 +1,113 @@
+// StateHash.java
+// 64-bit hash of a RealmWar game state, used to check that a game was reproduced exactly.
+// It covers the seed, the turn header, the active players' resources and unit counts, and every tile's terrain,
+// territory and entity state. Each tile hashes to a value keyed by its position and the tile values are summed,
+// so the board can be split across any number of threads and visited in any order with the same result.
+
+package com.realmwar.data;
+
+import com.realmwar.engine.GameBoard;
+import com.realmwar.engine.GameManager;
+import com.realmwar.engine.GameRandom;
+import com.realmwar.engine.GameTile;
+import com.realmwar.engine.blocks.ForestBlock;
+import com.realmwar.engine.blocks.VoidBlock;
+import com.realmwar.model.GameEntity;
+import com.realmwar.model.Player;
+import com.realmwar.model.structures.Structure;
+import com.realmwar.model.units.Unit;
+
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+// Final utility class for state hashes, preventing instantiation
+public final class StateHash {
+
+    // Private constructor to prevent instantiation
+    private StateHash() {}
+
+    // Hashes a game state on the calling thread
+    public static long of(GameManager game) {
+        return of(game, 1);
+    }
+
+    // Hashes a game state, splitting the board over the given number of threads; the result never depends on it
+    public static long of(GameManager game, int threads) {
+        GameBoard board = game.getGameBoard();
+        long tiles;
+        if (threads <= 1) {
+            tiles = columns(board, 0, board.width);
+        } else {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                tiles = pool.submit(() -> IntStream.range(0, board.width).parallel()
+                        .mapToLong(x -> columns(board, x, x + 1)).sum()).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while hashing the game state", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Could not hash the game state", e.getCause());
+            } finally {
+                pool.shutdown();
+            }
+        }
+        return combine(game, tiles);
+    }
+
+    // Combines the sum of all tile hashes with the game's seed, turn header and players
+    static long combine(GameManager game, long tileSum) {
+        GameBoard board = game.getGameBoard();
+        long hash = GameRandom.mix(game.getSeed());
+        hash = GameRandom.mix(hash ^ game.getTurnNumber());
+        hash = GameRandom.mix(hash ^ game.getCurrentPlayerIndex());
+        hash = GameRandom.mix(hash ^ board.width * 31L + board.height);
+        for (Player player : game.getPlayers()) {
+            hash = GameRandom.mix(hash ^ playerHash(player));
+        }
+        return GameRandom.mix(hash + tileSum);
+    }
+
+    // Hash of one player's name, resources and unit counts; the counts are summed so map order does not matter
+    static long playerHash(Player player) {
+        long hash = GameRandom.mix(player.getName().hashCode());
+        hash = GameRandom.mix(hash ^ player.getResourceHandler().getGold());
+        hash = GameRandom.mix(hash ^ player.getResourceHandler().getFood());
+        long counts = 0;
+        for (Map.Entry<String, Integer> entry : player.getUnitCounts().entrySet()) {
+            counts += GameRandom.mix((long) entry.getKey().hashCode() << 32 ^ entry.getValue());
+        }
+        return GameRandom.mix(hash + counts);
+    }
+
+    // Hash of one tile's terrain, territory and entity, keyed by its position
+    static long tileHash(GameTile tile) {
+        long hash = GameRandom.mix((long) tile.getX() << 32 | (tile.getY() & 0xFFFFFFFFL));
+        hash = GameRandom.mix(hash ^ (tile.block instanceof ForestBlock ? 1 : tile.block instanceof VoidBlock ? 2 : 0));
+        Player territoryOwner = tile.getTerritoryOwner();
+        hash = GameRandom.mix(hash ^ (territoryOwner != null ? territoryOwner.getName().hashCode() : 0));
+        GameEntity entity = tile.getEntity();
+        if (entity != null) {
+            hash = GameRandom.mix(hash ^ entity.getClass().getSimpleName().hashCode());
+            hash = GameRandom.mix(hash ^ entity.getOwner().getName().hashCode());
+            if (entity instanceof Unit unit) {
+                hash = GameRandom.mix(hash ^ unit.getHealth() ^ (unit.hasActedThisTurn() ? 1L << 40 : 0));
+            } else if (entity instanceof Structure structure) {
+                hash = GameRandom.mix(hash ^ structure.getDurability() ^ (long) structure.getLevel() << 32);
+            }
+        }
+        return hash;
+    }
+
+    // Sum of the tile hashes of a range of columns
+    static long columns(GameBoard board, int fromX, int toX) {
+        long sum = 0;
+        for (int x = fromX; x < toX; x++) {
+            for (int y = 0; y < board.height; y++) {
+                sum += tileHash(board.getTile(x, y));
+            }
+        }
+        return sum;
+    }
+}
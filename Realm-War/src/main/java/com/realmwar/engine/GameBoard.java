@@ -17,8 +17,11 @@ import com.realmwar.model.units.Unit;
 
 import java.awt.Point;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Random;
+import java.util.Map;
+import java.util.SplittableRandom;
 
 // Class representing the game board with a grid of tiles
 public class GameBoard {
@@ -27,19 +30,43 @@ public class GameBoard {
     public final int height;
     // 2D array of tiles representing the game board
     private final GameTile[][] tiles;
+    // Whether the per-player lookups below are built; placeEntity keeps them up to date afterwards
+    private boolean indexed;
+    // Units and structures per owner, in the same column-major order as a full board scan
+    // Lists are replaced rather than modified, so a list handed out earlier stays valid while the board changes
+    private final Map<Player, List<Unit>> unitsByPlayer = new HashMap<>();
+    private final Map<Player, List<Structure>> structuresByPlayer = new HashMap<>();
+    // Listeners told about every tile just before it changes
+    private final List<TileChangeListener> changeListeners = new ArrayList<>();
 
-    // Constructor to initialize the board with specified dimensions
-    public GameBoard(int width, int height) {
+    // Constructor to initialize the board with specified dimensions and terrain generated from the game's seed
+    public GameBoard(int width, int height, GameRandom random) {
         this.width = width;
         this.height = height;
         this.tiles = new GameTile[width][height];
-        initializeBoard();
+        initializeBoard(random);
+    }
+
+    // Constructor to build a board from existing tiles (e.g. a loaded save), skipping terrain generation
+    // Any tile left null is filled with an EmptyBlock
+    public GameBoard(int width, int height, GameTile[][] tiles) {
+        this.width = width;
+        this.height = height;
+        this.tiles = tiles;
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                if (tiles[x][y] == null) {
+                    tiles[x][y] = new GameTile(new EmptyBlock(), x, y);
+                }
+            }
+        }
     }
 
     // Initializes the board with random terrain (ForestBlock or EmptyBlock)
-    private void initializeBoard() {
-        Random rand = new Random();
+    // Each column draws from its own map generation stream, so the terrain depends only on the seed
+    private void initializeBoard(GameRandom random) {
         for (int x = 0; x < width; x++) {
+            SplittableRandom rand = random.stream(GameRandom.Stream.MAP_GENERATION, x);
             for (int y = 0; y < height; y++) {
                 double randomValue = rand.nextDouble();
                 Block terrain;
@@ -67,39 +94,92 @@ public class GameBoard {
     public void placeEntity(GameEntity entity, int x, int y) {
         GameTile tile = getTile(x, y);
         if (tile != null) {
+            fireTileChanging(tile);
+            if (indexed) unindex(tile.getEntity());
             tile.setEntity(entity);
             if (entity != null) {
                 entity.setPosition(x, y);
+                if (indexed) index(entity);
             }
         }
     }
 
-    // Returns a list of all units owned by the specified player
+    // Returns a read-only list of all units owned by the specified player
     public List<Unit> getUnitsForPlayer(Player player) {
-        List<Unit> playerUnits = new ArrayList<>();
+        indexEntities();
+        return Collections.unmodifiableList(unitsByPlayer.getOrDefault(player, List.of()));
+    }
+
+    // Returns a read-only list of all structures owned by the specified player
+    public List<Structure> getStructuresForPlayer(Player player) {
+        indexEntities();
+        return Collections.unmodifiableList(structuresByPlayer.getOrDefault(player, List.of()));
+    }
+
+    // Builds the per-player entity lists with one board scan the first time they are needed
+    private void indexEntities() {
+        if (indexed) return;
+        unitsByPlayer.clear();
+        structuresByPlayer.clear();
         for (int x = 0; x < width; x++) {
             for (int y = 0; y < height; y++) {
                 GameEntity e = tiles[x][y].getEntity();
-                if (e instanceof Unit && e.getOwner() == player) {
-                    playerUnits.add((Unit) e);
+                if (e instanceof Unit unit) {
+                    unitsByPlayer.computeIfAbsent(e.getOwner(), p -> new ArrayList<>()).add(unit);
+                } else if (e instanceof Structure structure) {
+                    structuresByPlayer.computeIfAbsent(e.getOwner(), p -> new ArrayList<>()).add(structure);
                 }
             }
         }
-        return playerUnits;
+        indexed = true;
     }
 
-    // Returns a list of all structures owned by the specified player
-    public List<Structure> getStructuresForPlayer(Player player) {
-        List<Structure> playerStructures = new ArrayList<>();
-        for (int x = 0; x < width; x++) {
-            for (int y = 0; y < height; y++) {
-                GameEntity e = tiles[x][y].getEntity();
-                if (e instanceof Structure && e.getOwner() == player) {
-                    playerStructures.add((Structure) e);
+    // Adds a newly placed entity to its owner's list at its board-scan position
+    private void index(GameEntity entity) {
+        if (entity instanceof Unit unit) {
+            unitsByPlayer.put(unit.getOwner(), with(unitsByPlayer.get(unit.getOwner()), unit));
+        } else if (entity instanceof Structure structure) {
+            structuresByPlayer.put(structure.getOwner(), with(structuresByPlayer.get(structure.getOwner()), structure));
+        }
+    }
+
+    // Removes an entity that is leaving its tile from its owner's list
+    private void unindex(GameEntity entity) {
+        if (entity instanceof Unit unit) {
+            unitsByPlayer.put(unit.getOwner(), without(unitsByPlayer.get(unit.getOwner()), unit));
+        } else if (entity instanceof Structure structure) {
+            structuresByPlayer.put(structure.getOwner(), without(structuresByPlayer.get(structure.getOwner()), structure));
+        }
+    }
+
+    // Returns a copy of the list with the entity inserted in column-major order, copying the list only once
+    private <T extends GameEntity> List<T> with(List<T> list, T entity) {
+        List<T> copy = new ArrayList<>(list == null ? 1 : list.size() + 1);
+        int key = entity.getX() * height + entity.getY();
+        boolean inserted = false;
+        if (list != null) {
+            for (T e : list) {
+                if (e == entity) continue;
+                if (!inserted && e.getX() * height + e.getY() > key) {
+                    copy.add(entity);
+                    inserted = true;
                 }
+                copy.add(e);
+            }
+        }
+        if (!inserted) copy.add(entity);
+        return copy;
+    }
+
+    // Returns a copy of the list without the given entity instance
+    private static <T extends GameEntity> List<T> without(List<T> list, T entity) {
+        List<T> copy = new ArrayList<>(list == null ? 1 : list.size() + 1);
+        if (list != null) {
+            for (T e : list) {
+                if (e != entity) copy.add(e);
             }
         }
-        return playerStructures;
+        return copy;
     }
 
     // Returns a list of units adjacent to the specified coordinates
@@ -162,6 +242,7 @@ public class GameBoard {
     // Sets a tile at the specified coordinates
     public void setTile(int x, int y, GameTile tile) {
         if (x >= 0 && x < width && y >= 0 && y < height) {
+            indexed = false;
             this.tiles[x][y] = tile;
         }
     }
@@ -169,7 +250,8 @@ public class GameBoard {
     // Sets the territory owner for a tile at the specified coordinates
     public void setTerritory(Player player, int x, int y) {
         GameTile tile = getTile(x, y);
-        if (tile != null) {
+        if (tile != null && tile.getTerritoryOwner() != player) {
+            fireTileChanging(tile);
             tile.setTerritoryOwner(player);
         }
     }
@@ -184,4 +266,30 @@ public class GameBoard {
             }
         }
     }
-}
\ No newline at end of file
+
+    // Announces that the entity on a tile is about to change state (damage, level, acted flag)
+    // Rules call this before changing an entity in place, so listeners can see the tile as it was
+    public void markTileChanging(int x, int y) {
+        GameTile tile = getTile(x, y);
+        if (tile != null) {
+            fireTileChanging(tile);
+        }
+    }
+
+    // Registers a listener for tile changes
+    public void addTileChangeListener(TileChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+    // Removes a tile change listener
+    public void removeTileChangeListener(TileChangeListener listener) {
+        changeListeners.remove(listener);
+    }
+
+    // Notifies the listeners that a tile is about to change
+    private void fireTileChanging(GameTile tile) {
+        for (int i = 0; i < changeListeners.size(); i++) {
+            changeListeners.get(i).tileChanging(tile);
+        }
+    }
+}
@@ -1,11 +1,19 @@
 package com.realmwar.engine;
 
+import com.realmwar.data.CommandLog;
+import com.realmwar.data.GameEventLog;
 import com.realmwar.data.GameLogger;
+import com.realmwar.data.LogCategory;
+import com.realmwar.data.LogLevel;
+import com.realmwar.data.StateChecksum;
 import com.realmwar.engine.blocks.EmptyBlock;
 import com.realmwar.engine.blocks.ForestBlock;
+import com.realmwar.engine.command.GameCommand;
+import com.realmwar.engine.command.GameReducer;
 import com.realmwar.engine.gamestate.GameOverState;
 import com.realmwar.engine.gamestate.GameState;
 import com.realmwar.engine.gamestate.RunningState;
+import com.realmwar.engine.history.UndoHistory;
 import com.realmwar.model.*;
 import com.realmwar.model.structures.*;
 import com.realmwar.model.units.*;
@@ -13,7 +21,9 @@ import com.realmwar.util.Constants;
 import com.realmwar.util.CustomExceptions.GameRuleException;
 
 import java.awt.*;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 // Class managing the overall game logic and state
@@ -32,18 +42,66 @@ public class GameManager {
     private int selectedX, selectedY;
     // The currently selected unit
     private Unit selectedUnit;
-
-    // Constructor to initialize the game with player names and board dimensions
+    // Identifies this game across its saves; kept when a save is loaded and played on
+    private String gameId = UUID.randomUUID().toString();
+    // Number of the current turn, starting at 1 and counting every player's turn
+    private int turnNumber = 1;
+    // Seeded randomness of this game; the seed is kept in saves so a loaded game draws the same numbers
+    private GameRandom random = new GameRandom(0);
+    // Whether dispatched commands are appended to the command log; off for replays
+    private boolean recording = true;
+    // Undo and redo for the actions of the current turn
+    private final UndoHistory history = new UndoHistory();
+    // Incremental checksum of the game state, taken at every turn end
+    private final StateChecksum checksum;
+    // Last command dispatched and the time its dispatch took, for the performance overlay
+    private GameCommand lastCommand;
+    private long lastDispatchNanos;
+
+    // Constructor to initialize the game with player names and board dimensions, using a new seed
     public GameManager(List<String> playerNames, int width, int height) {
+        this(playerNames, width, height, GameRandom.newSeed());
+    }
+
+    // Constructor to initialize the game from a seed; the same seed and commands always give the same game
+    public GameManager(List<String> playerNames, int width, int height, long seed) {
         this.players = playerNames.stream()
                 .map(name -> new Player(name, Constants.STARTING_GOLD, Constants.STARTING_FOOD))
                 .collect(Collectors.toList());
-        this.gameBoard = new GameBoard(width, height);
+        this.random = new GameRandom(seed);
+        this.gameBoard = new GameBoard(width, height, random);
+        this.gameBoard.addTileChangeListener(history);
+        this.checksum = new StateChecksum(this);
         this.turnManager = new TurnManager(this.players);
         this.currentState = new RunningState(this);
         this.selectedUnit = null;
+        seatPlayers();
         setupInitialState();
-        GameLogger.log("GameManager created. " + getCurrentPlayer().getName() + "'s turn begins.");
+        GameLogger.log(LogLevel.INFO, LogCategory.GAME, "GameManager created. {}'s turn begins.", getCurrentPlayer().getName());
+        // Logged on a line of its own, so log readers matching the line above keep working
+        GameLogger.log(LogLevel.INFO, LogCategory.GAME, "Game seed: {}.", seed);
+        GameEventLog.gameStart(turnNumber, gameId, playerNames, width, height, false);
+    }
+
+    // Constructor to restore a game from existing players and board (e.g. a loaded save), skipping initial setup
+    public GameManager(List<Player> players, GameBoard gameBoard, int currentPlayerIndex) {
+        this.players = new ArrayList<>(players);
+        this.gameBoard = gameBoard;
+        this.gameBoard.addTileChangeListener(history);
+        this.checksum = new StateChecksum(this);
+        this.turnManager = new TurnManager(this.players);
+        this.turnManager.setCurrentPlayerIndex(currentPlayerIndex);
+        this.currentState = new RunningState(this);
+        this.selectedUnit = null;
+        seatPlayers();
+        GameLogger.log(LogLevel.INFO, LogCategory.GAME, "GameManager restored. It is {}'s turn.", getCurrentPlayer().getName());
+    }
+
+    // Gives each player the color of their seat in turn order
+    private void seatPlayers() {
+        for (int i = 0; i < players.size(); i++) {
+            players.get(i).setSeat(i);
+        }
     }
 
     // Sets up initial game state by placing TownHalls and initializing territories
@@ -65,6 +123,51 @@ public class GameManager {
         }
     }
 
+    // Applies a command through the reducer; commands that succeed are appended to the command log
+    public void dispatch(GameCommand command) throws GameRuleException {
+        long start = System.nanoTime();
+        try {
+            if (recording && !(command instanceof GameCommand.ResourceTick)) {
+                // Starts this game's log with its current state before the first player action changes it;
+                // income ticks alone do not open one, so a game left idle leaves no file behind
+                CommandLog.begin(this);
+            }
+            GameReducer.apply(this, command);
+            if (recording) {
+                CommandLog.record(this, command);
+            }
+        } finally {
+            lastCommand = command;
+            lastDispatchNanos = System.nanoTime() - start;
+        }
+    }
+
+    // Returns the last command dispatched, whether or not it succeeded, or null if there was none
+    public GameCommand getLastCommand() {
+        return lastCommand;
+    }
+
+    // Returns how long the last dispatch took, including the command log, in nanoseconds
+    public long getLastDispatchNanos() {
+        return lastDispatchNanos;
+    }
+
+    // Undoes the last action of the current turn
+    public void undo() throws GameRuleException {
+        if (!(currentState instanceof RunningState)) throw new GameRuleException("The game is over.");
+        history.undo(gameBoard);
+        setSelectedUnit(null);
+        GameLogger.log(LogLevel.INFO, LogCategory.GAME, "{} undid an action.", getCurrentPlayer().getName());
+    }
+
+    // Redoes the last undone action of the current turn
+    public void redo() throws GameRuleException {
+        if (!(currentState instanceof RunningState)) throw new GameRuleException("The game is over.");
+        history.redo(gameBoard);
+        setSelectedUnit(null);
+        GameLogger.log(LogLevel.INFO, LogCategory.GAME, "{} redid an action.", getCurrentPlayer().getName());
+    }
+
     // Initiates a unit move through the current game state
     public void moveUnit(Unit unit, int toX, int toY) throws GameRuleException {
         currentState.moveUnit(unit, toX, toY);
@@ -84,28 +187,42 @@ public class GameManager {
     public void advanceTurn() {
         Player endingPlayer = getCurrentPlayer();
         executeTowerAttacks(endingPlayer);
-        deductTurnlyMaintenance(endingPlayer);
+        int maintenance = deductTurnlyMaintenance(endingPlayer);
         turnManager.nextTurn();
         Player currentPlayer = getCurrentPlayer();
-        gameBoard.getUnitsForPlayer(currentPlayer).forEach(u -> u.setHasActedThisTurn(false));
+        GameEventLog.turnEnd(turnNumber, endingPlayer.getName(), currentPlayer.getName(), maintenance,
+                endingPlayer.getResourceHandler().getGold(), endingPlayer.getResourceHandler().getFood());
+        turnNumber++;
+        for (Unit unit : gameBoard.getUnitsForPlayer(currentPlayer)) {
+            if (unit.hasActedThisTurn()) {
+                gameBoard.markTileChanging(unit.getX(), unit.getY());
+                unit.setHasActedThisTurn(false);
+            }
+        }
+        history.clear();
         setSelectedUnit(null);
-        GameLogger.log("Turn ended for " + endingPlayer.getName() + ". It is now " + currentPlayer.getName() + "'s turn.");
+        if (GameEventLog.isRecording()) {
+            GameEventLog.checksum(turnNumber, getChecksum());
+        }
+        GameLogger.log(LogLevel.INFO, LogCategory.GAME, "Turn ended for {}. It is now {}'s turn.", endingPlayer.getName(), currentPlayer.getName());
     }
 
-    // Deducts maintenance costs for a player's units and structures
-    private void deductTurnlyMaintenance(Player player) {
+    // Deducts maintenance costs for a player's units and structures; returns the cost
+    private int deductTurnlyMaintenance(Player player) {
         int totalMaintenance = 0;
-        totalMaintenance += gameBoard.getStructuresForPlayer(player).stream().mapToInt(Structure::getMaintenanceCost).sum();
-        totalMaintenance += gameBoard.getUnitsForPlayer(player).stream().mapToInt(Unit::getMaintenanceCost).sum();
+        for (Structure s : gameBoard.getStructuresForPlayer(player)) totalMaintenance += s.getMaintenanceCost();
+        for (Unit u : gameBoard.getUnitsForPlayer(player)) totalMaintenance += u.getMaintenanceCost();
 
         if (totalMaintenance > 0) {
-            GameLogger.log(player.getName() + "'s turn-end maintenance cost: " + totalMaintenance + " gold.");
-            try {
-                player.getResourceHandler().spendResources(totalMaintenance, 0);
-            } catch (GameRuleException e) {
-                GameLogger.log(player.getName() + " could not pay maintenance costs!");
+            GameLogger.log(LogLevel.INFO, LogCategory.ECONOMY, "{}'s turn-end maintenance cost: {} gold.", player.getName(), totalMaintenance);
+            // Checked up front: this runs every turn end, including during replays, and usually fails for a broke player
+            if (player.getResourceHandler().canAfford(totalMaintenance, 0)) {
+                player.getResourceHandler().addResources(-totalMaintenance, 0);
+            } else {
+                GameLogger.log(LogLevel.WARN, LogCategory.ECONOMY, "{} could not pay maintenance costs!", player.getName());
             }
         }
+        return totalMaintenance;
     }
 
     // Applies periodic resource gains from structures
@@ -126,7 +243,9 @@ public class GameManager {
 
         if (goldIncome > 0 || foodIncome > 0) {
             currentPlayer.getResourceHandler().addResources(goldIncome, foodIncome);
-            GameLogger.log(currentPlayer.getName() + " gained " + goldIncome + " gold and " + foodIncome + " food.");
+            GameLogger.log(LogLevel.DEBUG, LogCategory.ECONOMY, "{} gained {} gold and {} food.", currentPlayer.getName(), goldIncome, foodIncome);
+            GameEventLog.resourceTick(turnNumber, currentPlayer.getName(), goldIncome, foodIncome,
+                    currentPlayer.getResourceHandler().getGold(), currentPlayer.getResourceHandler().getFood());
         }
     }
 
@@ -144,11 +263,26 @@ public class GameManager {
         }
 
         // Allow movement to any tile (occupied or not), and claim territory
+        int fromX = unit.getX();
+        int fromY = unit.getY();
         placeEntity(null, unit.getX(), unit.getY());// empty the previous tile
         placeEntity(unit, toX, toY); // move to new tile
         updateTerritory(unit.getOwner(), toX, toY, unit.getMovementRange()); //expands the territory around the new tile
         unit.setHasActedThisTurn(true);
-        GameLogger.log(unit.getClass().getSimpleName() + " moved to (" + toX + "," + toY + ") and claimed territory.");
+        GameLogger.log(LogLevel.INFO, LogCategory.GAME, "{} moved to ({},{}) and claimed territory.", unit.getClass().getSimpleName(), toX, toY);
+        GameEventLog.move(turnNumber, unit.getOwner().getName(), unit.getClass().getSimpleName(), fromX, fromY, toX, toY);
+    }
+
+    // Moves a unit as a board click does: to a free tile in range that no enemy tower blocks, claiming only that tile
+    public void stepUnit(Unit unit, int toX, int toY) throws GameRuleException {
+        validateAction(unit);
+        int fromX = unit.getX();
+        int fromY = unit.getY();
+        if (!unit.moveTo(gameBoard.getTile(toX, toY), gameBoard)) {
+            throw new GameRuleException("The unit cannot move to that tile.");
+        }
+        unit.setHasActedThisTurn(true);
+        GameEventLog.move(turnNumber, unit.getOwner().getName(), unit.getClass().getSimpleName(), fromX, fromY, toX, toY);
     }
 
     // Updates territory ownership around a point based on range
@@ -165,7 +299,7 @@ public class GameManager {
                     GameTile adjTile = gameBoard.getTile(adjX, adjY);
                     if (adjTile != null) {
                         gameBoard.setTerritory(player, adjX, adjY);
-                        GameLogger.log(player.getName() + " claimed territory at (" + adjX + "," + adjY + ").");
+                        GameLogger.log(LogLevel.TRACE, LogCategory.TERRITORY, "{} claimed territory at ({},{}).", player.getName(), adjX, adjY);
                     }
                 }
             }
@@ -181,7 +315,7 @@ public class GameManager {
             GameTile adjTile = gameBoard.getTile(adjX, adjY);
             if (adjTile != null) {
                 gameBoard.setTerritory(player, adjX, adjY);
-                GameLogger.log(player.getName() + " claimed territory at (" + adjX + "," + adjY + ") due to Barrack upgrade.");
+                GameLogger.log(LogLevel.TRACE, LogCategory.TERRITORY, "{} claimed territory at ({},{}) due to Barrack upgrade.", player.getName(), adjX, adjY);
             }
         }
     }
@@ -200,22 +334,29 @@ public class GameManager {
         }
         int finalDamage = (int) (attacker.getAttackPower() * attackMultiplier);
 
+        gameBoard.markTileChanging(attacker.getX(), attacker.getY());
+        gameBoard.markTileChanging(target.getX(), target.getY());
         if (target instanceof Structure structure) {
             structure.takeDamage(finalDamage, gameBoard);
         } else {
             target.takeDamage(finalDamage);
         }
-        GameLogger.log(attacker.getClass().getSimpleName() + " attacked " + target.getClass().getSimpleName() + " at (" + target.getX() + "," + target.getY() + ") for " + finalDamage + " damage.");
+        GameLogger.log(LogLevel.INFO, LogCategory.COMBAT, "{} attacked {} at ({},{}) for {} damage.",
+                attacker.getClass().getSimpleName(), target.getClass().getSimpleName(), target.getX(), target.getY(), finalDamage);
+        GameEventLog.attack(turnNumber, attacker.getOwner().getName(), attacker.getClass().getSimpleName(), target.getOwner().getName(),
+                target.getClass().getSimpleName(), target.getX(), target.getY(), finalDamage, target.isDestroyed());
 
         if (target.isDestroyed()) {
             if (target instanceof TownHall) {
                 turnManager.removePlayer(target.getOwner());
+                // Knocking a player out changes the turn order, which undo does not restore
+                history.clear();
             }
             if (target instanceof Unit) {
                 target.getOwner().decrementUnitCount(target.getClass().getSimpleName());
             }
             placeEntity(null, target.getX(), target.getY());
-            GameLogger.log(target.getClass().getSimpleName() + " at (" + target.getX() + "," + target.getY() + ") was destroyed!");
+            GameLogger.log(LogLevel.INFO, LogCategory.COMBAT, "{} at ({},{}) was destroyed!", target.getClass().getSimpleName(), target.getX(), target.getY());
             checkWinCondition();
         }
         attacker.setHasActedThisTurn(true);
@@ -229,13 +370,17 @@ public class GameManager {
                         .filter(unit -> unit.getOwner() != player)
                         .findFirst()
                         .ifPresent(enemyUnit -> {
+                            gameBoard.markTileChanging(enemyUnit.getX(), enemyUnit.getY());
                             enemyUnit.takeDamage(tower.getAttackPower());
-                            GameLogger.log("Tower at (" + tower.getX() + "," + tower.getY() + ") attacked " +
-                                    enemyUnit.getClass().getSimpleName() + " for " + tower.getAttackPower() + " damage.");
+                            GameLogger.log(LogLevel.INFO, LogCategory.COMBAT, "Tower at ({},{}) attacked {} for {} damage.",
+                                    tower.getX(), tower.getY(), enemyUnit.getClass().getSimpleName(), tower.getAttackPower());
+                            GameEventLog.attack(turnNumber, player.getName(), "Tower", enemyUnit.getOwner().getName(),
+                                    enemyUnit.getClass().getSimpleName(), enemyUnit.getX(), enemyUnit.getY(),
+                                    tower.getAttackPower(), enemyUnit.isDestroyed());
                             if (enemyUnit.isDestroyed()) {
                                 enemyUnit.getOwner().decrementUnitCount(enemyUnit.getClass().getSimpleName());
                                 placeEntity(null, enemyUnit.getX(), enemyUnit.getY());
-                                GameLogger.log(enemyUnit.getClass().getSimpleName() + " was destroyed by a tower!");
+                                GameLogger.log(LogLevel.INFO, LogCategory.COMBAT, "{} was destroyed by a tower!", enemyUnit.getClass().getSimpleName());
                                 checkWinCondition();
                             }
                         });
@@ -259,7 +404,8 @@ public class GameManager {
             this.winner = playersWithTownHalls.isEmpty() ? null : playersWithTownHalls.get(0);
             this.currentState = new GameOverState(this, this.winner);
             String winnerName = this.winner != null ? this.winner.getName() : "No one";
-            GameLogger.log("GAME OVER! Winner is " + winnerName);
+            GameLogger.log(LogLevel.INFO, LogCategory.GAME, "GAME OVER! Winner is {}", winnerName);
+            GameEventLog.gameOver(turnNumber, this.winner != null ? this.winner.getName() : null);
         }
     }
 
@@ -323,7 +469,8 @@ public class GameManager {
         if (structure instanceof Barrack barrack) {
             updateBarrackTerritory(currentPlayer, barrack);
         }
-        GameLogger.log(currentPlayer.getName() + " built a " + structureType + " at (" + x + "," + y + ") for " + buildCost + " gold.");
+        GameLogger.log(LogLevel.INFO, LogCategory.ECONOMY, "{} built a {} at ({},{}) for {} gold.", currentPlayer.getName(), structureType, x, y, buildCost);
+        GameEventLog.build(turnNumber, currentPlayer.getName(), structureType, x, y, buildCost);
     }
 
     // Upgrades a structure at the specified coordinates
@@ -340,11 +487,13 @@ public class GameManager {
 
         int upgradeCost = Constants.BASE_UPGRADE_COST * structure.getLevel();
         currentPlayer.getResourceHandler().spendResources(upgradeCost, 0);
+        gameBoard.markTileChanging(x, y);
         structure.levelUp();
         if (structure instanceof Barrack barrack) {
             updateBarrackTerritory(currentPlayer, barrack);
         }
-        GameLogger.log(structure.getClass().getSimpleName() + " at ("+x+","+y+") upgraded to level " + structure.getLevel() + " for " + upgradeCost + " gold.");
+        GameLogger.log(LogLevel.INFO, LogCategory.ECONOMY, "{} at ({},{}) upgraded to level {} for {} gold.",
+                structure.getClass().getSimpleName(), x, y, structure.getLevel(), upgradeCost);
     }
 
     // Merges two units into a stronger unit
@@ -385,7 +534,9 @@ public class GameManager {
         placeEntity(null, unit2.getX(), unit2.getY());
         placeEntity(newUnit, newX, newY);
         updateTerritory(owner, newX, newY, newUnit.getMovementRange());
-        GameLogger.log("Merged two " + unit1.getClass().getSimpleName() + "s into a " + newUnit.getClass().getSimpleName() + " at ("+newX+","+newY+").");
+        GameLogger.log(LogLevel.INFO, LogCategory.GAME, "Merged two {}s into a {} at ({},{}).",
+                unit1.getClass().getSimpleName(), newUnit.getClass().getSimpleName(), newX, newY);
+        GameEventLog.merge(turnNumber, owner.getName(), newUnitType, newX, newY);
     }
 
     // Trains a new unit at the specified coordinates
@@ -443,7 +594,8 @@ public class GameManager {
         currentPlayer.incrementUnitCount(unitType);
         gameBoard.placeEntity(newUnit, x, y);
         updateTerritory(currentPlayer, x, y, newUnit.getMovementRange());
-        GameLogger.log(currentPlayer.getName() + " trained a " + unitType + " at (" + x + "," + y + ") and claimed territory.");
+        GameLogger.log(LogLevel.INFO, LogCategory.ECONOMY, "{} trained a {} at ({},{}) and claimed territory.", currentPlayer.getName(), unitType, x, y);
+        GameEventLog.train(turnNumber, currentPlayer.getName(), unitType, x, y, newUnit.getGoldCost(), newUnit.getFoodCost());
     }
 
     // Returns the maximum limit for a specific unit type
@@ -469,6 +621,29 @@ public class GameManager {
     public void setCurrentPlayerIndex(int index) { turnManager.setCurrentPlayerIndex(index); }
     // Getter for the list of players
     public List<Player> getPlayers() { return players; }
+    // Getter for the game id
+    public String getGameId() { return gameId; }
+    // Setter for the game id, used for loading saved games
+    public void setGameId(String gameId) { this.gameId = gameId; }
+    // Getter for the current turn number
+    public int getTurnNumber() { return turnNumber; }
+    // Setter for the turn number, used for loading saved games
+    public void setTurnNumber(int turnNumber) { this.turnNumber = turnNumber; }
+    // Getter for the game's seeded randomness
+    public GameRandom getRandom() { return random; }
+    // Getter for the seed the game was generated from
+    public long getSeed() { return random.getSeed(); }
+    // Setter for the seed, used for loading saved games
+    public void setSeed(long seed) { this.random = new GameRandom(seed); }
+    // Checks if dispatched commands are recorded
+    public boolean isRecording() { return recording; }
+
+    // Gets the checksum of the current game state; equal states always have equal checksums
+    public long getChecksum() { return checksum.value(); }
+    // Gets the undo history of the current turn
+    public UndoHistory getUndoHistory() { return history; }
+    // Turns command recording on or off; replays turn it off so they do not log the game again
+    public void setRecording(boolean recording) { this.recording = recording; }
     // Sets the selected tile coordinates
     public void setSelectedTile(int x, int y) { this.selectedX = x; this.selectedY = y; }
     // Getter for the selected tile coordinates
@@ -0,0 +1,56 @@
+// GameRandom.java
+// Seeded source of all randomness in a RealmWar game.
+// A game has one 64-bit seed, stored with its saves. Every random draw comes from a stream derived from that seed,
+// a subsystem and a caller-chosen key (a board column, a turn number, ...). Streams never share state, so one
+// subsystem drawing more numbers cannot shift another, and work split across threads gets the same numbers
+// whichever thread runs it and in whatever order.
+
+package com.realmwar.engine;
+
+import com.realmwar.util.Config;
+
+import java.util.SplittableRandom;
+
+// Immutable seed holder handing out independent random streams
+public final class GameRandom {
+
+    // Subsystems that draw random numbers; each gets its own family of streams
+    public enum Stream {
+        MAP_GENERATION,
+        AI,
+        TIE_BREAK
+    }
+
+    // Seed fixed for every new game when set, e.g. -Drealmwar.seed=42, to reproduce a game exactly
+    private static final String SEED_PROPERTY = "realmwar.seed";
+
+    // Seed all streams are derived from
+    private final long seed;
+
+    // Constructor for the streams of one seed
+    public GameRandom(long seed) {
+        this.seed = seed;
+    }
+
+    // Picks the seed for a new game: the configured one if set, otherwise a fresh random one
+    public static long newSeed() {
+        return Config.getLong(SEED_PROPERTY, new SplittableRandom().nextLong());
+    }
+
+    // Gets the seed
+    public long getSeed() {
+        return seed;
+    }
+
+    // Returns a new stream for a subsystem and key; the same seed, subsystem and key always give the same numbers
+    public SplittableRandom stream(Stream stream, long key) {
+        return new SplittableRandom(mix(mix(seed ^ mix(stream.ordinal() + 1L)) + key));
+    }
+
+    // SplitMix64 finalizer, spreading every input bit over the whole result; also used for state hashing
+    public static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,12 @@
+// TileChangeListener.java
+// Listener notified by GameBoard just before a tile changes in the RealmWar game.
+// A change is a different entity on the tile, a new territory owner, or a state change of the entity on it
+// (damage, level, acted flag) announced by the game rules.
+
+package com.realmwar.engine;
+
+// Callback interface for tile changes
+public interface TileChangeListener {
+    // Called before the tile changes, while it still holds its old entity, entity state and territory owner
+    void tileChanging(GameTile tile);
+}
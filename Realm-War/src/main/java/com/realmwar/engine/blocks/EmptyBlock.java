@@ -8,9 +8,12 @@ import java.awt.Color;
 
 // Concrete class representing an empty plain terrain block
 public class EmptyBlock extends Block {
+    // Rendering color, shared by every block of this type
+    private static final Color COLOR = new Color(235, 224, 209); // Soft sandy beige
+
     // Returns the color for rendering this block (soft sandy beige)
     @Override
     public Color getColor() {
-        return new Color(235, 224, 209); // Soft sandy beige
+        return COLOR;
     }
 }
\ No newline at end of file
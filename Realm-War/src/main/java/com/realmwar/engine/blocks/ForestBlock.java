@@ -8,9 +8,12 @@ import java.awt.Color;
 
 // Concrete class representing a forest terrain block
 public class ForestBlock extends Block {
+    // Rendering color, shared by every block of this type
+    private static final Color COLOR = new Color(188, 209, 188); // Muted sage green
+
     // Returns the color for rendering this block (muted sage green)
     @Override
     public Color getColor() {
-        return new Color(188, 209, 188); // Muted sage green
+        return COLOR;
     }
 }
\ No newline at end of file
@@ -8,10 +8,13 @@ import java.awt.*;
 
 // Concrete class representing a void terrain block
 public class VoidBlock extends Block {
+    // Rendering color, shared by every block of this type
+    private static final Color COLOR = new Color(94, 84, 73);
+
     // Returns the color for rendering this block (black)
     @Override
     public Color getColor() {
-        return new Color(94,84,73);
+        return COLOR;
     }
 
     // Overrides to indicate that this block type is not buildable
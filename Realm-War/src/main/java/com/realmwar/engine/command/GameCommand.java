@@ -0,0 +1,50 @@
+// GameCommand.java
+// Serializable description of one state-changing action in the RealmWar game.
+// Every change to a running game goes through a command applied by GameReducer, so the recorded command stream
+// together with the starting state is enough to rebuild the game by replay. Units and targets are addressed by
+// board coordinates rather than object references, so commands stay valid across processes.
+
+package com.realmwar.engine.command;
+
+// Sealed family of game commands; the records below are the only implementations
+public sealed interface GameCommand {
+
+    // Shared instances of the commands without parameters
+    GameCommand END_TURN = new EndTurn();
+    GameCommand RESOURCE_TICK = new ResourceTick();
+    GameCommand UNDO = new Undo();
+    GameCommand REDO = new Redo();
+
+    // Moves the unit at (fromX, fromY) with the engine's move rules (range check, territory claimed around the target)
+    record Move(int fromX, int fromY, int toX, int toY) implements GameCommand {}
+
+    // Moves the unit at (fromX, fromY) the way a board click does (free tile in range, not blocked by an enemy tower)
+    record Step(int fromX, int fromY, int toX, int toY) implements GameCommand {}
+
+    // The unit at (fromX, fromY) attacks the entity at (targetX, targetY)
+    record Attack(int fromX, int fromY, int targetX, int targetY) implements GameCommand {}
+
+    // The current player builds a structure of the given type
+    record Build(String structureType, int x, int y) implements GameCommand {}
+
+    // The current player trains a unit of the given type
+    record Train(String unitType, int x, int y) implements GameCommand {}
+
+    // The current player upgrades their structure at (x, y)
+    record Upgrade(int x, int y) implements GameCommand {}
+
+    // Merges the units at (x1, y1) and (x2, y2) into one stronger unit at (x1, y1)
+    record Merge(int x1, int y1, int x2, int y2) implements GameCommand {}
+
+    // Ends the current player's turn, running tower attacks and maintenance
+    record EndTurn() implements GameCommand {}
+
+    // Pays the current player's periodic income from markets and farms
+    record ResourceTick() implements GameCommand {}
+
+    // Reverts the current player's last action of this turn
+    record Undo() implements GameCommand {}
+
+    // Re-applies the last undone action of this turn
+    record Redo() implements GameCommand {}
+}
@@ -0,0 +1,86 @@
+// GameReducer.java
+// The single place where GameCommands are applied to a GameManager in the RealmWar game.
+// Live play and replay both go through apply(), so a recorded game replays with exactly the rules it was played with.
+
+package com.realmwar.engine.command;
+
+import com.realmwar.engine.GameManager;
+import com.realmwar.engine.GameTile;
+import com.realmwar.engine.gamestate.RunningState;
+import com.realmwar.engine.history.UndoHistory;
+import com.realmwar.model.GameEntity;
+import com.realmwar.model.units.Unit;
+import com.realmwar.util.CustomExceptions.GameRuleException;
+
+// Final utility class applying commands, preventing instantiation
+public final class GameReducer {
+    // Private constructor to prevent instantiation
+    private GameReducer() {}
+
+    // Applies one command; a GameRuleException means the command was rejected and the game is unchanged
+    // Player actions are recorded in the game's undo history; turn ends, income, undo and redo are not
+    public static void apply(GameManager game, GameCommand command) throws GameRuleException {
+        if (command instanceof GameCommand.EndTurn) {
+            game.nextTurn();
+        } else if (command instanceof GameCommand.ResourceTick) {
+            // Income only accrues while the game is running, matching the client's resource timer
+            if (game.getCurrentState() instanceof RunningState) {
+                game.applyPeriodicResourceChanges();
+            }
+        } else if (command instanceof GameCommand.Undo) {
+            game.undo();
+        } else if (command instanceof GameCommand.Redo) {
+            game.redo();
+        } else {
+            UndoHistory history = game.getUndoHistory();
+            history.begin(game.getPlayers());
+            boolean applied = false;
+            try {
+                applyAction(game, command);
+                applied = true;
+            } finally {
+                if (applied) {
+                    history.commit();
+                } else {
+                    history.abort();
+                }
+            }
+        }
+    }
+
+    // Applies one player action
+    private static void applyAction(GameManager game, GameCommand command) throws GameRuleException {
+        if (command instanceof GameCommand.Move move) {
+            game.moveUnit(unitAt(game, move.fromX(), move.fromY()), move.toX(), move.toY());
+        } else if (command instanceof GameCommand.Step step) {
+            game.stepUnit(unitAt(game, step.fromX(), step.fromY()), step.toX(), step.toY());
+        } else if (command instanceof GameCommand.Attack attack) {
+            game.attackUnit(unitAt(game, attack.fromX(), attack.fromY()), entityAt(game, attack.targetX(), attack.targetY()));
+        } else if (command instanceof GameCommand.Build build) {
+            game.buildStructure(build.structureType(), build.x(), build.y());
+        } else if (command instanceof GameCommand.Train train) {
+            game.trainUnit(train.unitType(), train.x(), train.y());
+        } else if (command instanceof GameCommand.Upgrade upgrade) {
+            if (game.getGameBoard().getTile(upgrade.x(), upgrade.y()) == null) {
+                throw new GameRuleException("You must select your own structure to upgrade.");
+            }
+            game.upgradeStructure(upgrade.x(), upgrade.y());
+        } else if (command instanceof GameCommand.Merge merge) {
+            game.mergeUnits(unitAt(game, merge.x1(), merge.y1()), unitAt(game, merge.x2(), merge.y2()));
+        }
+    }
+
+    // Returns the unit on a tile, or throws if there is none
+    private static Unit unitAt(GameManager game, int x, int y) throws GameRuleException {
+        if (entityAt(game, x, y) instanceof Unit unit) {
+            return unit;
+        }
+        throw new GameRuleException("There is no unit at (" + x + "," + y + ").");
+    }
+
+    // Returns the entity on a tile, or null for an empty or invalid tile
+    private static GameEntity entityAt(GameManager game, int x, int y) {
+        GameTile tile = game.getGameBoard().getTile(x, y);
+        return tile != null ? tile.getEntity() : null;
+    }
+}
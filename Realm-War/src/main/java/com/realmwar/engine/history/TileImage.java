@@ -0,0 +1,61 @@
+// TileImage.java
+// Snapshot of everything that can change on one tile of a RealmWar board, and the routine that puts tiles back.
+// UndoHistory keeps images of the tiles an action touched; StateDiffTracker keeps them as the baseline of the tiles
+// that changed, and StateDiff builds them from its encoded changes, so all three restore tiles the same way.
+
+package com.realmwar.engine.history;
+
+import com.realmwar.engine.GameBoard;
+import com.realmwar.engine.GameTile;
+import com.realmwar.model.GameEntity;
+import com.realmwar.model.Player;
+import com.realmwar.model.structures.Structure;
+import com.realmwar.model.units.Unit;
+
+import java.util.List;
+
+// A tile's territory, its entity and that entity's mutable state
+// health holds a unit's health or a structure's durability; level is 0 for units
+public record TileImage(int x, int y, Player territoryOwner, GameEntity entity, int health, int level, boolean acted) {
+
+    // Captures a tile as it is now
+    public static TileImage of(GameTile tile) {
+        GameEntity entity = tile.getEntity();
+        if (entity instanceof Unit unit) {
+            return new TileImage(tile.getX(), tile.getY(), tile.getTerritoryOwner(), unit, unit.getHealth(), 0, unit.hasActedThisTurn());
+        }
+        if (entity instanceof Structure structure) {
+            return new TileImage(tile.getX(), tile.getY(), tile.getTerritoryOwner(), structure, structure.getDurability(), structure.getLevel(), false);
+        }
+        return new TileImage(tile.getX(), tile.getY(), tile.getTerritoryOwner(), entity, 0, 0, false);
+    }
+
+    // Whether a tile still looks exactly like this image, checked without capturing a new image
+    public boolean matches(GameTile tile) {
+        GameEntity now = tile.getEntity();
+        if (now != entity || tile.getTerritoryOwner() != territoryOwner) return false;
+        if (now instanceof Unit unit) return unit.getHealth() == health && unit.hasActedThisTurn() == acted;
+        if (now instanceof Structure structure) return structure.getDurability() == health && structure.getLevel() == level;
+        return true;
+    }
+
+    // Puts tiles back to the given images; all are emptied first so an entity never sits on two tiles at once
+    public static void restore(GameBoard board, List<TileImage> images) {
+        for (TileImage image : images) {
+            board.placeEntity(null, image.x(), image.y());
+        }
+        for (TileImage image : images) {
+            board.setTerritory(image.territoryOwner(), image.x(), image.y());
+            if (image.entity() == null) continue;
+            board.placeEntity(image.entity(), image.x(), image.y());
+            if (image.entity() instanceof Unit unit) {
+                unit.health = image.health();
+                unit.setHasActedThisTurn(image.acted());
+            } else if (image.entity() instanceof Structure structure) {
+                while (structure.getLevel() > image.level()) structure.levelDown();
+                while (structure.getLevel() < image.level()) structure.levelUp();
+                structure.setDurability(image.health());
+            }
+        }
+    }
+}
@@ -0,0 +1,213 @@
+// UndoHistory.java
+// Undo and redo for the actions taken during the current turn of a RealmWar game.
+// Each action is kept as a reversible diff: before and after TileImages of only the tiles it touched, which GameBoard
+// reports through TileChangeListener, plus the change in each player's gold, food and unit counts. Undo and redo
+// therefore cost time in proportion to the action, not the board. The history is cleared at every turn end.
+
+package com.realmwar.engine.history;
+
+import com.realmwar.engine.GameBoard;
+import com.realmwar.engine.GameTile;
+import com.realmwar.engine.TileChangeListener;
+import com.realmwar.model.Player;
+import com.realmwar.util.CustomExceptions.GameRuleException;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Per-game undo and redo stacks; one instance listens to its game's board for its whole life
+public class UndoHistory implements TileChangeListener {
+    // Most actions kept per turn; the oldest is dropped beyond this, so memory stays bounded
+    public static final int MAX_ACTIONS = 64;
+
+    // Change in one player's resources and unit counts caused by an action
+    private record PlayerDelta(Player player, int gold, int food, Map<String, Integer> unitCounts) {}
+
+    // One recorded action: the touched tiles before and after it, and the players it changed
+    private record Action(List<TileImage> before, List<TileImage> after, List<PlayerDelta> players) {}
+
+    // Undone actions are moved to the redo stack; a new action clears it
+    private final Deque<Action> undoStack = new ArrayDeque<>();
+    private final Deque<Action> redoStack = new ArrayDeque<>();
+
+    // Whether an action is being recorded, and the first image of every tile it touched, in touch order
+    // The buffers are reused from action to action, so recording an action allocates little beyond the images
+    private boolean recording;
+    private final List<GameTile> touchedTiles = new ArrayList<>();
+    private final List<TileImage> touchedImages = new ArrayList<>();
+    // Players and their gold, food and unit counts when the action began; the first playerCount slots are in use
+    private PlayerSnapshot[] snapshots = new PlayerSnapshot[0];
+    private int playerCount;
+
+    // A player's gold, food and unit counts at the start of an action, in storage reused across actions
+    // Unit counts change far less often than actions are taken, so they are copied again only when the player's
+    // unit count version shows they changed since the last copy
+    private static final class PlayerSnapshot {
+        Player player;
+        int gold;
+        int food;
+        int unitCountsVersion;
+        String[] unitTypes = new String[4];
+        int[] unitCounts = new int[4];
+        int unitTypeCount;
+
+        // Captures a player as they are now
+        void capture(Player player) {
+            gold = player.getResourceHandler().getGold();
+            food = player.getResourceHandler().getFood();
+            if (player == this.player && player.getUnitCountsVersion() == unitCountsVersion) return;
+            this.player = player;
+            unitCountsVersion = player.getUnitCountsVersion();
+            Map<String, Integer> counts = player.getUnitCounts();
+            if (unitTypes.length < counts.size()) {
+                unitTypes = new String[counts.size()];
+                unitCounts = new int[counts.size()];
+            }
+            unitTypeCount = 0;
+            for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+                unitTypes[unitTypeCount] = entry.getKey();
+                unitCounts[unitTypeCount++] = entry.getValue();
+            }
+        }
+
+        // Count of a unit type when captured, 0 for a type the player had no entry for
+        int countBefore(String unitType) {
+            for (int i = 0; i < unitTypeCount; i++) {
+                if (unitTypes[i].equals(unitType)) return unitCounts[i];
+            }
+            return 0;
+        }
+    }
+
+    // Starts recording an action taken by the given players' game
+    public void begin(List<Player> gamePlayers) {
+        recording = true;
+        touchedTiles.clear();
+        touchedImages.clear();
+        playerCount = gamePlayers.size();
+        if (snapshots.length < playerCount) {
+            snapshots = Arrays.copyOf(snapshots, playerCount);
+            for (int i = 0; i < playerCount; i++) {
+                if (snapshots[i] == null) snapshots[i] = new PlayerSnapshot();
+            }
+        }
+        for (int i = 0; i < playerCount; i++) {
+            snapshots[i].capture(gamePlayers.get(i));
+        }
+    }
+
+    // Keeps the first image of each tile the running action touches
+    // Actions touch a handful of tiles, so a scan of the touched ones beats hashing them
+    @Override
+    public void tileChanging(GameTile tile) {
+        if (!recording) return;
+        for (int i = 0; i < touchedTiles.size(); i++) {
+            if (touchedTiles.get(i) == tile) return;
+        }
+        touchedTiles.add(tile);
+        touchedImages.add(TileImage.of(tile));
+    }
+
+    // Finishes the running action and pushes its diff; an action that changed nothing is not kept
+    public void commit() {
+        if (!recording) return;
+        List<TileImage> before = new ArrayList<>(touchedTiles.size());
+        List<TileImage> after = new ArrayList<>(touchedTiles.size());
+        for (int i = 0; i < touchedTiles.size(); i++) {
+            GameTile tile = touchedTiles.get(i);
+            if (!touchedImages.get(i).matches(tile)) {
+                before.add(touchedImages.get(i));
+                after.add(TileImage.of(tile));
+            }
+        }
+        List<PlayerDelta> deltas = List.of();
+        for (int i = 0; i < playerCount; i++) {
+            PlayerDelta delta = delta(snapshots[i]);
+            if (delta == null) continue;
+            if (deltas.isEmpty()) deltas = new ArrayList<>(playerCount);
+            deltas.add(delta);
+        }
+        abort();
+        if (before.isEmpty() && deltas.isEmpty()) return;
+
+        undoStack.push(new Action(before, after, deltas));
+        if (undoStack.size() > MAX_ACTIONS) undoStack.removeLast();
+        redoStack.clear();
+    }
+
+    // Stops recording without keeping anything, e.g. when the action was rejected
+    public void abort() {
+        recording = false;
+        touchedTiles.clear();
+        touchedImages.clear();
+        playerCount = 0;
+    }
+
+    // Reverts the most recent action
+    public void undo(GameBoard board) throws GameRuleException {
+        Action action = undoStack.poll();
+        if (action == null) throw new GameRuleException("Nothing to undo.");
+        TileImage.restore(board, action.before());
+        applyDeltas(action.players(), -1);
+        redoStack.push(action);
+    }
+
+    // Re-applies the most recently undone action
+    public void redo(GameBoard board) throws GameRuleException {
+        Action action = redoStack.poll();
+        if (action == null) throw new GameRuleException("Nothing to redo.");
+        TileImage.restore(board, action.after());
+        applyDeltas(action.players(), 1);
+        undoStack.push(action);
+    }
+
+    // Whether there is an action to undo
+    public boolean canUndo() {
+        return !undoStack.isEmpty();
+    }
+
+    // Whether there is an undone action to redo
+    public boolean canRedo() {
+        return !redoStack.isEmpty();
+    }
+
+    // Forgets all actions, e.g. at the end of a turn
+    public void clear() {
+        undoStack.clear();
+        redoStack.clear();
+        abort();
+    }
+
+    // Computes how the running action changed one player, or null if it did not
+    private static PlayerDelta delta(PlayerSnapshot snapshot) {
+        Player player = snapshot.player;
+        int gold = player.getResourceHandler().getGold() - snapshot.gold;
+        int food = player.getResourceHandler().getFood() - snapshot.food;
+        Map<String, Integer> counts = null;
+        if (player.getUnitCountsVersion() != snapshot.unitCountsVersion) {
+            for (Map.Entry<String, Integer> entry : player.getUnitCounts().entrySet()) {
+                int change = entry.getValue() - snapshot.countBefore(entry.getKey());
+                if (change == 0) continue;
+                if (counts == null) counts = new HashMap<>();
+                counts.put(entry.getKey(), change);
+            }
+        }
+        if (gold == 0 && food == 0 && counts == null) return null;
+        return new PlayerDelta(player, gold, food, counts != null ? counts : Map.of());
+    }
+
+    // Adds (sign 1) or removes (sign -1) player changes; deltas keep income that arrived after the action
+    private static void applyDeltas(List<PlayerDelta> deltas, int sign) {
+        for (PlayerDelta delta : deltas) {
+            delta.player().getResourceHandler().addResources(sign * delta.gold(), sign * delta.food());
+            Player player = delta.player();
+            delta.unitCounts().forEach((type, change) ->
+                    player.setUnitCount(type, player.getUnitCounts().getOrDefault(type, 0) + sign * change));
+        }
+    }
+}
@@ -11,11 +11,19 @@ import com.realmwar.model.structures.TownHall;
 import com.realmwar.engine.GameBoard;
 
 import java.awt.*;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
 // Class representing a player in the game
 public class Player {
+    // Colors by seat in turn order
+    private static final Color[] SEAT_COLORS = {
+            new Color(173, 216, 230), // Light blue
+            new Color(255, 182, 193), // Light pink
+            new Color(221, 160, 221), // Light purple
+            new Color(216, 191, 216)  // Light thistle
+    };
     // The player's color for visual representation
     private Color color;
     // The player's name
@@ -26,6 +34,10 @@ public class Player {
     private int wins;
     // Tracks the count of each unit type owned by the player
     private final Map<String, Integer> unitCounts;
+    // Read-only view of the unit counts handed out to callers
+    private final Map<String, Integer> unitCountsView;
+    // Bumped on every change to the unit counts, so callers can tell whether they changed without comparing them
+    private int unitCountsVersion;
 
     // Constructor to initialize a player with name and starting resources
     public Player(String name, int startingGold, int startingFood) {
@@ -37,25 +49,31 @@ public class Player {
         this.unitCounts.put("Spearman", 0);
         this.unitCounts.put("Swordsman", 0);
         this.unitCounts.put("Knight", 0);
+        this.unitCountsView = Collections.unmodifiableMap(unitCounts);
 
-        // Assigns a color based on the name's hash code
-        this.color = switch (Math.abs(name.hashCode() % 4)) {
-            case 0 -> new Color(173, 216, 230); // Light blue
-            case 1 -> new Color(255, 182, 193); // Light pink
-            case 2 -> new Color(221, 160, 221); // Light purple
-            case 3 -> new Color(216, 191, 216); // Light thistle
-            default -> Color.GRAY;
-        };
+        // Takes the first seat's color until the game seats the player
+        this.color = SEAT_COLORS[0];
+    }
+
+    // Assigns the color of the player's seat in turn order, so colors never depend on the name
+    public void setSeat(int seat) {
+        this.color = SEAT_COLORS[Math.floorMod(seat, SEAT_COLORS.length)];
     }
 
     // Increments the count of a specific unit type
     public void incrementUnitCount(String unitType) {
-        unitCounts.put(unitType, unitCounts.getOrDefault(unitType, 0) + 1);
+        setUnitCount(unitType, unitCounts.getOrDefault(unitType, 0) + 1);
     }
 
     // Decrements the count of a specific unit type
     public void decrementUnitCount(String unitType) {
-        unitCounts.put(unitType, Math.max(0, unitCounts.getOrDefault(unitType, 0) - 1));
+        setUnitCount(unitType, Math.max(0, unitCounts.getOrDefault(unitType, 0) - 1));
+    }
+
+    // Sets the count of a specific unit type, e.g. from a save or when undoing an action
+    public void setUnitCount(String unitType, int count) {
+        unitCounts.put(unitType, count);
+        unitCountsVersion++;
     }
 
     // Checks if the player can train a new unit of the specified type
@@ -104,8 +122,11 @@ public class Player {
     // Gets the player's color
     public Color getColor() { return color; }
 
-    // Gets the map of unit counts
-    public Map<String, Integer> getUnitCounts() { return unitCounts; }
+    // Gets a read-only view of the unit counts; they change through the methods above
+    public Map<String, Integer> getUnitCounts() { return unitCountsView; }
+
+    // Gets the version of the unit counts; equal versions mean the counts have not changed in between
+    public int getUnitCountsVersion() { return unitCountsVersion; }
 
     // Returns the player's name as a string representation
     @Override
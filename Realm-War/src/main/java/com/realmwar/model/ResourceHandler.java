@@ -37,10 +37,15 @@ public class ResourceHandler {
 
     // Spends resources, checking for sufficient amounts before deducting
     public void spendResources(int goldCost, int foodCost) throws GameRuleException {
-        if (this.gold < goldCost || this.food < foodCost) {
+        if (!canAfford(goldCost, foodCost)) {
             throw new GameRuleException("Insufficient Resources!");
         }
         this.gold -= goldCost;
         this.food -= foodCost;
     }
-}
\ No newline at end of file
+
+    // Checks whether the given costs can be paid, without spending anything
+    public boolean canAfford(int goldCost, int foodCost) {
+        return this.gold >= goldCost && this.food >= foodCost;
+    }
+}
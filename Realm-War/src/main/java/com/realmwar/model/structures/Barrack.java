@@ -61,4 +61,13 @@ public class Barrack extends Structure {
             this.unitSpace += Constants.BARRACK_UNIT_SPACE_INCREMENT; // Increase unit space on upgrade
         }
     }
-}
\ No newline at end of file
+
+    // Reverses one upgrade, including its unit space
+    @Override
+    public void levelDown() {
+        if (level > 1) {
+            super.levelDown();
+            this.unitSpace -= Constants.BARRACK_UNIT_SPACE_INCREMENT;
+        }
+    }
+}
@@ -86,4 +86,13 @@ public abstract class Structure extends GameEntity {
             this.durability += Constants.STRUCTURE_DURABILITY_INCREMENT_PER_LEVEL;
         }
     }
-}
\ No newline at end of file
+
+    // Reverses one levelUp, e.g. when an upgrade is undone
+    public void levelDown() {
+        if (level > 1) {
+            level--;
+            this.maxDurability -= Constants.STRUCTURE_DURABILITY_INCREMENT_PER_LEVEL;
+            setDurability(this.durability - Constants.STRUCTURE_DURABILITY_INCREMENT_PER_LEVEL);
+        }
+    }
+}
@@ -135,14 +135,14 @@ public abstract class Unit extends GameEntity {
     // Moves the unit to a target tile if allowed
     public boolean moveTo(GameTile targetTile, GameBoard gameBoard) {
         if (canMoveTo(targetTile, gameBoard)) {
+            // Goes through the board so its per-player lookups see the move
             if (currentTile != null) {
-                currentTile.setEntity(null);
+                gameBoard.placeEntity(null, currentTile.getX(), currentTile.getY());
             }
-            targetTile.setEntity(this);
-            setPosition(targetTile.getX(), targetTile.getY());
+            gameBoard.placeEntity(this, targetTile.getX(), targetTile.getY());
 
             // Claims territory for the unit's owner
-            targetTile.setTerritoryOwner(this.getOwner());
+            gameBoard.setTerritory(this.getOwner(), targetTile.getX(), targetTile.getY());
 
             return true;
         }
@@ -0,0 +1,118 @@
+// ChecksumVerifier.java
+// Command-line tool finding the first turn at which copies of a RealmWar game disagree, using turn-end checksums.
+// Usage: java com.realmwar.tools.ChecksumVerifier file.rwcmd
+//        java com.realmwar.tools.ChecksumVerifier [--game id] a.rwcmd|a.rwev b.rwcmd|b.rwev
+// With one command log it replays the log and checks every recorded checksum, so corruption or a rule change that
+// alters the outcome is caught at the first turn it affects. With two files (command logs or event logs, e.g. from
+// two peers or two replays) it compares their checksums turn by turn. Exits with status 1 when they disagree.
+
+package com.realmwar.tools;
+
+import com.realmwar.data.CommandLog;
+import com.realmwar.data.GameEventReader;
+import com.realmwar.data.GameEventType;
+import com.realmwar.data.GameRecording;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Entry point for the checksum verifier
+public final class ChecksumVerifier {
+    // Private constructor to prevent instantiation
+    private ChecksumVerifier() {}
+
+    public static void main(String[] args) throws IOException {
+        String gameId = null;
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--game")) {
+                gameId = args[++i];
+            } else {
+                files.add(Path.of(args[i]));
+            }
+        }
+        if (files.size() == 1 && isCommandLog(files.get(0))) {
+            System.exit(verifyReplay(files.get(0)) ? 0 : 1);
+        } else if (files.size() == 2) {
+            System.exit(compare(read(files.get(0), gameId), read(files.get(1), gameId)) ? 0 : 1);
+        }
+        System.err.println("Usage: ChecksumVerifier file.rwcmd | [--game id] a.rwcmd|a.rwev b.rwcmd|b.rwev");
+        System.exit(2);
+    }
+
+    // Replays a command log and checks its recorded checksums; returns true if all match
+    private static boolean verifyReplay(Path file) throws IOException {
+        GameRecording recording = GameRecording.read(file);
+        if (recording.getChecksums().isEmpty()) {
+            System.out.println(file + " has no recorded checksums to verify");
+            return true;
+        }
+        GameRecording.Divergence divergence;
+        try {
+            divergence = recording.verifyChecksums();
+        } catch (IllegalStateException e) {
+            System.out.println("Replay failed before the checksums could be compared: " + e.getMessage());
+            return false;
+        }
+        if (divergence == null) {
+            System.out.printf("All %d turn checksums match a replay of %d commands%n", recording.getChecksums().size(), recording.size());
+            return true;
+        }
+        GameRecording.TurnChecksum recorded = divergence.recorded();
+        System.out.printf("First divergent turn: %d (after command %d): recorded %016x, replay gives turn %d with %016x%n",
+                recorded.turn(), recorded.commandCount(), recorded.checksum(), divergence.replayedTurn(), divergence.replayed());
+        return false;
+    }
+
+    // Compares two checksum trails turn by turn; returns true if every turn both contain agrees
+    private static boolean compare(Map<Integer, Long> first, Map<Integer, Long> second) {
+        int common = 0;
+        for (Map.Entry<Integer, Long> entry : first.entrySet()) {
+            Long other = second.get(entry.getKey());
+            if (other == null) continue;
+            if (!other.equals(entry.getValue())) {
+                System.out.printf("First divergent turn: %d (%016x vs %016x), after %d matching turns%n",
+                        entry.getKey(), entry.getValue(), other, common);
+                return false;
+            }
+            common++;
+        }
+        System.out.printf("%d common turns agree (%d and %d turns recorded)%n", common, first.size(), second.size());
+        return common > 0;
+    }
+
+    // Reads the checksum of every turn from a command log or an event log, keyed by turn number
+    // Event logs can hold several games; the given game id, or else the last game in the file, is used
+    private static Map<Integer, Long> read(Path file, String gameId) throws IOException {
+        Map<Integer, Long> checksums = new TreeMap<>();
+        if (isCommandLog(file)) {
+            for (GameRecording.TurnChecksum checksum : GameRecording.read(file).getChecksums()) {
+                checksums.put(checksum.turn(), checksum.checksum());
+            }
+            return checksums;
+        }
+        try (GameEventReader reader = new GameEventReader(file)) {
+            boolean selected = gameId == null;
+            GameEventReader.Event event;
+            while ((event = reader.next()) != null) {
+                if (event.type() == GameEventType.GAME_START) {
+                    selected = gameId == null || gameId.equals(event.get("game_id"));
+                    // A new game restarts the trail unless a specific game was asked for
+                    if (gameId == null) checksums.clear();
+                } else if (event.type() == GameEventType.CHECKSUM && selected) {
+                    checksums.put(event.turn(), (Long) event.get("checksum"));
+                }
+            }
+        }
+        return checksums;
+    }
+
+    // Whether a file is a command log rather than an event log
+    private static boolean isCommandLog(Path file) {
+        return file.getFileName().toString().endsWith(CommandLog.SUFFIX);
+    }
+}
@@ -0,0 +1,90 @@
+// DiffBenchmark.java
+// Command-line benchmark for state diffs: encoded diff size and the time to compute and apply one, on growing boards.
+// Usage: java com.realmwar.tools.DiffBenchmark [size ...] (square board sizes, default 32 64 128 256 512)
+// A seeded bot plays each game in steps of a few commands. After each step the dirty-tracked diff is taken and
+// timed against a full tile-by-tile compare, then encoded, decoded and applied to a shadow copy of the game,
+// which must end in exactly the same state as the game itself.
+
+package com.realmwar.tools;
+
+import com.realmwar.data.GameLogger;
+import com.realmwar.data.GameStateCodec;
+import com.realmwar.data.StateDiff;
+import com.realmwar.data.StateDiffTracker;
+import com.realmwar.engine.GameManager;
+import com.realmwar.engine.GameRandom;
+import com.realmwar.engine.gamestate.RunningState;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Entry point for the diff benchmark
+public final class DiffBenchmark {
+
+    // Bot commands played between two diffs, and the number of diffs taken per board
+    private static final int COMMANDS_PER_STEP = 25;
+    private static final int STEPS = 400;
+
+    // Private constructor to prevent instantiation
+    private DiffBenchmark() {}
+
+    public static void main(String[] args) throws IOException {
+        int[] sizes = args.length > 0 ? Arrays.stream(args).mapToInt(Integer::parseInt).toArray() : new int[]{32, 64, 128, 256, 512};
+        GameLogger.setMuted(true);
+        // Warm up the JIT before timing
+        run(48, false);
+        for (int size : sizes) {
+            if (!run(size, true)) System.exit(1);
+        }
+    }
+
+    // Plays one game on a square board, diffing after every step; returns false if the shadow copy diverged
+    private static boolean run(int size, boolean print) throws IOException {
+        GameManager game = new GameManager(List.of("Player 1", "Player 2", "Player 3", "Player 4"), size, size, ReplayBenchmark.SEED);
+        GameManager shadow = GameStateCodec.decode(GameStateCodec.encode(game));
+        StateDiffTracker tracker = new StateDiffTracker(game);
+        SplittableRandom random = game.getRandom().stream(GameRandom.Stream.AI, 0);
+
+        int steps = 0;
+        long diffBytes = 0;
+        long diffTiles = 0;
+        long trackedNanos = 0;
+        long fullNanos = 0;
+        long applyNanos = 0;
+        int mismatches = 0;
+        while (steps < STEPS && game.getCurrentState() instanceof RunningState) {
+            ReplayBenchmark.record(game, COMMANDS_PER_STEP, random);
+            steps++;
+
+            long start = System.nanoTime();
+            StateDiff diff = tracker.diffAndReset();
+            trackedNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            StateDiff full = StateDiffTracker.between(shadow, game);
+            fullNanos += System.nanoTime() - start;
+            if (!full.getTileChanges().equals(diff.getTileChanges())) mismatches++;
+
+            byte[] encoded = diff.encode();
+            diffBytes += encoded.length;
+            diffTiles += diff.getTileChanges().size();
+            start = System.nanoTime();
+            StateDiff.decode(encoded).applyTo(shadow);
+            applyNanos += System.nanoTime() - start;
+        }
+        tracker.detach();
+
+        byte[] state = GameStateCodec.encode(game);
+        boolean identical = Arrays.equals(state, GameStateCodec.encode(shadow));
+        if (print) {
+            System.out.printf("%4dx%-4d %3d steps  diff %5.0f B avg (%4.1f tiles), full state %,9d B  "
+                            + "tracked diff %6.1f us, full compare %8.1f us, decode+apply %6.1f us  shadow matches: %s%n",
+                    size, size, steps, diffBytes / (double) steps, diffTiles / (double) steps, state.length,
+                    trackedNanos / 1e3 / steps, fullNanos / 1e3 / steps, applyNanos / 1e3 / steps,
+                    identical && mismatches == 0 ? "yes" : "NO (" + mismatches + " tracked diffs differ from a full compare)");
+        }
+        return identical && mismatches == 0;
+    }
+}
@@ -0,0 +1,124 @@
+// EventLogReader.java
+// Command-line tool converting RealmWar binary event logs (.rwev or .rwev.gz) to text or CSV.
+// Usage: java com.realmwar.tools.EventLogReader [--csv] [--type MOVE] file...
+// Text output has one readable line per event. CSV output has the columns
+// timestamp,type,turn followed by the type's fields when one --type is selected, or a single "fields" column otherwise.
+
+package com.realmwar.tools;
+
+import com.realmwar.data.GameEventReader;
+import com.realmwar.data.GameEventType;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+// Entry point for the event log reader
+public final class EventLogReader {
+    // Private constructor to prevent instantiation
+    private EventLogReader() {}
+
+    public static void main(String[] args) throws IOException {
+        boolean csv = false;
+        GameEventType onlyType = null;
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--csv" -> csv = true;
+                case "--type" -> onlyType = GameEventType.valueOf(args[++i].toUpperCase());
+                default -> files.add(Path.of(args[i]));
+            }
+        }
+        if (files.isEmpty()) {
+            System.err.println("Usage: EventLogReader [--csv] [--type MOVE] file...");
+            System.exit(1);
+        }
+
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 64 * 1024);
+        SimpleDateFormat timeFormat = new SimpleDateFormat("yyyy/MM/dd HH:mm:ss.SSS");
+        if (csv) {
+            writeCsvHeader(out, onlyType);
+        }
+        for (Path file : files) {
+            try (GameEventReader reader = new GameEventReader(file)) {
+                GameEventReader.Event event;
+                while ((event = reader.next()) != null) {
+                    if (onlyType != null && event.type() != onlyType) continue;
+                    String time = timeFormat.format(new Date(event.timeMillis()));
+                    if (csv) {
+                        writeCsvRow(out, time, event, onlyType != null);
+                    } else {
+                        writeTextLine(out, time, event);
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Could not read " + file + ": " + e.getMessage());
+            }
+        }
+        out.flush();
+    }
+
+    // Writes the CSV header; a single selected type gets one column per field
+    private static void writeCsvHeader(Writer out, GameEventType type) throws IOException {
+        out.write("timestamp,type,turn");
+        if (type == null) {
+            out.write(",fields");
+        } else {
+            for (GameEventType.Field field : type.fields) {
+                out.write(',');
+                out.write(field.name());
+            }
+        }
+        out.write('\n');
+    }
+
+    // Writes one event as a CSV row
+    private static void writeCsvRow(Writer out, String time, GameEventReader.Event event, boolean fieldColumns) throws IOException {
+        out.write(time);
+        out.write(',');
+        out.write(event.type().name());
+        out.write(',');
+        out.write(Integer.toString(event.turn()));
+        if (fieldColumns) {
+            for (Object value : event.values()) {
+                out.write(',');
+                out.write(csvField(value));
+            }
+        } else {
+            out.write(',');
+            out.write(csvField(joinFields(event, ";")));
+        }
+        out.write('\n');
+    }
+
+    // Writes one event as a readable line
+    private static void writeTextLine(Writer out, String time, GameEventReader.Event event) throws IOException {
+        out.write(time + " turn " + event.turn() + " " + event.type().name() + " " + joinFields(event, " ") + "\n");
+    }
+
+    // Joins an event's fields as name=value pairs
+    private static String joinFields(GameEventReader.Event event, String separator) {
+        StringBuilder sb = new StringBuilder();
+        List<GameEventType.Field> fields = event.type().fields;
+        for (int i = 0; i < fields.size(); i++) {
+            if (i > 0) sb.append(separator);
+            sb.append(fields.get(i).name()).append('=').append(event.values()[i]);
+        }
+        return sb.toString();
+    }
+
+    // Quotes a CSV value when it contains a separator, quote or line break
+    private static String csvField(Object value) {
+        if (value == null) return "";
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0) return text;
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,450 @@
+// LogAnalyzer.java
+// Offline analyzer computing per-player balance statistics from RealmWar logs and writing them as CSV.
+// Usage: java com.realmwar.tools.LogAnalyzer [--out dir] [--bucket-seconds n] [--chunk-mb n] [--threads n] file-or-dir...
+// Reads text logs (gamelog.txt, old and levelled line formats) and structured event logs (.rwev, .rwev.gz).
+// Income comes from .rwev event logs: text logs only hold income lines when the economy category is logged at DEBUG
+// (-Drealmwar.log.economy=debug), and a text log with gameplay but no income lines is reported on stderr.
+// Text files are memory-mapped and split into line-aligned chunks that are parsed in parallel; structured files
+// are parsed in parallel per file. Results are appended in input order, so give rotated files oldest first
+// (directories are expanded in name order, which is chronological for rotated event logs).
+
+package com.realmwar.tools;
+
+import com.realmwar.data.GameEventReader;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+// Entry point for the log analyzer
+public final class LogAnalyzer {
+
+    // Message prefixes and suffixes recognised in text logs
+    private static final byte[] TURN_ENDED = ascii("Turn ended");
+    private static final byte[] GAME_CREATED = ascii("GameManager created. ");
+    private static final byte[] GAME_RESTORED = ascii("GameManager restored. It is ");
+    private static final byte[] GAME_OVER = ascii("GAME OVER! Winner is ");
+    private static final byte[] DAMAGE_SUFFIX = ascii(" damage.");
+    private static final byte[] GAINED = ascii(" gained ");
+    private static final byte[] BUILT = ascii(" built a ");
+    private static final byte[] MESSAGE_SEPARATOR = ascii(" - ");
+
+    // Private constructor to prevent instantiation
+    private LogAnalyzer() {}
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Path outDir = Path.of("log-analysis");
+        long bucketMillis = 60_000;
+        long chunkBytes = 64L << 20;
+        int threads = Runtime.getRuntime().availableProcessors();
+        List<Path> inputs = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--out" -> outDir = Path.of(args[++i]);
+                case "--bucket-seconds" -> bucketMillis = Long.parseLong(args[++i]) * 1000;
+                case "--chunk-mb" -> chunkBytes = Math.min(1024, Math.max(1, Long.parseLong(args[++i]))) << 20;
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                default -> inputs.add(Path.of(args[i]));
+            }
+        }
+        if (inputs.isEmpty()) {
+            System.err.println("Usage: LogAnalyzer [--out dir] [--bucket-seconds n] [--chunk-mb n] [--threads n] file-or-dir...");
+            System.exit(1);
+        }
+
+        long start = System.nanoTime();
+        List<Path> files = expand(inputs);
+        long totalBytes = 0;
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, threads));
+        List<Future<LogStats>> parts = new ArrayList<>();
+        // File of each part, and the text files with gameplay and with income lines
+        List<Path> partFiles = new ArrayList<>();
+        Set<Path> withGameplay = new LinkedHashSet<>();
+        Set<Path> withIncome = new HashSet<>();
+        try {
+            for (Path file : files) {
+                totalBytes += Files.size(file);
+                for (Callable<LogStats> task : tasksFor(file, chunkBytes, bucketMillis)) {
+                    parts.add(pool.submit(task));
+                    partFiles.add(file);
+                }
+            }
+            LogStats total = new LogStats(bucketMillis);
+            for (int i = 0; i < parts.size(); i++) {
+                LogStats part = parts.get(i).get();
+                total.append(part);
+                if (isEventLog(partFiles.get(i))) continue;
+                if (part.hasGameplay()) withGameplay.add(partFiles.get(i));
+                if (part.hasIncome()) withIncome.add(partFiles.get(i));
+            }
+            for (Path file : withGameplay) {
+                if (!withIncome.contains(file)) {
+                    System.err.println("Warning: " + file + " has no income lines; income is logged at DEBUG level, "
+                            + "so its income columns stay empty. Analyze the .rwev event logs, or log with -Drealmwar.log.economy=debug.");
+                }
+            }
+            write(total, outDir);
+        } catch (ExecutionException e) {
+            System.err.println("Analysis failed: " + e.getCause());
+            e.getCause().printStackTrace();
+            System.exit(2);
+        } finally {
+            pool.shutdownNow();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Analyzed %d file(s), %.1f MB in %d chunk(s) in %.2f s; results in %s%n",
+                files.size(), totalBytes / 1048576.0, parts.size(), seconds, outDir.toAbsolutePath());
+    }
+
+    // Expands directories into their log files, sorted by name
+    private static List<Path> expand(List<Path> inputs) throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (Path input : inputs) {
+            if (!Files.isDirectory(input)) {
+                files.add(input);
+                continue;
+            }
+            try (Stream<Path> children = Files.list(input)) {
+                children.filter(Files::isRegularFile)
+                        .filter(p -> isEventLog(p) || p.getFileName().toString().endsWith(".txt") || p.getFileName().toString().endsWith(".log"))
+                        .sorted()
+                        .forEach(files::add);
+            }
+        }
+        return files;
+    }
+
+    // Checks if a file is a structured event log
+    private static boolean isEventLog(Path file) {
+        String name = file.getFileName().toString();
+        return name.endsWith(".rwev") || name.endsWith(".rwev.gz");
+    }
+
+    // Builds the parse tasks of one file, in file order
+    private static List<Callable<LogStats>> tasksFor(Path file, long chunkBytes, long bucketMillis) throws IOException {
+        List<Callable<LogStats>> tasks = new ArrayList<>();
+        if (isEventLog(file)) {
+            tasks.add(() -> parseEventLog(file, bucketMillis));
+            return tasks;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long chunkStart = 0;
+            while (chunkStart < size) {
+                long chunkEnd = Math.min(size, alignToLineStart(channel, Math.min(size, chunkStart + chunkBytes)));
+                long from = chunkStart;
+                long length = chunkEnd - chunkStart;
+                tasks.add(() -> parseTextChunk(file, from, length, bucketMillis));
+                chunkStart = chunkEnd;
+            }
+        }
+        return tasks;
+    }
+
+    // Moves a position forward to the start of the next line, so chunks never split a line
+    private static long alignToLineStart(FileChannel channel, long position) throws IOException {
+        long size = channel.size();
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        while (position < size) {
+            probe.clear();
+            int read = channel.read(probe, position);
+            if (read <= 0) break;
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == '\n') return position + i + 1;
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    // Parses one memory-mapped, line-aligned chunk of a text log
+    private static LogStats parseTextChunk(Path file, long from, long length, long bucketMillis) throws IOException {
+        LogStats stats = new LogStats(bucketMillis);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, from, length);
+            new TextChunkParser(buffer, stats).run();
+        }
+        return stats;
+    }
+
+    // Parses one structured event log; uncompressed files are read through a memory mapping
+    private static LogStats parseEventLog(Path file, long bucketMillis) throws IOException {
+        LogStats stats = new LogStats(bucketMillis);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+             GameEventReader reader = file.getFileName().toString().endsWith(".gz")
+                     ? new GameEventReader(file) : new GameEventReader(new MappedInputStream(channel), file.toString())) {
+            GameEventReader.Event event;
+            while ((event = reader.next()) != null) {
+                long time = event.timeMillis();
+                switch (event.type()) {
+                    case GAME_START -> {
+                        String players = (String) event.get("players");
+                        stats.gameStart(time, players == null || players.isEmpty() ? null : Arrays.asList(players.split(",")), null);
+                    }
+                    case ATTACK -> stats.attack((String) event.get("player"), (String) event.get("attacker"), (Integer) event.get("damage"));
+                    case RESOURCE_TICK -> stats.income(time, (String) event.get("player"),
+                            (Integer) event.get("gold_income"), (Integer) event.get("food_income"));
+                    case BUILD -> stats.build((String) event.get("player"), (String) event.get("structure"));
+                    case TURN_END -> stats.turnEnd(time, (String) event.get("player"), (String) event.get("next_player"));
+                    case GAME_OVER -> stats.gameOver((String) event.get("winner"));
+                    default -> { }
+                }
+            }
+        }
+        return stats;
+    }
+
+    // Writes all result files
+    private static void write(LogStats stats, Path outDir) throws IOException {
+        Files.createDirectories(outDir);
+        try (Writer out = csvWriter(outDir, "player_summary.csv")) {
+            stats.writePlayerSummary(out);
+        }
+        try (Writer out = csvWriter(outDir, "damage_by_unit.csv")) {
+            stats.writeDamageByUnit(out);
+        }
+        try (Writer out = csvWriter(outDir, "income_over_time.csv")) {
+            stats.writeIncome(out);
+        }
+        try (Writer out = csvWriter(outDir, "structures_built.csv")) {
+            stats.writeStructures(out);
+        }
+    }
+
+    // Opens a result file for writing
+    private static Writer csvWriter(Path outDir, String name) throws IOException {
+        return new BufferedWriter(Files.newBufferedWriter(outDir.resolve(name), StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    // Encodes a constant as ASCII bytes
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    // Scans a mapped text chunk line by line; only lines that feed a statistic are decoded into strings
+    private static final class TextChunkParser {
+        // Chunk contents and the statistics they feed
+        private final ByteBuffer buffer;
+        private final LogStats stats;
+        // Zone the log timestamps were written in, and the start of the last parsed day
+        private final ZoneId zone = ZoneId.systemDefault();
+        private int cachedDate = -1;
+        private long cachedDayStart;
+        // Scratch space for decoding one message
+        private byte[] scratch = new byte[256];
+
+        // Constructor
+        TextChunkParser(ByteBuffer buffer, LogStats stats) {
+            this.buffer = buffer;
+            this.stats = stats;
+        }
+
+        // Parses every line of the chunk
+        void run() {
+            int limit = buffer.limit();
+            int lineStart = 0;
+            while (lineStart < limit) {
+                int lineEnd = lineStart;
+                while (lineEnd < limit && buffer.get(lineEnd) != '\n') lineEnd++;
+                int end = lineEnd;
+                if (end > lineStart && buffer.get(end - 1) == '\r') end--;
+                parseLine(lineStart, end);
+                lineStart = lineEnd + 1;
+            }
+        }
+
+        // Parses "yyyy/MM/dd HH:mm:ss [LEVEL [category]] - message"; other lines (stack traces etc.) are ignored
+        private void parseLine(int start, int end) {
+            if (end - start < 23 || buffer.get(start + 4) != '/' || buffer.get(start + 13) != ':') return;
+            int separator = indexOf(MESSAGE_SEPARATOR, start + 19, Math.min(end, start + 64));
+            if (separator < 0) return;
+            int message = separator + MESSAGE_SEPARATOR.length;
+
+            if (startsWith(TURN_ENDED, message, end)) {
+                String text = decode(message, end);
+                int it = text.indexOf(" It is now ");
+                if (it < 0) return;
+                String ending = text.startsWith("Turn ended for ") ? text.substring("Turn ended for ".length(), it - 1) : null;
+                stats.turnEnd(time(start), ending, playerBefore(text, it + " It is now ".length(), "'s turn"));
+            } else if (startsWith(GAME_CREATED, message, end)) {
+                String text = decode(message + GAME_CREATED.length, end);
+                stats.gameStart(time(start), null, playerBefore(text, 0, "'s turn"));
+            } else if (startsWith(GAME_RESTORED, message, end)) {
+                String text = decode(message + GAME_RESTORED.length, end);
+                stats.gameStart(time(start), null, playerBefore(text, 0, "'s turn"));
+            } else if (startsWith(GAME_OVER, message, end)) {
+                String winner = decode(message + GAME_OVER.length, end).trim();
+                stats.gameOver(winner.equals("No one") ? null : winner);
+            } else if (endsWith(DAMAGE_SUFFIX, message, end)) {
+                String text = decode(message, end);
+                String unit = text.startsWith("Tower at (") ? "Tower" : text.substring(0, Math.max(0, text.indexOf(' ')));
+                int amount = parseNumberAfter(text, text.lastIndexOf(" for ") + 5);
+                if (amount >= 0) stats.attack(null, unit, amount);
+            } else if (buffer.get(end - 2) != ')') {
+                int gained = indexOf(GAINED, message, end);
+                if (gained >= 0) {
+                    parseIncome(start, decode(message, end), gained - message);
+                    return;
+                }
+                int built = indexOf(BUILT, message, end);
+                if (built >= 0) {
+                    String text = decode(message, end);
+                    int type = built - message + BUILT.length;
+                    int at = text.indexOf(" at ", type);
+                    if (at > type) stats.build(text.substring(0, built - message), text.substring(type, at));
+                }
+            }
+        }
+
+        // Parses "P gained G gold and F food..." or "P gained G gold from territory bonus."
+        private void parseIncome(int lineStart, String text, int gainedAt) {
+            String player = text.substring(0, gainedAt);
+            int goldAt = gainedAt + GAINED.length;
+            int gold = parseNumberAfter(text, goldAt);
+            if (gold < 0) return;
+            int and = text.indexOf(" and ", goldAt);
+            int food = and >= 0 ? parseNumberAfter(text, and + 5) : 0;
+            stats.income(time(lineStart), player, gold, Math.max(0, food));
+        }
+
+        // Converts the line timestamp to epoch milliseconds in the local zone
+        private long time(int start) {
+            int date = digits(start, 4) * 10000 + digits(start + 5, 2) * 100 + digits(start + 8, 2);
+            if (date != cachedDate) {
+                cachedDate = date;
+                cachedDayStart = LocalDate.of(date / 10000, date / 100 % 100, date % 100).atStartOfDay(zone).toInstant().toEpochMilli();
+            }
+            int seconds = digits(start + 11, 2) * 3600 + digits(start + 14, 2) * 60 + digits(start + 17, 2);
+            return cachedDayStart + seconds * 1000L;
+        }
+
+        // Reads a fixed-width decimal number
+        private int digits(int position, int count) {
+            int value = 0;
+            for (int i = 0; i < count; i++) {
+                value = value * 10 + (buffer.get(position + i) - '0');
+            }
+            return value;
+        }
+
+        // Decodes a byte range as UTF-8
+        private String decode(int from, int to) {
+            int length = to - from;
+            if (scratch.length < length) scratch = new byte[Math.max(length, scratch.length * 2)];
+            buffer.get(from, scratch, 0, length);
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+
+        // Finds a byte pattern in [from, to), or -1
+        private int indexOf(byte[] pattern, int from, int to) {
+            byte first = pattern[0];
+            for (int i = from; i <= to - pattern.length; i++) {
+                if (buffer.get(i) == first && startsWith(pattern, i, to)) return i;
+            }
+            return -1;
+        }
+
+        // Checks if [position, end) starts with a byte pattern
+        private boolean startsWith(byte[] pattern, int position, int end) {
+            if (end - position < pattern.length) return false;
+            for (int i = 0; i < pattern.length; i++) {
+                if (buffer.get(position + i) != pattern[i]) return false;
+            }
+            return true;
+        }
+
+        // Checks if [start, end) ends with a byte pattern
+        private boolean endsWith(byte[] pattern, int start, int end) {
+            return end - start >= pattern.length && startsWith(pattern, end - pattern.length, end);
+        }
+
+        // Returns the text between from and the marker, or null if the marker is missing
+        private static String playerBefore(String text, int from, String marker) {
+            int at = text.indexOf(marker, from);
+            return at > from ? text.substring(from, at) : null;
+        }
+
+        // Parses the non-negative integer starting at a position, or returns -1
+        private static int parseNumberAfter(String text, int position) {
+            if (position < 0) return -1;
+            int value = 0;
+            int i = position;
+            while (i < text.length() && Character.isDigit(text.charAt(i))) {
+                value = value * 10 + (text.charAt(i) - '0');
+                i++;
+            }
+            return i > position ? value : -1;
+        }
+    }
+
+    // Input stream over a read-only file mapping, remapping in windows so files over 2 GB work
+    private static final class MappedInputStream extends InputStream {
+        // Size of each mapped window
+        private static final long WINDOW = 256L << 20;
+
+        // Mapped file, its size and the offset of the current window
+        private final FileChannel channel;
+        private final long size;
+        private long windowStart;
+        private MappedByteBuffer window;
+
+        // Constructor
+        MappedInputStream(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+            mapWindow(0);
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (!ensureRemaining()) return -1;
+            return window.get() & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] target, int offset, int length) throws IOException {
+            if (length == 0) return 0;
+            if (!ensureRemaining()) return -1;
+            int count = Math.min(length, window.remaining());
+            window.get(target, offset, count);
+            return count;
+        }
+
+        // Moves to the next window when the current one is used up; false at the end of the file
+        private boolean ensureRemaining() throws IOException {
+            if (window.hasRemaining()) return true;
+            long next = windowStart + window.capacity();
+            if (next >= size) return false;
+            mapWindow(next);
+            return true;
+        }
+
+        // Maps the window starting at a file offset
+        private void mapWindow(long start) throws IOException {
+            windowStart = start;
+            window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(WINDOW, size - start));
+        }
+    }
+}
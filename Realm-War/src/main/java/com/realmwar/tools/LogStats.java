@@ -0,0 +1,307 @@
+// LogStats.java
+// Per-player statistics accumulated by LogAnalyzer over one chunk of a log, or over a whole run.
+// Chunks are parsed independently, so state that depends on earlier lines (whose turn it is, when the turn
+// started, which game is in progress) is kept at the chunk edges and resolved when chunks are appended in order.
+
+package com.realmwar.tools;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+// Mergeable statistics accumulator; not thread-safe, each chunk gets its own instance
+final class LogStats {
+
+    // Name used when a line cannot be attributed to a player
+    static final String UNKNOWN_PLAYER = "?";
+
+    // An attack seen before the chunk knew whose turn it was
+    private record PendingAttack(String unit, int damage) {}
+
+    // Width of the income time buckets
+    private final long bucketMillis;
+
+    // player -> unit type -> {attacks, damage}
+    private final Map<String, Map<String, long[]>> damage = new HashMap<>();
+    // player -> bucket start -> {gold, food, ticks}
+    private final Map<String, TreeMap<Long, long[]>> income = new HashMap<>();
+    // player -> structure type -> {count}
+    private final Map<String, Map<String, long[]>> structures = new HashMap<>();
+    // player -> {turns, total turn millis}
+    private final Map<String, long[]> turns = new HashMap<>();
+    // player -> {games, wins}
+    private final Map<String, long[]> games = new HashMap<>();
+
+    // Whether the current player and turn start are known (false until the first turn or game marker)
+    private boolean known;
+    private String currentPlayer;
+    private long turnStart = -1;
+    // Attacks before the first marker, attributed when appended to the previous range
+    private final List<PendingAttack> pendingAttacks = new ArrayList<>();
+    // First turn end seen before the turn start was known; its length needs the previous range
+    private boolean openingTurnEnd;
+    private long openingTurnEndTime;
+    private String openingTurnEndPlayer;
+
+    // Whether a game start or game over has been seen in this range
+    private boolean sawGameBoundary;
+    // Players and result of a game that was already running when the range began
+    private final Set<String> inheritedPlayers = new HashSet<>();
+    private boolean inheritedGameOver;
+    private String inheritedWinner;
+    // Players of the game in progress after the first boundary
+    private Set<String> openGame = new HashSet<>();
+
+    // Constructor
+    LogStats(long bucketMillis) {
+        this.bucketMillis = bucketMillis;
+    }
+
+    // A new or resumed game begins; players may be null when the log does not list them
+    void gameStart(long time, List<String> players, String firstPlayer) {
+        sawGameBoundary = true;
+        openGame = new HashSet<>();
+        if (players != null) openGame.addAll(players);
+        if (firstPlayer != null) openGame.add(firstPlayer);
+        known = true;
+        currentPlayer = firstPlayer;
+        turnStart = time;
+    }
+
+    // A player's turn ended; player may be null for old log lines that do not name the ending player
+    void turnEnd(long time, String player, String nextPlayer) {
+        if (player == null) player = currentPlayer;
+        if (known) {
+            if (player != null && turnStart >= 0) addTurn(player, time - turnStart);
+        } else if (!openingTurnEnd) {
+            openingTurnEnd = true;
+            openingTurnEndTime = time;
+            openingTurnEndPlayer = player;
+        }
+        addGamePlayer(player);
+        addGamePlayer(nextPlayer);
+        known = true;
+        currentPlayer = nextPlayer;
+        turnStart = time;
+    }
+
+    // A unit or tower dealt damage; player may be null when the line does not name the attacker's owner
+    void attack(String player, String unit, int amount) {
+        if (player == null) {
+            if (!known) {
+                pendingAttacks.add(new PendingAttack(unit, amount));
+                return;
+            }
+            player = currentPlayer != null ? currentPlayer : UNKNOWN_PLAYER;
+        }
+        addDamage(player, unit, 1, amount);
+    }
+
+    // A player collected income
+    void income(long time, String player, int gold, int food) {
+        long bucket = Math.floorDiv(time, bucketMillis) * bucketMillis;
+        long[] totals = income.computeIfAbsent(player, p -> new TreeMap<>()).computeIfAbsent(bucket, b -> new long[3]);
+        totals[0] += gold;
+        totals[1] += food;
+        totals[2]++;
+    }
+
+    // A player built a structure
+    void build(String player, String structure) {
+        structures.computeIfAbsent(player, p -> new HashMap<>()).computeIfAbsent(structure, s -> new long[1])[0]++;
+    }
+
+    // The game ended; winner is null when no one won
+    void gameOver(String winner) {
+        if (!sawGameBoundary) {
+            inheritedGameOver = true;
+            inheritedWinner = winner;
+        } else {
+            finishGame(openGame, winner);
+        }
+        sawGameBoundary = true;
+        openGame = new HashSet<>();
+        known = true;
+        currentPlayer = null;
+        turnStart = -1;
+    }
+
+    // Whether any income was recorded
+    boolean hasIncome() {
+        return !income.isEmpty();
+    }
+
+    // Whether any turn end or game boundary was seen, i.e. the range holds gameplay
+    boolean hasGameplay() {
+        return !turns.isEmpty() || openingTurnEnd || sawGameBoundary;
+    }
+
+    // Appends the statistics of the range that directly follows this one
+    void append(LogStats next) {
+        String owner = known && currentPlayer != null ? currentPlayer : UNKNOWN_PLAYER;
+        for (PendingAttack attack : next.pendingAttacks) {
+            addDamage(owner, attack.unit(), 1, attack.damage());
+        }
+        if (next.openingTurnEnd) {
+            String player = next.openingTurnEndPlayer != null ? next.openingTurnEndPlayer : currentPlayer;
+            if (player != null && known && turnStart >= 0) addTurn(player, next.openingTurnEndTime - turnStart);
+            if (player != null) openGame.add(player);
+        }
+
+        Set<String> carried = openGame;
+        carried.addAll(next.inheritedPlayers);
+        if (next.inheritedGameOver) finishGame(carried, next.inheritedWinner);
+        openGame = next.sawGameBoundary ? new HashSet<>(next.openGame) : carried;
+
+        next.damage.forEach((player, units) -> units.forEach((unit, v) -> addDamage(player, unit, v[0], v[1])));
+        next.income.forEach((player, buckets) -> buckets.forEach((bucket, v) -> {
+            long[] totals = income.computeIfAbsent(player, p -> new TreeMap<>()).computeIfAbsent(bucket, b -> new long[3]);
+            totals[0] += v[0];
+            totals[1] += v[1];
+            totals[2] += v[2];
+        }));
+        next.structures.forEach((player, types) -> types.forEach((type, v) ->
+                structures.computeIfAbsent(player, p -> new HashMap<>()).computeIfAbsent(type, s -> new long[1])[0] += v[0]));
+        next.turns.forEach((player, v) -> {
+            long[] totals = turns.computeIfAbsent(player, p -> new long[2]);
+            totals[0] += v[0];
+            totals[1] += v[1];
+        });
+        next.games.forEach((player, v) -> {
+            long[] totals = games.computeIfAbsent(player, p -> new long[2]);
+            totals[0] += v[0];
+            totals[1] += v[1];
+        });
+
+        if (next.known) {
+            known = true;
+            currentPlayer = next.currentPlayer;
+            turnStart = next.turnStart;
+        }
+    }
+
+    // Writes one row per player with totals, average turn length and win rate
+    void writePlayerSummary(Writer out) throws IOException {
+        out.write("player,games,wins,win_rate,turns,avg_turn_seconds,attacks,total_damage,gold_income,food_income,structures_built\n");
+        for (String player : allPlayers()) {
+            long[] g = games.getOrDefault(player, new long[2]);
+            long[] t = turns.getOrDefault(player, new long[2]);
+            long attacks = 0;
+            long dealt = 0;
+            for (long[] v : damage.getOrDefault(player, Map.of()).values()) {
+                attacks += v[0];
+                dealt += v[1];
+            }
+            long gold = 0;
+            long food = 0;
+            for (long[] v : income.getOrDefault(player, new TreeMap<>()).values()) {
+                gold += v[0];
+                food += v[1];
+            }
+            long built = 0;
+            for (long[] v : structures.getOrDefault(player, Map.of()).values()) {
+                built += v[0];
+            }
+            out.write(csv(player) + "," + g[0] + "," + g[1] + "," + ratio(g[1], g[0]) + "," + t[0] + ","
+                    + ratio(t[1] / 1000.0, t[0]) + "," + attacks + "," + dealt + "," + gold + "," + food + "," + built + "\n");
+        }
+    }
+
+    // Writes damage dealt per player and attacking unit type
+    void writeDamageByUnit(Writer out) throws IOException {
+        out.write("player,unit_type,attacks,total_damage,avg_damage\n");
+        for (String player : new TreeSet<>(damage.keySet())) {
+            for (Map.Entry<String, long[]> e : new TreeMap<>(damage.get(player)).entrySet()) {
+                long[] v = e.getValue();
+                out.write(csv(player) + "," + csv(e.getKey()) + "," + v[0] + "," + v[1] + "," + ratio(v[1], v[0]) + "\n");
+            }
+        }
+    }
+
+    // Writes income per player and time bucket
+    void writeIncome(Writer out) throws IOException {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy/MM/dd HH:mm:ss");
+        out.write("player,period_start,gold,food,ticks\n");
+        for (String player : new TreeSet<>(income.keySet())) {
+            for (Map.Entry<Long, long[]> e : income.get(player).entrySet()) {
+                long[] v = e.getValue();
+                out.write(csv(player) + "," + format.format(new Date(e.getKey())) + "," + v[0] + "," + v[1] + "," + v[2] + "\n");
+            }
+        }
+    }
+
+    // Writes structures built per player and type
+    void writeStructures(Writer out) throws IOException {
+        out.write("player,structure,count\n");
+        for (String player : new TreeSet<>(structures.keySet())) {
+            for (Map.Entry<String, long[]> e : new TreeMap<>(structures.get(player)).entrySet()) {
+                out.write(csv(player) + "," + csv(e.getKey()) + "," + e.getValue()[0] + "\n");
+            }
+        }
+    }
+
+    // Every player that appears in any statistic, sorted by name
+    private Set<String> allPlayers() {
+        Set<String> players = new TreeSet<>();
+        players.addAll(games.keySet());
+        players.addAll(turns.keySet());
+        players.addAll(damage.keySet());
+        players.addAll(income.keySet());
+        players.addAll(structures.keySet());
+        return players;
+    }
+
+    // Adds damage totals for a player and unit type
+    private void addDamage(String player, String unit, long attacks, long amount) {
+        long[] totals = damage.computeIfAbsent(player, p -> new HashMap<>()).computeIfAbsent(unit, u -> new long[2]);
+        totals[0] += attacks;
+        totals[1] += amount;
+    }
+
+    // Adds one completed turn of the given length
+    private void addTurn(String player, long millis) {
+        long[] totals = turns.computeIfAbsent(player, p -> new long[2]);
+        totals[0]++;
+        totals[1] += Math.max(0, millis);
+    }
+
+    // Records a player as taking part in the game in progress
+    private void addGamePlayer(String player) {
+        if (player == null) return;
+        if (sawGameBoundary) {
+            openGame.add(player);
+        } else {
+            inheritedPlayers.add(player);
+        }
+    }
+
+    // Counts a finished game for its players and its winner
+    private void finishGame(Set<String> players, String winner) {
+        if (winner != null) players.add(winner);
+        for (String player : players) {
+            games.computeIfAbsent(player, p -> new long[2])[0]++;
+        }
+        if (winner != null) games.get(winner)[1]++;
+    }
+
+    // Formats a ratio with three decimals, or empty when the denominator is zero
+    private static String ratio(double numerator, long denominator) {
+        return denominator == 0 ? "" : String.format(Locale.ROOT, "%.3f", numerator / denominator);
+    }
+
+    // Quotes a CSV value when it contains a separator or quote
+    private static String csv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0) return value;
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
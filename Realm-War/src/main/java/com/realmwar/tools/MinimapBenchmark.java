@@ -0,0 +1,106 @@
+// MinimapBenchmark.java
+// Command-line benchmark for the minimap: time to bring its one-pixel-per-tile image up to date after board changes.
+// Usage: java com.realmwar.tools.MinimapBenchmark [size ...] (square board sizes, default 100 316 1000)
+// A seeded bot plays a few commands between frames, and each frame times the incremental refresh of the changed
+// pixels, which should stay well below a millisecond however large the board is, and a paint of the minimap at its
+// on-screen size. For comparison it also times building the image from scratch, which the minimap only does when
+// another board is shown. At the end the incrementally kept image is compared with one built from the final board.
+
+package com.realmwar.tools;
+
+import com.realmwar.data.GameLogger;
+import com.realmwar.engine.GameManager;
+import com.realmwar.engine.GameRandom;
+import com.realmwar.engine.gamestate.RunningState;
+import com.realmwar.view.GameBoardPanel;
+import com.realmwar.view.MinimapPanel;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Entry point for the minimap benchmark
+public final class MinimapBenchmark {
+
+    // Bot commands between two frames, frames per board, and the minimap's size on screen in pixels
+    private static final int COMMANDS_PER_FRAME = 5;
+    private static final int FRAMES = 200;
+    private static final int MINIMAP_SIZE = 120;
+
+    // Private constructor to prevent instantiation
+    private MinimapBenchmark() {}
+
+    public static void main(String[] args) {
+        int[] sizes = args.length > 0 ? Arrays.stream(args).mapToInt(Integer::parseInt).toArray() : new int[]{100, 316, 1000};
+        GameLogger.setMuted(true);
+        // Warm up the JIT before timing
+        run(64, false);
+        boolean identical = true;
+        for (int size : sizes) {
+            identical &= run(size, true);
+        }
+        GameLogger.setMuted(false);
+        if (!identical) System.exit(1);
+    }
+
+    // Plays one game with a minimap following it; returns whether the minimap ended up matching the board
+    private static boolean run(int size, boolean print) {
+        GameManager game = new GameManager(List.of("Player 1", "Player 2", "Player 3", "Player 4"), size, size, ReplayBenchmark.SEED);
+        SplittableRandom random = game.getRandom().stream(GameRandom.Stream.AI, 0);
+        GameBoardPanel boardPanel = new GameBoardPanel(game, null);
+        boardPanel.setSize(800, 600);
+
+        boardPanel.updatePanel(game.getGameBoard(), null);
+        // A minimap builds its whole image for the board shown when it is created
+        long start = System.nanoTime();
+        MinimapPanel minimap = new MinimapPanel(boardPanel);
+        long buildNanos = System.nanoTime() - start;
+        minimap.setSize(MINIMAP_SIZE, MINIMAP_SIZE);
+        BufferedImage screen = new BufferedImage(MINIMAP_SIZE, MINIMAP_SIZE, BufferedImage.TYPE_INT_RGB);
+
+        long refreshNanos = 0;
+        long worstRefreshNanos = 0;
+        long paintNanos = 0;
+        long tiles = 0;
+        int frames = 0;
+        while (frames < FRAMES && game.getCurrentState() instanceof RunningState) {
+            ReplayBenchmark.record(game, COMMANDS_PER_FRAME, random);
+            frames++;
+            start = System.nanoTime();
+            tiles += minimap.refresh();
+            long elapsed = System.nanoTime() - start;
+            refreshNanos += elapsed;
+            worstRefreshNanos = Math.max(worstRefreshNanos, elapsed);
+            paintNanos += paint(minimap, screen);
+        }
+
+        boolean identical = Arrays.equals(fullSize(minimap, size), fullSize(new MinimapPanel(boardPanel), size));
+        if (print) {
+            System.out.printf("%4dx%-4d %3d frames  refresh %6.1f us/frame (worst %6.1f us, %5.1f tiles/frame)  paint at %dx%d %6.1f us  "
+                            + "full build %7.2f ms  matches board: %s%n",
+                    size, size, frames, refreshNanos / 1e3 / frames, worstRefreshNanos / 1e3, tiles / (double) frames,
+                    MINIMAP_SIZE, MINIMAP_SIZE, paintNanos / 1e3 / frames, buildNanos / 1e6, identical ? "yes" : "NO");
+        }
+        return identical;
+    }
+
+    // Paints a minimap into an image and returns the time taken in nanoseconds
+    private static long paint(MinimapPanel minimap, BufferedImage image) {
+        Graphics2D g = image.createGraphics();
+        long start = System.nanoTime();
+        minimap.paint(g);
+        long elapsed = System.nanoTime() - start;
+        g.dispose();
+        return elapsed;
+    }
+
+    // Returns the pixels of a minimap painted at one pixel per tile
+    private static int[] fullSize(MinimapPanel minimap, int size) {
+        minimap.setSize(size, size);
+        BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+        paint(minimap, image);
+        return image.getRGB(0, 0, size, size, null, 0, size);
+    }
+}
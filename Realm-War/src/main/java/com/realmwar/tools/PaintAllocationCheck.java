@@ -0,0 +1,81 @@
+// PaintAllocationCheck.java
+// Command-line regression check that painting the RealmWar board allocates close to nothing once warmed up.
+// Usage: java com.realmwar.tools.PaintAllocationCheck [size] [max bytes per frame]
+// Paints a seeded mid-game board repeatedly into an offscreen image, in both the cached-layer and the direct mode,
+// and measures the bytes the painting thread allocated per frame. Exits with status 1 if a mode exceeds the limit.
+// The default limit of 4 KB leaves room for what Swing and Java2D allocate themselves on each paint (graphics
+// copies, blit bounds) but fails as soon as the board's own paint code allocates per tile or per entity again.
+
+package com.realmwar.tools;
+
+import com.realmwar.data.GameLogger;
+import com.realmwar.engine.GameManager;
+import com.realmwar.engine.GameRandom;
+import com.realmwar.view.GameBoardPanel;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+// Entry point for the paint allocation check
+public final class PaintAllocationCheck {
+
+    // Pixels per tile, bot commands played before measuring, and frames painted to warm up and to measure
+    private static final int TILE_SIZE = 16;
+    private static final int COMMANDS = 2_000;
+    private static final int WARMUP_FRAMES = 2_000;
+    private static final int FRAMES = 500;
+
+    // Private constructor to prevent instantiation
+    private PaintAllocationCheck() {}
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+        long limit = args.length > 1 ? Long.parseLong(args[1]) : 4096;
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        GameLogger.setMuted(true);
+
+        GameManager game = new GameManager(List.of("Player 1", "Player 2", "Player 3", "Player 4"), size, size, ReplayBenchmark.SEED);
+        ReplayBenchmark.record(game, COMMANDS, game.getRandom().stream(GameRandom.Stream.AI, 0));
+        boolean ok = true;
+        for (boolean cachedLayers : new boolean[]{true, false}) {
+            GameBoardPanel panel = new GameBoardPanel(game, null);
+            panel.setCachedLayers(cachedLayers);
+            panel.updatePanel(game.getGameBoard(), null);
+            Insets insets = panel.getInsets();
+            panel.setSize(size * TILE_SIZE + insets.left + insets.right, size * TILE_SIZE + insets.top + insets.bottom);
+            BufferedImage image = new BufferedImage(panel.getWidth(), panel.getHeight(), BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = image.createGraphics();
+
+            for (int i = 0; i < WARMUP_FRAMES; i++) {
+                panel.paint(g);
+            }
+            long thread = Thread.currentThread().getId();
+            long before = threads.getThreadAllocatedBytes(thread);
+            for (int i = 0; i < FRAMES; i++) {
+                panel.paint(g);
+            }
+            long perFrame = (threads.getThreadAllocatedBytes(thread) - before) / FRAMES;
+            g.dispose();
+
+            boolean passed = perFrame <= limit;
+            System.out.printf("%-13s %dx%d board, %d entities: %,d bytes allocated per frame (limit %,d) %s%n",
+                    cachedLayers ? "Cached layers" : "Direct", size, size, countEntities(game), perFrame, limit, passed ? "ok" : "FAILED");
+            ok &= passed;
+        }
+        GameLogger.setMuted(false);
+        if (!ok) System.exit(1);
+    }
+
+    // Counts the units and structures on the board
+    private static int countEntities(GameManager game) {
+        int entities = 0;
+        for (int x = 0; x < game.getGameBoard().width; x++) {
+            for (int y = 0; y < game.getGameBoard().height; y++) {
+                if (game.getGameBoard().getTile(x, y).getEntity() != null) entities++;
+            }
+        }
+        return entities;
+    }
+}
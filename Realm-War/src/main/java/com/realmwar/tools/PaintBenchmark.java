@@ -0,0 +1,198 @@
+// PaintBenchmark.java
+// Command-line benchmark for board painting: time per paint with every tile drawn directly, and with the cached
+// terrain and territory layers.
+// Usage: java com.realmwar.tools.PaintBenchmark [size ...] (square board sizes, default 32 64 128 256 512)
+// A seeded bot plays a few commands between frames, so territory keeps changing as in a real game. Both modes paint
+// the same positions into an offscreen image at 16 pixels per tile, and the two images are compared pixel by pixel.
+// Boards larger than 4096 pixels that way are left out of this pass. A second pass paints the same kind of game
+// through a fixed 1024x768 viewport zoomed to 32 pixel high tiles and scrolled one tile every frame; there the time
+// per paint should not depend on the board size, as only the tiles in view are drawn. A last pass paints one game with
+// the sprites drawn from their SVG art and from their PNGs, at several tile sizes: the first paint of each includes
+// rasterizing the sprites, and the frames are compared to show how far the vector art is from the PNGs on the board.
+// Run headless, the layers are BufferedImages instead of VolatileImages; on screen they are accelerated as well.
+
+package com.realmwar.tools;
+
+import com.realmwar.data.GameLogger;
+import com.realmwar.engine.GameManager;
+import com.realmwar.engine.GameRandom;
+import com.realmwar.engine.gamestate.RunningState;
+import com.realmwar.view.GameBoardPanel;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Entry point for the paint benchmark
+public final class PaintBenchmark {
+
+    // Pixels per tile, bot commands between two frames and frames painted per board
+    private static final int TILE_SIZE = 16;
+    private static final int COMMANDS_PER_FRAME = 5;
+    private static final int FRAMES = 200;
+    // Largest board, in pixels per side, painted whole
+    private static final int MAX_FULL_PIXELS = 4096;
+    // Viewport size and tile height of the zoomed pass
+    private static final int VIEW_WIDTH = 1024;
+    private static final int VIEW_HEIGHT = 768;
+    private static final int ZOOMED_TILE_SIZE = 32;
+    // Board size and tile sizes of the sprite art pass
+    private static final int SPRITE_BOARD_SIZE = 16;
+    private static final int[] SPRITE_TILE_SIZES = {16, 32, 64, 128};
+
+    // Private constructor to prevent instantiation
+    private PaintBenchmark() {}
+
+    public static void main(String[] args) {
+        int[] sizes = args.length > 0 ? Arrays.stream(args).mapToInt(Integer::parseInt).toArray() : new int[]{32, 64, 128, 256, 512};
+        GameLogger.setMuted(true);
+        // Warm up the JIT before timing
+        run(32, false);
+        boolean identical = true;
+        for (int size : sizes) {
+            if (size * TILE_SIZE <= MAX_FULL_PIXELS) identical &= run(size, true);
+        }
+        runViewport(32, false);
+        for (int size : sizes) {
+            runViewport(size, true);
+        }
+        for (int tileSize : SPRITE_TILE_SIZES) {
+            runSprites(tileSize);
+        }
+        if (!identical) System.exit(1);
+    }
+
+    // Paints one game in both modes frame by frame; returns whether every frame looked the same in both
+    private static boolean run(int size, boolean print) {
+        GameManager game = new GameManager(List.of("Player 1", "Player 2", "Player 3", "Player 4"), size, size, ReplayBenchmark.SEED);
+        SplittableRandom random = game.getRandom().stream(GameRandom.Stream.AI, 0);
+        GameBoardPanel direct = panel(game, false);
+        GameBoardPanel cached = panel(game, true);
+        int pixels = size * TILE_SIZE;
+        BufferedImage directImage = new BufferedImage(pixels, pixels, BufferedImage.TYPE_INT_RGB);
+        BufferedImage cachedImage = new BufferedImage(pixels, pixels, BufferedImage.TYPE_INT_RGB);
+
+        long directNanos = 0;
+        long cachedNanos = 0;
+        int frames = 0;
+        int mismatches = 0;
+        while (frames < FRAMES && game.getCurrentState() instanceof RunningState) {
+            ReplayBenchmark.record(game, COMMANDS_PER_FRAME, random);
+            frames++;
+            directNanos += paint(direct, directImage);
+            cachedNanos += paint(cached, cachedImage);
+            if (!Arrays.equals(pixels(directImage), pixels(cachedImage))) mismatches++;
+        }
+        if (print) {
+            System.out.printf("%4dx%-4d %3d frames of %4dx%-4d px  direct %7.2f ms/paint, cached layers %6.2f ms/paint (%4.1fx)  "
+                            + "images match: %s%n",
+                    size, size, frames, pixels, pixels, directNanos / 1e6 / frames, cachedNanos / 1e6 / frames,
+                    directNanos / (double) cachedNanos, mismatches == 0 ? "yes" : "NO (" + mismatches + " frames differ)");
+        }
+        return mismatches == 0;
+    }
+
+    // Paints one game through a zoomed viewport that scrolls every frame, with cached layers
+    private static void runViewport(int size, boolean print) {
+        GameManager game = new GameManager(List.of("Player 1", "Player 2", "Player 3", "Player 4"), size, size, ReplayBenchmark.SEED);
+        SplittableRandom random = game.getRandom().stream(GameRandom.Stream.AI, 0);
+        GameBoardPanel panel = new GameBoardPanel(game, null);
+        panel.updatePanel(game.getGameBoard(), null);
+        Insets insets = panel.getInsets();
+        panel.setSize(VIEW_WIDTH + insets.left + insets.right, VIEW_HEIGHT + insets.top + insets.bottom);
+        // Zoom 1 fits the board, so the zoom for ZOOMED_TILE_SIZE is relative to the fitting tile height
+        panel.setZoom(ZOOMED_TILE_SIZE / (VIEW_HEIGHT / (double) size));
+        BufferedImage image = new BufferedImage(VIEW_WIDTH, VIEW_HEIGHT, BufferedImage.TYPE_INT_RGB);
+
+        long nanos = 0;
+        int frames = 0;
+        while (frames < FRAMES && game.getCurrentState() instanceof RunningState) {
+            ReplayBenchmark.record(game, COMMANDS_PER_FRAME, random);
+            panel.centerOn(frames % size, size / 2);
+            frames++;
+            nanos += paint(panel, image);
+        }
+        if (print) {
+            System.out.printf("%4dx%-4d %3d frames through a %dx%d viewport at zoom %5.1f  cached layers %6.2f ms/paint%n",
+                    size, size, frames, VIEW_WIDTH, VIEW_HEIGHT, panel.getZoom(), nanos / 1e6 / frames);
+        }
+    }
+
+    // Paints one game with PNG sprites and with vector sprites at a tile size, and compares the two frame by frame
+    private static void runSprites(int tileSize) {
+        GameManager game = new GameManager(List.of("Player 1", "Player 2", "Player 3", "Player 4"),
+                SPRITE_BOARD_SIZE, SPRITE_BOARD_SIZE, ReplayBenchmark.SEED);
+        SplittableRandom random = game.getRandom().stream(GameRandom.Stream.AI, 0);
+        int pixels = SPRITE_BOARD_SIZE * tileSize;
+        BufferedImage pngImage = new BufferedImage(pixels, pixels, BufferedImage.TYPE_INT_RGB);
+        BufferedImage vectorImage = new BufferedImage(pixels, pixels, BufferedImage.TYPE_INT_RGB);
+        // Each panel rasterizes its sprites on its first paint, from the art chosen just before
+        GameBoardPanel.setVectorSprites(false);
+        GameBoardPanel png = panel(game, true, tileSize);
+        long pngFirstNanos = paint(png, pngImage);
+        GameBoardPanel.setVectorSprites(true);
+        GameBoardPanel vector = panel(game, true, tileSize);
+        long vectorFirstNanos = paint(vector, vectorImage);
+
+        long pngNanos = 0;
+        long vectorNanos = 0;
+        long differentPixels = 0;
+        long channelDifference = 0;
+        int frames = 0;
+        while (frames < FRAMES && game.getCurrentState() instanceof RunningState) {
+            ReplayBenchmark.record(game, COMMANDS_PER_FRAME, random);
+            frames++;
+            pngNanos += paint(png, pngImage);
+            vectorNanos += paint(vector, vectorImage);
+            int[] pngPixels = pixels(pngImage);
+            int[] vectorPixels = pixels(vectorImage);
+            for (int i = 0; i < pngPixels.length; i++) {
+                if (pngPixels[i] == vectorPixels[i]) continue;
+                differentPixels++;
+                for (int shift = 0; shift < 24; shift += 8) {
+                    channelDifference += Math.abs((pngPixels[i] >> shift & 0xff) - (vectorPixels[i] >> shift & 0xff));
+                }
+            }
+        }
+        long comparedPixels = (long) frames * pixels * pixels;
+        System.out.printf("%3d px tiles  first paint PNG %7.2f ms, SVG %7.2f ms  then PNG %6.2f ms/paint, SVG %6.2f ms/paint  "
+                        + "pixels differing %5.1f%%, mean channel difference %5.2f%n",
+                tileSize, pngFirstNanos / 1e6, vectorFirstNanos / 1e6, pngNanos / 1e6 / frames, vectorNanos / 1e6 / frames,
+                100.0 * differentPixels / comparedPixels, channelDifference / (3.0 * comparedPixels));
+    }
+
+    // Creates a board panel showing the game at TILE_SIZE pixels per tile
+    private static GameBoardPanel panel(GameManager game, boolean cachedLayers) {
+        return panel(game, cachedLayers, TILE_SIZE);
+    }
+
+    // Creates a board panel showing the game at a tile size in pixels
+    private static GameBoardPanel panel(GameManager game, boolean cachedLayers, int tileSize) {
+        GameBoardPanel panel = new GameBoardPanel(game, null);
+        panel.setCachedLayers(cachedLayers);
+        panel.updatePanel(game.getGameBoard(), null);
+        Insets insets = panel.getInsets();
+        panel.setSize(game.getGameBoard().width * tileSize + insets.left + insets.right,
+                game.getGameBoard().height * tileSize + insets.top + insets.bottom);
+        return panel;
+    }
+
+    // Paints the board area of a panel into an image and returns the time taken in nanoseconds
+    private static long paint(GameBoardPanel panel, BufferedImage image) {
+        Insets insets = panel.getInsets();
+        Graphics2D g = image.createGraphics();
+        g.translate(-insets.left, -insets.top);
+        long start = System.nanoTime();
+        panel.paint(g);
+        long elapsed = System.nanoTime() - start;
+        g.dispose();
+        return elapsed;
+    }
+
+    // Returns the pixels of an image
+    private static int[] pixels(BufferedImage image) {
+        return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+    }
+}
@@ -0,0 +1,128 @@
+// PartitionCheck.java
+// Command-line check that the PostgreSQL save store drops the partitions of purged saves.
+// Usage: java -Drealmwar.db.url=... -Drealmwar.db.savesPerPartition=5 com.realmwar.tools.PartitionCheck
+// Run it against a scratch database: it saves three buckets' worth of small games, deletes all but the newest, runs
+// the store's maintenance and verifies that every emptied bucket's partitions were detached and dropped.
+// Exits with status 1 if a partition that should be gone is still attached.
+
+package com.realmwar.tools;
+
+import com.realmwar.data.PostgresSaveStore;
+import com.realmwar.engine.GameManager;
+import com.realmwar.util.Config;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+// Entry point for the partition purge check
+public final class PartitionCheck {
+
+    // Child table whose partitions are inspected; all child tables are maintained together
+    private static final String TABLE = "game_board_tiles";
+
+    // Private constructor to prevent instantiation
+    private PartitionCheck() {}
+
+    public static void main(String[] args) throws SQLException {
+        int perPartition = Math.max(1, Config.getInt("realmwar.db.savesPerPartition", 1000));
+        PostgresSaveStore store = new PostgresSaveStore();
+        if (!store.initialize()) {
+            System.out.println("Could not initialize the PostgreSQL store, see the log");
+            System.exit(2);
+        }
+        GameManager game = new GameManager(List.of("Alice", "Bob"), 8, 8);
+        String prefix = "partition_check_" + System.currentTimeMillis() + "_";
+
+        try (Connection conn = DriverManager.getConnection(Config.get("realmwar.db.url", "jdbc:postgresql://localhost:5432/realmwar_db"),
+                Config.get("realmwar.db.user", "postgres"), Config.get("realmwar.db.password", "0000"))) {
+            // Saves spanning at least three buckets, with partitions made ahead as the purger thread would
+            List<String> names = new ArrayList<>();
+            List<Integer> ids = new ArrayList<>();
+            for (int i = 0; i < perPartition * 3; i++) {
+                if (i % perPartition == 0) store.maintain();
+                String name = prefix + i;
+                if (!store.saveGame(game, name)) {
+                    System.out.println("Save failed, see the log");
+                    System.exit(2);
+                }
+                names.add(name);
+                ids.add(saveId(conn, name));
+            }
+            store.maintain();
+            System.out.println("Partitions after saving:  " + buckets(conn));
+
+            // Empty every bucket but the newest one's
+            for (int i = 0; i < names.size() - 1; i++) {
+                store.deleteSave(names.get(i));
+            }
+            store.maintain();
+            TreeSet<Integer> after = buckets(conn);
+            System.out.println("Partitions after purging: " + after);
+
+            // Buckets holding only deleted saves, at least a bucket behind the newest save
+            TreeSet<Integer> expectedGone = new TreeSet<>();
+            int newest = ids.get(ids.size() - 1) / perPartition;
+            for (int i = 0; i < ids.size() - 1; i++) {
+                int bucket = ids.get(i) / perPartition;
+                if (bucket < newest - 1 && !hasSaves(conn, bucket, perPartition)) expectedGone.add(bucket);
+            }
+            store.deleteSave(names.get(names.size() - 1));
+
+            TreeSet<Integer> left = new TreeSet<>(expectedGone);
+            left.retainAll(after);
+            if (expectedGone.isEmpty()) {
+                System.out.println("FAIL: no bucket was emptied; use a smaller realmwar.db.savesPerPartition");
+                System.exit(1);
+            } else if (!left.isEmpty()) {
+                System.out.println("FAIL: emptied buckets " + left + " are still attached");
+                System.exit(1);
+            }
+            System.out.println("OK: emptied buckets " + expectedGone + " were detached and dropped");
+        }
+    }
+
+    // Returns the id of a save
+    private static int saveId(Connection conn, String name) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT id FROM game_saves WHERE save_name = ?")) {
+            ps.setString(1, name);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) throw new SQLException("Save " + name + " was not written");
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    // Whether any save, e.g. one made outside this check, remains in a bucket
+    private static boolean hasSaves(Connection conn, int bucket, int perPartition) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT 1 FROM game_saves WHERE id >= ? AND id < ? LIMIT 1")) {
+            ps.setLong(1, (long) bucket * perPartition);
+            ps.setLong(2, (long) (bucket + 1) * perPartition);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    // Lists the buckets with an attached partition of the inspected table
+    private static TreeSet<Integer> buckets(Connection conn) throws SQLException {
+        TreeSet<Integer> buckets = new TreeSet<>();
+        String prefix = TABLE + "_b";
+        try (PreparedStatement ps = conn.prepareStatement("SELECT c.relname FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent WHERE p.relname = ?")) {
+            ps.setString(1, TABLE);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String name = rs.getString(1);
+                    if (name.startsWith(prefix)) buckets.add(Integer.parseInt(name.substring(prefix.length())));
+                }
+            }
+        }
+        return buckets;
+    }
+}
@@ -0,0 +1,506 @@
+// ReplayBenchmark.java
+// Command-line benchmark measuring how many recorded commands per second a headless replay applies.
+// Usage: java com.realmwar.tools.ReplayBenchmark [file.rwcmd | commands] [runs]
+// By default the recording is replayed until about five million commands have been applied.
+// Without a file it records a synthetic game from a fixed seed, played by a bot drawing from the game's AI stream
+// that keeps an economy and an army going, so the recording is a mix of real actions rather than empty turns,
+// then replays it repeatedly and checks that every replay ends in exactly the state the game was recorded in.
+// Next to the overall rate it prints the rate of the player actions alone, as income ticks and turn ends are far
+// cheaper; it then times each command type on its own, printing the command mix, and finally measures seeking to
+// random positions through keyframes.
+
+package com.realmwar.tools;
+
+import com.realmwar.data.GameLogger;
+import com.realmwar.data.GameRecording;
+import com.realmwar.data.GameStateCodec;
+import com.realmwar.engine.GameBoard;
+import com.realmwar.engine.GameManager;
+import com.realmwar.engine.GameRandom;
+import com.realmwar.engine.GameTile;
+import com.realmwar.engine.blocks.VoidBlock;
+import com.realmwar.engine.command.GameCommand;
+import com.realmwar.engine.command.GameReducer;
+import com.realmwar.engine.gamestate.RunningState;
+import com.realmwar.model.GameEntity;
+import com.realmwar.model.Player;
+import com.realmwar.model.structures.Barrack;
+import com.realmwar.model.structures.Farm;
+import com.realmwar.model.structures.Market;
+import com.realmwar.model.structures.Structure;
+import com.realmwar.model.structures.TownHall;
+import com.realmwar.model.units.Unit;
+import com.realmwar.util.Constants;
+import com.realmwar.util.CustomExceptions.GameRuleException;
+
+import java.awt.Point;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+
+// Entry point for the replay benchmark
+public final class ReplayBenchmark {
+
+    // Structure and unit types the bot picks from
+    private static final String[] STRUCTURES = {"Farm", "Market", "Barrack", "Tower"};
+    private static final String[] UNITS = {"Peasant", "Spearman", "Swordsman", "Knight"};
+    // Seed of the synthetic game; the bot draws from the game's AI stream, so every run plays the same game
+    static final long SEED = 42;
+    // Longest stretch of turns without a keyframe when measuring seeks
+    private static final int KEYFRAME_TURNS = 10;
+    // Turns in a row without a player action after which recording stops, as the game has stopped changing
+    private static final int STALLED_TURNS = 40;
+
+    // Private constructor to prevent instantiation
+    private ReplayBenchmark() {}
+
+    public static void main(String[] args) throws IOException {
+        GameRecording recording;
+        byte[] expectedState = null;
+        if (args.length > 0 && Files.isRegularFile(Path.of(args[0]))) {
+            recording = GameRecording.read(Path.of(args[0]));
+            System.out.printf("Loaded %d commands from %s%n", recording.size(), args[0]);
+        } else {
+            int target = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+            GameLogger.setMuted(true);
+            GameManager game = new GameManager(List.of("Player 1", "Player 2", "Player 3", "Player 4"), 24, 24, SEED);
+            byte[] start = GameStateCodec.encode(game);
+            List<GameCommand> commands = record(game, target, game.getRandom().stream(GameRandom.Stream.AI, 0));
+            GameLogger.setMuted(false);
+            expectedState = GameStateCodec.encode(game);
+            recording = new GameRecording(start, commands);
+            System.out.printf("Recorded %d commands from a seeded bot game (%s)%n", commands.size(), describe(commands));
+            if (commands.size() < target) {
+                System.out.println("Recording stopped early: the game ended or stopped changing");
+            }
+        }
+
+        // Short recordings are replayed more often so that each measurement covers a few million commands
+        int size = Math.max(1, recording.size());
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : Math.max(10, 5_000_000 / size);
+        // Warm up the JIT before timing
+        for (int i = 0; i < Math.max(3, 2_000_000 / size); i++) {
+            recording.replay();
+        }
+        long totalNanos = 0;
+        GameManager last = null;
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            last = recording.replay();
+            totalNanos += System.nanoTime() - start;
+        }
+        double seconds = totalNanos / 1e9;
+        long applied = (long) recording.size() * runs;
+        System.out.printf("Replayed %d commands in %.3f s: %,.0f commands/s (%.1f ms per full replay)%n",
+                applied, seconds, applied / seconds, totalNanos / 1e6 / runs);
+        // Income ticks and turn ends are much cheaper than player actions, so the actions get a figure of their own
+        Map<String, long[]> byType = profileByType(recording);
+        long actions = 0;
+        long actionNanos = 0;
+        for (Map.Entry<String, long[]> e : byType.entrySet()) {
+            if (e.getKey().equals("ResourceTick") || e.getKey().equals("EndTurn")) continue;
+            actions += e.getValue()[0];
+            actionNanos += e.getValue()[1];
+        }
+        System.out.printf("Without ResourceTick and EndTurn: %,.0f commands/s (%.1f%% of the commands, each timed on its own)%n",
+                actions / (actionNanos / 1e9), 100.0 * actions / Math.max(1, byType.values().stream().mapToLong(t -> t[0]).sum()));
+        if (expectedState != null) {
+            boolean identical = Arrays.equals(expectedState, GameStateCodec.encode(last));
+            System.out.println("Replayed state matches the recorded game: " + (identical ? "yes" : "NO"));
+            if (!identical) System.exit(1);
+        }
+        printProfile(byType);
+        benchmarkSeek(recording);
+    }
+
+    // Replays the recording a few times timing every command on its own; returns the commands of the recording and
+    // the nanoseconds of the fastest pass per type name, so that a recording dominated by cheap commands shows up and
+    // a pass slowed down by the collector or the JIT does not count. Each reading adds the clock's own cost of some
+    // tens of nanoseconds, so rates worked out from these err on the low side
+    private static Map<String, long[]> profileByType(GameRecording recording) throws IOException {
+        // Type name -> {commands, nanoseconds}
+        Map<String, long[]> byType = new TreeMap<>();
+        int passes = Math.max(3, 1_000_000 / Math.max(1, recording.size()));
+        boolean wasMuted = GameLogger.isMuted();
+        GameLogger.setMuted(true);
+        try {
+            for (int pass = 0; pass < passes; pass++) {
+                Map<String, long[]> passTotals = new TreeMap<>();
+                GameManager game = GameStateCodec.decode(recording.getInitialState());
+                game.setRecording(false);
+                for (GameCommand command : recording.getCommands()) {
+                    long start = System.nanoTime();
+                    GameReducer.apply(game, command);
+                    long elapsed = System.nanoTime() - start;
+                    long[] totals = passTotals.computeIfAbsent(command.getClass().getSimpleName(), k -> new long[2]);
+                    totals[0]++;
+                    totals[1] += elapsed;
+                }
+                passTotals.forEach((type, totals) -> byType.merge(type, totals, (best, now) -> now[1] < best[1] ? now : best));
+            }
+        } catch (GameRuleException e) {
+            throw new IllegalStateException("Replay diverged while profiling: " + e.getMessage(), e);
+        } finally {
+            GameLogger.setMuted(wasMuted);
+        }
+        return byType;
+    }
+
+    // Prints the command mix and the rate per type of a profile
+    private static void printProfile(Map<String, long[]> byType) {
+        long all = 0;
+        for (long[] totals : byType.values()) all += totals[0];
+        System.out.println("Per command type (each command timed on its own, fastest pass):");
+        System.out.printf("  %-14s %10s %7s %12s %16s%n", "type", "commands", "share", "avg us", "commands/s");
+        for (Map.Entry<String, long[]> e : byType.entrySet()) {
+            long[] totals = e.getValue();
+            System.out.printf("  %-14s %10d %6.2f%% %12.3f %,16.0f%n", e.getKey(), totals[0],
+                    100.0 * totals[0] / all, totals[1] / 1e3 / totals[0], totals[0] / (totals[1] / 1e9));
+        }
+    }
+
+    // Times random seeks through keyframes and checks a sample of them against a replay from the start
+    private static void benchmarkSeek(GameRecording recording) throws IOException {
+        long start = System.nanoTime();
+        recording.buildKeyframes(KEYFRAME_TURNS);
+        System.out.printf("Built keyframes every %d turns in %.1f ms (%d keyframes)%n",
+                KEYFRAME_TURNS, (System.nanoTime() - start) / 1e6, recording.getKeyframeCount());
+
+        Random random = new Random(7);
+        int seeks = 2000;
+        long worst = 0;
+        long total = 0;
+        for (int i = 0; i < seeks; i++) {
+            int target = random.nextInt(recording.size() + 1);
+            long seekStart = System.nanoTime();
+            recording.seek(target);
+            long elapsed = System.nanoTime() - seekStart;
+            total += elapsed;
+            worst = Math.max(worst, elapsed);
+        }
+        System.out.printf("Seek: %.3f ms average, %.3f ms worst over %d random positions%n", total / 1e6 / seeks, worst / 1e6, seeks);
+
+        for (int i = 0; i < 20; i++) {
+            int target = random.nextInt(recording.size() + 1);
+            if (!Arrays.equals(GameStateCodec.encode(recording.seek(target)), GameStateCodec.encode(recording.replay(target)))) {
+                System.out.println("Seek to command " + target + " does NOT match a replay from the start");
+                System.exit(1);
+            }
+        }
+        System.out.println("Sampled seeks match replays from the start: yes");
+    }
+
+    // Plays bot commands until the target count is applied, the game ends or it stops changing; rejected commands
+    // are not recorded
+    static List<GameCommand> record(GameManager game, int target, SplittableRandom random) {
+        List<GameCommand> commands = new ArrayList<>(target);
+        Bot bot = new Bot(game, random);
+        int attempts = 0;
+        // Player actions accepted in the current turn, and turns in a row that ended without one
+        int actions = 0;
+        int idleTurns = 0;
+        while (commands.size() < target && game.getCurrentState() instanceof RunningState && attempts < target * 20) {
+            attempts++;
+            GameCommand command = bot.next();
+            if (command == null) continue;
+            try {
+                GameReducer.apply(game, command);
+                commands.add(command);
+            } catch (GameRuleException ignored) {
+                // The bot tries some illegal actions; only accepted ones belong in the recording
+                continue;
+            }
+            if (command instanceof GameCommand.EndTurn) {
+                idleTurns = actions == 0 ? idleTurns + 1 : 0;
+                actions = 0;
+                // Nothing but income and turn ends from here on would only pad the recording with cheap commands
+                if (idleTurns >= STALLED_TURNS) break;
+            } else if (!(command instanceof GameCommand.ResourceTick || command instanceof GameCommand.Undo
+                    || command instanceof GameCommand.Redo)) {
+                actions++;
+            }
+        }
+        return commands;
+    }
+
+    // Bot playing the synthetic game like a player would: it takes a few income ticks per turn, keeps its economy
+    // running (Markets first and upgraded, a Farm when food runs low) and only trains or builds for the army what its
+    // income can pay the upkeep of, then ends its turn once its units have acted. Its units fight enemy units,
+    // Barracks and Towers but spare TownHalls, Markets and Farms, so nobody wins, no economy is razed and the game
+    // lasts until the recording reaches its target length
+    private static final class Bot {
+        // Income ticks per turn; the resource timer fires more often in a real turn, but then ticks would swamp the mix
+        private static final int TICKS_PER_TURN = 4;
+        // Commands tried per turn before the bot gives up on units that cannot act and ends the turn
+        private static final int MAX_PICKS_PER_TURN = 80;
+        // Gold kept back when spending, and gold per turn the income must still exceed the upkeep by after a purchase
+        private static final int RESERVE_GOLD = 20;
+        private static final int MIN_NET_INCOME = 2;
+
+        // Game being played and the stream the bot draws from
+        private final GameManager game;
+        private final SplittableRandom random;
+        // Income ticks taken and commands tried in the current turn
+        private int ticks;
+        private int picks;
+
+        // Constructor taking the game and the random stream
+        Bot(GameManager game, SplittableRandom random) {
+            this.game = game;
+            this.random = random;
+        }
+
+        // Chooses the next command for the current player, or null to try again
+        GameCommand next() {
+            if (++picks > MAX_PICKS_PER_TURN) return endTurn();
+            GameBoard board = game.getGameBoard();
+            Player player = game.getCurrentPlayer();
+            double roll = random.nextDouble();
+            if (roll < 0.25 && ticks < TICKS_PER_TURN) {
+                ticks++;
+                return GameCommand.RESOURCE_TICK;
+            }
+            if (roll < 0.26) return random.nextBoolean() ? GameCommand.UNDO : GameCommand.REDO;
+            GameCommand command = null;
+            if (roll < 0.45) {
+                command = invest(board, player);
+            } else if (roll < 0.65) {
+                command = train(board, player);
+            }
+            if (command == null) command = act(board, player);
+            if (command != null) return command;
+            // Every unit has acted: collect the rest of the turn's income, then end it
+            if (ticks < TICKS_PER_TURN) {
+                ticks++;
+                return GameCommand.RESOURCE_TICK;
+            }
+            return endTurn();
+        }
+
+        // Ends the turn and starts counting the next one
+        private GameCommand endTurn() {
+            ticks = 0;
+            picks = 0;
+            return GameCommand.END_TURN;
+        }
+
+        // Spends on the economy first: a Market while there is room for one, then Market upgrades and a Farm when food
+        // runs low; with the economy in place, a Barrack or Tower the income can keep up
+        private GameCommand invest(GameBoard board, Player player) {
+            if (count(board, player, "Market") < Constants.MAX_MARKETS_PER_PLAYER) {
+                GameCommand command = build(board, player, "Market");
+                if (command != null) return command;
+            }
+            for (Structure structure : board.getStructuresForPlayer(player)) {
+                if (structure instanceof Market && structure.getLevel() < structure.getMaxLevel()
+                        && canSpend(player, Constants.BASE_UPGRADE_COST * structure.getLevel())) {
+                    return new GameCommand.Upgrade(structure.getX(), structure.getY());
+                }
+            }
+            if (player.getResourceHandler().getFood() < 60) return build(board, player, "Farm");
+            String type = count(board, player, "Barrack") == 0 || random.nextBoolean() ? "Barrack" : "Tower";
+            int upkeep = type.equals("Barrack") ? Constants.BARRACK_MAINTENANCE : Constants.TOWER_MAINTENANCE;
+            return netIncome(board, player) - upkeep >= MIN_NET_INCOME ? build(board, player, type) : null;
+        }
+
+        // Builds a structure of a type on a free tile of the player's territory next to its structures, if affordable
+        private GameCommand build(GameBoard board, Player player, String type) {
+            int existing = count(board, player, type);
+            int cost = switch (type) {
+                case "Farm" -> Constants.FARM_BUILD_COST;
+                case "Market" -> Constants.MARKET_BUILD_COST;
+                case "Barrack" -> Constants.BARRACK_BUILD_COST;
+                default -> Constants.TOWER_BUILD_COST;
+            } + existing * Constants.INCREMENTAL_BUILD_COST;
+            int max = switch (type) {
+                case "Farm" -> Constants.MAX_FARMS_PER_PLAYER;
+                case "Market" -> Constants.MAX_MARKETS_PER_PLAYER;
+                case "Barrack" -> Constants.MAX_BARRACKS_PER_PLAYER;
+                default -> Constants.MAX_TOWERS_PER_PLAYER;
+            };
+            if (existing >= max || !canSpend(player, cost)) return null;
+            // Free buildable tiles of the player's territory around its structures
+            List<Point> tiles = new ArrayList<>();
+            for (Structure structure : board.getStructuresForPlayer(player)) {
+                for (int dx = -2; dx <= 2; dx++) {
+                    for (int dy = -2; dy <= 2; dy++) {
+                        int x = structure.getX() + dx;
+                        int y = structure.getY() + dy;
+                        GameTile tile = board.getTile(x, y);
+                        if (tile == null || tile.isOccupied() || !tile.block.isBuildable() || tile.getTerritoryOwner() != player) continue;
+                        if (type.equals("Farm") && !board.isAdjacentToFriendlyStructure(x, y, player, TownHall.class)
+                                && !board.isAdjacentToFriendlyStructure(x, y, player, Farm.class)) continue;
+                        tiles.add(new Point(x, y));
+                    }
+                }
+            }
+            if (tiles.isEmpty()) return null;
+            Point tile = tiles.get(random.nextInt(tiles.size()));
+            return new GameCommand.Build(type, tile.x, tile.y);
+        }
+
+        // Trains a unit next to the TownHall (Peasants) or a Barrack (the others) if the income can keep it up
+        private GameCommand train(GameBoard board, Player player) {
+            if (!player.hasEnoughUnitSpace(board)) return null;
+            String type = UNITS[random.nextInt(UNITS.length)];
+            int gold = switch (type) {
+                case "Peasant" -> Constants.PEASANT_GOLD_COST;
+                case "Spearman" -> Constants.SPEARMAN_GOLD_COST;
+                case "Swordsman" -> Constants.SWORDSMAN_GOLD_COST;
+                default -> Constants.KNIGHT_GOLD_COST;
+            };
+            int food = switch (type) {
+                case "Peasant" -> Constants.PEASANT_FOOD_COST;
+                case "Spearman" -> Constants.SPEARMAN_FOOD_COST;
+                case "Swordsman" -> Constants.SWORDSMAN_FOOD_COST;
+                default -> Constants.KNIGHT_FOOD_COST;
+            };
+            int upkeep = switch (type) {
+                case "Peasant" -> Constants.PEASANT_MAINTENANCE_COST;
+                case "Spearman" -> Constants.SPEARMAN_MAINTENANCE_COST;
+                case "Swordsman" -> Constants.SWORDSMAN_MAINTENANCE_COST;
+                default -> Constants.KNIGHT_MAINTENANCE_COST;
+            };
+            if (!player.canTrainUnit(type) || !player.getResourceHandler().canAfford(gold + RESERVE_GOLD, food)
+                    || netIncome(board, player) - upkeep < MIN_NET_INCOME) return null;
+            List<Point> tiles = new ArrayList<>();
+            for (Structure structure : board.getStructuresForPlayer(player)) {
+                List<Point> directions;
+                if (type.equals("Peasant") && structure instanceof TownHall) {
+                    directions = List.of(new Point(-1, 0), new Point(1, 0), new Point(0, -1), new Point(0, 1));
+                } else if (!type.equals("Peasant") && structure instanceof Barrack barrack) {
+                    directions = barrack.getValidUnitPlacementDirections();
+                } else {
+                    continue;
+                }
+                for (Point direction : directions) {
+                    GameTile tile = board.getTile(structure.getX() + direction.x, structure.getY() + direction.y);
+                    if (tile != null && !tile.isOccupied() && tile.block.isBuildable()) {
+                        tiles.add(new Point(structure.getX() + direction.x, structure.getY() + direction.y));
+                    }
+                }
+            }
+            if (tiles.isEmpty()) return null;
+            Point tile = tiles.get(random.nextInt(tiles.size()));
+            return new GameCommand.Train(type, tile.x, tile.y);
+        }
+
+        // Lets a unit that has not acted attack a target in range, or else move, mostly towards the nearest target
+        private GameCommand act(GameBoard board, Player player) {
+            List<Unit> units = new ArrayList<>(board.getUnitsForPlayer(player));
+            units.removeIf(Unit::hasActedThisTurn);
+            if (units.isEmpty()) return null;
+            Unit unit = units.get(random.nextInt(units.size()));
+            GameEntity target = findTarget(board, unit);
+            if (target != null) {
+                return new GameCommand.Attack(unit.getX(), unit.getY(), target.getX(), target.getY());
+            }
+            int range = unit.getMovementRange();
+            GameEntity enemy = random.nextInt(10) < 6 ? nearestTarget(board, unit) : null;
+            int toX = -1;
+            int toY = -1;
+            int best = Integer.MAX_VALUE;
+            for (int dx = -range; dx <= range; dx++) {
+                for (int dy = -range; dy <= range; dy++) {
+                    if ((dx == 0 && dy == 0) || Math.abs(dx) + Math.abs(dy) > range) continue;
+                    int x = unit.getX() + dx;
+                    int y = unit.getY() + dy;
+                    GameTile tile = board.getTile(x, y);
+                    if (tile == null || tile.isOccupied() || tile.block instanceof VoidBlock) continue;
+                    int score = enemy != null ? Math.abs(enemy.getX() - x) + Math.abs(enemy.getY() - y) : random.nextInt(1000);
+                    if (score < best) {
+                        best = score;
+                        toX = x;
+                        toY = y;
+                    }
+                }
+            }
+            if (toX < 0) return null;
+            return random.nextBoolean()
+                    ? new GameCommand.Move(unit.getX(), unit.getY(), toX, toY)
+                    : new GameCommand.Step(unit.getX(), unit.getY(), toX, toY);
+        }
+
+        // Finds the enemy unit or military structure closest to a unit, or null if there is none
+        private GameEntity nearestTarget(GameBoard board, Unit unit) {
+            GameEntity nearest = null;
+            int best = Integer.MAX_VALUE;
+            for (Player other : game.getPlayers()) {
+                if (other == unit.getOwner()) continue;
+                List<GameEntity> entities = new ArrayList<>(board.getUnitsForPlayer(other));
+                entities.addAll(board.getStructuresForPlayer(other));
+                for (GameEntity entity : entities) {
+                    if (!isTarget(entity, unit)) continue;
+                    int distance = Math.abs(entity.getX() - unit.getX()) + Math.abs(entity.getY() - unit.getY());
+                    if (distance < best) {
+                        best = distance;
+                        nearest = entity;
+                    }
+                }
+            }
+            return nearest;
+        }
+
+        // Whether the player can pay a gold cost and keep the reserve
+        private static boolean canSpend(Player player, int gold) {
+            return player.getResourceHandler().getGold() >= gold + RESERVE_GOLD;
+        }
+
+        // Gold the player's Markets bring in over a turn, less the upkeep of its structures and units
+        private static int netIncome(GameBoard board, Player player) {
+            int net = 0;
+            for (Structure structure : board.getStructuresForPlayer(player)) {
+                if (structure instanceof Market market) net += TICKS_PER_TURN * market.getGoldProduction();
+                net -= structure.getMaintenanceCost();
+            }
+            for (Unit unit : board.getUnitsForPlayer(player)) net -= unit.getMaintenanceCost();
+            return net;
+        }
+
+        // Counts the player's structures of one type
+        private static int count(GameBoard board, Player player, String type) {
+            int count = 0;
+            for (Structure structure : board.getStructuresForPlayer(player)) {
+                if (structure.getClass().getSimpleName().equals(type)) count++;
+            }
+            return count;
+        }
+    }
+
+    // Finds an enemy unit or military structure within the unit's attack range
+    private static GameEntity findTarget(GameBoard board, Unit unit) {
+        int range = unit.getAttackRange();
+        for (int dx = -range; dx <= range; dx++) {
+            for (int dy = -range; dy <= range; dy++) {
+                if (Math.abs(dx) + Math.abs(dy) > range) continue;
+                GameTile tile = board.getTile(unit.getX() + dx, unit.getY() + dy);
+                if (tile != null && tile.getEntity() != null && isTarget(tile.getEntity(), unit)) {
+                    return tile.getEntity();
+                }
+            }
+        }
+        return null;
+    }
+
+    // Whether the bot lets a unit attack an entity: enemies only, and never a TownHall, Market or Farm
+    private static boolean isTarget(GameEntity entity, Unit unit) {
+        return entity.getOwner() != unit.getOwner()
+                && !(entity instanceof TownHall || entity instanceof Market || entity instanceof Farm);
+    }
+
+    // Counts the recorded commands per type
+    private static String describe(List<GameCommand> commands) {
+        Map<String, Integer> counts = new TreeMap<>();
+        for (GameCommand command : commands) {
+            counts.merge(command.getClass().getSimpleName(), 1, Integer::sum);
+        }
+        return counts.toString();
+    }
+}
@@ -0,0 +1,102 @@
+// SaveBenchmark.java
+// Command-line benchmark measuring how many rows per second the configured save backend writes.
+// Usage: java -Drealmwar.store=postgres com.realmwar.tools.SaveBenchmark [width] [height] [runs]
+// On PostgreSQL it compares batched INSERTs with the COPY path; other backends only have batching.
+
+package com.realmwar.tools;
+
+import com.realmwar.data.DatabaseManager;
+import com.realmwar.data.JdbcSaveStore;
+import com.realmwar.data.PostgresSaveStore;
+import com.realmwar.data.SaveStore;
+import com.realmwar.engine.GameBoard;
+import com.realmwar.engine.GameManager;
+import com.realmwar.model.Player;
+import com.realmwar.model.units.Peasant;
+
+import java.util.List;
+
+// Entry point for the save throughput benchmark
+public final class SaveBenchmark {
+    // Private constructor to prevent instantiation
+    private SaveBenchmark() {}
+
+    public static void main(String[] args) {
+        int width = args.length > 0 ? Integer.parseInt(args[0]) : 300;
+        int height = args.length > 1 ? Integer.parseInt(args[1]) : 300;
+        int runs = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        DatabaseManager.initializeDatabase();
+        SaveStore store = DatabaseManager.getStore();
+        GameManager game = createLargeGame(width, height);
+        long rows = countRows(game);
+        System.out.printf("Backend: %s, board %dx%d, %d rows per save, %d runs%n", store.getName(), width, height, rows, runs);
+
+        if (store instanceof PostgresSaveStore postgres) {
+            postgres.setUseCopy(false);
+            run("batch", store, game, rows, runs);
+            postgres.setUseCopy(true);
+            run("copy", store, game, rows, runs);
+        } else {
+            run(store instanceof JdbcSaveStore ? "batch" : "save", store, game, rows, runs);
+        }
+    }
+
+    // Times a number of saves (after one warm-up) and prints the average throughput
+    private static void run(String mode, SaveStore store, GameManager game, long rows, int runs) {
+        String prefix = "benchmark_" + mode + "_" + System.currentTimeMillis() + "_";
+        save(store, game, prefix + "warmup");
+        long totalNanos = 0;
+        for (int i = 0; i < runs; i++) {
+            String name = prefix + i;
+            long start = System.nanoTime();
+            boolean ok = store.saveGame(game, name);
+            totalNanos += System.nanoTime() - start;
+            store.deleteSave(name);
+            if (!ok) {
+                System.out.println(mode + ": save failed, see the log");
+                return;
+            }
+        }
+        double avgMillis = totalNanos / 1e6 / runs;
+        System.out.printf("%-6s avg %.1f ms per save, %.0f rows/s%n", mode, avgMillis, rows / (avgMillis / 1000.0));
+    }
+
+    // Saves and immediately deletes one save, used for warming up connections and JIT
+    private static void save(SaveStore store, GameManager game, String name) {
+        store.saveGame(game, name);
+        store.deleteSave(name);
+    }
+
+    // Builds a game on a large board with a unit on roughly every tenth tile
+    private static GameManager createLargeGame(int width, int height) {
+        GameManager game = new GameManager(List.of("Player 1", "Player 2"), width, height);
+        GameBoard board = game.getGameBoard();
+        List<Player> players = game.getPlayers();
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                Player owner = players.get((x + y) % players.size());
+                board.setTerritory(owner, x, y);
+                if ((x * 31 + y * 17) % 10 == 0 && !board.getTile(x, y).isOccupied()) {
+                    board.placeEntity(new Peasant(owner, x, y), x, y);
+                }
+            }
+        }
+        return game;
+    }
+
+    // Counts the rows a save of this game writes across all tables
+    private static long countRows(GameManager game) {
+        GameBoard board = game.getGameBoard();
+        long rows = 1 + (long) board.width * board.height;
+        for (int x = 0; x < board.width; x++) {
+            for (int y = 0; y < board.height; y++) {
+                if (board.getTile(x, y).isOccupied()) rows++;
+            }
+        }
+        for (Player player : game.getPlayers()) {
+            rows += player.getUnitCounts().size() + 1;
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,44 @@
+// Config.java
+// Reads runtime configuration for the RealmWar game.
+// Values come from JVM system properties (-Drealmwar.store=sqlite) or, failing that, from environment
+// variables named after the property (REALMWAR_STORE), falling back to the supplied default.
+
+package com.realmwar.util;
+
+// Final class for configuration lookups, preventing instantiation
+public final class Config {
+    // Private constructor to prevent instantiation
+    private Config() {}
+
+    // Returns the configured string value for a key, or the default if it is not set
+    public static String get(String key, String defaultValue) {
+        String value = System.getProperty(key);
+        if (value == null || value.isBlank()) {
+            value = System.getenv(key.toUpperCase().replace('.', '_'));
+        }
+        return value == null || value.isBlank() ? defaultValue : value.trim();
+    }
+
+    // Returns the configured integer value for a key, or the default if it is missing or malformed
+    public static int getInt(String key, int defaultValue) {
+        try {
+            return Integer.parseInt(get(key, String.valueOf(defaultValue)));
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    // Returns the configured long value for a key, or the default if it is missing or malformed
+    public static long getLong(String key, long defaultValue) {
+        try {
+            return Long.parseLong(get(key, String.valueOf(defaultValue)));
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    // Returns the configured boolean value for a key, or the default if it is not set
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        return Boolean.parseBoolean(get(key, String.valueOf(defaultValue)));
+    }
+}
@@ -0,0 +1,41 @@
+// PlayerColors.java
+// The palette players are drawn in, shared by the board view and the save thumbnails.
+// Colors follow the seat names "Player 1" to "Player 4"; any other name is drawn in gray.
+
+package com.realmwar.util;
+
+import java.awt.Color;
+
+// Final class holding the player palette, preventing instantiation
+public final class PlayerColors {
+    // Player colors by seat name, with gray for anyone else last
+    private static final Color[] COLORS = {
+            new Color(173, 216, 230), // Light blue
+            new Color(255, 105, 97), // Coral
+            new Color(255, 209, 220), // Light pink
+            new Color(204, 153, 204), // Light purple
+            Color.GRAY
+    };
+    // Number of colors in the palette, including the gray fallback
+    public static final int COUNT = COLORS.length;
+
+    // Private constructor to prevent instantiation
+    private PlayerColors() {}
+
+    // Returns the palette index of a player, based on their name
+    public static int indexOf(String playerName) {
+        if (playerName == null) return COUNT - 1;
+        return switch (playerName) {
+            case "Player 1" -> 0;
+            case "Player 2" -> 1;
+            case "Player 3" -> 2;
+            case "Player 4" -> 3;
+            default -> COUNT - 1;
+        };
+    }
+
+    // Returns the color at a palette index
+    public static Color get(int index) {
+        return COLORS[index];
+    }
+}
@@ -0,0 +1,168 @@
+// AssetManager.java
+// Application-wide store of the RealmWar images under /assets.
+// preload decodes every image the game shows in parallel on background threads, so that the work overlaps the database
+// start-up and the setup dialog instead of blocking the first frame. Each image is decoded once per process and kept,
+// so switching games reuses it, and it is handed out converted to the screen's compatible format, ready to draw without
+// conversion. Asking for an image that is still being decoded waits for it; one never requested is decoded on demand.
+
+package com.realmwar.view;
+
+import javax.imageio.ImageIO;
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+// Shared image store; safe to use from any thread
+public final class AssetManager {
+
+    // Every image the game shows: the sprites, the resource icons and the window icon
+    private static final List<String> ASSETS = assetFiles();
+    // Seconds an idle decoding thread waits for more work before it ends
+    private static final long IDLE_SECONDS = 5;
+
+    // Decoded images by file name under /assets; a future completes with null if its image is missing or unreadable
+    private static final ConcurrentHashMap<String, CompletableFuture<BufferedImage>> images = new ConcurrentHashMap<>();
+    // Icons scaled from the images, by file name and size
+    private static final ConcurrentHashMap<String, ImageIcon> icons = new ConcurrentHashMap<>();
+    // Threads decoding the images; they end when idle and are started again on demand
+    private static final ExecutorService decoder = decoder();
+    // Number of preloaded images decoded so far, and whether preloading has started
+    private static final AtomicInteger loaded = new AtomicInteger();
+    private static boolean preloading;
+    // Listeners told of the preload progress; touched on the event dispatch thread only
+    private static final List<IntConsumer> progressListeners = new ArrayList<>();
+
+    // Private constructor to prevent instantiation
+    private AssetManager() {}
+
+    // Starts decoding every image the game shows in the background; later calls do nothing
+    public static synchronized void preload() {
+        if (preloading) return;
+        preloading = true;
+        for (String file : ASSETS) {
+            load(file).whenComplete((image, error) -> {
+                loaded.incrementAndGet();
+                SwingUtilities.invokeLater(AssetManager::fireProgress);
+            });
+        }
+    }
+
+    // Returns the number of images preload decodes
+    public static int getAssetCount() {
+        return ASSETS.size();
+    }
+
+    // Returns the number of preloaded images decoded so far
+    public static int getLoadedCount() {
+        return loaded.get();
+    }
+
+    // Registers a listener told the number of decoded images whenever another one is done; call on the EDT
+    public static void addProgressListener(IntConsumer listener) {
+        progressListeners.add(listener);
+    }
+
+    // Removes a listener registered with addProgressListener; call on the EDT
+    public static void removeProgressListener(IntConsumer listener) {
+        progressListeners.remove(listener);
+    }
+
+    // Tells the progress listeners the current count
+    private static void fireProgress() {
+        int count = loaded.get();
+        for (IntConsumer listener : new ArrayList<>(progressListeners)) {
+            listener.accept(count);
+        }
+    }
+
+    // Returns an image from /assets, waiting if it is still being decoded; null if it is missing or unreadable
+    public static BufferedImage getImage(String file) {
+        return load(file).join();
+    }
+
+    // Returns an image from /assets scaled to a square icon of the given size, or null if the image is unavailable
+    public static ImageIcon getIcon(String file, int size) {
+        return icons.computeIfAbsent(file + "@" + size, key -> {
+            BufferedImage image = getImage(file);
+            return image != null ? new ImageIcon(image.getScaledInstance(size, size, Image.SCALE_SMOOTH)) : null;
+        });
+    }
+
+    // Returns the decoding of an image, starting it if nobody asked for the image before
+    private static CompletableFuture<BufferedImage> load(String file) {
+        return images.computeIfAbsent(file, key -> CompletableFuture.supplyAsync(() -> decode(key), decoder));
+    }
+
+    // Reads one image and converts it to the compatible format; returns null if it is missing or unreadable
+    private static BufferedImage decode(String file) {
+        URL url = AssetManager.class.getResource("/assets/" + file);
+        if (url == null) {
+            System.err.println("Error loading asset image " + file + ". Make sure all images are in the src/assets folder.");
+            return null;
+        }
+        try {
+            BufferedImage image = ImageIO.read(url);
+            if (image == null) {
+                System.err.println("Error loading asset image " + file + ": unsupported format");
+                return null;
+            }
+            return compatible(image);
+        } catch (IOException e) {
+            System.err.println("Error loading asset image " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Copies a decoded image into the default screen's pixel format, or into plain int ARGB pixels without a screen
+    private static BufferedImage compatible(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        BufferedImage copy = GraphicsEnvironment.isHeadless()
+                ? new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB)
+                : GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration()
+                        .createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+        Graphics2D g = copy.createGraphics();
+        g.setComposite(AlphaComposite.Src);
+        g.drawImage(image, 0, 0, null);
+        g.dispose();
+        return copy;
+    }
+
+    // Creates the decoding threads: one per processor, up to one per image, ending when idle
+    private static ExecutorService decoder() {
+        int threads = Math.max(1, Math.min(ASSETS.size(), Runtime.getRuntime().availableProcessors()));
+        AtomicInteger count = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, IDLE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "asset-loader-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    // Lists the images preload decodes; sprite PNGs only for sprites without vector art, as the rest are fallbacks
+    private static List<String> assetFiles() {
+        List<String> files = new ArrayList<>();
+        for (SpriteAtlas.Sprite sprite : SpriteAtlas.Sprite.values()) {
+            if (!SpriteCache.hasVectorArt(sprite)) files.add(sprite.file);
+        }
+        files.add(InfoPanel.GOLD_ICON);
+        files.add(InfoPanel.FOOD_ICON);
+        files.add(GameFrame.ICON);
+        return List.copyOf(files);
+    }
+}
@@ -0,0 +1,246 @@
+// BoardLayers.java
+// Cached background layers of the RealmWar board: terrain and territory, each kept in an offscreen image.
+// The layers cover the part of the board in the camera's view. Terrain never changes during a game, so its layer is
+// drawn again only when the view moves or zooms. The territory layer holds the semi-transparent owner overlays and is
+// redrawn only for visible tiles the board announced as changing whose owner differs from what the layer shows.
+// Both layers are VolatileImages when the panel is on screen, so painting the board background is two accelerated
+// image copies; they fall back to BufferedImages without a screen.
+
+package com.realmwar.view;
+
+import com.realmwar.engine.GameBoard;
+import com.realmwar.engine.GameTile;
+import com.realmwar.engine.TileChangeListener;
+import com.realmwar.model.Player;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import java.util.Arrays;
+import java.util.function.Function;
+
+// Layers of one board panel; used on the event dispatch thread only
+final class BoardLayers implements TileChangeListener {
+
+    // Fully transparent color used to clear territory cells
+    private static final Color CLEAR = new Color(0, 0, 0, 0);
+
+    // Overlay color per territory owner (alpha included)
+    private final Function<Player, Color> overlayColor;
+    // Board being shown, or null before the first attach
+    private GameBoard board;
+    // Tile size and board pixel at the layers' top left corner that the layers were drawn for
+    private int tileWidth;
+    private int tileHeight;
+    private int originX;
+    private int originY;
+    // Tiles covered by the layers: first column and row, and the column and row after the last
+    private int fromX;
+    private int fromY;
+    private int toX;
+    private int toY;
+    // Size of the layers in pixels
+    private int width;
+    private int height;
+    // Terrain fills and borders, and territory overlays on a transparent background
+    private final Layer terrain = new Layer(Transparency.OPAQUE);
+    private final Layer territory = new Layer(Transparency.TRANSLUCENT);
+    // Whether the layers must be redrawn completely, e.g. after switching boards
+    private boolean stale = true;
+    // Owner each territory cell currently shows (column-major index), and the cells announced as changing
+    private Player[] drawnOwner = new Player[0];
+    private boolean[] dirty = new boolean[0];
+    private int[] dirtyCells = new int[0];
+    private int dirtyCount;
+
+    // Constructor taking the territory overlay color of a player
+    BoardLayers(Function<Player, Color> overlayColor) {
+        this.overlayColor = overlayColor;
+    }
+
+    // Shows another board, listening to its tile changes instead of the previous board's
+    void attach(GameBoard board) {
+        if (board == this.board) return;
+        if (this.board != null) this.board.removeTileChangeListener(this);
+        this.board = board;
+        stale = true;
+        if (board == null) return;
+        int cells = board.width * board.height;
+        drawnOwner = new Player[cells];
+        dirty = new boolean[cells];
+        dirtyCells = new int[Math.min(cells, 64)];
+        dirtyCount = 0;
+        board.addTileChangeListener(this);
+    }
+
+    // Makes the next paint redraw both layers completely
+    void invalidate() {
+        stale = true;
+    }
+
+    // Remembers a tile whose territory owner may be about to change
+    @Override
+    public void tileChanging(GameTile tile) {
+        int index = tile.getX() * board.height + tile.getY();
+        if (dirty[index]) return;
+        dirty[index] = true;
+        if (dirtyCount == dirtyCells.length) {
+            dirtyCells = Arrays.copyOf(dirtyCells, dirtyCount * 2);
+        }
+        dirtyCells[dirtyCount++] = index;
+    }
+
+    // Brings both layers up to date for the camera's view and draws them; g draws in board pixels
+    void paint(Graphics2D g, Camera camera, GraphicsConfiguration configuration) {
+        if (board == null) return;
+        if (camera.getTileWidth() != tileWidth || camera.getTileHeight() != tileHeight
+                || camera.getOffsetX() != originX || camera.getOffsetY() != originY) {
+            tileWidth = camera.getTileWidth();
+            tileHeight = camera.getTileHeight();
+            originX = camera.getOffsetX();
+            originY = camera.getOffsetY();
+            stale = true;
+        }
+        fromX = camera.firstVisibleX();
+        fromY = camera.firstVisibleY();
+        toX = camera.endVisibleX();
+        toY = camera.endVisibleY();
+        width = camera.getVisibleWidth();
+        height = camera.getVisibleHeight();
+        // A VolatileImage can lose its contents at any time; redraw until a copy succeeded with both intact
+        do {
+            if (terrain.validate(configuration, width, height) || stale) {
+                drawTerrain(terrain.createGraphics());
+            }
+            if (territory.validate(configuration, width, height) || stale) {
+                drawTerritory(territory.createGraphics());
+            } else if (dirtyCount > 0) {
+                updateTerritory(territory.createGraphics());
+            }
+            stale = false;
+            g.drawImage(terrain.image(), originX, originY, null);
+            g.drawImage(territory.image(), originX, originY, null);
+        } while (terrain.contentsLost() || territory.contentsLost());
+    }
+
+    // Draws the terrain fill and border of every visible tile
+    private void drawTerrain(Graphics2D g) {
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.translate(-originX, -originY);
+        for (int x = fromX; x < toX; x++) {
+            for (int y = fromY; y < toY; y++) {
+                Color baseColor = board.getTile(x, y).block.getColor();
+                g.setColor(baseColor);
+                g.fillRect(x * tileWidth, y * tileHeight, tileWidth, tileHeight);
+                g.setColor(RenderResources.terrainBorder(baseColor));
+                g.drawRect(x * tileWidth, y * tileHeight, tileWidth - 1, tileHeight - 1);
+            }
+        }
+        g.dispose();
+    }
+
+    // Clears the territory layer and draws the overlay of every visible owned tile
+    private void drawTerritory(Graphics2D g) {
+        g.setComposite(AlphaComposite.Src);
+        g.setColor(CLEAR);
+        g.fillRect(0, 0, width, height);
+        g.translate(-originX, -originY);
+        for (int x = fromX; x < toX; x++) {
+            for (int y = fromY; y < toY; y++) {
+                Player owner = board.getTile(x, y).getTerritoryOwner();
+                drawnOwner[x * board.height + y] = owner;
+                if (owner != null) drawCell(g, x, y, owner);
+            }
+        }
+        clearDirty();
+        g.dispose();
+    }
+
+    // Redraws the visible cells announced as changing whose owner is no longer the one shown
+    // Cells out of view are only forgotten; moving the view redraws the whole layer anyway
+    private void updateTerritory(Graphics2D g) {
+        g.setComposite(AlphaComposite.Src);
+        g.translate(-originX, -originY);
+        for (int i = 0; i < dirtyCount; i++) {
+            int index = dirtyCells[i];
+            int x = index / board.height;
+            int y = index % board.height;
+            if (x < fromX || x >= toX || y < fromY || y >= toY) continue;
+            Player owner = board.getTile(x, y).getTerritoryOwner();
+            if (owner != drawnOwner[index]) {
+                drawnOwner[index] = owner;
+                drawCell(g, x, y, owner);
+            }
+        }
+        clearDirty();
+        g.dispose();
+    }
+
+    // Replaces one cell of the territory layer; the tile border is left uncovered, as it is drawn over the overlay
+    private void drawCell(Graphics2D g, int x, int y, Player owner) {
+        g.setColor(owner != null ? overlayColor.apply(owner) : CLEAR);
+        g.fillRect(x * tileWidth + 1, y * tileHeight + 1, tileWidth - 2, tileHeight - 2);
+    }
+
+    // Forgets the changed cells after the territory layer caught up with them
+    private void clearDirty() {
+        for (int i = 0; i < dirtyCount; i++) {
+            dirty[dirtyCells[i]] = false;
+        }
+        dirtyCount = 0;
+    }
+
+    // One offscreen layer, a VolatileImage when a graphics configuration is available and a BufferedImage otherwise
+    private static final class Layer {
+        // Transparency the layer is created with
+        private final int transparency;
+        // Current backing image; only one of the two is set
+        private VolatileImage volatileImage;
+        private BufferedImage bufferedImage;
+
+        // Constructor taking the transparency of the layer's images
+        Layer(int transparency) {
+            this.transparency = transparency;
+        }
+
+        // Makes the layer usable at the given size; returns true if its contents are gone and must be redrawn
+        boolean validate(GraphicsConfiguration configuration, int width, int height) {
+            if (configuration == null) {
+                if (volatileImage != null) {
+                    volatileImage.flush();
+                    volatileImage = null;
+                }
+                if (bufferedImage != null && bufferedImage.getWidth() == width && bufferedImage.getHeight() == height) {
+                    return false;
+                }
+                bufferedImage = new BufferedImage(width, height,
+                        transparency == Transparency.OPAQUE ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+                return true;
+            }
+            bufferedImage = null;
+            if (volatileImage != null && volatileImage.getWidth() == width && volatileImage.getHeight() == height) {
+                int status = volatileImage.validate(configuration);
+                if (status == VolatileImage.IMAGE_OK) return false;
+                if (status == VolatileImage.IMAGE_RESTORED) return true;
+            }
+            if (volatileImage != null) volatileImage.flush();
+            volatileImage = configuration.createCompatibleVolatileImage(width, height, transparency);
+            return true;
+        }
+
+        // Returns a graphics context drawing into the layer
+        Graphics2D createGraphics() {
+            return volatileImage != null ? volatileImage.createGraphics() : bufferedImage.createGraphics();
+        }
+
+        // Returns the backing image
+        Image image() {
+            return volatileImage != null ? volatileImage : bufferedImage;
+        }
+
+        // Whether the layer lost its contents since it was last validated
+        boolean contentsLost() {
+            return volatileImage != null && volatileImage.contentsLost();
+        }
+    }
+}
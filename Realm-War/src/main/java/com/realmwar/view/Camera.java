@@ -0,0 +1,158 @@
+// Camera.java
+// Viewport onto the RealmWar board: the zoom level and the part of the board shown in the panel.
+// Zoom 1 fits the whole board into the panel, as the board was always drawn; zooming in enlarges the tiles and the
+// panel shows a window of the board at a pixel offset, which panning moves. All conversions between panel pixels,
+// board pixels and tiles go through the camera, so painting, clicks and repaints agree on what is where.
+
+package com.realmwar.view;
+
+// Camera of one board panel; used on the event dispatch thread only
+final class Camera {
+
+    // Largest tile size zooming in can reach, in pixels
+    static final int MAX_TILE_SIZE = 128;
+
+    // Zoom factor relative to the tile size that fits the whole board
+    private double zoom = 1;
+    // Board pixel shown at the top left corner of the viewport
+    private int offsetX;
+    private int offsetY;
+    // Viewport size in pixels and board size in tiles, as of the last update
+    private int viewWidth;
+    private int viewHeight;
+    private int boardWidth;
+    private int boardHeight;
+    // Current tile size in pixels
+    private int tileWidth = 1;
+    private int tileHeight = 1;
+
+    // Adapts the camera to the viewport and board size, keeping the view inside the board
+    void update(int viewWidth, int viewHeight, int boardWidth, int boardHeight) {
+        this.viewWidth = viewWidth;
+        this.viewHeight = viewHeight;
+        this.boardWidth = boardWidth;
+        this.boardHeight = boardHeight;
+        tileWidth = Math.max(1, (int) (viewWidth / (double) boardWidth * zoom));
+        tileHeight = Math.max(1, (int) (viewHeight / (double) boardHeight * zoom));
+        clamp();
+    }
+
+    // Zooms by a factor, keeping the board point under the anchor (viewport pixels) in place
+    void zoom(double factor, int anchorX, int anchorY) {
+        if (boardWidth == 0) return;
+        double fitSize = Math.min(viewWidth / (double) boardWidth, viewHeight / (double) boardHeight);
+        double maxZoom = Math.max(1, MAX_TILE_SIZE / Math.max(fitSize, 1e-9));
+        double newZoom = Math.max(1, Math.min(maxZoom, zoom * factor));
+        if (newZoom == zoom) return;
+        // Board position under the anchor, in tiles
+        double tileX = (offsetX + anchorX) / (double) tileWidth;
+        double tileY = (offsetY + anchorY) / (double) tileHeight;
+        zoom = newZoom;
+        update(viewWidth, viewHeight, boardWidth, boardHeight);
+        offsetX = (int) Math.round(tileX * tileWidth) - anchorX;
+        offsetY = (int) Math.round(tileY * tileHeight) - anchorY;
+        clamp();
+    }
+
+    // Sets the zoom factor, keeping the centre of the viewport in place
+    void setZoom(double zoom) {
+        this.zoom(zoom / this.zoom, viewWidth / 2, viewHeight / 2);
+    }
+
+    // Moves the view by a number of pixels
+    void pan(int dx, int dy) {
+        offsetX += dx;
+        offsetY += dy;
+        clamp();
+    }
+
+    // Centres the view on a tile as far as the board edges allow
+    void centerOn(int tileX, int tileY) {
+        offsetX = tileX * tileWidth + tileWidth / 2 - viewWidth / 2;
+        offsetY = tileY * tileHeight + tileHeight / 2 - viewHeight / 2;
+        clamp();
+    }
+
+    // Goes back to showing the whole board
+    void reset() {
+        zoom = 1;
+        offsetX = 0;
+        offsetY = 0;
+        if (boardWidth > 0) update(viewWidth, viewHeight, boardWidth, boardHeight);
+    }
+
+    // Keeps the offset within the board; a board smaller than the viewport is shown from its top left corner
+    private void clamp() {
+        offsetX = Math.max(0, Math.min(offsetX, boardWidth * tileWidth - viewWidth));
+        offsetY = Math.max(0, Math.min(offsetY, boardHeight * tileHeight - viewHeight));
+    }
+
+    // Returns the tile column under a viewport x coordinate, or -1 if there is none
+    int tileX(int viewX) {
+        if (viewX < 0 || viewX >= viewWidth) return -1;
+        int x = (viewX + offsetX) / tileWidth;
+        return x < boardWidth ? x : -1;
+    }
+
+    // Returns the tile row under a viewport y coordinate, or -1 if there is none
+    int tileY(int viewY) {
+        if (viewY < 0 || viewY >= viewHeight) return -1;
+        int y = (viewY + offsetY) / tileHeight;
+        return y < boardHeight ? y : -1;
+    }
+
+    // Returns the first tile column in view
+    int firstVisibleX() {
+        return offsetX / tileWidth;
+    }
+
+    // Returns the first tile row in view
+    int firstVisibleY() {
+        return offsetY / tileHeight;
+    }
+
+    // Returns the tile column after the last one in view
+    int endVisibleX() {
+        return Math.min(boardWidth, (offsetX + viewWidth + tileWidth - 1) / tileWidth);
+    }
+
+    // Returns the tile row after the last one in view
+    int endVisibleY() {
+        return Math.min(boardHeight, (offsetY + viewHeight + tileHeight - 1) / tileHeight);
+    }
+
+    // Returns the current zoom factor (1 shows the whole board)
+    double getZoom() {
+        return zoom;
+    }
+
+    // Returns the current tile width in pixels
+    int getTileWidth() {
+        return tileWidth;
+    }
+
+    // Returns the current tile height in pixels
+    int getTileHeight() {
+        return tileHeight;
+    }
+
+    // Returns the board x pixel shown at the viewport's left edge
+    int getOffsetX() {
+        return offsetX;
+    }
+
+    // Returns the board y pixel shown at the viewport's top edge
+    int getOffsetY() {
+        return offsetY;
+    }
+
+    // Returns the width of the part of the viewport the board covers
+    int getVisibleWidth() {
+        return Math.min(viewWidth, boardWidth * tileWidth);
+    }
+
+    // Returns the height of the part of the viewport the board covers
+    int getVisibleHeight() {
+        return Math.min(viewHeight, boardHeight * tileHeight);
+    }
+}
@@ -0,0 +1,139 @@
+// EdtWatchdog.java
+// Detects stalls of the Swing event dispatch thread in the RealmWar UI.
+// install pushes an event queue that notes when each event handler starts and ends, and starts a daemon thread that
+// checks it several times per threshold. A handler still running after realmwar.ui.stallMillis (default 250, 0 turns
+// the watchdog off) is logged once with the dispatch thread's stack, which shows the code it is stuck in, and again
+// with its total time when it returns. A modal dialog waiting for input runs its own event loop inside a handler;
+// while that loop is idle the thread waits for the next event, which is not counted as a stall.
+
+package com.realmwar.view;
+
+import com.realmwar.data.GameLogger;
+import com.realmwar.data.LogCategory;
+import com.realmwar.data.LogLevel;
+import com.realmwar.util.Config;
+
+import java.awt.*;
+import java.awt.event.InvocationEvent;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Watchdog of the event dispatch thread; one per process
+public final class EdtWatchdog {
+
+    // Time a handler may take before it counts as a stall, in milliseconds
+    private static final long STALL_MILLIS = Config.getLong("realmwar.ui.stallMillis", 250);
+    // Most stack frames logged per stall
+    private static final int STACK_DEPTH = 40;
+
+    // Dispatch thread, event being handled and when it started (0 while waiting for events); written on the EDT only
+    private static volatile Thread dispatchThread;
+    private static volatile AWTEvent currentEvent;
+    private static volatile long busySince;
+    // Counts stretches of handler work; a stretch ends whenever a handler starts or returns, and is reported once
+    private static volatile long stretch;
+    private static volatile long reportedStretch = -1;
+    // Stalls reported since the watchdog was installed
+    private static final AtomicInteger stalls = new AtomicInteger();
+    // Whether install already ran
+    private static boolean installed;
+
+    // Private constructor to prevent instantiation
+    private EdtWatchdog() {}
+
+    // Starts watching the event dispatch thread, unless the threshold is 0; later calls do nothing
+    public static synchronized void install() {
+        if (installed || STALL_MILLIS <= 0) return;
+        installed = true;
+        Toolkit.getDefaultToolkit().getSystemEventQueue().push(new TimedEventQueue());
+        Thread thread = new Thread(EdtWatchdog::watch, "edt-watchdog");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // Returns the number of stalls reported so far
+    public static int getStallCount() {
+        return stalls.get();
+    }
+
+    // Checks a few times per threshold whether the current handler has been running too long
+    private static void watch() {
+        long interval = Math.max(10, STALL_MILLIS / 4);
+        while (true) {
+            try {
+                Thread.sleep(interval);
+            } catch (InterruptedException e) {
+                return;
+            }
+            long since = busySince;
+            long checked = stretch;
+            if (since == 0 || checked == reportedStretch) continue;
+            long millis = (System.nanoTime() - since) / 1_000_000;
+            if (millis < STALL_MILLIS) continue;
+            Thread thread = dispatchThread;
+            StackTraceElement[] stack = thread.getStackTrace();
+            // The handler returned or the thread went back to waiting for events while the stack was taken
+            if (checked != stretch || waitingForEvents(stack)) continue;
+            reportedStretch = checked;
+            stalls.incrementAndGet();
+            GameLogger.log(LogLevel.WARN, LogCategory.UI, "Event dispatch thread stalled for {} ms handling {}:{}",
+                    millis, describe(currentEvent), format(stack));
+        }
+    }
+
+    // Whether a stack shows the dispatch thread waiting for the next event, e.g. in a modal dialog's event loop
+    private static boolean waitingForEvents(StackTraceElement[] stack) {
+        for (StackTraceElement frame : stack) {
+            if (frame.getClassName().equals("java.awt.EventQueue") && frame.getMethodName().equals("getNextEvent")) return true;
+            // Above the first handler frame the thread is busy, whatever it waits for
+            if (frame.getClassName().equals("java.awt.EventQueue") && frame.getMethodName().equals("dispatchEvent")) return false;
+        }
+        return false;
+    }
+
+    // Describes an event: its type and, for invokeLater and timer callbacks, the code it runs
+    private static String describe(AWTEvent event) {
+        if (event == null) return "an unknown event";
+        if (event instanceof InvocationEvent) return event.paramString();
+        return event.getClass().getSimpleName() + " on " + event.getSource().getClass().getSimpleName();
+    }
+
+    // Formats the handler's part of a stack, one frame per line; the event queue and thread frames below it are left out
+    private static String format(StackTraceElement[] stack) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < stack.length && !stack[i].getClassName().equals("java.awt.EventQueue"); i++) {
+            if (i == STACK_DEPTH) {
+                builder.append("\n\t...");
+                break;
+            }
+            builder.append("\n\tat ").append(stack[i]);
+        }
+        return builder.toString();
+    }
+
+    // Event queue noting the start and end of every handler
+    private static final class TimedEventQueue extends EventQueue {
+        @Override
+        protected void dispatchEvent(AWTEvent event) {
+            dispatchThread = Thread.currentThread();
+            AWTEvent outerEvent = currentEvent;
+            long outerSince = busySince;
+            currentEvent = event;
+            busySince = System.nanoTime();
+            stretch++;
+            try {
+                super.dispatchEvent(event);
+            } finally {
+                long ended = System.nanoTime();
+                // The stretch ending here was reported as a stall; log how long it lasted in the end
+                if (reportedStretch == stretch) {
+                    GameLogger.log(LogLevel.INFO, LogCategory.UI, "Stalled handler of {} returned after {} ms.",
+                            describe(event), (ended - busySince) / 1_000_000);
+                }
+                // A nested handler, e.g. one run by a modal dialog, hands the thread back to the handler that opened it
+                currentEvent = outerEvent;
+                busySince = outerSince == 0 ? 0 : ended;
+                stretch++;
+            }
+        }
+    }
+}
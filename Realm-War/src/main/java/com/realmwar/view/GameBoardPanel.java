@@ -3,17 +3,25 @@ package com.realmwar.view;
 import com.realmwar.engine.GameBoard;
 import com.realmwar.engine.GameManager;
 import com.realmwar.engine.GameTile;
+import com.realmwar.engine.TileChangeListener;
+import com.realmwar.engine.command.GameCommand;
 import com.realmwar.model.GameEntity;
 import com.realmwar.model.Player;
 import com.realmwar.model.structures.*;
 import com.realmwar.model.units.*;
+import com.realmwar.util.Config;
 
-import javax.imageio.ImageIO;
 import javax.swing.*;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
 import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.io.IOException;
+import java.awt.event.MouseWheelEvent;
+import java.awt.geom.Rectangle2D;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
@@ -25,30 +33,35 @@ public class GameBoardPanel extends JPanel {
     // Currently selected entity
     private GameEntity selectedEntity;
     // Reference to the game manager
-    private final GameManager gameManager;
-    // Reference to the game frame for UI updates
+    private GameManager gameManager;
+    // Reference to the game frame for UI updates; null for a read-only board, e.g. in the replay viewer
     private final GameFrame gameFrame;
     // Coordinates of the currently selected tile
     private int selectedX = -1;
     private int selectedY = -1;
 
-    // Images for rendering units and structures
-    private Image peasantImage;
-    private Image spearmanImage;
-    private Image swordsmanImage;
-    private Image knightImage;
-    private Image farmImage;
-    private Image barrackImage;
-    private Image marketImage;
-    private Image townhallImage;
-    private Image towerImage;
-
-    // Player colors for visualization
-    private static final Color PLAYER1_COLOR = new Color(173, 216, 230); // Light blue
-    private static final Color PLAYER2_COLOR = new Color(255, 105, 97); // Coral
-    private static final Color PLAYER3_COLOR = new Color(255, 209, 220); // Light pink
-    private static final Color PLAYER4_COLOR = new Color(204, 153, 204); // Light purple
-    private static final Color SHADOW_COLOR = new Color(0, 0, 0, 50); // Semi-transparent shadow
+    // Unit and structure images, pre-scaled to the current tile size
+    private final SpriteAtlas spriteAtlas = new SpriteAtlas();
+    // Cached terrain and territory layers, and whether painting uses them (realmwar.render.cachedLayers)
+    private final BoardLayers boardLayers = new BoardLayers(RenderResources::territoryColor);
+    private boolean cachedLayers = Config.getBoolean("realmwar.render.cachedLayers", true);
+    // Listener scheduling a repaint of every tile the board changes
+    private final TileChangeListener repaintListener = tile -> repaintTile(tile.getX(), tile.getY());
+    // Tile on which the selected unit highlight was last drawn, or -1 if none
+    private int shownUnitX = -1;
+    private int shownUnitY = -1;
+    // Zoom and visible part of the board, the zoom factor of one wheel notch or key press, and tiles per scroll key press
+    private final Camera camera = new Camera();
+    private static final double ZOOM_STEP = 1.15;
+    private static final int SCROLL_TILES = 2;
+    // Event sent to view listeners, created on first use
+    private ChangeEvent viewChangeEvent;
+    // Reused for the insets and clip bounds of each paint and the filled part of each health bar
+    private final Insets paintInsets = new Insets(0, 0, 0, 0);
+    private final Rectangle clip = new Rectangle();
+    // Overlay told the duration of each paint, or null if none
+    private PerformanceOverlay performanceOverlay;
+
     // List of tiles where the selected unit can move
     private List<Point> movableTiles = new ArrayList<>();
 
@@ -61,34 +74,50 @@ public class GameBoardPanel extends JPanel {
         setBackground(new Color(250, 240, 230)); // Light cream background
         setBorder(BorderFactory.createEmptyBorder(15, 5, 5, 5));
 
-        // Load asset images for units and structures
-        loadAssetImages();
+        // Add mouse listener for handling tile clicks, dragging to pan and the wheel to zoom
+        MouseAdapter mouseHandler = new MouseAdapter() {
+            // Last mouse position of a drag, and whether the mouse moved since it was pressed
+            private int dragX;
+            private int dragY;
+            private boolean dragged;
 
-        // Add mouse listener for handling tile clicks
-        addMouseListener(new MouseAdapter() {
             @Override
-            public void mouseClicked(MouseEvent e) {
-                if (gameBoard == null) return;
+            public void mousePressed(MouseEvent e) {
+                dragX = e.getX();
+                dragY = e.getY();
+                dragged = false;
+            }
 
-                // Calculate drawable area considering insets
-                Insets insets = getInsets();
-                int drawableWidth = getWidth() - insets.left - insets.right;
-                int drawableHeight = getHeight() - insets.top - insets.bottom;
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                if (!updateCamera()) return;
+                camera.pan(dragX - e.getX(), dragY - e.getY());
+                dragX = e.getX();
+                dragY = e.getY();
+                dragged = true;
+                viewChanged();
+            }
 
-                if (drawableWidth <= 0 || drawableHeight <= 0) return;
+            @Override
+            public void mouseWheelMoved(MouseWheelEvent e) {
+                if (!updateCamera()) return;
+                camera.zoom(Math.pow(ZOOM_STEP, -e.getPreciseWheelRotation()), e.getX() - paintInsets.left, e.getY() - paintInsets.top);
+                viewChanged();
+            }
 
-                // Calculate tile dimensions
-                int tileWidth = drawableWidth / gameBoard.width;
-                int tileHeight = drawableHeight / gameBoard.height;
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (dragged || gameFrame == null || !updateCamera()) return;
 
-                // Adjust mouse coordinates for insets
-                int mouseX = e.getX() - insets.left;
-                int mouseY = e.getY() - insets.top;
+                // Map the click through the camera, adjusting mouse coordinates for insets
+                int tileX = camera.tileX(e.getX() - paintInsets.left);
+                int tileY = camera.tileY(e.getY() - paintInsets.top);
 
                 // Determine clicked tile
-                if (mouseX >= 0 && mouseX < drawableWidth && mouseY >= 0 && mouseY < drawableHeight) {
-                    selectedX = mouseX / tileWidth;
-                    selectedY = mouseY / tileHeight;
+                repaintTile(selectedX, selectedY);
+                if (tileX >= 0 && tileY >= 0) {
+                    selectedX = tileX;
+                    selectedY = tileY;
 
                     gameManager.setSelectedTile(selectedX, selectedY);
                     GameTile clickedTile = gameBoard.getTile(selectedX, selectedY);
@@ -100,11 +129,63 @@ public class GameBoardPanel extends JPanel {
                     selectedX = -1;
                     selectedY = -1;
                 }
-                repaint();
+                repaintTile(selectedX, selectedY);
+                repaintSelectedUnit();
+            }
+        };
+        addMouseListener(mouseHandler);
+        addMouseMotionListener(mouseHandler);
+        addMouseWheelListener(mouseHandler);
+        installKeyBindings();
+
+        // Resizing changes the tile size and may move the view
+        addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                if (updateCamera()) fireViewChanged();
             }
         });
     }
 
+    // Binds the arrow keys to scrolling, + and - to zooming and 0 to showing the whole board again
+    private void installKeyBindings() {
+        bindKey("LEFT", "scrollLeft", () -> scroll(-1, 0));
+        bindKey("RIGHT", "scrollRight", () -> scroll(1, 0));
+        bindKey("UP", "scrollUp", () -> scroll(0, -1));
+        bindKey("DOWN", "scrollDown", () -> scroll(0, 1));
+        bindKey("PLUS", "zoomIn", () -> zoomAtCenter(ZOOM_STEP));
+        bindKey("EQUALS", "zoomIn", () -> zoomAtCenter(ZOOM_STEP));
+        bindKey("ADD", "zoomIn", () -> zoomAtCenter(ZOOM_STEP));
+        bindKey("MINUS", "zoomOut", () -> zoomAtCenter(1 / ZOOM_STEP));
+        bindKey("SUBTRACT", "zoomOut", () -> zoomAtCenter(1 / ZOOM_STEP));
+        bindKey("0", "zoomReset", () -> setZoom(1));
+    }
+
+    // Binds a key, active whenever the panel's window has the focus, to an action
+    private void bindKey(String key, String name, Runnable action) {
+        getInputMap(WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke(key), name);
+        getActionMap().put(name, new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                action.run();
+            }
+        });
+    }
+
+    // Scrolls the view by SCROLL_TILES tiles in a direction
+    private void scroll(int dx, int dy) {
+        if (!updateCamera()) return;
+        camera.pan(dx * SCROLL_TILES * camera.getTileWidth(), dy * SCROLL_TILES * camera.getTileHeight());
+        viewChanged();
+    }
+
+    // Zooms by a factor around the centre of the view
+    private void zoomAtCenter(double factor) {
+        if (!updateCamera()) return;
+        camera.setZoom(camera.getZoom() * factor);
+        viewChanged();
+    }
+
     // Handles game actions based on clicked entity (selection, movement, attack, or merge)
     private void handleGameActions(GameEntity clickedEntity) {
         GameTile clickedTile = gameBoard.getTile(selectedX, selectedY);
@@ -138,14 +219,20 @@ public class GameBoardPanel extends JPanel {
             }
         } else {
             // Handle movement or attack
-            if (!currentSelectedUnit.hasActedThisTurn() && currentSelectedUnit.moveTo(clickedTile, gameBoard)) {
-                currentSelectedUnit.setHasActedThisTurn(true);
+            int fromX = currentSelectedUnit.getX();
+            int fromY = currentSelectedUnit.getY();
+            if (!currentSelectedUnit.hasActedThisTurn() && currentSelectedUnit.canMoveTo(clickedTile, gameBoard)) {
+                try {
+                    gameManager.dispatch(new GameCommand.Step(fromX, fromY, clickedTile.getX(), clickedTile.getY()));
+                } catch (Exception ex) {
+                    JOptionPane.showMessageDialog(this, ex.getMessage(), "Move Error", JOptionPane.ERROR_MESSAGE);
+                }
                 gameManager.setSelectedUnit(null);
                 clearHighlights();
                 gameFrame.updateView();
             } else if (clickedEntity != null && clickedEntity.getOwner() != gameManager.getCurrentPlayer()) {
                 try {
-                    gameManager.attackUnit(currentSelectedUnit, clickedEntity);
+                    gameManager.dispatch(new GameCommand.Attack(fromX, fromY, clickedEntity.getX(), clickedEntity.getY()));
                     gameManager.setSelectedUnit(null);
                     clearHighlights();
                     gameFrame.updateView();
@@ -169,107 +256,152 @@ public class GameBoardPanel extends JPanel {
 
     // Highlights tiles where the selected unit can move
     private void highlightMovableTiles(Unit unit) {
-        movableTiles.clear();
+        clearHighlights();
         for (int x = 0; x < gameBoard.width; x++) {
             for (int y = 0; y < gameBoard.height; y++) {
                 GameTile tile = gameBoard.getTile(x, y);
                 if (unit.canMoveTo(tile, gameBoard)) {
                     movableTiles.add(new Point(x, y));
+                    repaintTile(x, y);
                 }
             }
         }
-        repaint();
     }
 
     // Clears highlighted tiles
     private void clearHighlights() {
+        for (Point p : movableTiles) {
+            repaintTile(p.x, p.y);
+        }
         movableTiles.clear();
+    }
+
+    // Schedules a repaint of one tile, including the selection outlines drawn across its edges
+    private void repaintTile(int x, int y) {
+        if (x < 0 || y < 0 || !updateCamera()) return;
+        int tileWidth = camera.getTileWidth();
+        int tileHeight = camera.getTileHeight();
+        repaint(paintInsets.left + x * tileWidth - camera.getOffsetX() - 2, paintInsets.top + y * tileHeight - camera.getOffsetY() - 2,
+                tileWidth + 4, tileHeight + 4);
+    }
+
+    // Fits the camera to the panel's drawable area; returns false if there is no board or no room to draw it
+    private boolean updateCamera() {
+        if (gameBoard == null) return false;
+        Insets insets = getInsets(paintInsets);
+        int drawableWidth = getWidth() - insets.left - insets.right;
+        int drawableHeight = getHeight() - insets.top - insets.bottom;
+        if (drawableWidth <= 0 || drawableHeight <= 0) return false;
+        camera.update(drawableWidth, drawableHeight, gameBoard.width, gameBoard.height);
+        return true;
+    }
+
+    // Repaints the whole panel after the camera moved or zoomed and tells the view listeners
+    private void viewChanged() {
         repaint();
+        fireViewChanged();
     }
 
-    // Loads images for units and structures from assets
-    private void loadAssetImages() {
-        try {
-            peasantImage = ImageIO.read(getClass().getResource("/assets/peasant2.png"));
-            spearmanImage = ImageIO.read(getClass().getResource("/assets/spearman1.png"));
-            swordsmanImage = ImageIO.read(getClass().getResource("/assets/swordsman2.png"));
-            knightImage = ImageIO.read(getClass().getResource("/assets/knight2.png"));
-            townhallImage = ImageIO.read(getClass().getResource("/assets/townhall2.png"));
-            farmImage = ImageIO.read(getClass().getResource("/assets/farm2.png"));
-            barrackImage = ImageIO.read(getClass().getResource("/assets/barrack2.png"));
-            marketImage = ImageIO.read(getClass().getResource("/assets/market2.png"));
-            towerImage = ImageIO.read(getClass().getResource("/assets/tower2.png"));
-        } catch (IOException | IllegalArgumentException e) {
-            System.err.println("Error loading asset images. Make sure all images are in the src/assets folder.");
-            e.printStackTrace();
+    // Tells the view listeners that the visible part of the board or the board itself changed
+    private void fireViewChanged() {
+        Object[] listeners = listenerList.getListenerList();
+        for (int i = listeners.length - 2; i >= 0; i -= 2) {
+            if (listeners[i] == ChangeListener.class) {
+                if (viewChangeEvent == null) viewChangeEvent = new ChangeEvent(this);
+                ((ChangeListener) listeners[i + 1]).stateChanged(viewChangeEvent);
+            }
+        }
+    }
+
+    // Schedules a repaint of the old and new tile of the selected unit highlight if the selection moved
+    private void repaintSelectedUnit() {
+        Unit selectedUnit = gameManager.getSelectedUnit();
+        int x = selectedUnit != null ? selectedUnit.getX() : -1;
+        int y = selectedUnit != null ? selectedUnit.getY() : -1;
+        if (x != shownUnitX || y != shownUnitY) {
+            repaintTile(shownUnitX, shownUnitY);
+            repaintTile(x, y);
         }
     }
 
     // Paints the panel, rendering tiles, units, structures, and highlights
     @Override
     protected void paintComponent(Graphics g) {
+        long paintStart = System.nanoTime();
         super.paintComponent(g);
-        if (gameBoard == null) return;
 
-        Graphics2D g2d = (Graphics2D) g;
-        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        // Calculate drawable area and tile dimensions through the camera
+        if (!updateCamera()) return;
+        Insets insets = paintInsets;
+        int tileWidth = camera.getTileWidth();
+        int tileHeight = camera.getTileHeight();
+        spriteAtlas.prepare(tileWidth, tileHeight, getGraphicsConfiguration());
 
-        // Calculate drawable area
-        Insets insets = getInsets();
-        int drawableWidth = getWidth() - insets.left - insets.right;
-        int drawableHeight = getHeight() - insets.top - insets.bottom;
-
-        if (drawableWidth <= 0 || drawableHeight <= 0) return;
-
-        // Calculate tile dimensions
-        int tileWidth = drawableWidth / gameBoard.width;
-        int tileHeight = drawableHeight / gameBoard.height;
-
-        g.translate(insets.left, insets.top);
-
-        // Draw tiles with territory colors
-        for (int x = 0; x < gameBoard.width; x++) {
-            for (int y = 0; y < gameBoard.height; y++) {
-                drawTile(g2d, x, y, tileWidth, tileHeight);
+        // Draw in board pixels, clipped to the drawable area
+        Graphics2D g2d = (Graphics2D) g.create();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.translate(insets.left - camera.getOffsetX(), insets.top - camera.getOffsetY());
+        g2d.clipRect(camera.getOffsetX(), camera.getOffsetY(),
+                getWidth() - insets.left - insets.right, getHeight() - insets.top - insets.bottom);
+
+        // Only the tiles inside the clip need drawing: those in view, or the changed ones for a dirty-region repaint
+        g2d.getClipBounds(clip);
+        int fromX = Math.max(0, clip.x / tileWidth);
+        int fromY = Math.max(0, clip.y / tileHeight);
+        int toX = Math.min(gameBoard.width, (clip.x + clip.width) / tileWidth + 1);
+        int toY = Math.min(gameBoard.height, (clip.y + clip.height) / tileHeight + 1);
+
+        if (cachedLayers) {
+            // Copy the cached terrain and territory, then draw the entities on top
+            boardLayers.paint(g2d, camera, getGraphicsConfiguration());
+            for (int x = fromX; x < toX; x++) {
+                for (int y = fromY; y < toY; y++) {
+                    GameEntity entity = gameBoard.getTile(x, y).getEntity();
+                    if (entity != null) drawEntity(g2d, x, y, tileWidth, tileHeight, entity);
+                }
+            }
+        } else {
+            // Draw tiles with territory colors
+            for (int x = fromX; x < toX; x++) {
+                for (int y = fromY; y < toY; y++) {
+                    drawTile(g2d, x, y, tileWidth, tileHeight);
+                }
             }
         }
 
         // Draw selected tile highlight
         if (selectedX >= 0 && selectedY >= 0) {
-            g2d.setColor(new Color(255, 223, 100));
-            g2d.setStroke(new BasicStroke(2));
+            g2d.setColor(RenderResources.SELECTED_TILE);
+            g2d.setStroke(RenderResources.SELECTION_STROKE);
             g2d.drawRect(selectedX * tileWidth, selectedY * tileHeight, tileWidth, tileHeight);
         }
 
         // Draw selected unit highlight
         Unit selectedUnit = gameManager.getSelectedUnit();
+        shownUnitX = selectedUnit != null ? selectedUnit.getX() : -1;
+        shownUnitY = selectedUnit != null ? selectedUnit.getY() : -1;
         if (selectedUnit != null) {
             g2d.setColor(Color.RED);
-            g2d.setStroke(new BasicStroke(2));
+            g2d.setStroke(RenderResources.SELECTION_STROKE);
             g2d.drawRect(selectedUnit.getX() * tileWidth, selectedUnit.getY() * tileHeight, tileWidth, tileHeight);
         }
 
         // Draw movable tiles highlight
-        g2d.setColor(new Color(144, 238, 144, 128));
-        for (Point p : movableTiles) {
+        g2d.setColor(RenderResources.MOVABLE_TILE);
+        for (int i = 0; i < movableTiles.size(); i++) {
+            Point p = movableTiles.get(i);
             int drawX = p.x * tileWidth;
             int drawY = p.y * tileHeight;
             g2d.fillRect(drawX, drawY, tileWidth, tileHeight);
         }
 
-        g.translate(-insets.left, -insets.top);
+        g2d.dispose();
+        if (performanceOverlay != null) performanceOverlay.paintFinished(paintStart);
     }
 
-    // Gets the color for a player based on their name
-    private Color getPlayerColor(String playerName) {
-        if (playerName == null) return Color.GRAY;
-        return switch (playerName) {
-            case "Player 1" -> PLAYER1_COLOR;
-            case "Player 2" -> PLAYER2_COLOR;
-            case "Player 3" -> PLAYER3_COLOR;
-            case "Player 4" -> PLAYER4_COLOR;
-            default -> Color.GRAY;
-        };
+    // Sets the overlay told the duration of each paint; null for none
+    void setPerformanceOverlay(PerformanceOverlay performanceOverlay) {
+        this.performanceOverlay = performanceOverlay;
     }
 
     // Draws a single tile, including terrain, territory, and entity
@@ -284,55 +416,39 @@ public class GameBoardPanel extends JPanel {
 
         // If a territory exists, overlay a semi-transparent layer
         if (territoryOwner != null) {
-            Color territoryColor = getPlayerColor(territoryOwner.getName());
-            // Territory color with alpha 128 (semi-transparent) to preserve the underlying color
-            g2d.setColor(new Color(territoryColor.getRed(), territoryColor.getGreen(), territoryColor.getBlue(), 128));
+            g2d.setColor(RenderResources.territoryColor(territoryOwner));
             g2d.fillRect(x * tileWidth, y * tileHeight, tileWidth, tileHeight);
         }
 
         // Draw the tile border
-        g2d.setColor(baseColor.darker().darker());
+        g2d.setColor(RenderResources.terrainBorder(baseColor));
         g2d.drawRect(x * tileWidth, y * tileHeight, tileWidth - 1, tileHeight - 1);
 
         // Draw the entity (unit or structure)
         GameEntity entity = tile.getEntity();
         if (entity != null) {
-            if (entity instanceof Unit unit) {
-                drawUnit(g2d, x, y, tileWidth, tileHeight, unit);
-            } else if (entity instanceof Structure structure) {
-                drawStructure(g2d, x, y, tileWidth, tileHeight, structure);
-            }
+            drawEntity(g2d, x, y, tileWidth, tileHeight, entity);
+        }
+    }
+
+    // Draws the unit or structure standing on a tile
+    private void drawEntity(Graphics2D g2d, int x, int y, int tileWidth, int tileHeight, GameEntity entity) {
+        if (entity instanceof Unit unit) {
+            drawUnit(g2d, x, y, tileWidth, tileHeight, unit);
+        } else if (entity instanceof Structure structure) {
+            drawStructure(g2d, x, y, tileWidth, tileHeight, structure);
         }
     }
 
     // Draws a structure with its image and health bar
     private void drawStructure(Graphics2D g2d, int x, int y, int tileWidth, int tileHeight, Structure entity) {
-        Color baseColor = getPlayerColor(entity.getOwner().getName());
-        // Draw shadow
-        g2d.setColor(SHADOW_COLOR);
-        g2d.fillRoundRect(x * tileWidth + 7, y * tileHeight + 7, tileWidth - 10, tileHeight - 10, 15, 15);
-        // Draw structure
-        g2d.setColor(baseColor);
-        g2d.fillRoundRect(x * tileWidth + 3, y * tileHeight + 3, tileWidth - 6, tileHeight - 6, 12, 12);
-        g2d.setColor(baseColor.darker());
-        g2d.drawRoundRect(x * tileWidth + 3, y * tileHeight + 3, tileWidth - 6, tileHeight - 6, 12, 12);
+        // Draw shadow and structure
+        spriteAtlas.drawToken(g2d, entity.getOwner(), false, x * tileWidth, y * tileHeight);
 
         // Draw structure image
-        Image structureImage = null;
-        if (entity instanceof TownHall) structureImage = townhallImage;
-        else if (entity instanceof Farm) structureImage = farmImage;
-        else if (entity instanceof Barrack) structureImage = barrackImage;
-        else if (entity instanceof Market) structureImage = marketImage;
-        else if (entity instanceof Tower) structureImage = towerImage;
-
-        if (structureImage != null) {
-            int padding = (int) (tileWidth * 0.1);
-            g2d.drawImage(structureImage,
-                    x * tileWidth + padding,
-                    y * tileHeight + padding,
-                    tileWidth - (padding * 2),
-                    tileHeight - (padding * 2),
-                    null);
+        SpriteAtlas.Sprite sprite = SpriteAtlas.Sprite.of(entity);
+        if (sprite != null) {
+            spriteAtlas.draw(g2d, sprite, x * tileWidth, y * tileHeight);
         }
 
         // Draw health bar
@@ -341,69 +457,119 @@ public class GameBoardPanel extends JPanel {
 
     // Draws a unit with its image and health bar
     private void drawUnit(Graphics2D g2d, int x, int y, int tileWidth, int tileHeight, Unit entity) {
-        Color unitColor = getPlayerColor(entity.getOwner().getName());
-        // Draw shadow
-        g2d.setColor(SHADOW_COLOR);
-        g2d.fillOval(x * tileWidth + 7, y * tileHeight + 7, tileWidth - 10, tileHeight - 10);
-        // Draw unit
-        g2d.setColor(unitColor);
-        g2d.fillOval(x * tileWidth + 3, y * tileHeight + 3, tileWidth - 6, tileHeight - 6);
-        g2d.setColor(unitColor.darker());
-        g2d.drawOval(x * tileWidth + 3, y * tileHeight + 3, tileWidth - 6, tileHeight - 6);
+        // Draw shadow and unit
+        spriteAtlas.drawToken(g2d, entity.getOwner(), true, x * tileWidth, y * tileHeight);
 
         // Draw unit image
-        Image unitImage = null;
-        if (entity instanceof Peasant) unitImage = peasantImage;
-        else if (entity instanceof Spearman) unitImage = spearmanImage;
-        else if (entity instanceof Swordsman) unitImage = swordsmanImage;
-        else if (entity instanceof Knight) unitImage = knightImage;
-
-        if (unitImage != null) {
-            int padding = (int) (tileWidth * 0.15);
-            g2d.drawImage(unitImage,
-                    x * tileWidth + padding,
-                    y * tileHeight + padding,
-                    tileWidth - (padding * 2),
-                    tileHeight - (padding * 2),
-                    null);
+        SpriteAtlas.Sprite sprite = SpriteAtlas.Sprite.of(entity);
+        if (sprite != null) {
+            spriteAtlas.draw(g2d, sprite, x * tileWidth, y * tileHeight);
         }
 
         // Draw health bar
         drawHealthBar(g2d, x, y, tileWidth, tileHeight, entity.getHealth(), entity.getMaxHealth());
     }
 
-    // Draws a health bar for an entity
+    // Draws a health bar for an entity; the frame and the fill are both copied from the atlas
     private void drawHealthBar(Graphics2D g2d, int x, int y, int tileWidth, int tileHeight, int currentHealth, int maxHealth) {
         if (maxHealth <= 0) return;
 
         double healthPercent = (double) currentHealth / maxHealth;
-        int barWidth = tileWidth - 14;
-        int barHeight = 8;
-        int barX = x * tileWidth + 7;
-        int barY = y * tileHeight + tileHeight - barHeight - 5;
+        int barWidth = tileWidth - SpriteAtlas.HEALTH_BAR_INSET * 2;
+        int barHeight = SpriteAtlas.HEALTH_BAR_HEIGHT;
+        int barX = x * tileWidth + SpriteAtlas.HEALTH_BAR_INSET;
+        int barY = y * tileHeight + tileHeight - barHeight - SpriteAtlas.HEALTH_BAR_BOTTOM;
 
         // Draw background
-        g2d.setColor(new Color(0, 0, 0, 60));
-        g2d.fillRoundRect(barX, barY, barWidth, barHeight, 5, 5);
+        spriteAtlas.drawHealthBarFrame(g2d, false, barX, barY);
 
         // Draw health bar based on health percentage
-        Color healthColor = (healthPercent > 0.6) ? new Color(34, 177, 76) : // Green
-                (healthPercent > 0.3) ? new Color(255, 201, 14) : // Yellow
-                        new Color(237, 28, 36); // Red
-
-        g2d.setColor(healthColor);
-        g2d.fillRoundRect(barX, barY, (int) (barWidth * healthPercent), barHeight, 5, 5);
-        g2d.setColor(Color.DARK_GRAY);
-        g2d.drawRoundRect(barX, barY, barWidth, barHeight, 5, 5);
+        spriteAtlas.drawHealthBarFill(g2d, RenderResources.healthBucket(healthPercent), (int) (barWidth * healthPercent), barX, barY);
+        spriteAtlas.drawHealthBarFrame(g2d, true, barX, barY);
+    }
+
+    // Switches the panel to another game, e.g. when the replay viewer seeks; call updatePanel afterwards
+    public void setGameManager(GameManager gameManager) {
+        this.gameManager = gameManager;
+        this.selectedEntity = null;
+        this.selectedX = -1;
+        this.selectedY = -1;
+        movableTiles.clear();
+    }
+
+    // Zooms so that tiles are the given factor larger than when the whole board fits, keeping the view's centre
+    public void setZoom(double zoom) {
+        if (!updateCamera()) return;
+        camera.setZoom(zoom);
+        viewChanged();
+    }
+
+    // Returns the zoom factor; 1 shows the whole board
+    public double getZoom() {
+        return camera.getZoom();
+    }
+
+    // Scrolls the view so that a tile is in its centre, as far as the board edges allow
+    public void centerOn(int tileX, int tileY) {
+        if (!updateCamera()) return;
+        camera.centerOn(tileX, tileY);
+        viewChanged();
+    }
+
+    // Stores the part of the board in view, in tiles, into a rectangle; returns false if no board is shown
+    // Fractions of a tile are kept, so the bounds move smoothly while the view is dragged
+    public boolean getVisibleTiles(Rectangle2D.Double bounds) {
+        if (!updateCamera()) return false;
+        bounds.setRect(camera.getOffsetX() / (double) camera.getTileWidth(), camera.getOffsetY() / (double) camera.getTileHeight(),
+                camera.getVisibleWidth() / (double) camera.getTileWidth(), camera.getVisibleHeight() / (double) camera.getTileHeight());
+        return true;
+    }
+
+    // Returns the board being shown, or null if there is none
+    public GameBoard getGameBoard() {
+        return gameBoard;
+    }
+
+    // Registers a listener told whenever the view scrolls or zooms or another board is shown, e.g. the minimap
+    public void addViewChangeListener(ChangeListener listener) {
+        listenerList.add(ChangeListener.class, listener);
+    }
+
+    // Removes a listener registered with addViewChangeListener
+    public void removeViewChangeListener(ChangeListener listener) {
+        listenerList.remove(ChangeListener.class, listener);
+    }
+
+    // Switches between the cached terrain and territory layers and drawing every tile on each paint
+    public void setCachedLayers(boolean cachedLayers) {
+        this.cachedLayers = cachedLayers;
+        boardLayers.invalidate();
+        repaint();
+    }
+
+    // Switches all board panels between vector and PNG sprites; panels pick it up the next time their tile size changes
+    public static void setVectorSprites(boolean vectorSprites) {
+        SpriteCache.setVectorArt(vectorSprites);
     }
 
     // Updates the panel with the current game board and selected entity
+    // Only a new board is repainted in full; changes on the same board have already scheduled repaints of their tiles
     public void updatePanel(GameBoard board, GameEntity selected) {
-        this.gameBoard = board;
+        if (board != this.gameBoard) {
+            if (this.gameBoard != null) this.gameBoard.removeTileChangeListener(repaintListener);
+            if (board != null) board.addTileChangeListener(repaintListener);
+            // Keep the view when the board is replaced by one of the same size, e.g. when the replay viewer seeks
+            if (board == null || this.gameBoard == null || board.width != this.gameBoard.width || board.height != this.gameBoard.height) {
+                camera.reset();
+            }
+            this.gameBoard = board;
+            boardLayers.attach(board);
+            viewChanged();
+        }
         this.selectedEntity = selected;
         if (this.selectedX == -1 && this.selectedY == -1) {
             this.selectedEntity = null;
         }
-        repaint();
+        if (board != null) repaintSelectedUnit();
     }
 }
\ No newline at end of file
@@ -1,19 +1,25 @@
 package com.realmwar.view;
 
 import com.realmwar.Main;
+import com.realmwar.data.CommandLog;
 import com.realmwar.data.DatabaseManager;
+import com.realmwar.data.GameLogger;
+import com.realmwar.data.LogCategory;
+import com.realmwar.data.LogLevel;
 import com.realmwar.engine.GameManager;
+import com.realmwar.engine.command.GameCommand;
 import com.realmwar.engine.gamestate.GameOverState;
 import com.realmwar.engine.gamestate.RunningState;
 import com.realmwar.model.GameEntity;
 import com.realmwar.model.units.Unit;
+import com.realmwar.util.Config;
 import com.realmwar.util.Constants;
+import com.realmwar.util.CustomExceptions.GameRuleException;
 
-import javax.imageio.ImageIO;
 import javax.swing.*;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
-import java.io.IOException;
-import java.util.Objects;
+import java.awt.event.ActionEvent;
 
 // Main JFrame for the game UI
 public class GameFrame extends JFrame {
@@ -27,11 +33,15 @@ public class GameFrame extends JFrame {
     private static final int BUTTON_HEIGHT = 40;
     private static final int HORIZONTAL_PADDING = 20;
     private static final int VERTICAL_PADDING = 15;
+    // Window icon file under /assets
+    static final String ICON = "game_icon.png";
 
     // Game components
     private GameManager gameManager;
     private final GameBoardPanel gameBoardPanel; // Panel for rendering the game board
     private final InfoPanel infoPanel; // Panel for displaying player info
+    private final MinimapPanel minimapPanel; // Overview of the whole board below the right buttons
+    private final PerformanceOverlay performanceOverlay; // Paint and dispatch times over the bottom edge, toggled with F3
     private Timer turnTimer; // Timer for turn duration
     private Timer resourceTimer; // Timer for resource updates
     private int turnTimeLeft; // Remaining time in the current turn
@@ -61,7 +71,7 @@ public class GameFrame extends JFrame {
         centerPanel.setBackground(BACKGROUND_COLOR);
 
         // Left buttons for game actions
-        JPanel leftButtons = createButtonPanel(new String[]{"Build", "Train", "Upgrade", "Merge", "End Turn"}, BUTTON_LEFT_COLOR);
+        JPanel leftButtons = createButtonPanel(new String[]{"Build", "Train", "Upgrade", "Merge", "Undo", "Redo", "End Turn"}, BUTTON_LEFT_COLOR);
         setupLeftButtons(leftButtons);
         centerPanel.add(leftButtons, BorderLayout.WEST);
 
@@ -70,12 +80,27 @@ public class GameFrame extends JFrame {
         centerPanel.add(gameBoardPanel, BorderLayout.CENTER);
 
         // Right buttons for game management
-        JPanel rightButtons = createButtonPanel(new String[]{"New Game", "Load Game", "Save Game", "Exit"}, BUTTON_RIGHT_COLOR);
+        JPanel rightButtons = createButtonPanel(new String[]{"New Game", "Load Game", "Save Game", "Replay", "Exit"}, BUTTON_RIGHT_COLOR);
         setupRightButtons(rightButtons);
+        minimapPanel = new MinimapPanel(gameBoardPanel);
+        minimapPanel.setPreferredSize(new Dimension(BUTTON_WIDTH, BUTTON_WIDTH));
+        minimapPanel.setMaximumSize(new Dimension(BUTTON_WIDTH, BUTTON_WIDTH));
+        minimapPanel.setAlignmentX(Component.CENTER_ALIGNMENT);
+        minimapPanel.setToolTipText("Click or drag to move the view");
+        rightButtons.add(minimapPanel);
+        rightButtons.add(Box.createVerticalStrut(VERTICAL_PADDING));
         centerPanel.add(rightButtons, BorderLayout.EAST);
 
         mainPanel.add(centerPanel, BorderLayout.CENTER);
         add(mainPanel);
+
+        // Performance overlay in the glass pane, drawn over the bottom border of the main panel
+        performanceOverlay = new PerformanceOverlay(() -> this.gameManager);
+        setGlassPane(performanceOverlay);
+        performanceOverlay.setVisible(Config.getBoolean("realmwar.ui.overlay", false));
+        gameBoardPanel.setPerformanceOverlay(performanceOverlay);
+        bindUndoKeys();
+        bindOverlayKey();
         initializeTimers();
         resourceTimer.start();
         pack();
@@ -83,12 +108,11 @@ public class GameFrame extends JFrame {
 
     // Loads and sets the game window icon
     private void loadAndSetIcon() {
-        try {
-            Image icon = ImageIO.read(Objects.requireNonNull(getClass().getResource("/assets/game_icon.png")));
+        Image icon = AssetManager.getImage(ICON);
+        if (icon != null) {
             setIconImage(icon);
-        } catch (IOException | NullPointerException e) {
+        } else {
             System.err.println("Could not load game icon. Make sure game_icon.png is in src/assets.");
-            e.printStackTrace();
         }
     }
 
@@ -101,8 +125,10 @@ public class GameFrame extends JFrame {
                     case "Train" -> btn.addActionListener(e -> showTrainDialog());
                     case "Upgrade" -> btn.addActionListener(e -> handleUpgrade());
                     case "Merge" -> btn.addActionListener(e -> handleMerge());
+                    case "Undo" -> btn.addActionListener(e -> handleUndo(GameCommand.UNDO));
+                    case "Redo" -> btn.addActionListener(e -> handleUndo(GameCommand.REDO));
                     case "End Turn" -> btn.addActionListener(e -> {
-                        gameManager.nextTurn();
+                        endTurn();
                         updateView();
                         resetAndStartTurnTimer();
                     });
@@ -119,6 +145,7 @@ public class GameFrame extends JFrame {
                     case "New Game" -> btn.addActionListener(e -> handleNewGame());
                     case "Load Game" -> btn.addActionListener(e -> handleLoadGame());
                     case "Save Game" -> btn.addActionListener(e -> handleSaveGame());
+                    case "Replay" -> btn.addActionListener(e -> handleReplay());
                     case "Exit" -> btn.addActionListener(e -> handleExit());
                 }
             }
@@ -135,42 +162,65 @@ public class GameFrame extends JFrame {
         }
     }
 
-    // Handles starting a new game
+    // Restarts the timers stopped by disposeTimers, continuing the current turn where it was
+    private void resumeTimers() {
+        resourceTimer.start();
+        turnTimer.start();
+    }
+
+    // Shows another game in this window, resetting the panels and timers in place instead of building a new frame
+    public void switchGame(GameManager newGame) {
+        disposeTimers();
+        gameManager = newGame;
+        isMergeMode = false;
+        unitToMerge = null;
+        infoPanel.setGameManager(newGame);
+        gameBoardPanel.setGameManager(newGame);
+        updateView();
+        resourceTimer.start();
+        resetAndStartTurnTimer();
+    }
+
+    // Handles starting a new game; closing the setup dialog goes back to the current game
     private void handleNewGame() {
-        disposeTimers(); // Stop current timers before starting a new game
-        this.dispose();
-        Main.main(null);
+        disposeTimers(); // Pause the current game while the setup dialog is open
+        GameManager newGame = Main.createGame(this);
+        if (newGame != null) {
+            switchGame(newGame);
+        } else {
+            resumeTimers();
+        }
     }
 
-    // Handles loading a saved game
+    // Handles loading a saved game; closing the save browser goes back to the current game
     private void handleLoadGame() {
-        disposeTimers(); // Stop current timers before loading a new game
-        this.dispose();
-        String[] saveFiles = DatabaseManager.getSaveGames();
-        if (saveFiles.length == 0) {
-            JOptionPane.showMessageDialog(null, "No saved games found! Starting a new game.", "Error", JOptionPane.ERROR_MESSAGE);
-            Main.main(null);
+        disposeTimers(); // Pause the current game while a save is chosen
+        if (DatabaseManager.getSaveSummaries(null, 1).isEmpty()) {
+            JOptionPane.showMessageDialog(this, "No saved games found! Starting a new game.", "Error", JOptionPane.ERROR_MESSAGE);
+            handleNewGame();
             return;
         }
 
-        String selectedSave = (String) JOptionPane.showInputDialog(
-                null, "Select a game to load:", "Load Game",
-                JOptionPane.PLAIN_MESSAGE, null, saveFiles, saveFiles[0]);
-
-        if (selectedSave != null) {
-            GameManager loadedGame = DatabaseManager.loadGame(selectedSave);
-            if (loadedGame != null) {
-                GameFrame newFrame = new GameFrame(loadedGame);
-                newFrame.setVisible(true);
-                newFrame.updateView();
-                newFrame.resetAndStartTurnTimer();
-            } else {
-                JOptionPane.showMessageDialog(null, "Failed to load game. Starting a new game.", "Load Error", JOptionPane.ERROR_MESSAGE);
-                Main.main(null);
-            }
-        } else {
-            Main.main(null);
+        // Browse save summaries page by page; only the chosen save is loaded in full
+        String selectedSave = SaveBrowserDialog.showDialog(this);
+        if (selectedSave == null) {
+            resumeTimers();
+            return;
         }
+
+        long start = System.nanoTime();
+        GameManager loadedGame = DatabaseManager.loadGame(selectedSave);
+        if (loadedGame == null) {
+            JOptionPane.showMessageDialog(this, "Failed to load game. Starting a new game.", "Load Error", JOptionPane.ERROR_MESSAGE);
+            handleNewGame();
+            return;
+        }
+        long read = System.nanoTime() - start;
+        switchGame(loadedGame);
+        // The repaints the switch scheduled run before this, so it marks the first interactive frame of the loaded game
+        SwingUtilities.invokeLater(() -> GameLogger.log(LogLevel.INFO, LogCategory.PERSISTENCE,
+                "Loaded save '{}' and showed it in {} ms ({} ms reading the save).",
+                selectedSave, (System.nanoTime() - start) / 1_000_000, read / 1_000_000));
     }
 
     // Handles saving the current game
@@ -189,6 +239,20 @@ public class GameFrame extends JFrame {
         }
     }
 
+    // Lets the user pick a recorded game and plays it back; the current game is paused meanwhile
+    private void handleReplay() {
+        CommandLog.flush();
+        JFileChooser chooser = new JFileChooser(CommandLog.getDirectory().toFile());
+        chooser.setDialogTitle("Open Replay");
+        chooser.setFileFilter(new FileNameExtensionFilter("RealmWar replays (*" + CommandLog.SUFFIX + ")", CommandLog.SUFFIX.substring(1)));
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+
+        disposeTimers();
+        ReplayDialog.showDialog(this, chooser.getSelectedFile().toPath());
+        // Watching a replay pauses the current turn; it does not grant a new one
+        resumeTimers();
+    }
+
     // Handles exiting the game
     private void handleExit() {
         int confirm = JOptionPane.showConfirmDialog(
@@ -209,7 +273,7 @@ public class GameFrame extends JFrame {
             return;
         }
         try {
-            gameManager.upgradeStructure(selectedTile[0], selectedTile[1]);
+            gameManager.dispatch(new GameCommand.Upgrade(selectedTile[0], selectedTile[1]));
             updateView();
             JOptionPane.showMessageDialog(this, "Structure upgraded successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
         } catch (Exception ex) {
@@ -217,6 +281,49 @@ public class GameFrame extends JFrame {
         }
     }
 
+    // Undoes or redoes an action of the current turn; nothing to undo is reported, not treated as an error
+    private void handleUndo(GameCommand command) {
+        try {
+            gameManager.dispatch(command);
+            isMergeMode = false;
+            unitToMerge = null;
+            updateView();
+        } catch (GameRuleException ex) {
+            JOptionPane.showMessageDialog(this, ex.getMessage(), command == GameCommand.UNDO ? "Undo" : "Redo", JOptionPane.INFORMATION_MESSAGE);
+        }
+    }
+
+    // Binds Ctrl+Z to undo and Ctrl+Y to redo anywhere in the window
+    private void bindUndoKeys() {
+        InputMap inputMap = getRootPane().getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW);
+        ActionMap actionMap = getRootPane().getActionMap();
+        inputMap.put(KeyStroke.getKeyStroke("control Z"), "undo");
+        inputMap.put(KeyStroke.getKeyStroke("control Y"), "redo");
+        actionMap.put("undo", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                handleUndo(GameCommand.UNDO);
+            }
+        });
+        actionMap.put("redo", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                handleUndo(GameCommand.REDO);
+            }
+        });
+    }
+
+    // Binds F3 to showing and hiding the performance overlay
+    private void bindOverlayKey() {
+        getRootPane().getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke("F3"), "toggleOverlay");
+        getRootPane().getActionMap().put("toggleOverlay", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                performanceOverlay.setVisible(!performanceOverlay.isVisible());
+            }
+        });
+    }
+
     // Activates merge mode
     private void handleMerge() {
         isMergeMode = true;
@@ -252,7 +359,7 @@ public class GameFrame extends JFrame {
         if (choice != null) {
             try {
                 String structureType = choice.split(" ")[0];
-                gameManager.buildStructure(structureType, selectedTile[0], selectedTile[1]);
+                gameManager.dispatch(new GameCommand.Build(structureType, selectedTile[0], selectedTile[1]));
                 updateView();
             } catch (Exception ex) {
                 JOptionPane.showMessageDialog(this, ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
@@ -288,7 +395,7 @@ public class GameFrame extends JFrame {
         if (choice != null) {
             try {
                 String unitType = choice.split(" ")[0];
-                gameManager.trainUnit(unitType, selectedTile[0], selectedTile[1]);
+                gameManager.dispatch(new GameCommand.Train(unitType, selectedTile[0], selectedTile[1]));
                 updateView();
                 JOptionPane.showMessageDialog(this, unitType + " trained successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
             } catch (Exception ex) {
@@ -309,7 +416,7 @@ public class GameFrame extends JFrame {
             JOptionPane.showMessageDialog(this, "First unit selected. Now select an adjacent, identical unit to merge with.", "Merge", JOptionPane.INFORMATION_MESSAGE);
         } else {
             try {
-                gameManager.mergeUnits(unitToMerge, clickedUnit);
+                gameManager.dispatch(new GameCommand.Merge(unitToMerge.getX(), unitToMerge.getY(), clickedUnit.getX(), clickedUnit.getY()));
                 isMergeMode = false;
                 unitToMerge = null;
                 updateView();
@@ -350,7 +457,7 @@ public class GameFrame extends JFrame {
         btn.setMaximumSize(new Dimension(BUTTON_WIDTH, BUTTON_HEIGHT));
         btn.setBackground(bgColor);
         btn.setForeground(BUTTON_TEXT_COLOR);
-        btn.setFont(new Font("Arial", Font.BOLD, 14));
+        btn.setFont(RenderResources.BUTTON_FONT);
         btn.setFocusPainted(false);
         btn.setBorder(BorderFactory.createCompoundBorder(
                 BorderFactory.createRaisedBevelBorder(),
@@ -391,9 +498,9 @@ public class GameFrame extends JFrame {
                 options[0]
         );
 
-        if (choice == JOptionPane.YES_OPTION) {
-            this.dispose();
-            Main.main(null);
+        GameManager newGame = choice == JOptionPane.YES_OPTION ? Main.createGame(this) : null;
+        if (newGame != null) {
+            switchGame(newGame);
         } else {
             System.exit(0);
         }
@@ -420,17 +527,31 @@ public class GameFrame extends JFrame {
 
         resourceTimer = new Timer(Constants.RESOURCE_TICK_MILLISECONDS, e -> {
             if (gameManager != null && gameManager.getCurrentState() instanceof RunningState) {
-                gameManager.applyPeriodicResourceChanges();
+                dispatchQuietly(GameCommand.RESOURCE_TICK);
                 updateView();
             }
         });
     }
 
+    // Ends the current player's turn
+    private void endTurn() {
+        dispatchQuietly(GameCommand.END_TURN);
+    }
+
+    // Dispatches a command that the rules never reject; a rejection is only logged
+    private void dispatchQuietly(GameCommand command) {
+        try {
+            gameManager.dispatch(command);
+        } catch (GameRuleException e) {
+            GameLogger.log(LogLevel.WARN, LogCategory.GAME, "{} was rejected: {}", command, e.getMessage());
+        }
+    }
+
     // Forces the end of a turn when time runs out
     private void forceEndTurn() {
         turnTimer.stop();
         JOptionPane.showMessageDialog(this, "Time's up! Moving to the next player.", "Turn Ended", JOptionPane.INFORMATION_MESSAGE);
-        gameManager.nextTurn();
+        endTurn();
         updateView();
         resetAndStartTurnTimer();
     }
@@ -7,10 +7,8 @@ package com.realmwar.view;
 import com.realmwar.engine.GameManager;
 import com.realmwar.model.Player;
 
-import javax.imageio.ImageIO;
 import javax.swing.*;
 import java.awt.*;
-import java.io.IOException;
 
 // Swing panel for displaying player information
 public class InfoPanel extends JPanel {
@@ -20,18 +18,23 @@ public class InfoPanel extends JPanel {
     private final JLabel foodValueLabel;
     private final JLabel timerLabel;
     // Reference to the game manager
-    private final GameManager gameManager;
-    // Icons for resources
-    private Image goldIcon;
-    private Image foodIcon;
+    private GameManager gameManager;
+    // Player color key on the right, rebuilt when another game is shown
+    private JPanel colorKeyPanel;
+    // Resource icon files under /assets and the size they are shown at
+    static final String GOLD_ICON = "gold1.png";
+    static final String FOOD_ICON = "food.png";
+    private static final int ICON_SIZE = 20;
+    // Values the labels currently show, so updates only touch labels whose value changed
+    private String shownPlayer;
+    private int shownGold;
+    private int shownFood;
+    private int shownSeconds = -1;
 
     // Constructor to initialize the info panel
     public InfoPanel(GameManager gameManager) {
         this.gameManager = gameManager;
 
-        // Load resource icons
-        loadResourceIcons();
-
         // Panel setup
         setBackground(new Color(221, 213, 226)); // Light purple background
         setLayout(new BorderLayout());
@@ -44,11 +47,13 @@ public class InfoPanel extends JPanel {
         // Initialize labels
         playerLabel = new JLabel("Player: Player1");
         timerLabel = new JLabel("Time: 30");
-        goldValueLabel = new JLabel(String.valueOf(gameManager.getCurrentPlayer().getResourceHandler().getGold()));
-        foodValueLabel = new JLabel(String.valueOf(gameManager.getCurrentPlayer().getResourceHandler().getFood()));
+        shownGold = gameManager.getCurrentPlayer().getResourceHandler().getGold();
+        shownFood = gameManager.getCurrentPlayer().getResourceHandler().getFood();
+        goldValueLabel = new JLabel(String.valueOf(shownGold));
+        foodValueLabel = new JLabel(String.valueOf(shownFood));
 
         // Set font and color for labels
-        Font boldFont = new Font("Arial", Font.BOLD, 16);
+        Font boldFont = RenderResources.LABEL_FONT;
         Color textColor = new Color(54, 54, 54);
         playerLabel.setFont(boldFont);
         playerLabel.setForeground(textColor);
@@ -56,8 +61,8 @@ public class InfoPanel extends JPanel {
         timerLabel.setForeground(textColor);
 
         // Create resource panels
-        JPanel goldPanel = createResourcePanel(goldIcon, goldValueLabel);
-        JPanel foodPanel = createResourcePanel(foodIcon, foodValueLabel);
+        JPanel goldPanel = createResourcePanel(AssetManager.getIcon(GOLD_ICON, ICON_SIZE), goldValueLabel);
+        JPanel foodPanel = createResourcePanel(AssetManager.getIcon(FOOD_ICON, ICON_SIZE), foodValueLabel);
 
         // Add components to the player info panel
         currentPlayerInfoPanel.add(playerLabel);
@@ -68,33 +73,37 @@ public class InfoPanel extends JPanel {
         add(currentPlayerInfoPanel, BorderLayout.WEST);
 
         // Right side: Player color key
-        JPanel colorKeyPanel = createPlayerColorKey();
+        colorKeyPanel = createPlayerColorKey();
         add(colorKeyPanel, BorderLayout.EAST);
     }
 
-    // Loads resource icons
-    private void loadResourceIcons() {
-        try {
-            goldIcon = ImageIO.read(getClass().getResource("/assets/gold1.png"));
-            foodIcon = ImageIO.read(getClass().getResource("/assets/food.png"));
-        } catch (IOException | IllegalArgumentException e) {
-            System.err.println("Could not load resource icons.");
-            e.printStackTrace();
-        }
+    // Shows another game: rebuilds the color key for its players and forgets the values shown for the previous game
+    public void setGameManager(GameManager gameManager) {
+        this.gameManager = gameManager;
+        remove(colorKeyPanel);
+        colorKeyPanel = createPlayerColorKey();
+        add(colorKeyPanel, BorderLayout.EAST);
+        revalidate();
+        repaint();
+        shownPlayer = null;
+        shownGold = Integer.MIN_VALUE;
+        shownFood = Integer.MIN_VALUE;
+        shownSeconds = -1;
     }
 
     // Creates a panel for displaying a resource with its icon and value
-    private JPanel createResourcePanel(Image icon, JLabel valueLabel) {
+    private JPanel createResourcePanel(ImageIcon icon, JLabel valueLabel) {
         JPanel panel = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 0));
         panel.setOpaque(false);
 
         JLabel iconLabel = new JLabel();
         if (icon != null) {
-            Image scaledIcon = icon.getScaledInstance(20, 20, Image.SCALE_SMOOTH);
-            iconLabel.setIcon(new ImageIcon(scaledIcon));
+            iconLabel.setIcon(icon);
+        } else {
+            System.err.println("Could not load resource icons.");
         }
 
-        valueLabel.setFont(new Font("Arial", Font.BOLD, 16));
+        valueLabel.setFont(RenderResources.LABEL_FONT);
         valueLabel.setForeground(new Color(54, 54, 54));
 
         panel.add(iconLabel);
@@ -114,12 +123,12 @@ public class InfoPanel extends JPanel {
             playerEntryPanel.setOpaque(false);
 
             JPanel colorSwatch = new JPanel();
-            colorSwatch.setBackground(getPlayerColor(player.getName()));
+            colorSwatch.setBackground(RenderResources.playerColor(player.getName()));
             colorSwatch.setPreferredSize(new Dimension(16, 16));
             colorSwatch.setBorder(BorderFactory.createLineBorder(Color.DARK_GRAY));
 
             JLabel nameLabel = new JLabel(player.getName());
-            nameLabel.setFont(new Font("Arial", Font.PLAIN, 14));
+            nameLabel.setFont(RenderResources.NAME_FONT);
             nameLabel.setForeground(new Color(54, 54, 54));
 
             playerEntryPanel.add(colorSwatch);
@@ -129,27 +138,32 @@ public class InfoPanel extends JPanel {
         return keyPanel;
     }
 
-    // Gets the color for a player based on their name
-    private Color getPlayerColor(String playerName) {
-        if (playerName == null) return Color.GRAY;
-        return switch (playerName) {
-            case "Player 1" -> new Color(173, 216, 230); // Light blue
-            case "Player 2" -> new Color(255, 105, 97); // Coral
-            case "Player 3" -> new Color(255, 209, 220); // Light pink
-            case "Player 4" -> new Color(204, 153, 204); // Light purple
-            default -> Color.GRAY;
-        };
-    }
-
-    // Updates player info display
+    // Updates player info display; labels whose value did not change are left alone
     public void updateInfo(String playerName, int gold, int food) {
-        playerLabel.setText("Player: " + playerName);
-        goldValueLabel.setText(String.valueOf(gold));
-        foodValueLabel.setText(String.valueOf(food));
+        if (!playerName.equals(shownPlayer)) {
+            shownPlayer = playerName;
+            playerLabel.setText("Player: " + playerName);
+        }
+        if (gold != shownGold) {
+            shownGold = gold;
+            goldValueLabel.setText(String.valueOf(gold));
+        }
+        if (food != shownFood) {
+            shownFood = food;
+            foodValueLabel.setText(String.valueOf(food));
+        }
     }
 
-    // Updates the timer display
+    // Updates the timer display if the time shown changed
     public void updateTimer(int seconds) {
-        timerLabel.setText("Time: " + seconds);
+        if (seconds != shownSeconds) {
+            shownSeconds = seconds;
+            timerLabel.setText("Time: " + seconds);
+        }
+    }
+
+    // Shows or hides the turn timer, which has no meaning in a replay
+    public void setTimerVisible(boolean visible) {
+        timerLabel.setVisible(visible);
     }
 }
\ No newline at end of file
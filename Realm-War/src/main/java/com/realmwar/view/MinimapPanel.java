@@ -0,0 +1,178 @@
+// MinimapPanel.java
+// Overview of the whole RealmWar board next to the main board panel, with the part of the board in view outlined.
+// The minimap is an image with one pixel per tile, the terrain color blended with the owner's territory color, and
+// its pixels are written straight into the image's int[] raster instead of being drawn. Only the tiles the board
+// announced as changing are written again, so keeping the minimap current costs nothing for an unchanged board and
+// a few array writes per changed tile even on the largest maps. Clicking or dragging on it moves the main view.
+
+package com.realmwar.view;
+
+import com.realmwar.engine.GameBoard;
+import com.realmwar.engine.GameTile;
+import com.realmwar.engine.TileChangeListener;
+import com.realmwar.model.Player;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+
+// Minimap of the board shown by a board panel; used on the event dispatch thread only
+public class MinimapPanel extends JComponent implements TileChangeListener {
+
+    // Color of the outline around the part of the board in view
+    private static final Color VIEW_OUTLINE = Color.WHITE;
+
+    // Board panel whose board and view the minimap shows
+    private final GameBoardPanel boardPanel;
+    // Board being shown, or null if there is none
+    private GameBoard board;
+    // One pixel per tile, and the image's own pixel array (row-major, 0xRRGGBB); taking the array keeps Java2D from
+    // caching an accelerated copy of the image, so writes to it show up on the next paint
+    private BufferedImage image;
+    private int[] pixels = new int[0];
+    // Tiles announced as changing since the last refresh (row-major index)
+    private boolean[] dirty = new boolean[0];
+    private int[] dirtyTiles = new int[0];
+    private int dirtyCount;
+    // Where the board image was last drawn in the component, and its scale in pixels per tile
+    private int imageX;
+    private int imageY;
+    private double scale;
+    // Reused for the part of the board in view
+    private final Rectangle2D.Double view = new Rectangle2D.Double();
+
+    // Constructor following the board and view of a board panel
+    public MinimapPanel(GameBoardPanel boardPanel) {
+        this.boardPanel = boardPanel;
+        setPreferredSize(new Dimension(160, 160));
+        setOpaque(false);
+
+        // Follow the board panel: another board means another image, a moved view only a repaint
+        boardPanel.addViewChangeListener(e -> {
+            attach(boardPanel.getGameBoard());
+            repaint();
+        });
+        attach(boardPanel.getGameBoard());
+
+        // Pressing or dragging centres the main view on the tile under the mouse
+        MouseAdapter mouseHandler = new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                moveView(e.getX(), e.getY());
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                moveView(e.getX(), e.getY());
+            }
+        };
+        addMouseListener(mouseHandler);
+        addMouseMotionListener(mouseHandler);
+    }
+
+    // Shows another board, listening to its tile changes instead of the previous board's
+    private void attach(GameBoard board) {
+        if (board == this.board) return;
+        if (this.board != null) this.board.removeTileChangeListener(this);
+        this.board = board;
+        dirtyCount = 0;
+        if (board == null) {
+            image = null;
+            pixels = new int[0];
+            dirty = new boolean[0];
+            return;
+        }
+        image = new BufferedImage(board.width, board.height, BufferedImage.TYPE_INT_RGB);
+        pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        dirty = new boolean[pixels.length];
+        dirtyTiles = new int[Math.min(pixels.length, 64)];
+        for (int y = 0; y < board.height; y++) {
+            for (int x = 0; x < board.width; x++) {
+                pixels[y * board.width + x] = tileColor(board.getTile(x, y));
+            }
+        }
+        board.addTileChangeListener(this);
+    }
+
+    // Remembers a tile that is about to change; the first change since the last refresh schedules a repaint
+    @Override
+    public void tileChanging(GameTile tile) {
+        int index = tile.getY() * board.width + tile.getX();
+        if (dirty[index]) return;
+        dirty[index] = true;
+        if (dirtyCount == dirtyTiles.length) {
+            dirtyTiles = Arrays.copyOf(dirtyTiles, dirtyCount * 2);
+        }
+        dirtyTiles[dirtyCount++] = index;
+        if (dirtyCount == 1) repaint();
+    }
+
+    // Writes the pixels of the tiles changed since the last refresh; returns how many tiles were written
+    public int refresh() {
+        int refreshed = dirtyCount;
+        for (int i = 0; i < dirtyCount; i++) {
+            int index = dirtyTiles[i];
+            dirty[index] = false;
+            pixels[index] = tileColor(board.getTile(index % board.width, index / board.width));
+        }
+        dirtyCount = 0;
+        return refreshed;
+    }
+
+    // Returns the pixel color of a tile: its terrain with the owner's territory overlay blended in
+    private static int tileColor(GameTile tile) {
+        int terrain = tile.block.getColor().getRGB();
+        Player owner = tile.getTerritoryOwner();
+        if (owner == null) return terrain & 0xFFFFFF;
+        Color overlay = RenderResources.territoryColor(owner);
+        int alpha = overlay.getAlpha();
+        int red = blend((terrain >> 16) & 0xFF, overlay.getRed(), alpha);
+        int green = blend((terrain >> 8) & 0xFF, overlay.getGreen(), alpha);
+        int blue = blend(terrain & 0xFF, overlay.getBlue(), alpha);
+        return red << 16 | green << 8 | blue;
+    }
+
+    // Blends one color channel of an overlay with the given alpha over a background channel
+    private static int blend(int background, int overlay, int alpha) {
+        return (overlay * alpha + background * (255 - alpha) + 127) / 255;
+    }
+
+    // Centres the main view on the tile under a point of the minimap
+    private void moveView(int x, int y) {
+        if (board == null || scale <= 0) return;
+        int tileX = Math.max(0, Math.min(board.width - 1, (int) ((x - imageX) / scale)));
+        int tileY = Math.max(0, Math.min(board.height - 1, (int) ((y - imageY) / scale)));
+        boardPanel.centerOn(tileX, tileY);
+    }
+
+    // Paints the board image scaled to fit, keeping tiles square, and outlines the part of the board in view
+    @Override
+    protected void paintComponent(Graphics g) {
+        if (board == null) return;
+        refresh();
+        Insets insets = getInsets();
+        int width = getWidth() - insets.left - insets.right;
+        int height = getHeight() - insets.top - insets.bottom;
+        scale = Math.min(width / (double) board.width, height / (double) board.height);
+        if (scale <= 0) return;
+        int imageWidth = (int) Math.round(board.width * scale);
+        int imageHeight = (int) Math.round(board.height * scale);
+        imageX = insets.left + (width - imageWidth) / 2;
+        imageY = insets.top + (height - imageHeight) / 2;
+
+        Graphics2D g2d = (Graphics2D) g;
+        g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+        g2d.drawImage(image, imageX, imageY, imageWidth, imageHeight, null);
+
+        if (boardPanel.getVisibleTiles(view)) {
+            g2d.setColor(VIEW_OUTLINE);
+            g2d.drawRect(imageX + (int) (view.x * scale), imageY + (int) (view.y * scale),
+                    Math.max(1, (int) (view.width * scale) - 1), Math.max(1, (int) (view.height * scale) - 1));
+        }
+    }
+}
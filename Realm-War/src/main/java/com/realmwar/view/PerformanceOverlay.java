@@ -0,0 +1,105 @@
+// PerformanceOverlay.java
+// Optional line of UI latency figures drawn over the bottom edge of the RealmWar game window.
+// It shows the average and longest board paint and the number of board paints over the last second, how long the
+// game manager took for the last command it dispatched, and the event dispatch thread stalls reported so far.
+// The board panel reports each paint's duration; the text is recomputed four times a second, and the overlay only
+// repaints its own strip below the board, so showing it does not cause board paints of its own.
+
+package com.realmwar.view;
+
+import com.realmwar.engine.GameManager;
+import com.realmwar.engine.command.GameCommand;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.function.Supplier;
+
+// Overlay installed as the game window's glass pane; used on the event dispatch thread only
+final class PerformanceOverlay extends JComponent {
+
+    // Paints remembered, the span the figures cover and how often they are recomputed
+    private static final int WINDOW = 256;
+    private static final long SPAN_NANOS = 1_000_000_000L;
+    private static final int REFRESH_MILLIS = 250;
+    // Height of the strip the overlay draws in, and the inset of its text
+    private static final int STRIP_HEIGHT = 16;
+    private static final int INSET = 6;
+    // Colors of the strip and its text
+    private static final Color BACKGROUND = new Color(0, 0, 0, 170);
+    private static final Color TEXT = new Color(220, 255, 220);
+
+    // Game whose dispatch times are shown
+    private final Supplier<GameManager> game;
+    // Ring of recent paints: when each ended and how long it took, in nanoseconds
+    private final long[] paintEnds = new long[WINDOW];
+    private final long[] paintNanos = new long[WINDOW];
+    private int next;
+    // Text currently shown, recomputed by the refresh timer
+    private String text = "";
+    private final Timer refreshTimer = new Timer(REFRESH_MILLIS, e -> refresh());
+    // Reused for the clip bounds of each paint
+    private final Rectangle clip = new Rectangle();
+
+    // Constructor taking the game whose dispatch times are shown
+    PerformanceOverlay(Supplier<GameManager> game) {
+        this.game = game;
+        setOpaque(false);
+        setFont(RenderResources.NAME_FONT);
+    }
+
+    // Notes a board paint that started at the given System.nanoTime and has just ended
+    void paintFinished(long startNanos) {
+        long end = System.nanoTime();
+        paintEnds[next] = end;
+        paintNanos[next] = end - startNanos;
+        next = (next + 1) % WINDOW;
+    }
+
+    // Shows or hides the overlay; the figures are only recomputed while it is shown
+    @Override
+    public void setVisible(boolean visible) {
+        super.setVisible(visible);
+        if (visible) {
+            refresh();
+            refreshTimer.start();
+        } else {
+            refreshTimer.stop();
+        }
+    }
+
+    // Recomputes the figures and repaints the strip
+    private void refresh() {
+        long now = System.nanoTime();
+        int paints = 0;
+        long total = 0;
+        long longest = 0;
+        for (int i = 0; i < WINDOW; i++) {
+            if (paintEnds[i] != 0 && now - paintEnds[i] <= SPAN_NANOS) {
+                paints++;
+                total += paintNanos[i];
+                longest = Math.max(longest, paintNanos[i]);
+            }
+        }
+        GameManager manager = game.get();
+        GameCommand command = manager != null ? manager.getLastCommand() : null;
+        text = String.format("Board paint %.2f ms avg, %.2f ms max | %d%s paints/s | Last command %s %.2f ms | EDT stalls %d",
+                paints > 0 ? total / 1e6 / paints : 0.0, longest / 1e6, paints, paints == WINDOW ? "+" : "",
+                command != null ? command.getClass().getSimpleName() : "none",
+                command != null ? manager.getLastDispatchNanos() / 1e6 : 0.0, EdtWatchdog.getStallCount());
+        repaint(0, getHeight() - STRIP_HEIGHT, getWidth(), STRIP_HEIGHT);
+    }
+
+    // Draws the strip along the bottom edge; paints of the window elsewhere leave it alone
+    @Override
+    protected void paintComponent(Graphics g) {
+        int top = getHeight() - STRIP_HEIGHT;
+        g.getClipBounds(clip);
+        if (clip.y + clip.height <= top) return;
+        FontMetrics metrics = g.getFontMetrics();
+        int width = metrics.stringWidth(text) + INSET * 2;
+        g.setColor(BACKGROUND);
+        g.fillRect(0, top, width, STRIP_HEIGHT);
+        g.setColor(TEXT);
+        g.drawString(text, INSET, top + (STRIP_HEIGHT + metrics.getAscent() - metrics.getDescent()) / 2);
+    }
+}
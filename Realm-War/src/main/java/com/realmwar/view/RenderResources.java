@@ -0,0 +1,104 @@
+// RenderResources.java
+// Shared colors, strokes and fonts for painting the RealmWar game, created once instead of on every paint.
+// Player colors and their territory and outline variants are looked up by player, terrain border colors by
+// terrain color and health bar colors by health bucket, so a steady-state frame allocates close to nothing.
+
+package com.realmwar.view;
+
+import com.realmwar.model.Player;
+import com.realmwar.util.PlayerColors;
+
+import java.awt.*;
+import java.util.HashMap;
+import java.util.Map;
+
+// Static cache of paint resources; lookups never allocate once a color has been seen
+final class RenderResources {
+
+    // Number of player color sets; indexes below this are valid for the index-based lookups
+    static final int PLAYER_COLOR_COUNT = PlayerColors.COUNT;
+    // Territory overlays (player color with alpha 128, preserving the underlying color) and entity outlines
+    private static final Color[] TERRITORY_COLORS = new Color[PLAYER_COLOR_COUNT];
+    private static final Color[] OUTLINE_COLORS = new Color[PLAYER_COLOR_COUNT];
+
+    static {
+        for (int i = 0; i < PLAYER_COLOR_COUNT; i++) {
+            Color color = PlayerColors.get(i);
+            TERRITORY_COLORS[i] = new Color(color.getRed(), color.getGreen(), color.getBlue(), 128);
+            OUTLINE_COLORS[i] = color.darker();
+        }
+    }
+
+    // Tile border colors by terrain color; terrain colors are constants, so this stays tiny
+    private static final Map<Color, Color> TERRAIN_BORDERS = new HashMap<>();
+
+    // Entity shadow, health bar background and the health bar colors for above 60%, above 30% and the rest
+    static final Color SHADOW = new Color(0, 0, 0, 50); // Semi-transparent shadow
+    static final Color HEALTH_BACKGROUND = new Color(0, 0, 0, 60);
+    private static final Color[] HEALTH_COLORS = {
+            new Color(34, 177, 76), // Green
+            new Color(255, 201, 14), // Yellow
+            new Color(237, 28, 36) // Red
+    };
+
+    // Highlights: selected tile outline, movable tile fill and the stroke of both selection outlines
+    static final Color SELECTED_TILE = new Color(255, 223, 100);
+    static final Color MOVABLE_TILE = new Color(144, 238, 144, 128);
+    static final Stroke SELECTION_STROKE = new BasicStroke(2);
+
+    // Fonts of the info panel and the game window buttons
+    static final Font LABEL_FONT = new Font("Arial", Font.BOLD, 16);
+    static final Font NAME_FONT = new Font("Arial", Font.PLAIN, 14);
+    static final Font BUTTON_FONT = new Font("Arial", Font.BOLD, 14);
+
+    // Private constructor to prevent instantiation
+    private RenderResources() {}
+
+    // Returns the index of a player's colors
+    static int playerIndex(Player player) {
+        return PlayerColors.indexOf(player.getName());
+    }
+
+    // Gets the color for a player based on their name
+    static Color playerColor(String playerName) {
+        return PlayerColors.get(PlayerColors.indexOf(playerName));
+    }
+
+    // Gets the color of units and structures by player color index
+    static Color playerColor(int index) {
+        return PlayerColors.get(index);
+    }
+
+    // Gets the outline color of units and structures by player color index
+    static Color outlineColor(int index) {
+        return OUTLINE_COLORS[index];
+    }
+
+    // Gets the semi-transparent territory overlay of a player
+    static Color territoryColor(Player player) {
+        return TERRITORY_COLORS[playerIndex(player)];
+    }
+
+    // Gets the border color of tiles with a terrain color (two shades darker)
+    static Color terrainBorder(Color terrain) {
+        Color border = TERRAIN_BORDERS.get(terrain);
+        if (border == null) {
+            border = terrain.darker().darker();
+            TERRAIN_BORDERS.put(terrain, border);
+        }
+        return border;
+    }
+
+    // Number of health buckets, each with its own health bar color
+    static final int HEALTH_BUCKETS = HEALTH_COLORS.length;
+
+    // Gets the health bucket of a health fraction: 0 above 60%, 1 above 30%, 2 for the rest
+    static int healthBucket(double healthPercent) {
+        return healthPercent > 0.6 ? 0 : healthPercent > 0.3 ? 1 : 2;
+    }
+
+    // Gets the health bar color of a health bucket
+    static Color healthColor(int bucket) {
+        return HEALTH_COLORS[bucket];
+    }
+}
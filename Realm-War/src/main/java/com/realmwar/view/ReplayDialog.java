@@ -0,0 +1,218 @@
+// ReplayDialog.java
+// Modal replay viewer for recorded RealmWar games.
+// Loads a command log, then plays it back on a read-only board with play/pause, single steps, a speed choice
+// and a seek slider. Seeking restores the nearest keyframe and replays only the commands after it.
+
+package com.realmwar.view;
+
+import com.realmwar.data.GameRecording;
+import com.realmwar.engine.GameManager;
+import com.realmwar.engine.gamestate.GameOverState;
+
+import javax.swing.*;
+import java.awt.*;
+import java.io.IOException;
+import java.nio.file.Path;
+
+// Dialog playing back one recording
+public class ReplayDialog extends JDialog {
+    // Commands per second at 1x speed, and the speed choices
+    private static final int BASE_COMMANDS_PER_SECOND = 4;
+    private static final int[] SPEEDS = {1, 2, 4, 8, 16, 64};
+    // Longest stretch of turns without a keyframe, for recordings that do not carry enough of them
+    private static final int KEYFRAME_TURNS = 10;
+    // Colors matching the game window
+    private static final Color BACKGROUND_COLOR = new Color(250, 240, 230); // Light cream background
+    private static final Color TEXT_COLOR = new Color(54, 54, 54); // Dark gray text
+
+    // Recording being shown, the game rebuilt from it and how many commands have been applied to that game
+    private GameRecording recording;
+    private GameManager game;
+    private int position;
+    // Display components
+    private final JPanel mainPanel = new JPanel(new BorderLayout());
+    private final GameBoardPanel boardPanel = new GameBoardPanel(null, null);
+    private InfoPanel infoPanel;
+    private final JLabel statusLabel = new JLabel("Loading...");
+    // Playback controls
+    private final JButton startButton = new JButton("⏮");
+    private final JButton backButton = new JButton("◀ Step");
+    private final JButton playButton = new JButton("▶ Play");
+    private final JButton forwardButton = new JButton("Step ▶");
+    private final JComboBox<String> speedBox = new JComboBox<>();
+    private final JSlider slider = new JSlider(0, 0, 0);
+    // Drives playback; its delay follows the chosen speed
+    private final Timer playTimer = new Timer(1000 / BASE_COMMANDS_PER_SECOND, e -> stepForward());
+    // Set while the slider is moved from code, so that its listener does not seek again
+    private boolean updatingSlider;
+
+    // Constructor building the dialog around an owner window (may be null)
+    private ReplayDialog(Window owner, Path file) {
+        super(owner, "Replay - " + file.getFileName(), ModalityType.APPLICATION_MODAL);
+        setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+
+        mainPanel.setBackground(BACKGROUND_COLOR);
+        mainPanel.setBorder(BorderFactory.createEmptyBorder(0, 0, 10, 0));
+        boardPanel.setPreferredSize(new Dimension(600, 600));
+        mainPanel.add(boardPanel, BorderLayout.CENTER);
+
+        for (int speed : SPEEDS) speedBox.addItem(speed + "x");
+        speedBox.addActionListener(e -> playTimer.setDelay(Math.max(1, 1000 / (BASE_COMMANDS_PER_SECOND * SPEEDS[speedBox.getSelectedIndex()]))));
+        startButton.addActionListener(e -> seek(0));
+        backButton.addActionListener(e -> seek(position - 1));
+        forwardButton.addActionListener(e -> stepForward());
+        playButton.addActionListener(e -> setPlaying(!playTimer.isRunning()));
+        slider.addChangeListener(e -> {
+            if (!updatingSlider) seek(slider.getValue());
+        });
+        slider.setBackground(BACKGROUND_COLOR);
+        statusLabel.setForeground(TEXT_COLOR);
+
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
+        buttonPanel.setBackground(BACKGROUND_COLOR);
+        buttonPanel.add(startButton);
+        buttonPanel.add(backButton);
+        buttonPanel.add(playButton);
+        buttonPanel.add(forwardButton);
+        buttonPanel.add(new JLabel("Speed:"));
+        buttonPanel.add(speedBox);
+        buttonPanel.add(statusLabel);
+
+        JPanel controlPanel = new JPanel(new BorderLayout());
+        controlPanel.setBackground(BACKGROUND_COLOR);
+        controlPanel.setBorder(BorderFactory.createEmptyBorder(5, 15, 0, 15));
+        controlPanel.add(slider, BorderLayout.NORTH);
+        controlPanel.add(buttonPanel, BorderLayout.SOUTH);
+        mainPanel.add(controlPanel, BorderLayout.SOUTH);
+
+        add(mainPanel);
+        setControlsEnabled(false);
+        pack();
+        setLocationRelativeTo(owner);
+    }
+
+    // Shows the replay of a command log file and returns when the dialog is closed
+    public static void showDialog(Component parent, Path file) {
+        Window owner = parent != null ? SwingUtilities.getWindowAncestor(parent) : null;
+        if (parent instanceof Window window) owner = window;
+        ReplayDialog dialog = new ReplayDialog(owner, file);
+        dialog.load(file);
+        dialog.setVisible(true);
+    }
+
+    @Override
+    public void dispose() {
+        playTimer.stop();
+        super.dispose();
+    }
+
+    // Reads the recording and fills in missing keyframes off the event thread, then shows its first state
+    private void load(Path file) {
+        new SwingWorker<GameRecording, Void>() {
+            @Override
+            protected GameRecording doInBackground() throws IOException {
+                GameRecording loaded = GameRecording.read(file);
+                loaded.buildKeyframes(KEYFRAME_TURNS);
+                return loaded;
+            }
+
+            @Override
+            protected void done() {
+                GameManager first;
+                try {
+                    recording = get();
+                    first = recording.seek(0);
+                } catch (Exception e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    JOptionPane.showMessageDialog(ReplayDialog.this, "Could not load the replay: " + cause.getMessage(),
+                            "Replay Error", JOptionPane.ERROR_MESSAGE);
+                    dispose();
+                    return;
+                }
+                infoPanel = new InfoPanel(first);
+                infoPanel.setTimerVisible(false);
+                mainPanel.add(infoPanel, BorderLayout.NORTH);
+                updatingSlider = true;
+                slider.setMaximum(recording.size());
+                updatingSlider = false;
+                setControlsEnabled(true);
+                showGame(first, 0);
+                mainPanel.revalidate();
+            }
+        }.execute();
+    }
+
+    // Applies the next recorded command; playback stops at the end of the recording
+    private void stepForward() {
+        if (recording == null || position >= recording.size()) {
+            setPlaying(false);
+            return;
+        }
+        try {
+            recording.apply(game, position, position + 1);
+        } catch (IllegalStateException e) {
+            setPlaying(false);
+            JOptionPane.showMessageDialog(this, e.getMessage(), "Replay Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        showGame(game, position + 1);
+    }
+
+    // Jumps to the state after the given number of commands
+    private void seek(int target) {
+        if (recording == null) return;
+        target = Math.max(0, Math.min(target, recording.size()));
+        try {
+            showGame(recording.seek(target), target);
+        } catch (IOException | IllegalStateException e) {
+            setPlaying(false);
+            JOptionPane.showMessageDialog(this, "Could not seek: " + e.getMessage(), "Replay Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    // Displays a game state and moves the slider and status to match
+    private void showGame(GameManager shown, int newPosition) {
+        if (shown != game) {
+            game = shown;
+            boardPanel.setGameManager(shown);
+        }
+        position = newPosition;
+        infoPanel.updateInfo(
+                game.getCurrentPlayer().getName(),
+                game.getCurrentPlayer().getResourceHandler().getGold(),
+                game.getCurrentPlayer().getResourceHandler().getFood()
+        );
+        boardPanel.updatePanel(game.getGameBoard(), null);
+        updatingSlider = true;
+        slider.setValue(position);
+        updatingSlider = false;
+
+        String status = "Command " + position + " / " + recording.size() + "  Turn " + game.getTurnNumber();
+        if (game.getCurrentState() instanceof GameOverState) {
+            status += "  Game over, winner: " + (game.winner != null ? game.winner.getName() : "No one");
+        }
+        statusLabel.setText(status);
+        if (position >= recording.size()) setPlaying(false);
+    }
+
+    // Starts or pauses playback
+    private void setPlaying(boolean playing) {
+        if (playing && recording != null && position < recording.size()) {
+            playTimer.start();
+            playButton.setText("⏸ Pause");
+        } else {
+            playTimer.stop();
+            playButton.setText("▶ Play");
+        }
+    }
+
+    // Enables or disables every playback control
+    private void setControlsEnabled(boolean enabled) {
+        startButton.setEnabled(enabled);
+        backButton.setEnabled(enabled);
+        playButton.setEnabled(enabled);
+        forwardButton.setEnabled(enabled);
+        speedBox.setEnabled(enabled);
+        slider.setEnabled(enabled);
+    }
+}
@@ -0,0 +1,239 @@
+// SaveBrowserDialog.java
+// Modal dialog for picking a saved game in the RealmWar game.
+// Pages through save summaries newest first and shows each save's thumbnail, players, turn and date
+// without ever loading a board; only the chosen save is loaded afterwards.
+
+package com.realmwar.view;
+
+import com.realmwar.data.DatabaseManager;
+import com.realmwar.data.SaveSummary;
+import com.realmwar.data.SaveThumbnail;
+
+import javax.imageio.ImageIO;
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
+import java.util.Date;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Dialog listing one page of saves at a time, with buttons to move to newer or older pages
+public class SaveBrowserDialog extends JDialog {
+    // Saves shown per page
+    private static final int PAGE_SIZE = 8;
+    // Colors matching the game window
+    private static final Color BACKGROUND_COLOR = new Color(250, 240, 230); // Light cream background
+    private static final Color SELECTION_COLOR = new Color(125, 188, 182); // Teal, as the left buttons
+    private static final Color TEXT_COLOR = new Color(54, 54, 54); // Dark gray text
+
+    // Model and list of the current page
+    private final DefaultListModel<SaveSummary> listModel = new DefaultListModel<>();
+    private final JList<SaveSummary> saveList = new JList<>(listModel);
+    // Decoded thumbnails of the current page by save id
+    private final Map<Long, ImageIcon> thumbnails = new HashMap<>();
+    // Cursors the earlier pages started after, for going back; null stands for the first page
+    private final Deque<SaveSummary> previousCursors = new ArrayDeque<>();
+    // Cursor the current page started after, and the one the next page starts after (null if there is none)
+    private SaveSummary currentCursor;
+    private SaveSummary nextCursor;
+    // Navigation and status components
+    private final JButton newerButton = new JButton("◀ Newer");
+    private final JButton olderButton = new JButton("Older ▶");
+    private final JButton loadButton = new JButton("Load");
+    private final JLabel statusLabel = new JLabel(" ");
+    // Page in flight, if any
+    private SwingWorker<Page, Void> pendingPage;
+    // The save name chosen by the user
+    private String selectedSave;
+
+    // One fetched page: its summaries, their decoded thumbnails and whether older saves exist
+    private record Page(List<SaveSummary> summaries, Map<Long, ImageIcon> thumbnails, boolean hasMore) {}
+
+    // Constructor building the dialog around an owner window (may be null)
+    private SaveBrowserDialog(Window owner) {
+        super(owner, "Load Game", ModalityType.APPLICATION_MODAL);
+        setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+
+        JPanel mainPanel = new JPanel(new BorderLayout(0, 10));
+        mainPanel.setBackground(BACKGROUND_COLOR);
+        mainPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+
+        saveList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        saveList.setCellRenderer(new SummaryRenderer());
+        saveList.setBackground(BACKGROUND_COLOR);
+        saveList.addListSelectionListener(e -> loadButton.setEnabled(saveList.getSelectedValue() != null));
+        saveList.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (e.getClickCount() == 2 && saveList.getSelectedValue() != null) {
+                    choose(saveList.getSelectedValue());
+                }
+            }
+        });
+        JScrollPane scrollPane = new JScrollPane(saveList);
+        scrollPane.setPreferredSize(new Dimension(520, 480));
+        mainPanel.add(scrollPane, BorderLayout.CENTER);
+
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttonPanel.setBackground(BACKGROUND_COLOR);
+        JButton cancelButton = new JButton("Cancel");
+        newerButton.addActionListener(e -> showPage(previousCursors.pop()));
+        olderButton.addActionListener(e -> {
+            previousCursors.push(currentCursor);
+            showPage(nextCursor);
+        });
+        loadButton.addActionListener(e -> choose(saveList.getSelectedValue()));
+        cancelButton.addActionListener(e -> dispose());
+        buttonPanel.add(statusLabel);
+        buttonPanel.add(newerButton);
+        buttonPanel.add(olderButton);
+        buttonPanel.add(loadButton);
+        buttonPanel.add(cancelButton);
+        mainPanel.add(buttonPanel, BorderLayout.SOUTH);
+
+        add(mainPanel);
+        getRootPane().setDefaultButton(loadButton);
+        pack();
+        setLocationRelativeTo(owner);
+    }
+
+    // Shows the dialog and returns the chosen save name, or null if the user cancelled
+    public static String showDialog(Component parent) {
+        Window owner = parent != null ? SwingUtilities.getWindowAncestor(parent) : null;
+        if (parent instanceof Window window) owner = window;
+        SaveBrowserDialog dialog = new SaveBrowserDialog(owner);
+        dialog.showPage(null);
+        dialog.setVisible(true);
+        return dialog.selectedSave;
+    }
+
+    // Fetches the page after a cursor off the event thread and shows it when it arrives
+    private void showPage(SaveSummary after) {
+        if (pendingPage != null) pendingPage.cancel(false);
+        setNavigationEnabled(false);
+        statusLabel.setText("Loading...");
+        SwingWorker<Page, Void> worker = new SwingWorker<>() {
+            @Override
+            protected Page doInBackground() {
+                // One extra row tells whether an older page exists
+                List<SaveSummary> rows = DatabaseManager.getSaveSummaries(after, PAGE_SIZE + 1);
+                boolean hasMore = rows.size() > PAGE_SIZE;
+                List<SaveSummary> summaries = hasMore ? rows.subList(0, PAGE_SIZE) : rows;
+                Map<Long, ImageIcon> icons = new HashMap<>();
+                for (SaveSummary summary : summaries) {
+                    ImageIcon icon = decodeThumbnail(summary.thumbnailPng);
+                    if (icon != null) icons.put(summary.saveId, icon);
+                }
+                return new Page(summaries, icons, hasMore);
+            }
+
+            @Override
+            protected void done() {
+                if (isCancelled() || pendingPage != this) return;
+                pendingPage = null;
+                try {
+                    applyPage(after, get());
+                } catch (Exception e) {
+                    statusLabel.setText("Could not load saves.");
+                    setNavigationEnabled(true);
+                    e.printStackTrace();
+                }
+            }
+        };
+        pendingPage = worker;
+        worker.execute();
+    }
+
+    // Replaces the list contents with a fetched page
+    private void applyPage(SaveSummary after, Page page) {
+        currentCursor = after;
+        nextCursor = page.hasMore() ? page.summaries().get(page.summaries().size() - 1) : null;
+        thumbnails.clear();
+        thumbnails.putAll(page.thumbnails());
+        listModel.clear();
+        for (SaveSummary summary : page.summaries()) {
+            listModel.addElement(summary);
+        }
+        if (!listModel.isEmpty()) saveList.setSelectedIndex(0);
+        statusLabel.setText(listModel.isEmpty() ? "No saved games." : "Page " + (previousCursors.size() + 1));
+        setNavigationEnabled(true);
+    }
+
+    // Enables the buttons that apply to the current page
+    private void setNavigationEnabled(boolean enabled) {
+        newerButton.setEnabled(enabled && !previousCursors.isEmpty());
+        olderButton.setEnabled(enabled && nextCursor != null);
+        loadButton.setEnabled(enabled && saveList.getSelectedValue() != null);
+    }
+
+    // Records the chosen save and closes the dialog
+    private void choose(SaveSummary summary) {
+        if (summary == null) return;
+        selectedSave = summary.saveName;
+        dispose();
+    }
+
+    // Decodes a stored PNG thumbnail; returns null for saves without one
+    private static ImageIcon decodeThumbnail(byte[] png) {
+        if (png == null) return null;
+        try {
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+            return image != null ? new ImageIcon(image) : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    // Escapes text for use inside an HTML label
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+
+    // Renders one save as its thumbnail next to its name and metadata
+    private class SummaryRenderer extends JPanel implements ListCellRenderer<SaveSummary> {
+        // Formats the save time
+        private final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy/MM/dd HH:mm");
+        // Thumbnail and text labels
+        private final JLabel thumbnailLabel = new JLabel();
+        private final JLabel textLabel = new JLabel();
+
+        // Constructor laying out the two labels
+        SummaryRenderer() {
+            super(new BorderLayout(10, 0));
+            setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
+            thumbnailLabel.setPreferredSize(new Dimension(SaveThumbnail.MAX_SIZE, SaveThumbnail.MAX_SIZE));
+            thumbnailLabel.setHorizontalAlignment(SwingConstants.CENTER);
+            textLabel.setForeground(TEXT_COLOR);
+            add(thumbnailLabel, BorderLayout.WEST);
+            add(textLabel, BorderLayout.CENTER);
+        }
+
+        @Override
+        public Component getListCellRendererComponent(JList<? extends SaveSummary> list, SaveSummary summary,
+                                                      int index, boolean isSelected, boolean cellHasFocus) {
+            ImageIcon icon = thumbnails.get(summary.saveId);
+            thumbnailLabel.setIcon(icon);
+            thumbnailLabel.setText(icon == null ? "No preview" : null);
+
+            String players = summary.playerNames.isEmpty() ? "Unknown players" : String.join(", ", summary.playerNames);
+            String status = summary.winnerName != null ? "Winner: " + summary.winnerName
+                    : summary.currentPlayerName != null ? summary.currentPlayerName + " to move" : "";
+            textLabel.setText("<html><b>" + escape(summary.saveName) + "</b><br>" +
+                    "Turn " + summary.turnNumber + " &middot; " + summary.boardWidth + "x" + summary.boardHeight + "<br>" +
+                    escape(players) + "<br>" +
+                    escape(status) + "<br>" +
+                    dateFormat.format(new Date(summary.savedAt)) + "</html>");
+
+            setBackground(isSelected ? SELECTION_COLOR : BACKGROUND_COLOR);
+            return this;
+        }
+    }
+}
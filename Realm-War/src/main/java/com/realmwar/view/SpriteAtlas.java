@@ -0,0 +1,259 @@
+// SpriteAtlas.java
+// Unit and structure sprites of the RealmWar board, pre-scaled to the current tile size and packed into one image.
+// The sprites come from the SpriteCache, rasterized once per size instead of scaled on every drawImage call, so drawing
+// a sprite is a plain same-size copy out of the atlas. The atlas is rebuilt only when the tile size or screen changes.
+// It is laid out in device pixels: on a screen scaled for high DPI every region holds as many pixels as the tile covers
+// on screen, and the copies into the tile's logical coordinates come out one to one and sharp.
+// It also holds the tile-sized entity tokens (shadow, body and outline in each player color), the health bar frame and
+// the health bar fill of every health color at every width the bar can show, so that painting an entity copies images
+// instead of rasterizing and allocating antialiased shapes.
+
+package com.realmwar.view;
+
+import com.realmwar.model.GameEntity;
+import com.realmwar.model.Player;
+import com.realmwar.model.structures.*;
+import com.realmwar.model.units.*;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+// Atlas owned by one board panel; used on the event dispatch thread only
+final class SpriteAtlas {
+
+    // Sprites in the atlas, with their source image and the padding around them as a fraction of the tile width
+    enum Sprite {
+        PEASANT("peasant2.png", 0.15),
+        SPEARMAN("spearman1.png", 0.15),
+        SWORDSMAN("swordsman2.png", 0.15),
+        KNIGHT("knight2.png", 0.15),
+        TOWNHALL("townhall2.png", 0.1),
+        FARM("farm2.png", 0.1),
+        BARRACK("barrack2.png", 0.1),
+        MARKET("market2.png", 0.1),
+        TOWER("tower2.png", 0.1);
+
+        // PNG file name under /assets and padding fraction
+        final String file;
+        private final double padding;
+
+        Sprite(String file, double padding) {
+            this.file = file;
+            this.padding = padding;
+        }
+
+        // Returns the sprite showing an entity, or null if it has none
+        static Sprite of(GameEntity entity) {
+            if (entity instanceof Peasant) return PEASANT;
+            if (entity instanceof Spearman) return SPEARMAN;
+            if (entity instanceof Swordsman) return SWORDSMAN;
+            if (entity instanceof Knight) return KNIGHT;
+            if (entity instanceof TownHall) return TOWNHALL;
+            if (entity instanceof Farm) return FARM;
+            if (entity instanceof Barrack) return BARRACK;
+            if (entity instanceof Market) return MARKET;
+            if (entity instanceof Tower) return TOWER;
+            return null;
+        }
+    }
+
+    // Health bar height, its inset from the tile's left and right edges and from the bottom, and its corner arc
+    static final int HEALTH_BAR_HEIGHT = 8;
+    static final int HEALTH_BAR_INSET = 7;
+    static final int HEALTH_BAR_BOTTOM = 5;
+    static final int HEALTH_BAR_ARC = 5;
+
+    // Packed sprites, or null until the first paint
+    private BufferedImage atlas;
+    // Tile size and graphics configuration the atlas was built for
+    private int tileWidth;
+    private int tileHeight;
+    private GraphicsConfiguration configuration;
+    // Per sprite ordinal: left edge and size in the atlas, and size and padding inside the tile (width 0 if not drawn)
+    private final int[] atlasX = new int[Sprite.values().length];
+    private final int[] atlasWidth = new int[Sprite.values().length];
+    private final int[] atlasHeight = new int[Sprite.values().length];
+    private final int[] width = new int[Sprite.values().length];
+    private final int[] height = new int[Sprite.values().length];
+    private final int[] padding = new int[Sprite.values().length];
+    // Top of the token row (one tile-sized cell per player color and unit/structure shape), of the health bar row and
+    // of the health fill rows (row w - 1 holds the fill w pixels wide, one cell per health bucket)
+    private int tokenY;
+    private int healthBarY;
+    private int healthFillY;
+    // Size in the atlas of one token cell and of one health bar cell
+    private int tokenWidth;
+    private int tokenHeight;
+    private int barCellWidth;
+    private int barCellHeight;
+    // Width of the health bar, 0 if the tiles are too narrow for one
+    private int healthBarWidth;
+
+    // Makes sure the atlas matches the tile size, rebuilding it only if the size or screen changed
+    void prepare(int tileWidth, int tileHeight, GraphicsConfiguration configuration) {
+        if (atlas != null && tileWidth == this.tileWidth && tileHeight == this.tileHeight && configuration == this.configuration) {
+            return;
+        }
+        this.tileWidth = tileWidth;
+        this.tileHeight = tileHeight;
+        this.configuration = configuration;
+        // Device pixels per logical pixel; only looked up here, as the default transform is a new object on every call
+        double scaleX = configuration != null ? configuration.getDefaultTransform().getScaleX() : 1;
+        double scaleY = configuration != null ? configuration.getDefaultTransform().getScaleY() : 1;
+
+        // Lay the sprites out left to right in one row, with the tokens and the health bar frame in rows below
+        BufferedImage[] rasters = new BufferedImage[Sprite.values().length];
+        int spritesWidth = 0;
+        int spritesHeight = 0;
+        for (Sprite sprite : Sprite.values()) {
+            int i = sprite.ordinal();
+            padding[i] = (int) (tileWidth * sprite.padding);
+            width[i] = tileWidth - padding[i] * 2;
+            height[i] = tileHeight - padding[i] * 2;
+            if (width[i] > 0 && height[i] > 0) {
+                rasters[i] = SpriteCache.get(sprite, devicePixels(width[i], scaleX), devicePixels(height[i], scaleY));
+            }
+            if (rasters[i] == null) {
+                width[i] = 0;
+                continue;
+            }
+            atlasX[i] = spritesWidth;
+            atlasWidth[i] = rasters[i].getWidth();
+            atlasHeight[i] = rasters[i].getHeight();
+            spritesWidth += atlasWidth[i];
+            spritesHeight = Math.max(spritesHeight, atlasHeight[i]);
+        }
+        tokenWidth = devicePixels(tileWidth, scaleX);
+        tokenHeight = devicePixels(tileHeight, scaleY);
+        tokenY = spritesHeight;
+        healthBarY = tokenY + tokenHeight;
+        healthBarWidth = Math.max(0, tileWidth - HEALTH_BAR_INSET * 2);
+        // The bar's background and outline each get a cell one pixel larger on every side, for the outline stroke
+        barCellWidth = devicePixels(healthBarWidth + 2, scaleX);
+        barCellHeight = devicePixels(HEALTH_BAR_HEIGHT + 2, scaleY);
+        healthFillY = healthBarY + barCellHeight;
+        int imageWidth = Math.max(spritesWidth, Math.max(tokenWidth * RenderResources.PLAYER_COLOR_COUNT * 2,
+                barCellWidth * Math.max(2, RenderResources.HEALTH_BUCKETS)));
+        int imageHeight = healthFillY + barCellHeight * healthBarWidth;
+
+        if (atlas != null) atlas.flush();
+        atlas = configuration != null
+                ? configuration.createCompatibleImage(Math.max(1, imageWidth), imageHeight, Transparency.TRANSLUCENT)
+                : new BufferedImage(Math.max(1, imageWidth), imageHeight, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = atlas.createGraphics();
+        // The rasters are already at their final size; copy them exactly
+        g.setComposite(AlphaComposite.Src);
+        for (Sprite sprite : Sprite.values()) {
+            int i = sprite.ordinal();
+            if (width[i] > 0) g.drawImage(rasters[i], atlasX[i], 0, null);
+        }
+        g.setComposite(AlphaComposite.SrcOver);
+        drawTokens(g);
+        g.dispose();
+    }
+
+    // Returns the number of device pixels covering a logical length
+    private static int devicePixels(int length, double scale) {
+        return Math.max(1, (int) Math.round(length * scale));
+    }
+
+    // Draws the unit and structure tokens of every player color, the health bar background and outline and the fills
+    private void drawTokens(Graphics2D g) {
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        for (int index = 0; index < RenderResources.PLAYER_COLOR_COUNT; index++) {
+            Color color = RenderResources.playerColor(index);
+            Color outline = RenderResources.outlineColor(index);
+            // Units are round
+            Graphics2D cell = tokenCell(g, tokenX(index, true));
+            cell.setColor(RenderResources.SHADOW);
+            cell.fillOval(7, 7, tileWidth - 10, tileHeight - 10);
+            cell.setColor(color);
+            cell.fillOval(3, 3, tileWidth - 6, tileHeight - 6);
+            cell.setColor(outline);
+            cell.drawOval(3, 3, tileWidth - 6, tileHeight - 6);
+            cell.dispose();
+            // Structures are rounded squares
+            cell = tokenCell(g, tokenX(index, false));
+            cell.setColor(RenderResources.SHADOW);
+            cell.fillRoundRect(7, 7, tileWidth - 10, tileHeight - 10, 15, 15);
+            cell.setColor(color);
+            cell.fillRoundRect(3, 3, tileWidth - 6, tileHeight - 6, 12, 12);
+            cell.setColor(outline);
+            cell.drawRoundRect(3, 3, tileWidth - 6, tileHeight - 6, 12, 12);
+            cell.dispose();
+        }
+        if (healthBarWidth > 0) {
+            Graphics2D cell = cell(g, 0, healthBarY, barCellWidth / (double) (healthBarWidth + 2),
+                    barCellHeight / (double) (HEALTH_BAR_HEIGHT + 2));
+            cell.setColor(RenderResources.HEALTH_BACKGROUND);
+            cell.fillRoundRect(1, 1, healthBarWidth, HEALTH_BAR_HEIGHT, HEALTH_BAR_ARC, HEALTH_BAR_ARC);
+            cell.dispose();
+            cell = cell(g, barCellWidth, healthBarY, barCellWidth / (double) (healthBarWidth + 2),
+                    barCellHeight / (double) (HEALTH_BAR_HEIGHT + 2));
+            cell.setColor(Color.DARK_GRAY);
+            cell.drawRoundRect(1, 1, healthBarWidth, HEALTH_BAR_HEIGHT, HEALTH_BAR_ARC, HEALTH_BAR_ARC);
+            cell.dispose();
+        }
+        for (int fillWidth = 1; fillWidth <= healthBarWidth; fillWidth++) {
+            for (int bucket = 0; bucket < RenderResources.HEALTH_BUCKETS; bucket++) {
+                Graphics2D cell = cell(g, bucket * barCellWidth, healthFillY + (fillWidth - 1) * barCellHeight,
+                        barCellWidth / (double) (healthBarWidth + 2), barCellHeight / (double) (HEALTH_BAR_HEIGHT + 2));
+                cell.setColor(RenderResources.healthColor(bucket));
+                cell.fillRoundRect(1, 1, fillWidth, HEALTH_BAR_HEIGHT, HEALTH_BAR_ARC, HEALTH_BAR_ARC);
+                cell.dispose();
+            }
+        }
+    }
+
+    // Returns a graphics context drawing one token cell in logical tile coordinates
+    private Graphics2D tokenCell(Graphics2D g, int x) {
+        return cell(g, x, tokenY, tokenWidth / (double) tileWidth, tokenHeight / (double) tileHeight);
+    }
+
+    // Returns a graphics context drawing into the atlas from (x, y) on, scaled from logical to device pixels
+    private static Graphics2D cell(Graphics2D g, int x, int y, double scaleX, double scaleY) {
+        Graphics2D cell = (Graphics2D) g.create();
+        cell.translate(x, y);
+        cell.scale(scaleX, scaleY);
+        return cell;
+    }
+
+    // Returns the left edge of a token cell
+    private int tokenX(int playerIndex, boolean unit) {
+        return (playerIndex * 2 + (unit ? 0 : 1)) * tokenWidth;
+    }
+
+    // Draws a sprite into the tile whose top left corner is at (x, y); prepare must have been called for this size
+    void draw(Graphics2D g2d, Sprite sprite, int x, int y) {
+        int i = sprite.ordinal();
+        if (width[i] == 0) return;
+        int left = x + padding[i];
+        int top = y + padding[i];
+        g2d.drawImage(atlas, left, top, left + width[i], top + height[i],
+                atlasX[i], 0, atlasX[i] + atlasWidth[i], atlasHeight[i], null);
+    }
+
+    // Draws the token of a player's unit or structure into the tile whose top left corner is at (x, y)
+    void drawToken(Graphics2D g2d, Player owner, boolean unit, int x, int y) {
+        int sourceX = tokenX(RenderResources.playerIndex(owner), unit);
+        g2d.drawImage(atlas, x, y, x + tileWidth, y + tileHeight,
+                sourceX, tokenY, sourceX + tokenWidth, tokenY + tokenHeight, null);
+    }
+
+    // Draws the health bar background (outline false) or outline (true) for a bar whose top left corner is at (x, y)
+    void drawHealthBarFrame(Graphics2D g2d, boolean outline, int x, int y) {
+        if (healthBarWidth == 0) return;
+        int sourceX = outline ? barCellWidth : 0;
+        g2d.drawImage(atlas, x - 1, y - 1, x + healthBarWidth + 1, y + HEALTH_BAR_HEIGHT + 1,
+                sourceX, healthBarY, sourceX + barCellWidth, healthBarY + barCellHeight, null);
+    }
+
+    // Draws the fill of a health bucket's color, fillWidth pixels wide, into a bar whose top left corner is at (x, y)
+    void drawHealthBarFill(Graphics2D g2d, int bucket, int fillWidth, int x, int y) {
+        if (fillWidth <= 0 || healthBarWidth == 0) return;
+        int sourceX = bucket * barCellWidth;
+        int sourceY = healthFillY + (Math.min(fillWidth, healthBarWidth) - 1) * barCellHeight;
+        g2d.drawImage(atlas, x - 1, y - 1, x + healthBarWidth + 1, y + HEALTH_BAR_HEIGHT + 1,
+                sourceX, sourceY, sourceX + barCellWidth, sourceY + barCellHeight, null);
+    }
+}
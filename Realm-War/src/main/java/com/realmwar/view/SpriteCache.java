@@ -0,0 +1,145 @@
+// SpriteCache.java
+// Rasterized unit and structure sprites of the RealmWar board, shared by all board panels.
+// A sprite is drawn from its vector art under /assets/svg (rendered with svgSalamander); its PNG is only the fallback
+// for art that is missing or fails to parse, or for all sprites when realmwar.render.vectorSprites is false. Each sprite is rasterized once per size in device pixels, which follows from the tile size and
+// the screen's DPI scale, and kept in an LRU cache capped at realmwar.render.spriteCacheBytes (default 32 MB), so
+// zooming back and forth reuses earlier rasters instead of rendering the art again. Vector art stays sharp at every
+// size and scale; PNGs are scaled from their fixed resolution as before.
+
+package com.realmwar.view;
+
+import com.kitfox.svg.SVGDiagram;
+import com.kitfox.svg.SVGException;
+import com.kitfox.svg.SVGUniverse;
+import com.realmwar.util.Config;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.net.URI;
+import java.net.URL;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+
+// Cache shared by all atlases; synchronized, although only the event dispatch thread paints
+final class SpriteCache {
+
+    // Most bytes the cached rasters may take together
+    private static final long MAX_BYTES = Config.getLong("realmwar.render.spriteCacheBytes", 32L << 20);
+
+    // Cached rasters, least recently used first, and the bytes they take
+    private static final LinkedHashMap<Key, BufferedImage> rasters = new LinkedHashMap<>(16, 0.75f, true);
+    private static long bytes;
+    // Whether sprites are drawn from their vector art
+    private static boolean vectorArt = Config.getBoolean("realmwar.render.vectorSprites", true);
+    // Art by sprite ordinal, read on first use: the vector art if there is any, otherwise the PNG (null if unreadable)
+    private static SVGDiagram[] vectors;
+    private static Image[] images;
+
+    // Private constructor to prevent instantiation
+    private SpriteCache() {}
+
+    // Cache key: one sprite at one size in device pixels
+    private record Key(SpriteAtlas.Sprite sprite, int width, int height) {}
+
+    // Switches between the vector art and the PNGs, dropping the art and rasters read so far
+    static synchronized void setVectorArt(boolean vectorArt) {
+        SpriteCache.vectorArt = vectorArt;
+        rasters.clear();
+        bytes = 0;
+        vectors = null;
+        images = null;
+    }
+
+    // Returns whether a sprite will be drawn from vector art, if that art parses
+    static synchronized boolean hasVectorArt(SpriteAtlas.Sprite sprite) {
+        return vectorArt && SpriteCache.class.getResource("/assets/" + vectorFile(sprite)) != null;
+    }
+
+    // Returns a sprite rasterized at a size in device pixels, or null if it has no readable art
+    static synchronized BufferedImage get(SpriteAtlas.Sprite sprite, int width, int height) {
+        readArt();
+        Key key = new Key(sprite, width, height);
+        BufferedImage raster = rasters.get(key);
+        if (raster != null) return raster;
+        raster = rasterize(sprite.ordinal(), width, height);
+        if (raster == null) return null;
+        rasters.put(key, raster);
+        bytes += bytes(raster);
+        // Drop the least recently used rasters over the cap, always keeping the one just made
+        Iterator<BufferedImage> eldest = rasters.values().iterator();
+        while (bytes > MAX_BYTES && rasters.size() > 1) {
+            bytes -= bytes(eldest.next());
+            eldest.remove();
+        }
+        return raster;
+    }
+
+    // Renders a sprite's art into a new transparent image of the given size
+    private static BufferedImage rasterize(int i, int width, int height) {
+        if (vectors[i] == null && images[i] == null) return null;
+        BufferedImage raster = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = raster.createGraphics();
+        try {
+            if (vectors[i] != null) {
+                g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                g.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.scale(width / (double) vectors[i].getWidth(), height / (double) vectors[i].getHeight());
+                vectors[i].render(g);
+            } else {
+                // Rasters are made once per size, so they can afford a better filter than per-paint scaling
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.drawImage(images[i], 0, 0, width, height, null);
+            }
+        } catch (SVGException e) {
+            // Fall back to the PNG for good rather than failing on every size
+            System.err.println("Error rendering vector art of " + SpriteAtlas.Sprite.values()[i] + ": " + e.getMessage());
+            vectors[i] = null;
+            images[i] = AssetManager.getImage(SpriteAtlas.Sprite.values()[i].file);
+            return rasterize(i, width, height);
+        } finally {
+            g.dispose();
+        }
+        return raster;
+    }
+
+    // Returns the memory a raster takes, at four bytes per pixel
+    private static long bytes(BufferedImage raster) {
+        return (long) raster.getWidth() * raster.getHeight() * 4;
+    }
+
+    // Reads the art of every sprite on first use
+    private static void readArt() {
+        if (images != null) return;
+        SpriteAtlas.Sprite[] sprites = SpriteAtlas.Sprite.values();
+        vectors = new SVGDiagram[sprites.length];
+        images = new Image[sprites.length];
+        SVGUniverse universe = new SVGUniverse();
+        for (SpriteAtlas.Sprite sprite : sprites) {
+            if (vectorArt) vectors[sprite.ordinal()] = readVector(universe, sprite);
+            if (vectors[sprite.ordinal()] == null) images[sprite.ordinal()] = AssetManager.getImage(sprite.file);
+        }
+    }
+
+    // Returns the file of a sprite's vector art under /assets
+    private static String vectorFile(SpriteAtlas.Sprite sprite) {
+        return "svg/" + sprite.name().toLowerCase(Locale.ROOT) + ".svg";
+    }
+
+    // Reads a sprite's vector art, or returns null if it has none or it cannot be parsed
+    private static SVGDiagram readVector(SVGUniverse universe, SpriteAtlas.Sprite sprite) {
+        String file = vectorFile(sprite);
+        URL url = SpriteCache.class.getResource("/assets/" + file);
+        if (url == null) return null;
+        URI uri = universe.loadSVG(url);
+        SVGDiagram diagram = uri != null ? universe.getDiagram(uri) : null;
+        if (diagram == null || diagram.getWidth() <= 0 || diagram.getHeight() <= 0) {
+            System.err.println("Error loading asset image " + file + "; using " + sprite.file + " instead.");
+            return null;
+        }
+        diagram.setIgnoringClipHeuristic(true);
+        return diagram;
+    }
+}